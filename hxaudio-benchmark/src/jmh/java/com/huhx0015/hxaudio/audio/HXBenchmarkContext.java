@@ -0,0 +1,93 @@
+package com.huhx0015.hxaudio.audio;
+
+import android.content.Context;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+import android.content.res.Resources;
+import android.media.AudioManager;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXBenchmarkContext] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXBenchmarkContext is the Context passed to the hxaudio library by the benchmarks.
+ *  Sound resources are backed by the fake SoundPool and Resources classes of this module, and
+ *  files are stored in the temporary directory of the JVM.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+class HXBenchmarkContext extends Context {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // CONTEXT VARIABLES:
+    private final Resources resources = new Resources();
+    private final AudioManager audioManager = new AudioManager();
+    private final File tempDir = new File(System.getProperty("java.io.tmpdir"), "hxaudio-benchmark");
+
+    // CONSTANT VARIABLES:
+    static final int SOUND_RESOURCES = 16; // Number of sound resources used by the benchmarks.
+    static final int FIRST_RESOURCE = 0x7f060000; // ID of the first sound resource, as assigned by aapt.
+    static final long LOAD_TIMEOUT = 10000; // Time to wait for the sound resources to load, in milliseconds.
+
+    /** CONTEXT METHODS ________________________________________________________________________ **/
+
+    @Override
+    public Context getApplicationContext() {
+        return this;
+    }
+
+    @Override
+    public Object getSystemService(String name) {
+        return AUDIO_SERVICE.equals(name) ? audioManager : null;
+    }
+
+    @Override
+    public Resources getResources() {
+        return resources;
+    }
+
+    @Override
+    public File getCacheDir() {
+        return new File(tempDir, "cache");
+    }
+
+    @Override
+    public File getFilesDir() {
+        return new File(tempDir, "files");
+    }
+
+    @Override
+    public String getPackageName() {
+        return "com.huhx0015.hxaudio.benchmark";
+    }
+
+    @Override
+    public PackageManager getPackageManager() {
+        return new PackageManager() {
+            @Override
+            public PackageInfo getPackageInfo(String packageName, int flags) {
+                return new PackageInfo();
+            }
+        };
+    }
+
+    /** RESOURCE METHODS _______________________________________________________________________ **/
+
+    // getSoundResource(): Returns the ID of the specified sound resource, wrapping around after
+    // SOUND_RESOURCES sound resources.
+    static int getSoundResource(int index) {
+        return FIRST_RESOURCE + (index & (SOUND_RESOURCES - 1));
+    }
+
+    // getSoundResources(): Returns the IDs of all sound resources used by the benchmarks.
+    static List<Integer> getSoundResources() {
+        List<Integer> soundResourceList = new ArrayList<>(SOUND_RESOURCES);
+        for (int i = 0; i < SOUND_RESOURCES; i++) {
+            soundResourceList.add(getSoundResource(i));
+        }
+        return soundResourceList;
+    }
+}
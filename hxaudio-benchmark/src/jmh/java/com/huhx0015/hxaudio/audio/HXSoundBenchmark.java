@@ -0,0 +1,78 @@
+package com.huhx0015.hxaudio.audio;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXSoundBenchmark] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXSoundBenchmark measures the throughput of HXSound.initSound() for sound effects
+ *  that have already been loaded, which is the path taken by every sound effect played by a game
+ *  once its sound resources are loaded. Each thread cycles through the loaded sound resources, so
+ *  that voices are stolen once all voices are in use, as they would be on a device.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class HXSoundBenchmark {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // BENCHMARK VARIABLES:
+    private HXBenchmarkContext context; // Context used for loading the sound resources.
+
+    /** SETUP METHODS __________________________________________________________________________ **/
+
+    // setUp(): Loads all sound resources into HXSound before the benchmark is run.
+    @Setup(Level.Trial)
+    public void setUp() {
+        HXSound.clear();
+        context = new HXBenchmarkContext();
+        if (!HXSound.load(HXBenchmarkContext.getSoundResources(), context).await(HXBenchmarkContext.LOAD_TIMEOUT)) {
+            throw new IllegalStateException("Sound resources were not loaded in time.");
+        }
+    }
+
+    // tearDown(): Releases HXSound after the benchmark has been run.
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        HXSound.clear();
+    }
+
+    /** BENCHMARK METHODS ______________________________________________________________________ **/
+
+    @Benchmark
+    @Threads(1)
+    public boolean initSound(HXTriggerState trigger) {
+        return HXSound.instance().initSound(trigger.nextResource(), false, context);
+    }
+
+    @Benchmark
+    @Threads(2)
+    public boolean initSound2Threads(HXTriggerState trigger) {
+        return HXSound.instance().initSound(trigger.nextResource(), false, context);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean initSound4Threads(HXTriggerState trigger) {
+        return HXSound.instance().initSound(trigger.nextResource(), false, context);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean initSound8Threads(HXTriggerState trigger) {
+        return HXSound.instance().initSound(trigger.nextResource(), false, context);
+    }
+}
@@ -0,0 +1,78 @@
+package com.huhx0015.hxaudio.audio;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXSoundBuilderBenchmark] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXSoundBuilderBenchmark measures the throughput of HXSound.sound().load().play(),
+ *  which builds a HXSoundBuilder and queues the sound effect on the HXSoundDispatcher thread. The
+ *  measured cost is the cost seen by the calling thread. Sound effects submitted while the
+ *  dispatcher queue is full are dropped, and are reported as a 0 handle.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class HXSoundBuilderBenchmark {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // BENCHMARK VARIABLES:
+    private HXBenchmarkContext context; // Context used for loading the sound resources.
+
+    /** SETUP METHODS __________________________________________________________________________ **/
+
+    // setUp(): Loads all sound resources into HXSound before the benchmark is run.
+    @Setup(Level.Trial)
+    public void setUp() {
+        HXSound.clear();
+        context = new HXBenchmarkContext();
+        if (!HXSound.load(HXBenchmarkContext.getSoundResources(), context).await(HXBenchmarkContext.LOAD_TIMEOUT)) {
+            throw new IllegalStateException("Sound resources were not loaded in time.");
+        }
+    }
+
+    // tearDown(): Releases HXSound after the benchmark has been run.
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        HXSound.clear();
+    }
+
+    /** BENCHMARK METHODS ______________________________________________________________________ **/
+
+    @Benchmark
+    @Threads(1)
+    public long play(HXTriggerState trigger) {
+        return HXSound.sound().load(trigger.nextResource()).play(context);
+    }
+
+    @Benchmark
+    @Threads(2)
+    public long play2Threads(HXTriggerState trigger) {
+        return HXSound.sound().load(trigger.nextResource()).play(context);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long play4Threads(HXTriggerState trigger) {
+        return HXSound.sound().load(trigger.nextResource()).play(context);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long play8Threads(HXTriggerState trigger) {
+        return HXSound.sound().load(trigger.nextResource()).play(context);
+    }
+}
@@ -0,0 +1,135 @@
+package com.huhx0015.hxaudio.audio;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXSoundEngineBenchmark] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXSoundEngineBenchmark measures the locked paths of a single HXSoundEngine. The
+ *  prepareSoundFx benchmarks play sound effects that have already been loaded, while the
+ *  addSoundFx benchmarks unload a sound resource and prepare it again, so that each operation adds
+ *  the sound resource to the engine tables and defers its play until the sample has loaded.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class HXSoundEngineBenchmark {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // BENCHMARK VARIABLES:
+    private HXBenchmarkContext context; // Context used for loading the sound resources.
+    private HXSoundEngine soundEngine; // Engine measured by the benchmarks.
+
+    /** SETUP METHODS __________________________________________________________________________ **/
+
+    // setUp(): Loads all sound resources into a new HXSoundEngine before the benchmark is run.
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        context = new HXBenchmarkContext();
+        soundEngine = new HXSoundEngine(0, HXSoundEngine.MAX_SIMULTANEOUS_SOUNDS,
+                HXSoundEngine.MAX_SIMULTANEOUS_SOUNDS_PER_SOUND, new HXSoundHandles());
+
+        for (int resource : HXBenchmarkContext.getSoundResources()) {
+            soundEngine.prepareSoundFx(resource, false, HXSoundEngine.SOUND_PRIORITY_LEVEL,
+                    HXSoundHandles.INVALID_HANDLE, context);
+        }
+
+        // Waits until every sample can be played through the fast path.
+        long deadline = System.currentTimeMillis() + HXBenchmarkContext.LOAD_TIMEOUT;
+        for (int resource : HXBenchmarkContext.getSoundResources()) {
+            while (!soundEngine.triggerSoundFx(resource, false, HXSoundEngine.SOUND_PRIORITY_LEVEL,
+                    HXSoundHandles.INVALID_HANDLE)) {
+                if (System.currentTimeMillis() > deadline) {
+                    throw new IllegalStateException("Sound resources were not loaded in time.");
+                }
+                Thread.sleep(1);
+            }
+        }
+    }
+
+    // tearDown(): Releases the HXSoundEngine after the benchmark has been run.
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        soundEngine.release();
+    }
+
+    /** PREPARE BENCHMARK METHODS ______________________________________________________________ **/
+
+    @Benchmark
+    @Threads(1)
+    public void prepareSoundFx(HXTriggerState trigger) {
+        prepare(trigger.nextResource());
+    }
+
+    @Benchmark
+    @Threads(2)
+    public void prepareSoundFx2Threads(HXTriggerState trigger) {
+        prepare(trigger.nextResource());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void prepareSoundFx4Threads(HXTriggerState trigger) {
+        prepare(trigger.nextResource());
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void prepareSoundFx8Threads(HXTriggerState trigger) {
+        prepare(trigger.nextResource());
+    }
+
+    /** ADD BENCHMARK METHODS __________________________________________________________________ **/
+
+    @Benchmark
+    @Threads(1)
+    public void addSoundFx(HXTriggerState trigger) {
+        reload(trigger.nextResource());
+    }
+
+    @Benchmark
+    @Threads(2)
+    public void addSoundFx2Threads(HXTriggerState trigger) {
+        reload(trigger.nextResource());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void addSoundFx4Threads(HXTriggerState trigger) {
+        reload(trigger.nextResource());
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void addSoundFx8Threads(HXTriggerState trigger) {
+        reload(trigger.nextResource());
+    }
+
+    /** HELPER METHODS _________________________________________________________________________ **/
+
+    // prepare(): Prepares and plays the specified sound resource.
+    private void prepare(int resource) {
+        soundEngine.prepareSoundFx(resource, false, HXSoundEngine.SOUND_PRIORITY_LEVEL,
+                HXSoundHandles.INVALID_HANDLE, context);
+    }
+
+    // reload(): Unloads the specified sound resource and prepares it again, which adds it back to
+    // the engine through addSoundFx().
+    private void reload(int resource) {
+        soundEngine.unloadSoundFx(resource);
+        prepare(resource);
+    }
+}
@@ -0,0 +1,40 @@
+package com.huhx0015.hxaudio.audio;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXTriggerState] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXTriggerState holds the next sound resource triggered by each benchmark thread.
+ *  Each thread starts at a different sound resource, so that contending threads do not trigger
+ *  the same sound resources in lockstep.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+@State(Scope.Thread)
+public class HXTriggerState {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // TRIGGER VARIABLES:
+    private static int nextThread; // Index of the next thread, used for its first sound resource.
+    private int index; // Index of the next sound resource triggered by this thread.
+
+    /** CONSTRUCTOR METHOD _____________________________________________________________________ **/
+
+    // HXTriggerState(): Constructor method for this class.
+    public HXTriggerState() {
+        synchronized (HXTriggerState.class) {
+            index = nextThread * 5;
+            nextThread++;
+        }
+    }
+
+    /** TRIGGER METHODS ________________________________________________________________________ **/
+
+    // nextResource(): Returns the next sound resource triggered by this thread.
+    int nextResource() {
+        return HXBenchmarkContext.getSoundResource(index++);
+    }
+}
@@ -0,0 +1,13 @@
+package android.annotation;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [TargetApi] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: No-op stand-in for the Android class of the same name, used for compiling and
+ *  running the hxaudio library on the JVM for benchmarks.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public @interface TargetApi {
+    int value();
+}
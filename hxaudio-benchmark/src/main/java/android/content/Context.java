@@ -0,0 +1,32 @@
+package android.content;
+
+import android.content.pm.PackageManager;
+import android.content.res.Resources;
+import java.io.File;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [Context] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: Stand-in for the Android Context class, used for compiling and running the hxaudio
+ *  library on the JVM for benchmarks. Implemented by HXBenchmarkContext.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public abstract class Context {
+
+    public static final String AUDIO_SERVICE = "audio";
+
+    public abstract Context getApplicationContext();
+
+    public abstract Object getSystemService(String name);
+
+    public abstract Resources getResources();
+
+    public abstract File getCacheDir();
+
+    public abstract File getFilesDir();
+
+    public abstract String getPackageName();
+
+    public abstract PackageManager getPackageManager();
+}
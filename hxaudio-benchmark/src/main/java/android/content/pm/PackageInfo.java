@@ -0,0 +1,16 @@
+package android.content.pm;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [PackageInfo] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: No-op stand-in for the Android class of the same name, used for compiling and
+ *  running the hxaudio library on the JVM for benchmarks.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class PackageInfo {
+
+    public int versionCode;
+    public String versionName;
+    public long lastUpdateTime;
+}
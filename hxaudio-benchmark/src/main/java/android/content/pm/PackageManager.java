@@ -0,0 +1,18 @@
+package android.content.pm;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [PackageManager] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: No-op stand-in for the Android class of the same name, used for compiling and
+ *  running the hxaudio library on the JVM for benchmarks.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public abstract class PackageManager {
+
+    public static class NameNotFoundException extends Exception {
+        private static final long serialVersionUID = 1L;
+    }
+
+    public abstract PackageInfo getPackageInfo(String packageName, int flags) throws NameNotFoundException;
+}
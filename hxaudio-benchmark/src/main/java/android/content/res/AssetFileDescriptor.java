@@ -0,0 +1,36 @@
+package android.content.res;
+
+import java.io.Closeable;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [AssetFileDescriptor] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: Stand-in for the Android AssetFileDescriptor class, used for compiling and running
+ *  the hxaudio library on the JVM for benchmarks. Describes an empty asset.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class AssetFileDescriptor implements Closeable {
+
+    public FileDescriptor getFileDescriptor() {
+        return FileDescriptor.in;
+    }
+
+    public long getStartOffset() {
+        return 0;
+    }
+
+    public long getLength() {
+        return 0;
+    }
+
+    public FileInputStream createInputStream() throws IOException {
+        throw new IOException("Assets are not available in benchmarks.");
+    }
+
+    @Override
+    public void close() throws IOException {}
+}
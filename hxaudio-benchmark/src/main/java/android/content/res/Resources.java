@@ -0,0 +1,23 @@
+package android.content.res;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [Resources] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: Stand-in for the Android Resources class, used for compiling and running the hxaudio
+ *  library on the JVM for benchmarks. Every raw resource is an empty asset.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class Resources {
+
+    public AssetFileDescriptor openRawResourceFd(int id) {
+        return new AssetFileDescriptor();
+    }
+
+    public InputStream openRawResource(int id) {
+        return new ByteArrayInputStream(new byte[0]);
+    }
+}
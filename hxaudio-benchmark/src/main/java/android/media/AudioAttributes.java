@@ -0,0 +1,36 @@
+package android.media;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [AudioAttributes] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: No-op stand-in for the Android class of the same name, used for compiling and
+ *  running the hxaudio library on the JVM for benchmarks.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class AudioAttributes {
+
+    public static final int USAGE_MEDIA = 1;
+    public static final int USAGE_GAME = 14;
+    public static final int CONTENT_TYPE_MUSIC = 2;
+    public static final int FLAG_LOW_LATENCY = 256;
+
+    public static class Builder {
+
+        public Builder setUsage(int usage) {
+            return this;
+        }
+
+        public Builder setContentType(int contentType) {
+            return this;
+        }
+
+        public Builder setFlags(int flags) {
+            return this;
+        }
+
+        public AudioAttributes build() {
+            return new AudioAttributes();
+        }
+    }
+}
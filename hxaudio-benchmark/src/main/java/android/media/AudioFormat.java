@@ -0,0 +1,16 @@
+package android.media;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [AudioFormat] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: No-op stand-in for the Android class of the same name, used for compiling and
+ *  running the hxaudio library on the JVM for benchmarks.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class AudioFormat {
+
+    public static final int CHANNEL_OUT_MONO = 4;
+    public static final int CHANNEL_OUT_STEREO = 12;
+    public static final int ENCODING_PCM_16BIT = 2;
+}
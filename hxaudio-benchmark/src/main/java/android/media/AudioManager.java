@@ -0,0 +1,31 @@
+package android.media;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [AudioManager] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: No-op stand-in for the Android class of the same name, used for compiling and
+ *  running the hxaudio library on the JVM for benchmarks.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class AudioManager {
+
+    public static final int STREAM_SYSTEM = 1;
+    public static final int STREAM_MUSIC = 3;
+    public static final int ADJUST_MUTE = -100;
+    public static final int ADJUST_UNMUTE = 100;
+    public static final String PROPERTY_OUTPUT_SAMPLE_RATE = "android.media.property.OUTPUT_SAMPLE_RATE";
+    public static final String PROPERTY_OUTPUT_FRAMES_PER_BUFFER = "android.media.property.OUTPUT_FRAMES_PER_BUFFER";
+
+    public String getProperty(String key) {
+        return null;
+    }
+
+    public int getStreamVolume(int streamType) {
+        return 0;
+    }
+
+    public void adjustStreamVolume(int streamType, int direction, int flags) {}
+
+    public void setStreamMute(int streamType, boolean state) {}
+}
@@ -0,0 +1,41 @@
+package android.media;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [AudioTrack] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: Stand-in for the Android AudioTrack class, used for compiling and running the
+ *  hxaudio library on the JVM for benchmarks. Written audio is discarded.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class AudioTrack {
+
+    public static final int WRITE_BLOCKING = 0;
+    public static final int MODE_STREAM = 1;
+    public static final int PLAYSTATE_PLAYING = 3;
+
+    public AudioTrack(int streamType, int sampleRate, int channelConfig, int audioFormat,
+                      int bufferSize, int mode) {}
+
+    public static int getMinBufferSize(int sampleRate, int channelConfig, int audioFormat) {
+        return 4096;
+    }
+
+    public int write(short[] audioData, int offset, int size) {
+        return size;
+    }
+
+    public void play() {}
+
+    public void pause() {}
+
+    public void stop() {}
+
+    public void flush() {}
+
+    public void release() {}
+
+    public int getPlayState() {
+        return 0;
+    }
+}
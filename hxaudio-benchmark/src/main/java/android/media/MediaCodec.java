@@ -0,0 +1,63 @@
+package android.media;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [MediaCodec] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: Stand-in for the Android MediaCodec class, used for compiling the hxaudio library on
+ *  the JVM for benchmarks. Decoders are not available.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class MediaCodec {
+
+    public static final int INFO_TRY_AGAIN_LATER = -1;
+    public static final int INFO_OUTPUT_FORMAT_CHANGED = -2;
+    public static final int INFO_OUTPUT_BUFFERS_CHANGED = -3;
+    public static final int BUFFER_FLAG_END_OF_STREAM = 4;
+
+    public static class BufferInfo {
+        public int flags;
+        public int offset;
+        public int size;
+        public long presentationTimeUs;
+    }
+
+    public static MediaCodec createDecoderByType(String type) throws IOException {
+        throw new IOException("Decoders are not available in benchmarks.");
+    }
+
+    public void configure(MediaFormat format, Object surface, Object crypto, int flags) {}
+
+    public void start() {}
+
+    public void stop() {}
+
+    public void release() {}
+
+    public ByteBuffer[] getInputBuffers() {
+        return new ByteBuffer[0];
+    }
+
+    public ByteBuffer[] getOutputBuffers() {
+        return new ByteBuffer[0];
+    }
+
+    public int dequeueInputBuffer(long timeoutUs) {
+        return INFO_TRY_AGAIN_LATER;
+    }
+
+    public void queueInputBuffer(int index, int offset, int size, long presentationTimeUs, int flags) {}
+
+    public int dequeueOutputBuffer(BufferInfo info, long timeoutUs) {
+        return INFO_TRY_AGAIN_LATER;
+    }
+
+    public void releaseOutputBuffer(int index, boolean render) {}
+
+    public MediaFormat getOutputFormat() {
+        return new MediaFormat();
+    }
+}
@@ -0,0 +1,42 @@
+package android.media;
+
+import java.io.FileDescriptor;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [MediaExtractor] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: Stand-in for the Android MediaExtractor class, used for compiling the hxaudio
+ *  library on the JVM for benchmarks. Every source has no tracks.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class MediaExtractor {
+
+    public void setDataSource(FileDescriptor fd, long offset, long length) throws IOException {}
+
+    public int getTrackCount() {
+        return 0;
+    }
+
+    public MediaFormat getTrackFormat(int index) {
+        return new MediaFormat();
+    }
+
+    public void selectTrack(int index) {}
+
+    public int readSampleData(ByteBuffer buffer, int offset) {
+        return -1;
+    }
+
+    public long getSampleTime() {
+        return -1;
+    }
+
+    public boolean advance() {
+        return false;
+    }
+
+    public void release() {}
+}
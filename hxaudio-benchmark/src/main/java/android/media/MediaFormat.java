@@ -0,0 +1,28 @@
+package android.media;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [MediaFormat] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: No-op stand-in for the Android class of the same name, used for compiling and
+ *  running the hxaudio library on the JVM for benchmarks.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class MediaFormat {
+
+    public static final String KEY_MIME = "mime";
+    public static final String KEY_SAMPLE_RATE = "sample-rate";
+    public static final String KEY_CHANNEL_COUNT = "channel-count";
+
+    public String getString(String name) {
+        return null;
+    }
+
+    public int getInteger(String name) {
+        return 0;
+    }
+
+    public boolean containsKey(String name) {
+        return false;
+    }
+}
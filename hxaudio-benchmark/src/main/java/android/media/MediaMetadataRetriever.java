@@ -0,0 +1,25 @@
+package android.media;
+
+import java.io.FileDescriptor;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [MediaMetadataRetriever] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: Stand-in for the Android MediaMetadataRetriever class, used for compiling and
+ *  running the hxaudio library on the JVM for benchmarks. Every sound effect is
+ *  reported as one second long.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class MediaMetadataRetriever {
+
+    public static final int METADATA_KEY_DURATION = 9;
+
+    public void setDataSource(FileDescriptor fd, long offset, long length) {}
+
+    public String extractMetadata(int keyCode) {
+        return keyCode == METADATA_KEY_DURATION ? "1000" : null;
+    }
+
+    public void release() {}
+}
@@ -0,0 +1,104 @@
+package android.media;
+
+import android.content.Context;
+import android.net.Uri;
+import java.io.FileDescriptor;
+import java.io.IOException;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [MediaPlayer] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: No-op stand-in for the Android class of the same name, used for compiling and
+ *  running the hxaudio library on the JVM for benchmarks.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class MediaPlayer {
+
+    public static final int MEDIA_INFO_BUFFERING_START = 701;
+    public static final int MEDIA_INFO_BUFFERING_END = 702;
+
+    public interface OnPreparedListener {
+        void onPrepared(MediaPlayer mp);
+    }
+
+    public interface OnCompletionListener {
+        void onCompletion(MediaPlayer mp);
+    }
+
+    public interface OnBufferingUpdateListener {
+        void onBufferingUpdate(MediaPlayer mp, int percent);
+    }
+
+    public interface OnErrorListener {
+        boolean onError(MediaPlayer mp, int what, int extra);
+    }
+
+    public interface OnInfoListener {
+        boolean onInfo(MediaPlayer mp, int what, int extra);
+    }
+
+    public interface OnSeekCompleteListener {
+        void onSeekComplete(MediaPlayer mp);
+    }
+
+    public void setAudioStreamType(int streamType) {}
+
+    public void setDataSource(Context context, Uri uri) throws IOException {}
+
+    public void setDataSource(String path) throws IOException {}
+
+    public void setDataSource(FileDescriptor fd) throws IOException {}
+
+    public void setDataSource(FileDescriptor fd, long offset, long length) throws IOException {}
+
+    public void prepare() throws IOException {}
+
+    public void prepareAsync() {}
+
+    public void start() {}
+
+    public void pause() {}
+
+    public void stop() {}
+
+    public void reset() {}
+
+    public void release() {}
+
+    public boolean isPlaying() {
+        return false;
+    }
+
+    public int getCurrentPosition() {
+        return 0;
+    }
+
+    public int getDuration() {
+        return 0;
+    }
+
+    public void seekTo(int msec) {}
+
+    public void setLooping(boolean looping) {}
+
+    public boolean isLooping() {
+        return false;
+    }
+
+    public void setVolume(float leftVolume, float rightVolume) {}
+
+    public void setNextMediaPlayer(MediaPlayer next) {}
+
+    public void setOnPreparedListener(OnPreparedListener listener) {}
+
+    public void setOnCompletionListener(OnCompletionListener listener) {}
+
+    public void setOnBufferingUpdateListener(OnBufferingUpdateListener listener) {}
+
+    public void setOnErrorListener(OnErrorListener listener) {}
+
+    public void setOnInfoListener(OnInfoListener listener) {}
+
+    public void setOnSeekCompleteListener(OnSeekCompleteListener listener) {}
+}
@@ -0,0 +1,139 @@
+package android.media;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import java.io.FileDescriptor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [SoundPool] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: Fake of the Android SoundPool class, used for running the hxaudio library on the
+ *  JVM for benchmarks. Samples are never decoded and streams are never mixed: load() returns a new
+ *  sample ID and reports it as loaded on a background thread, as SoundPool does, and play() returns
+ *  a new stream ID without making any sound. This leaves only the cost of the hxaudio code itself
+ *  in the benchmark results.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class SoundPool {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // POOL VARIABLES:
+    private final AtomicInteger nextSampleId = new AtomicInteger(1); // ID of the next loaded sample.
+    private final AtomicInteger nextStreamId = new AtomicInteger(1); // ID of the next played stream.
+    private volatile OnLoadCompleteListener loadListener; // Listener for completed sample loads.
+
+    // THREAD VARIABLES:
+    private static final ExecutorService LOAD_EXECUTOR = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "SoundPoolLoader");
+            thread.setDaemon(true);
+            return thread;
+        }
+    }); // Thread that delivers the load callbacks, like the SoundPool event thread.
+
+    /** CONSTRUCTOR METHOD _____________________________________________________________________ **/
+
+    // SoundPool(): Constructor method for this class.
+    public SoundPool(int maxStreams, int streamType, int srcQuality) {}
+
+    /** INTERFACE ______________________________________________________________________________ **/
+
+    public interface OnLoadCompleteListener {
+        void onLoadComplete(SoundPool soundPool, int sampleId, int status);
+    }
+
+    /** LOAD METHODS ___________________________________________________________________________ **/
+
+    public void setOnLoadCompleteListener(OnLoadCompleteListener listener) {
+        this.loadListener = listener;
+    }
+
+    public int load(Context context, int resId, int priority) {
+        return loadSample();
+    }
+
+    public int load(FileDescriptor fd, long offset, long length, int priority) {
+        return loadSample();
+    }
+
+    public int load(String path, int priority) {
+        return loadSample();
+    }
+
+    public int load(AssetFileDescriptor afd, int priority) {
+        return loadSample();
+    }
+
+    public boolean unload(int sampleId) {
+        return true;
+    }
+
+    // loadSample(): Returns a new sample ID and reports it as loaded on the load thread. The
+    // callback is never made before load() returns, as callers store the sample ID first.
+    private int loadSample() {
+        final int sampleId = nextSampleId.getAndIncrement();
+        LOAD_EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                OnLoadCompleteListener listener = loadListener;
+                if (listener != null) {
+                    listener.onLoadComplete(SoundPool.this, sampleId, 0);
+                }
+            }
+        });
+        return sampleId;
+    }
+
+    /** PLAYBACK METHODS _______________________________________________________________________ **/
+
+    public int play(int soundID, float leftVolume, float rightVolume, int priority, int loop, float rate) {
+        return nextStreamId.getAndIncrement();
+    }
+
+    public void stop(int streamID) {}
+
+    public void pause(int streamID) {}
+
+    public void resume(int streamID) {}
+
+    public void setVolume(int streamID, float leftVolume, float rightVolume) {}
+
+    public void setRate(int streamID, float rate) {}
+
+    public void setLoop(int streamID, int loop) {}
+
+    public void setPriority(int streamID, int priority) {}
+
+    public void autoPause() {}
+
+    public void autoResume() {}
+
+    public void release() {}
+
+    /** SUBCLASSES _____________________________________________________________________________ **/
+
+    public static class Builder {
+
+        private int maxStreams = 1;
+
+        public Builder setAudioAttributes(AudioAttributes attributes) {
+            return this;
+        }
+
+        public Builder setMaxStreams(int maxStreams) {
+            this.maxStreams = maxStreams;
+            return this;
+        }
+
+        public SoundPool build() {
+            return new SoundPool(maxStreams, AudioManager.STREAM_MUSIC, 0);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package android.net;
+
+import java.io.File;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [Uri] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: No-op stand-in for the Android class of the same name, used for compiling and
+ *  running the hxaudio library on the JVM for benchmarks.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class Uri {
+
+    public static Uri parse(String uriString) {
+        return new Uri();
+    }
+
+    public static Uri fromFile(File file) {
+        return new Uri();
+    }
+}
@@ -0,0 +1,32 @@
+package android.os;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [Build] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: Stand-in for the Android Build class, used for compiling and running the hxaudio
+ *  library on the JVM for benchmarks. Benchmarks run as Android 8.1 (API 27), the
+ *  compileSdkVersion of the library.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class Build {
+
+    public static class VERSION {
+        public static final int SDK_INT = 27;
+    }
+
+    public static class VERSION_CODES {
+        public static final int GINGERBREAD = 9;
+        public static final int GINGERBREAD_MR1 = 10;
+        public static final int HONEYCOMB = 11;
+        public static final int ICE_CREAM_SANDWICH = 14;
+        public static final int JELLY_BEAN = 16;
+        public static final int JELLY_BEAN_MR1 = 17;
+        public static final int JELLY_BEAN_MR2 = 18;
+        public static final int KITKAT = 19;
+        public static final int LOLLIPOP = 21;
+        public static final int M = 23;
+        public static final int N = 24;
+        public static final int O = 26;
+    }
+}
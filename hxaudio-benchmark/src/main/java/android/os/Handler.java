@@ -0,0 +1,33 @@
+package android.os;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [Handler] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: Stand-in for the Android Handler class, used for compiling and running the hxaudio
+ *  library on the JVM for benchmarks. Posted Runnables are run immediately on the
+ *  posting thread.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class Handler {
+
+    public Handler() {}
+
+    public Handler(Looper looper) {}
+
+    public boolean post(Runnable runnable) {
+        runnable.run();
+        return true;
+    }
+
+    public boolean postDelayed(Runnable runnable, long delayMillis) {
+        runnable.run();
+        return true;
+    }
+
+    public void removeCallbacks(Runnable runnable) {}
+
+    public Looper getLooper() {
+        return Looper.getMainLooper();
+    }
+}
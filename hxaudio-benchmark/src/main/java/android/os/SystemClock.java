@@ -0,0 +1,32 @@
+package android.os;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [SystemClock] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: Stand-in for the Android SystemClock class, used for compiling and running the
+ *  hxaudio library on the JVM for benchmarks. Times are read from System.nanoTime().
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class SystemClock {
+
+    public static long uptimeMillis() {
+        return System.nanoTime() / 1000000;
+    }
+
+    public static long elapsedRealtime() {
+        return System.nanoTime() / 1000000;
+    }
+
+    public static long elapsedRealtimeNanos() {
+        return System.nanoTime();
+    }
+
+    public static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
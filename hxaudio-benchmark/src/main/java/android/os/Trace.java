@@ -0,0 +1,16 @@
+package android.os;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [Trace] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: No-op stand-in for the Android class of the same name, used for compiling and
+ *  running the hxaudio library on the JVM for benchmarks.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class Trace {
+
+    public static void beginSection(String sectionName) {}
+
+    public static void endSection() {}
+}
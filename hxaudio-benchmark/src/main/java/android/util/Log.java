@@ -0,0 +1,44 @@
+package android.util;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [Log] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: Stand-in for the Android Log class, used for compiling and running the hxaudio
+ *  library on the JVM for benchmarks. Log output is discarded, so that benchmarks
+ *  measure the cost of building log messages rather than printing them.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class Log {
+
+    public static final int VERBOSE = 2;
+    public static final int DEBUG = 3;
+    public static final int INFO = 4;
+    public static final int WARN = 5;
+    public static final int ERROR = 6;
+    public static final int ASSERT = 7;
+
+    public static boolean isLoggable(String tag, int level) {
+        return false;
+    }
+
+    public static int v(String tag, String msg) {
+        return 0;
+    }
+
+    public static int d(String tag, String msg) {
+        return 0;
+    }
+
+    public static int i(String tag, String msg) {
+        return 0;
+    }
+
+    public static int w(String tag, String msg) {
+        return 0;
+    }
+
+    public static int e(String tag, String msg) {
+        return 0;
+    }
+}
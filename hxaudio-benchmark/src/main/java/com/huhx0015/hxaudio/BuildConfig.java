@@ -0,0 +1,15 @@
+package com.huhx0015.hxaudio;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [BuildConfig] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: Stand-in for the BuildConfig class generated by the Android Gradle plugin for the
+ *  hxaudio library, matching a release build.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public final class BuildConfig {
+
+    public static final boolean DEBUG = false;
+    public static final boolean HXLOG_ENABLED = true;
+}
@@ -0,0 +1,225 @@
+package com.huhx0015.hxaudio.audio;
+
+import android.content.Context;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+import android.content.res.Resources;
+import com.huhx0015.hxaudio.backend.HXHeadlessBackend;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXHeadlessRenderTest] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXHeadlessRenderTest contains JVM unit tests that play a known WAV sound resource
+ *  through HXSound with HXHeadlessBackend, rendering as fast as possible into memory, and verify
+ *  the rendered output sample by sample.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class HXHeadlessRenderTest {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // BACKEND VARIABLES:
+    private HXHeadlessBackend backend; // Tested backend, rendering into memory.
+    private Context context; // Context that serves the sound resource.
+
+    // CONSTANT VARIABLES:
+    private static final int SOUND_RESOURCE = 0x7f060000; // ID of the sound resource.
+    private static final int SOUND_FRAMES = 4410; // Length of the sound resource, 100 ms at the output sample rate.
+    private static final long RENDER_TIMEOUT = 10000; // Time to wait for the sound resource to be rendered, in milliseconds.
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    /** SETUP METHODS __________________________________________________________________________ **/
+
+    // setUp(): Creates the backend and installs it into HXSound.
+    @Before
+    public void setUp() throws IOException {
+        context = new TestContext(getSoundWav(), folder.newFolder("cache"));
+        backend = new HXHeadlessBackend();
+        backend.setSpeed(0);
+        HXSound.backend(backend);
+    }
+
+    // tearDown(): Releases HXSound and closes the backend.
+    @After
+    public void tearDown() {
+        HXSound.clear();
+        backend.close();
+    }
+
+    /** RENDER TESTS ___________________________________________________________________________ **/
+
+    // rendersSoundResource(): The played sound resource appears in the rendered output exactly once,
+    // unchanged and surrounded by silence.
+    @Test
+    public void rendersSoundResource() throws InterruptedException {
+        HXSound.sound().load(SOUND_RESOURCE).play(context);
+        short[] audio = awaitRendered();
+
+        int start = findFirstSound(audio);
+        short[] sound = getSoundSamples();
+        for (int i = 0; i < sound.length; i++) {
+            assertEquals("Rendered sample " + i + " differs.", sound[i], audio[start + i]);
+        }
+        for (int i = 0; i < audio.length; i++) {
+            if (i < start || i >= start + sound.length) {
+                assertEquals("Rendered sample " + i + " is not silent.", 0, audio[i]);
+            }
+        }
+    }
+
+    // rendersNothingWithoutSound(): Nothing but silence is rendered while no sound effect is played.
+    @Test
+    public void rendersNothingWithoutSound() throws InterruptedException {
+        assertTrue(HXSound.load(Collections.singletonList(SOUND_RESOURCE), context).await(RENDER_TIMEOUT));
+        long frames = backend.getRenderedFrames();
+        long deadline = System.currentTimeMillis() + RENDER_TIMEOUT;
+        while (backend.getRenderedFrames() < frames + SOUND_FRAMES * 2) {
+            assertTrue("Output was not rendered in time.", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+
+        assertEquals(-1, findFirstSound(backend.getRenderedAudio()));
+    }
+
+    /** HELPER METHODS _________________________________________________________________________ **/
+
+    // awaitRendered(): Waits until the sound resource and the silence after it have been rendered,
+    // and returns the rendered output.
+    private short[] awaitRendered() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + RENDER_TIMEOUT;
+        while (true) {
+            short[] audio = backend.getRenderedAudio();
+            int start = findFirstSound(audio);
+            if (start >= 0 && audio.length >= start + SOUND_FRAMES * 4) {
+                return audio;
+            }
+            assertTrue("Sound resource was not rendered in time.", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    // findFirstSound(): Returns the index of the first sample of the specified output that is not
+    // silent, or -1 if the output is silent.
+    private static int findFirstSound(short[] audio) {
+        for (int i = 0; i < audio.length; i++) {
+            if (audio[i] != 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // getSoundSamples(): Returns the interleaved stereo samples of the sound resource. Each frame
+    // has a distinct, non-silent value, and the right channel is the inverse of the left channel.
+    private static short[] getSoundSamples() {
+        short[] samples = new short[SOUND_FRAMES * 2];
+        for (int i = 0; i < SOUND_FRAMES; i++) {
+            samples[i * 2] = (short) (100 + i);
+            samples[i * 2 + 1] = (short) -(100 + i);
+        }
+        return samples;
+    }
+
+    // getSoundWav(): Returns the sound resource as a 16-bit stereo WAV file at the output sample
+    // rate of the backend.
+    private static byte[] getSoundWav() throws IOException {
+        short[] samples = getSoundSamples();
+        int rate = HXHeadlessBackend.DEFAULT_SAMPLE_RATE;
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeBytes("RIFF");
+        output.writeInt(Integer.reverseBytes(36 + samples.length * 2));
+        output.writeBytes("WAVEfmt ");
+        output.writeInt(Integer.reverseBytes(16));
+        output.writeShort(Short.reverseBytes((short) 1)); // PCM format.
+        output.writeShort(Short.reverseBytes((short) 2)); // Stereo.
+        output.writeInt(Integer.reverseBytes(rate));
+        output.writeInt(Integer.reverseBytes(rate * 4)); // Bytes per second.
+        output.writeShort(Short.reverseBytes((short) 4)); // Bytes per frame.
+        output.writeShort(Short.reverseBytes((short) 16)); // Bits per sample.
+        output.writeBytes("data");
+        output.writeInt(Integer.reverseBytes(samples.length * 2));
+        for (short sample : samples) {
+            output.writeShort(Short.reverseBytes(sample));
+        }
+        return bytes.toByteArray();
+    }
+
+    /** SUBCLASSES _____________________________________________________________________________ **/
+
+    // TestContext: A Context whose raw resources are all the specified WAV file.
+    private static class TestContext extends Context {
+
+        // CONTEXT VARIABLES:
+        private final Resources resources; // Serves the WAV file as every raw resource.
+        private final File cacheDir; // Directory used for the cache and files directories.
+
+        TestContext(final byte[] wav, File cacheDir) {
+            this.cacheDir = cacheDir;
+            this.resources = new Resources() {
+                @Override
+                public InputStream openRawResource(int id) {
+                    return new ByteArrayInputStream(wav);
+                }
+            };
+        }
+
+        @Override
+        public Context getApplicationContext() {
+            return this;
+        }
+
+        @Override
+        public Object getSystemService(String name) {
+            return null;
+        }
+
+        @Override
+        public Resources getResources() {
+            return resources;
+        }
+
+        @Override
+        public File getCacheDir() {
+            return cacheDir;
+        }
+
+        @Override
+        public File getFilesDir() {
+            return cacheDir;
+        }
+
+        @Override
+        public String getPackageName() {
+            return "com.huhx0015.hxaudio.benchmark";
+        }
+
+        @Override
+        public PackageManager getPackageManager() {
+            return new PackageManager() {
+                @Override
+                public PackageInfo getPackageInfo(String packageName, int flags) {
+                    return new PackageInfo();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package com.huhx0015.hxaudio.audio;
+
+import android.content.Context;
+import android.content.pm.PackageManager;
+import android.content.res.Resources;
+import com.huhx0015.hxaudio.backend.HXAudioBackend;
+import com.huhx0015.hxaudio.backend.HXHeadlessBackend;
+import com.huhx0015.hxaudio.backend.HXMusicBackend;
+import com.huhx0015.hxaudio.backend.HXSoundBackend;
+import com.huhx0015.hxaudio.interfaces.HXMusicEngineListener;
+import com.huhx0015.hxaudio.model.HXMusicItem;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXMusicCrossfadeTest] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXMusicCrossfadeTest contains JVM unit tests for the crossfade of HXMusicEngine,
+ *  played through HXHeadlessBackend in real time. The music backends are wrapped so that setting
+ *  the data source of a failing music resource throws, as MediaPlayer does for unreadable files.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class HXMusicCrossfadeTest {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // ENGINE VARIABLES:
+    private HXHeadlessBackend backend; // Backend that renders the music into memory.
+    private HXMusicScheduler scheduler; // Tick thread of the crossfade.
+    private HXMediaPlayerPool playerPool; // Pool of the wrapped music backends.
+    private HXMusicEngine engine; // Tested engine.
+    private Context context; // Context that serves the music resource.
+
+    // CONSTANT VARIABLES:
+    private static final int MUSIC_RESOURCE = 1; // ID of the music resource that plays.
+    private static final int FAILING_RESOURCE = 2; // ID of the music resource whose data source throws.
+    private static final short MUSIC_AMPLITUDE = 2000; // Value of every sample of the music resource.
+    private static final int FADE_DURATION = 1000; // Duration of the crossfade, in milliseconds.
+    private static final long TIMEOUT = 5000; // Time to wait for the music to start, in milliseconds.
+
+    /** SETUP METHODS __________________________________________________________________________ **/
+
+    // setUp(): Creates the engine, with a player pool whose music backends fail to set the data
+    // source of FAILING_RESOURCE.
+    @Before
+    public void setUp() throws IOException {
+        context = new TestContext(getMusicWav());
+        backend = new HXHeadlessBackend();
+        scheduler = new HXMusicScheduler();
+        playerPool = new HXMediaPlayerPool(scheduler);
+        playerPool.setBackend(new FailingBackend(backend));
+        engine = new HXMusicEngine(playerPool, scheduler, "crossfade-test");
+    }
+
+    // tearDown(): Stops the engine and closes the backend.
+    @After
+    public void tearDown() {
+        engine.stopMusic();
+        scheduler.stop();
+        backend.close();
+    }
+
+    /** CROSSFADE TESTS ________________________________________________________________________ **/
+
+    // failedDataSourceAbortsCrossfade(): If the data source of the incoming music throws, the
+    // crossfade is aborted: the outgoing music is stopped instead of playing on at full volume, the
+    // listener is notified and both MediaPlayer objects are returned to the pool.
+    @Test
+    public void failedDataSourceAbortsCrossfade() throws InterruptedException {
+        StopListener listener = new StopListener();
+        engine.setListener(listener);
+
+        assertTrue(engine.initMusicEngine(getMusicItem(MUSIC_RESOURCE), 0, false, true, context));
+        awaitPlaying();
+
+        assertFalse(engine.initMusicEngine(getMusicItem(FAILING_RESOURCE), 0, false, true, context,
+                FADE_DURATION, 0));
+        assertTrue("Listener was not notified.", listener.latch.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        assertFalse(engine.isPlaying());
+        assertEquals(2, playerPool.getIdleCount());
+
+        // The outgoing music no longer reaches the rendered output.
+        int length = backend.getRenderedAudio().length;
+        Thread.sleep(200);
+        short[] audio = backend.getRenderedAudio();
+        for (int i = length; i < audio.length; i++) {
+            assertEquals("Rendered sample " + i + " is not silent.", 0, audio[i]);
+        }
+    }
+
+    /** HELPER METHODS _________________________________________________________________________ **/
+
+    // awaitPlaying(): Waits until the music is playing and has reached the rendered output.
+    private void awaitPlaying() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (!engine.isPlaying() || !hasSound(backend.getRenderedAudio())) {
+            assertTrue("Music did not start in time.", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    // hasSound(): Determines if the specified output contains any sample that is not silent.
+    private static boolean hasSound(short[] audio) {
+        for (short sample : audio) {
+            if (sample != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // getMusicItem(): Returns a HXMusicItem for the specified music resource.
+    private static HXMusicItem getMusicItem(int resource) {
+        HXMusicItem music = new HXMusicItem();
+        music.setMusicResource(resource);
+        return music;
+    }
+
+    // getMusicWav(): Returns the music resource as a 16-bit stereo WAV file of ten seconds at the
+    // output sample rate of the backend, with every sample set to MUSIC_AMPLITUDE.
+    private static byte[] getMusicWav() throws IOException {
+        int rate = HXHeadlessBackend.DEFAULT_SAMPLE_RATE;
+        int samples = rate * 10 * 2;
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeBytes("RIFF");
+        output.writeInt(Integer.reverseBytes(36 + samples * 2));
+        output.writeBytes("WAVEfmt ");
+        output.writeInt(Integer.reverseBytes(16));
+        output.writeShort(Short.reverseBytes((short) 1)); // PCM format.
+        output.writeShort(Short.reverseBytes((short) 2)); // Stereo.
+        output.writeInt(Integer.reverseBytes(rate));
+        output.writeInt(Integer.reverseBytes(rate * 4)); // Bytes per second.
+        output.writeShort(Short.reverseBytes((short) 4)); // Bytes per frame.
+        output.writeShort(Short.reverseBytes((short) 16)); // Bits per sample.
+        output.writeBytes("data");
+        output.writeInt(Integer.reverseBytes(samples * 2));
+        for (int i = 0; i < samples; i++) {
+            output.writeShort(Short.reverseBytes(MUSIC_AMPLITUDE));
+        }
+        return bytes.toByteArray();
+    }
+
+    /** SUBCLASSES _____________________________________________________________________________ **/
+
+    // FailingBackend: A HXAudioBackend whose music backends throw an IOException when the data
+    // source is set to FAILING_RESOURCE, and otherwise delegate to the specified backend.
+    private static class FailingBackend implements HXAudioBackend {
+
+        // BACKEND VARIABLES:
+        private final HXAudioBackend backend; // Backend that creates the wrapped backends.
+
+        FailingBackend(HXAudioBackend backend) {
+            this.backend = backend;
+        }
+
+        @Override
+        public HXSoundBackend createSoundBackend(int maxStreams) {
+            return backend.createSoundBackend(maxStreams);
+        }
+
+        @Override
+        public HXMusicBackend createMusicBackend() {
+            final HXMusicBackend musicBackend = backend.createMusicBackend();
+            return (HXMusicBackend) Proxy.newProxyInstance(HXMusicBackend.class.getClassLoader(),
+                    new Class<?>[] { HXMusicBackend.class }, new InvocationHandler() {
+                        @Override
+                        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                            if (method.getName().equals("setDataSource") &&
+                                    Integer.valueOf(FAILING_RESOURCE).equals(args[1])) {
+                                throw new IOException("Unable to read the music resource.");
+                            }
+
+                            try {
+                                return method.invoke(musicBackend, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                        }
+                    });
+        }
+    }
+
+    // StopListener: A HXMusicEngineListener that records onMusicEngineStop().
+    private static class StopListener implements HXMusicEngineListener {
+
+        // LISTENER VARIABLES:
+        final CountDownLatch latch = new CountDownLatch(1); // Counted down by onMusicEngineStop().
+
+        @Override
+        public void onMusicEnginePrepared() {}
+
+        @Override
+        public void onMusicEngineCompletion() {}
+
+        @Override
+        public void onMusicEngineBufferingUpdate(int percent) {}
+
+        @Override
+        public void onMusicEnginePause() {}
+
+        @Override
+        public void onMusicEngineStop() {
+            latch.countDown();
+        }
+
+        @Override
+        public void onMusicEngineTrackChanged(HXMusicItem music) {}
+    }
+
+    // TestContext: A Context whose raw resources are all the specified WAV file.
+    private static class TestContext extends Context {
+
+        // CONTEXT VARIABLES:
+        private final Resources resources; // Serves the WAV file as every raw resource.
+
+        TestContext(final byte[] wav) {
+            this.resources = new Resources() {
+                @Override
+                public InputStream openRawResource(int id) {
+                    return new ByteArrayInputStream(wav);
+                }
+            };
+        }
+
+        @Override
+        public Context getApplicationContext() {
+            return this;
+        }
+
+        @Override
+        public Object getSystemService(String name) {
+            return null;
+        }
+
+        @Override
+        public Resources getResources() {
+            return resources;
+        }
+
+        @Override
+        public File getCacheDir() {
+            return null;
+        }
+
+        @Override
+        public File getFilesDir() {
+            return null;
+        }
+
+        @Override
+        public String getPackageName() {
+            return "com.huhx0015.hxaudio.benchmark";
+        }
+
+        @Override
+        public PackageManager getPackageManager() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+# Removes all HXLog calls, including the building of their messages, from the application. Add
+# this file to the proguardFiles of the application's release build type to strip HXAudioPlayer
+# logging at build time.
+-assumenosideeffects class com.huhx0015.hxaudio.utils.HXLog {
+    public static boolean isLoggable(java.lang.String, int);
+    public static void d(...);
+    public static void w(...);
+    public static void e(...);
+}
@@ -0,0 +1,212 @@
+package com.huhx0015.hxaudio.audio;
+
+import android.os.SystemClock;
+import com.huhx0015.hxaudio.backend.HXAndroidBackend;
+import com.huhx0015.hxaudio.backend.HXAudioBackend;
+import com.huhx0015.hxaudio.backend.HXMusicBackend;
+import com.huhx0015.hxaudio.utils.HXLog;
+import java.util.ArrayList;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXMediaPlayerPool] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXMediaPlayerPool keeps a small number of idle MediaPlayer objects for reuse by
+ *  HXMusicEngine, as creating a native MediaPlayer is expensive and fragments native memory during
+ *  long sessions. Recycled MediaPlayer objects are reset() back to the idle state and handed out
+ *  again for the next data source. MediaPlayer objects that exceed the pool size, or that have
+ *  been idle for longer than the idle timeout, are released. While the pool holds idle MediaPlayer
+ *  objects, it is ticked by HXMusicScheduler so that they are released on time even when no music
+ *  is played. The MediaPlayer objects are HXMusicBackend objects created by the HXAudioBackend of
+ *  the pool.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+class HXMediaPlayerPool implements HXMusicScheduler.Task {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // POOL VARIABLES:
+    private final ArrayList<HXMusicBackend> idlePlayers = new ArrayList<>(); // Idle MediaPlayer objects, oldest first.
+    private final ArrayList<Long> idleTimes = new ArrayList<>(); // Time each idle MediaPlayer was recycled at.
+    private int maxIdle = DEFAULT_MAX_IDLE; // Maximum number of idle MediaPlayer objects kept.
+    private long idleTimeout = DEFAULT_IDLE_TIMEOUT; // Time (in milliseconds) before an idle MediaPlayer is released.
+    private HXAudioBackend audioBackend = new HXAndroidBackend(); // Creates new MediaPlayer objects.
+
+    // SCHEDULING VARIABLES:
+    private final HXMusicScheduler scheduler; // Shared tick thread that trims the idle MediaPlayer objects.
+    private boolean isScheduled; // Used for determining if this pool is scheduled.
+    private long nextTrimTime; // Time of the next idle check, from SystemClock.uptimeMillis(). Only used by the tick thread.
+
+    // METRIC VARIABLES:
+    private volatile long createdCount; // Number of MediaPlayer objects created.
+    private volatile long reusedCount; // Number of MediaPlayer objects reused from the pool.
+    private volatile long releasedCount; // Number of MediaPlayer objects released.
+
+    // CONSTANT VARIABLES:
+    static final int DEFAULT_MAX_IDLE = 2; // Enough for the current and next MediaPlayer of gapless playback.
+    static final long DEFAULT_IDLE_TIMEOUT = 30000; // Default idle timeout, in milliseconds.
+    private static final long TRIM_INTERVAL = 1000; // Time between idle checks on the tick thread, in milliseconds.
+
+    // LOGGING VARIABLES:
+    private static final String LOG_TAG = HXMediaPlayerPool.class.getSimpleName();
+
+    /** CONSTRUCTOR METHOD _____________________________________________________________________ **/
+
+    // HXMediaPlayerPool(): Constructor method for this class.
+    HXMediaPlayerPool(HXMusicScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /** POOL METHODS ___________________________________________________________________________ **/
+
+    // acquire(): Returns an idle MediaPlayer object from the pool, or creates a new one if the pool
+    // is empty. The most recently recycled MediaPlayer is reused first.
+    synchronized HXMusicBackend acquire() {
+        trimIdle(SystemClock.uptimeMillis());
+
+        int last = idlePlayers.size() - 1;
+        if (last >= 0) {
+            idleTimes.remove(last);
+            reusedCount++;
+            return idlePlayers.remove(last);
+        }
+
+        createdCount++;
+        return audioBackend.createMusicBackend();
+    }
+
+    // recycle(): Resets the specified MediaPlayer object and returns it to the pool. Resetting also
+    // cancels any prepareAsync() call in progress and discards any pending events of the
+    // MediaPlayer. The MediaPlayer is released instead if the pool is full.
+    synchronized void recycle(HXMusicBackend player) {
+        if (player == null) {
+            return;
+        }
+
+        long time = SystemClock.uptimeMillis();
+        trimIdle(time);
+
+        try {
+            player.reset();
+            player.setOnPreparedListener(null);
+            player.setOnCompletionListener(null);
+            player.setOnBufferingUpdateListener(null);
+            player.setOnInfoListener(null);
+            player.setOnErrorListener(null);
+        } catch (Exception e) {
+            HXLog.e(LOG_TAG, "ERROR: recycle(): Unable to reset the MediaPlayer object: {}", e.getLocalizedMessage());
+            releasePlayer(player);
+            return;
+        }
+
+        if (idlePlayers.size() < maxIdle) {
+            idlePlayers.add(player);
+            idleTimes.add(time);
+            if (!isScheduled) {
+                isScheduled = true;
+                scheduler.schedule(this);
+            }
+        } else {
+            releasePlayer(player);
+        }
+    }
+
+    // clear(): Releases all idle MediaPlayer objects.
+    synchronized void clear() {
+        for (HXMusicBackend player : idlePlayers) {
+            releasePlayer(player);
+        }
+        idlePlayers.clear();
+        idleTimes.clear();
+    }
+
+    /** TASK METHODS ___________________________________________________________________________ **/
+
+    // onTick(): Releases the idle MediaPlayer objects that have exceeded the idle timeout, once per
+    // TRIM_INTERVAL. Returns false once the pool is empty, so that the tick thread can idle.
+    @Override
+    public boolean onTick(long time) {
+        if (time < nextTrimTime) {
+            return true;
+        }
+        nextTrimTime = time + TRIM_INTERVAL;
+
+        synchronized (this) {
+            trimIdle(time);
+            if (idlePlayers.isEmpty()) {
+                isScheduled = false;
+                return false;
+            }
+            return true;
+        }
+    }
+
+    /** HELPER METHODS _________________________________________________________________________ **/
+
+    // trimIdle(): Releases the idle MediaPlayer objects that have exceeded the idle timeout.
+    private void trimIdle(long time) {
+        while (!idlePlayers.isEmpty() && time - idleTimes.get(0) >= idleTimeout) {
+            idleTimes.remove(0);
+            releasePlayer(idlePlayers.remove(0));
+            HXLog.d(LOG_TAG, "TRIM: trimIdle(): Idle MediaPlayer object has been released.");
+        }
+    }
+
+    // releasePlayer(): Releases the specified MediaPlayer object.
+    private void releasePlayer(HXMusicBackend player) {
+        try {
+            player.release();
+        } catch (Exception e) {
+            HXLog.e(LOG_TAG, "ERROR: releasePlayer(): {}", e.getLocalizedMessage());
+        }
+        releasedCount++;
+    }
+
+    /** GET METHODS ____________________________________________________________________________ **/
+
+    // getIdleCount(): Returns the number of idle MediaPlayer objects in the pool.
+    synchronized int getIdleCount() {
+        return idlePlayers.size();
+    }
+
+    // getCreatedCount(): Returns the number of MediaPlayer objects created.
+    long getCreatedCount() {
+        return createdCount;
+    }
+
+    // getReusedCount(): Returns the number of MediaPlayer objects reused from the pool.
+    long getReusedCount() {
+        return reusedCount;
+    }
+
+    // getReleasedCount(): Returns the number of MediaPlayer objects released.
+    long getReleasedCount() {
+        return releasedCount;
+    }
+
+    /** SET METHODS ____________________________________________________________________________ **/
+
+    // setBackend(): Sets the HXAudioBackend used for creating new MediaPlayer objects. All idle
+    // MediaPlayer objects are released, as they were created by the previous HXAudioBackend.
+    synchronized void setBackend(HXAudioBackend backend) {
+        this.audioBackend = backend;
+        clear();
+    }
+
+    // setMaxIdle(): Sets the maximum number of idle MediaPlayer objects kept in the pool. Excess
+    // idle MediaPlayer objects are released, oldest first.
+    synchronized void setMaxIdle(int maxIdle) {
+        this.maxIdle = Math.max(maxIdle, 0);
+        while (idlePlayers.size() > this.maxIdle) {
+            idleTimes.remove(0);
+            releasePlayer(idlePlayers.remove(0));
+        }
+    }
+
+    // setIdleTimeout(): Sets the time (in milliseconds) after which an idle MediaPlayer object is
+    // released.
+    synchronized void setIdleTimeout(long idleTimeout) {
+        this.idleTimeout = Math.max(idleTimeout, 0);
+        trimIdle(SystemClock.uptimeMillis());
+    }
+}
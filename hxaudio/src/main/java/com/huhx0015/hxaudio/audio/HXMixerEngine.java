@@ -0,0 +1,307 @@
+package com.huhx0015.hxaudio.audio;
+
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.media.AudioFormat;
+import android.media.AudioManager;
+import android.media.AudioTrack;
+import android.os.Build;
+import android.os.Process;
+import com.huhx0015.hxaudio.mixer.HXMixer;
+import com.huhx0015.hxaudio.utils.HXLog;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXMixerEngine] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXMixerEngine is an alternative to HXSoundEngine that plays sound effects through
+ *  a software HXMixer instead of SoundPool. Sound resources are decoded into PCM data by
+ *  HXPcmDecoder, and all voices are mixed on a single real-time thread that streams the mixed
+ *  output into an AudioTrack. Only available on devices running on Android API 16 and above.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+@TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+class HXMixerEngine implements HXSoundLoadTarget, Runnable {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // AUDIO VARIABLES:
+    private final HXMixer mixer; // Software mixer used for mixing all voices.
+    private final HXSoundHandles soundHandles; // Shared handle table of HXSound, used for resolving sound effect handles.
+    private final short[] outputBuffer; // Preallocated buffer of mixed stereo PCM data.
+    private final int framesPerBuffer; // Number of frames mixed and written per AudioTrack write.
+    private final int outputRate; // Sample rate of the AudioTrack, in Hz.
+    private volatile HXSampleTable sampleTable = HXSampleTable.EMPTY; // Maps sound resources to HXMixer sample IDs.
+    private AudioTrack audioTrack; // Streaming AudioTrack that the mixed output is written to.
+    private volatile HXPcmCache pcmCache; // Cache of decoded sound resources. Null if the cache is disabled.
+
+    // THREAD VARIABLES:
+    private final Object pauseLock = new Object(); // Used for pausing the mixing thread.
+    private volatile boolean isRunning; // Used for determining if the mixing thread is running.
+    private volatile boolean isPaused; // Used for determining if the mixed output is paused.
+    private Thread mixThread; // The real-time mixing thread.
+
+    // CONSTANT VARIABLES:
+    static final int ENGINE_ID = Integer.MAX_VALUE; // HXSoundHandles engine ID of the mixer engine.
+    private static final int DEFAULT_OUTPUT_RATE = 44100; // Output sample rate used if the device does not report one.
+    private static final int DEFAULT_FRAMES_PER_BUFFER = 256; // Frames per buffer used if the device does not report a value.
+    private static final int MIN_FRAMES_PER_BUFFER = 64; // Minimum number of frames per buffer.
+    private static final float SOUND_VOLUME_LEVEL = 1.0f; // Used for setting the volume of each voice.
+    private static final float SOUND_RATE = 1.0f; // Used for setting the playback rate of each voice.
+
+    // LOGGING VARIABLES:
+    private static final String LOG_TAG = HXMixerEngine.class.getSimpleName();
+
+    /** CONSTRUCTOR METHOD _____________________________________________________________________ **/
+
+    // HXMixerEngine(): Constructor method for this class. The output sample rate and buffer size
+    // are set to the native values of the device, if available.
+    HXMixerEngine(Context context, int maxVoices, HXSoundHandles soundHandles) {
+        int rate = DEFAULT_OUTPUT_RATE;
+        int frames = DEFAULT_FRAMES_PER_BUFFER;
+
+        // API 17+: Reads the native output sample rate and buffer size of the device.
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
+            AudioManager audioManager = (AudioManager) context.getSystemService(Context.AUDIO_SERVICE);
+            rate = parseProperty(audioManager.getProperty(AudioManager.PROPERTY_OUTPUT_SAMPLE_RATE), rate);
+            frames = parseProperty(audioManager.getProperty(AudioManager.PROPERTY_OUTPUT_FRAMES_PER_BUFFER), frames);
+        }
+
+        this.outputRate = rate;
+        this.framesPerBuffer = Math.max(frames, MIN_FRAMES_PER_BUFFER);
+        this.outputBuffer = new short[framesPerBuffer * 2];
+        this.mixer = new HXMixer(outputRate, framesPerBuffer, maxVoices);
+        this.soundHandles = soundHandles;
+    }
+
+    /** THREAD METHODS _________________________________________________________________________ **/
+
+    // start(): Creates the AudioTrack and starts the mixing thread, if not already running.
+    synchronized void start() {
+        if (isRunning) {
+            return;
+        }
+
+        int minBufferSize = AudioTrack.getMinBufferSize(outputRate, AudioFormat.CHANNEL_OUT_STEREO,
+                AudioFormat.ENCODING_PCM_16BIT);
+        int bufferSize = Math.max(minBufferSize, framesPerBuffer * 4 * 2); // Two buffers of 16-bit stereo frames.
+
+        audioTrack = new AudioTrack(AudioManager.STREAM_MUSIC, outputRate, AudioFormat.CHANNEL_OUT_STEREO,
+                AudioFormat.ENCODING_PCM_16BIT, bufferSize, AudioTrack.MODE_STREAM);
+        audioTrack.play();
+
+        isRunning = true;
+        mixThread = new Thread(this, LOG_TAG);
+        mixThread.setPriority(Thread.MAX_PRIORITY);
+        mixThread.start();
+
+        HXLog.d(LOG_TAG, "START: start(): Mixer started at {} Hz with {} frames per buffer.", outputRate, framesPerBuffer);
+    }
+
+    // run(): The mixing loop. Mixes one buffer of all live voices and writes it to the AudioTrack,
+    // which blocks until the AudioTrack has room for it. No objects are allocated in this loop.
+    @Override
+    public void run() {
+        Process.setThreadPriority(Process.THREAD_PRIORITY_URGENT_AUDIO);
+
+        AudioTrack track = audioTrack;
+        short[] buffer = outputBuffer;
+        while (isRunning) {
+            if (isPaused) {
+                synchronized (pauseLock) {
+                    while (isPaused && isRunning) {
+                        try {
+                            pauseLock.wait();
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                    }
+                }
+                continue;
+            }
+
+            int frames = mixer.mix(buffer, framesPerBuffer);
+            track.write(buffer, 0, frames * 2);
+        }
+    }
+
+    // release(): Stops the mixing thread and releases the AudioTrack.
+    synchronized void release() {
+        if (!isRunning) {
+            return;
+        }
+
+        isRunning = false;
+        synchronized (pauseLock) {
+            pauseLock.notifyAll();
+        }
+
+        try {
+            mixThread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        audioTrack.stop();
+        audioTrack.release();
+        audioTrack = null;
+        mixThread = null;
+        sampleTable = HXSampleTable.EMPTY;
+
+        HXLog.d(LOG_TAG, "RELEASE: release(): Mixer has been released.");
+    }
+
+    /** SOUND METHODS __________________________________________________________________________ **/
+
+    // playSound(): Plays the specified sound resource, decoding it first if it has not been loaded.
+    // Loaded sound resources are queued on the lock-free HXMixer command queue, so that no locks are
+    // acquired other than for resolving the handle. Returns false if the sound effect could not be
+    // played.
+    boolean playSound(int resource, boolean isLoop, int priority, long handle, Context context) {
+        int sampleId = sampleTable.get(resource);
+        if (sampleId == HXSampleTable.MISSING) {
+            if (loadSoundFx(resource, context) != HXSampleLoadTracker.STATE_READY) {
+                resolveHandle(handle, 0);
+                return false;
+            }
+            sampleId = sampleTable.get(resource);
+        }
+
+        int voice = mixer.play(sampleId, SOUND_VOLUME_LEVEL, SOUND_RATE, isLoop, priority);
+        resolveHandle(handle, voice);
+        return voice != 0;
+    }
+
+    // loadSoundFx(): Decodes the specified sound resource into the HXMixer, if not already loaded.
+    // If HXPcmCache is enabled, previously decoded sound resources are read from the cache instead.
+    // Decoding is synchronous, so the returned state is either STATE_READY or STATE_FAILED.
+    @Override
+    public synchronized int loadSoundFx(int resource, Context context) {
+        int sampleId = sampleTable.get(resource);
+        if (sampleId == HXSampleTable.MISSING) {
+            HXPcmCache cache = pcmCache;
+            HXPcmData pcm = cache != null ? cache.read(context, resource) : HXPcmDecoder.decode(context, resource);
+            sampleId = pcm != null ? mixer.addSample(pcm.data, pcm.length, pcm.channels, pcm.sampleRate) : 0;
+            if (sampleId != 0) {
+                sampleTable = sampleTable.put(resource, sampleId);
+            }
+        }
+        return sampleId > 0 ? HXSampleLoadTracker.STATE_READY : HXSampleLoadTracker.STATE_FAILED;
+    }
+
+    // unloadSoundFx(): Removes the specified sound resource from the HXMixer.
+    synchronized void unloadSoundFx(int resource) {
+        int sampleId = sampleTable.get(resource);
+        if (sampleId != HXSampleTable.MISSING) {
+            mixer.removeSample(sampleId);
+            sampleTable = sampleTable.remove(resource);
+        }
+    }
+
+    // pauseSounds(): Pauses the mixed output.
+    synchronized void pauseSounds() {
+        if (isRunning && !isPaused) {
+            isPaused = true;
+            audioTrack.pause();
+        }
+    }
+
+    // resumeSounds(): Resumes the mixed output.
+    synchronized void resumeSounds() {
+        if (isRunning && isPaused) {
+            audioTrack.play();
+            synchronized (pauseLock) {
+                isPaused = false;
+                pauseLock.notifyAll();
+            }
+        }
+    }
+
+    // stopStream(): Stops the specified HXMixer voice.
+    void stopStream(int voice) {
+        mixer.stop(voice);
+    }
+
+    // setStreamVolume(): Sets the volume of the specified HXMixer voice.
+    void setStreamVolume(int voice, float volume) {
+        mixer.setVolume(voice, volume);
+    }
+
+    // setStreamRate(): Sets the playback rate of the specified HXMixer voice.
+    void setStreamRate(int voice, float rate) {
+        mixer.setRate(voice, rate);
+    }
+
+    // setStreamLoop(): Sets the looping attribute of the specified HXMixer voice.
+    void setStreamLoop(int voice, boolean isLoop) {
+        mixer.setLoop(voice, isLoop);
+    }
+
+    // isStreamLive(): Determines if the specified HXMixer voice is still queued or playing.
+    boolean isStreamLive(int voice) {
+        return mixer.isPlaying(voice);
+    }
+
+    /** HELPER METHODS _________________________________________________________________________ **/
+
+    // resolveHandle(): Stores the HXMixer voice of the specified handle and applies any operations
+    // that were requested before the voice existed.
+    private void resolveHandle(long handle, int voice) {
+        if (handle == HXSoundHandles.INVALID_HANDLE) {
+            return;
+        }
+
+        int ops = soundHandles.resolve(handle, ENGINE_ID, voice);
+        if (ops <= 0) {
+            return;
+        }
+
+        if ((ops & HXSoundHandles.OP_STOP) != 0) {
+            mixer.stop(voice);
+            return;
+        }
+        if ((ops & HXSoundHandles.OP_VOLUME) != 0) {
+            mixer.setVolume(voice, soundHandles.getPendingVolume(handle));
+        }
+        if ((ops & HXSoundHandles.OP_RATE) != 0) {
+            mixer.setRate(voice, soundHandles.getPendingRate(handle));
+        }
+        if ((ops & HXSoundHandles.OP_LOOP) != 0) {
+            mixer.setLoop(voice, soundHandles.getPendingLoop(handle));
+        }
+    }
+
+    // parseProperty(): Parses the specified AudioManager property value, or returns the specified
+    // default value if the property is not available.
+    private static int parseProperty(String value, int defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            int parsed = Integer.parseInt(value);
+            return parsed > 0 ? parsed : defaultValue;
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /** GET METHODS ____________________________________________________________________________ **/
+
+    // getLiveVoiceCount(): Returns the number of live HXMixer voices.
+    int getLiveVoiceCount() {
+        return mixer.getLiveVoiceCount();
+    }
+
+    // getStolenVoiceCount(): Returns the number of HXMixer voices that were replaced.
+    long getStolenVoiceCount() {
+        return mixer.getStolenCount();
+    }
+
+    /** SET METHODS ____________________________________________________________________________ **/
+
+    // setPcmCache(): Sets the HXPcmCache used for loading decoded sound resources, or null to decode
+    // the sound resources directly.
+    void setPcmCache(HXPcmCache cache) {
+        this.pcmCache = cache;
+    }
+}
@@ -1,11 +1,23 @@
 package com.huhx0015.hxaudio.audio;
 
 import android.content.Context;
+import com.huhx0015.hxaudio.backend.HXAndroidBackend;
+import com.huhx0015.hxaudio.backend.HXAudioBackend;
 import com.huhx0015.hxaudio.builder.HXMusicBuilder;
+import com.huhx0015.hxaudio.cache.HXMusicCacheProxy;
+import com.huhx0015.hxaudio.cache.HXMusicDiskCache;
+import com.huhx0015.hxaudio.cache.HXMusicDownloader;
+import com.huhx0015.hxaudio.interfaces.HXMusicDownloadListener;
 import com.huhx0015.hxaudio.interfaces.HXMusicEngineListener;
 import com.huhx0015.hxaudio.interfaces.HXMusicListener;
+import com.huhx0015.hxaudio.interfaces.HXMusicPositionListener;
+import com.huhx0015.hxaudio.metrics.HXMetrics;
 import com.huhx0015.hxaudio.model.HXMusicItem;
 import com.huhx0015.hxaudio.utils.HXLog;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.Executor;
 
 /** -----------------------------------------------------------------------------------------------
  *  [HXMusic] CLASS
@@ -28,11 +40,45 @@ public class HXMusic implements HXMusicEngineListener {
     private boolean isLooped; // Used to determine if the current music has looping enabled or not.
     private int musicPosition; // Used for tracking the current music position.
     private HXMusicEngine hxMusicEngine; // Responsible for the control and playback of the MediaPlayer object.
+    private final HXMusicActor musicActor = new HXMusicActor(this); // Serializes all music commands on a single thread.
+    private final HXMusicScheduler musicScheduler = new HXMusicScheduler(); // Shared tick thread for crossfades, position updates and pool trimming.
+    private final HXMediaPlayerPool playerPool = new HXMediaPlayerPool(musicScheduler); // Idle MediaPlayer objects reused by HXMusicEngine.
+    private final HXMusicPositionTask positionTask = new HXMusicPositionTask(musicScheduler); // Reports the playback position to the position listener.
+
+    // CACHE VARIABLES:
+    private HXMusicDiskCache musicCache; // Disk cache of streamed music. Null if caching is disabled.
+    private HXMusicCacheProxy cacheProxy; // Loopback proxy that streams music through the disk cache.
+    private HXMusicDownloader musicDownloader; // Downloads music into the disk cache ahead of time.
+    private int downloadConcurrency = HXMusicDownloader.DEFAULT_CONCURRENCY; // Maximum number of download threads.
+    private long downloadBandwidth; // Maximum download bandwidth, in bytes per second. 0 if unlimited.
+    private HXMusicDownloadListener downloadListener; // Listener notified of download progress.
+
+    // CHANNEL VARIABLES:
+    private final HashMap<String, HXMusicChannel> channels = new HashMap<>(); // Named music channels, played independently of the main music.
+    private HXMusicChannelGroup channelGroup; // Channels most recently started together, or null if none.
+    private int driftThreshold = HXMusicChannelGroup.DEFAULT_DRIFT_THRESHOLD; // Maximum drift between channels started together, in milliseconds.
+
+    // QUEUE VARIABLES:
+    private final HXMusicPlaylist playlist = new HXMusicPlaylist(); // Queue of music to be played in order.
+    private volatile boolean isQueuePlaying; // Used to determine if the current music was played from the queue.
+    private Context musicContext; // Application context of the last music command, used for playing queued music.
     private HXMusicItem hxMusicItem; // References the current HXMusicItem that stores information about the current music.
     private HXMusicStatus hxMusicStatus = HXMusicStatus.READY; // Used to determine the current status of the music.
 
     // LISTENER VARIABLES:
-    private HXMusicListener musicListener; // Interface for listening for events from the MediaPlayer object.
+    private final HXMusicEventDispatcher eventDispatcher = new HXMusicEventDispatcher(); // Delivers events to the registered HXMusicListener interfaces.
+
+    // CONSTANT VARIABLES:
+    public static final int REPEAT_OFF = 0; // The queue stops after the last music.
+    public static final int REPEAT_ALL = 1; // The queue restarts from the first music after the last music.
+    public static final int REPEAT_ONE = 2; // The current music of the queue is repeated.
+    public static final int CROSSFADE_LINEAR = 0; // Volumes are ramped linearly.
+    public static final int CROSSFADE_EQUAL_POWER = 1; // Volumes follow sine/cosine curves, keeping the combined loudness constant.
+    public static final int CROSSFADE_S_CURVE = 2; // Volumes are ramped slowly at the start and end of the crossfade.
+    public static final Executor MAIN_THREAD = new HXMusicEventDispatcher.MainThreadExecutor(); // Delivers listener events on the main thread.
+    private static final String MUSIC_CACHE_DIRECTORY = "hxaudio_music"; // Name of the music cache directory.
+    private static final String MUSIC_METRICS = HXMetrics.MUSIC_ENGINE + "main"; // HXMetrics name of the main music engine.
+    private static final String CHANNEL_METRICS = HXMetrics.MUSIC_ENGINE + "channel."; // HXMetrics name prefix of the channel music engines.
 
     // LOGGING VARIABLES:
     private static final String LOG_TAG = HXMusic.class.getSimpleName(); // Used for logging output to logcat.
@@ -72,6 +118,13 @@ public class HXMusic implements HXMusicEngineListener {
     // parameters.
     public synchronized void initMusic(HXMusicItem music, int position, boolean isGapless,
                                        boolean isLooped, Context context) {
+        initMusic(music, position, isGapless, isLooped, context, 0, CROSSFADE_EQUAL_POWER);
+    }
+
+    // initMusic(): Prepares the MediaPlayer objects for music playback with the specified music
+    // parameters. If fadeDuration is set, the current music is crossfaded into the new music.
+    synchronized void initMusic(HXMusicItem music, int position, boolean isGapless,
+                                boolean isLooped, Context context, int fadeDuration, int fadeCurve) {
 
         // Checks the current music status to determine if the specified music can be played or not.
         if (checkStatus(music)) {
@@ -83,13 +136,42 @@ public class HXMusic implements HXMusicEngineListener {
 
             // Creates a new HXMusicEngine object if not initialized.
             if (hxMusicEngine == null) {
-                hxMusicEngine = new HXMusicEngine();
+                hxMusicEngine = new HXMusicEngine(playerPool, musicScheduler, MUSIC_METRICS);
                 hxMusicEngine.setListener(this);
+                hxMusicEngine.setMusicCache(musicCache, cacheProxy);
+                positionTask.setEngine(hxMusicEngine);
             }
 
             // Readies the HXMusicEngine for the music.
-            hxMusicEngine.initMusicEngine(music, position, isGapless, isLooped, context);
+            hxMusicEngine.initMusicEngine(music, position, isGapless, isLooped, context,
+                    fadeDuration, fadeCurve);
+        }
+    }
+
+    // queueMusic(): Queues the specified music to be prepared and played on the music command
+    // thread. Any play, pause, resume, stop or seek commands that are still queued are discarded.
+    public void queueMusic(HXMusicItem music, int position, boolean isGapless, boolean isLooped,
+                           Context context) {
+        musicActor.submit(HXMusicActor.CMD_PLAY, music, position, isGapless, isLooped, context);
+    }
+
+    // queueMusic(): Queues the specified music to be played on the music command thread, crossfading
+    // from the current music over the specified duration (in milliseconds) and curve.
+    public void queueMusic(HXMusicItem music, int position, boolean isGapless, boolean isLooped,
+                           int fadeDuration, int fadeCurve, Context context) {
+        musicActor.submit(HXMusicActor.CMD_PLAY, music, position, isGapless, isLooped, context,
+                fadeDuration, fadeCurve);
+    }
+
+    // playChannel(): Prepares the specified music on the specified named channel. If isHeld is set,
+    // the music is not started until the channel is started with startChannels().
+    public void playChannel(String name, HXMusicItem music, int position, boolean isLooped,
+                            boolean isHeld, Context context) {
+        if (!isEnabled) {
+            HXLog.d(LOG_TAG, "DISABLED: playChannel(): Music has been currently disabled.");
+            return;
         }
+        channel(name).play(music, position, isLooped, isHeld, context);
     }
 
     // checkStatus(): Verifies if the HXMusicItem object is valid and is used to determine if the
@@ -124,32 +206,50 @@ public class HXMusic implements HXMusicEngineListener {
         hxMusicStatus = HXMusicStatus.PLAYING;
 
         // Invokes the associated listener call.
-        if (musicListener != null) {
-            musicListener.onMusicPrepared(hxMusicItem);
-        }
+        eventDispatcher.dispatch(HXMusicEventDispatcher.EVENT_PREPARED, hxMusicItem);
+        positionTask.start();
     }
 
     // onMusicEngineCompletion(): Called by the HXMusicEngine when HXMusicEngine's MediaPlayer object
-    // calls onCompletion().
+    // calls onCompletion(). If the music was played from the queue, the next queued music is played.
     @Override
     public void onMusicEngineCompletion() {
         hxMusicStatus = HXMusicStatus.STOPPED;
 
         // Invokes the associated listener call.
-        if (musicListener != null) {
-            musicListener.onMusicCompletion(hxMusicItem);
+        eventDispatcher.dispatch(HXMusicEventDispatcher.EVENT_COMPLETION, hxMusicItem);
+
+        // QUEUE: Plays the next queued music, as it could not be handed over without a gap.
+        if (isQueuePlaying) {
+            HXMusicItem next = playlist.peekNext();
+            if (next != null && playlist.moveTo(next)) {
+                queueMusic(next, 0, false, false, musicContext);
+            }
         }
     }
 
+    // onMusicEngineTrackChanged(): Called by the HXMusicEngine when playback has been handed over to
+    // the next queued music without a gap.
+    @Override
+    public void onMusicEngineTrackChanged(HXMusicItem music) {
+        HXMusicItem previous = hxMusicItem;
+        hxMusicItem = music;
+        musicPosition = 0;
+        playlist.moveTo(music);
+        updateNextMusic();
+
+        // Invokes the associated listener calls.
+        eventDispatcher.dispatch(HXMusicEventDispatcher.EVENT_COMPLETION, previous);
+        eventDispatcher.dispatch(HXMusicEventDispatcher.EVENT_PREPARED, music);
+    }
+
     // onMusicEngineBufferingUpdate(): Called by the HXMusicEngine when HXMusicEngine's MediaPlayer
-    // object calls onBufferingUpdate().
+    // object calls onBufferingUpdate(). Buffering updates are coalesced by HXMusicEventDispatcher.
     @Override
     public void onMusicEngineBufferingUpdate(int percent) {
 
         // Invokes the associated listener call.
-        if (musicListener != null) {
-            musicListener.onMusicBufferingUpdate(hxMusicItem, percent);
-        }
+        eventDispatcher.dispatchBuffering(hxMusicItem, percent);
     }
 
     // onMusicEnginePause(): Called when HXMusicEngine's pause() method has been called.
@@ -158,9 +258,7 @@ public class HXMusic implements HXMusicEngineListener {
         hxMusic.hxMusicStatus = HXMusicStatus.PAUSED;  // Indicates that the music is currently paused.
 
         // Invokes the associated listener call.
-        if (hxMusic.musicListener != null && hxMusic.hxMusicItem != null) {
-            hxMusic.musicListener.onMusicPause(hxMusic.hxMusicItem);
-        }
+        eventDispatcher.dispatch(HXMusicEventDispatcher.EVENT_PAUSE, hxMusicItem);
     }
 
     // onMusicStop(): Called when HXMusicEngine's stop() method has been called.
@@ -169,9 +267,144 @@ public class HXMusic implements HXMusicEngineListener {
         hxMusic.hxMusicStatus = HXMusicStatus.STOPPED;
 
         // Invokes the associated listener call.
-        if (hxMusic.musicListener != null && hxMusic.hxMusicItem != null) {
-            hxMusic.musicListener.onMusicStop(hxMusic.hxMusicItem);
+        eventDispatcher.dispatch(HXMusicEventDispatcher.EVENT_STOP, hxMusicItem);
+    }
+
+    /** COMMAND METHODS ________________________________________________________________________ **/
+
+    // executeCommand(): Called by HXMusicActor on the music command thread to execute the specified
+    // music command.
+    void executeCommand(int command, HXMusicItem music, int position, boolean isGapless,
+                        boolean isLooped, Context context, int fadeDuration, int fadeCurve) {
+        if (context != null) {
+            musicContext = context;
+        }
+
+        switch (command) {
+            case HXMusicActor.CMD_PLAY:
+                isQueuePlaying = playlist.isCurrent(music);
+                initMusic(music, position, isGapless, isLooped, context, fadeDuration, fadeCurve);
+                updateNextMusic();
+                break;
+            case HXMusicActor.CMD_PAUSE:
+                if (hxMusicEngine != null) {
+                    musicPosition = hxMusicEngine.pauseMusic();
+                }
+                break;
+            case HXMusicActor.CMD_RESUME:
+                if (hxMusicStatus.equals(HXMusicStatus.PAUSED) && hxMusicEngine != null) {
+                    hxMusicEngine.resumeMusic(hxMusicItem, musicPosition, this.isGapless,
+                            this.isLooped, context);
+                    updateNextMusic();
+                } else {
+                    HXLog.e(LOG_TAG, "ERROR: executeCommand(): Music could not be resumed.");
+                }
+                break;
+            case HXMusicActor.CMD_STOP:
+                if (hxMusicEngine != null) {
+                    hxMusicEngine.stopMusic();
+                }
+                break;
+            case HXMusicActor.CMD_SEEK:
+                musicPosition = position;
+                if (hxMusicEngine != null) {
+                    hxMusicEngine.seekMusic(position);
+                    positionTask.start();
+                }
+                break;
+            case HXMusicActor.CMD_TRIM:
+                if (hxMusicEngine != null) {
+                    hxMusicEngine.trimMusic();
+                }
+                break;
+        }
+    }
+
+    // updateNextMusic(): Sets the music that HXMusicEngine prepares to play after the current music:
+    // the next queued music if the current music was played from the queue, or none otherwise.
+    private void updateNextMusic() {
+        HXMusicEngine engine = hxMusicEngine;
+        if (engine != null) {
+            engine.setNextMusic(isQueuePlaying ? playlist.peekNext() : null);
+        }
+    }
+
+    /** QUEUE METHODS __________________________________________________________________________ **/
+
+    // enqueue(): Adds the specified music to the end of the queue. Queued music is played with
+    // next() and previous(). While a queued music plays, the next queued music is prepared in the
+    // background and started without a gap on devices running on Android API 16 and above.
+    public static void enqueue(HXMusicItem music) {
+        if (music == null || (music.getMusicResource() == 0 && music.getMusicUrl() == null)) {
+            HXLog.e(LOG_TAG, "ERROR: enqueue(): No music resource or url was specified.");
+            return;
+        }
+        instance();
+        hxMusic.playlist.add(music);
+        hxMusic.updateNextMusic();
+    }
+
+    // next(): Plays the next music in the queue. If no queued music has been played yet, the first
+    // music in the queue is played.
+    public static void next(Context context) {
+        if (context == null || context.getApplicationContext() == null) {
+            HXLog.e(LOG_TAG, "ERROR: next(): Context cannot be null.");
+            return;
+        }
+
+        HXMusicItem music = hxMusic != null ? hxMusic.playlist.moveToNext() : null;
+        if (music != null) {
+            hxMusic.queueMusic(music, 0, false, false, context.getApplicationContext());
+        } else {
+            HXLog.e(LOG_TAG, "ERROR: next(): There is no next music in the queue.");
+        }
+    }
+
+    // previous(): Plays the previous music in the queue.
+    public static void previous(Context context) {
+        if (context == null || context.getApplicationContext() == null) {
+            HXLog.e(LOG_TAG, "ERROR: previous(): Context cannot be null.");
+            return;
+        }
+
+        HXMusicItem music = hxMusic != null ? hxMusic.playlist.moveToPrevious() : null;
+        if (music != null) {
+            hxMusic.queueMusic(music, 0, false, false, context.getApplicationContext());
+        } else {
+            HXLog.e(LOG_TAG, "ERROR: previous(): There is no previous music in the queue.");
+        }
+    }
+
+    // shuffle(): Enables or disables shuffle mode for the queue. The current music is not affected.
+    public static void shuffle(boolean isShuffled) {
+        instance();
+        hxMusic.playlist.setShuffle(isShuffled);
+        hxMusic.updateNextMusic();
+    }
+
+    // repeat(): Sets the repeat mode of the queue: REPEAT_OFF, REPEAT_ALL or REPEAT_ONE.
+    public static void repeat(int repeatMode) {
+        if (repeatMode != REPEAT_OFF && repeatMode != REPEAT_ALL && repeatMode != REPEAT_ONE) {
+            HXLog.e(LOG_TAG, "ERROR: repeat(): Invalid repeat mode: {}", repeatMode);
+            return;
         }
+        instance();
+        hxMusic.playlist.setRepeat(repeatMode);
+        hxMusic.updateNextMusic();
+    }
+
+    // clearQueue(): Removes all music from the queue. The current music continues to play.
+    public static void clearQueue() {
+        if (hxMusic != null) {
+            hxMusic.playlist.clear();
+            hxMusic.isQueuePlaying = false;
+            hxMusic.updateNextMusic();
+        }
+    }
+
+    // getQueueSize(): Returns the number of music in the queue.
+    public static int getQueueSize() {
+        return hxMusic != null ? hxMusic.playlist.size() : 0;
     }
 
     /** MUSIC ACTION METHODS ___________________________________________________________________ **/
@@ -184,26 +417,18 @@ public class HXMusic implements HXMusicEngineListener {
     // pause(): Pauses any music playing in the background.
     public static void pause() {
         if (hxMusic != null && hxMusic.hxMusicEngine != null) {
-            hxMusic.musicPosition = hxMusic.hxMusicEngine.pauseMusic();
+            hxMusic.musicActor.submit(HXMusicActor.CMD_PAUSE, null, 0, false, false, null);
         }
     }
 
     // resume(): Resumes playback of the current music.
-    public static void resume(final Context context) {
+    public static void resume(Context context) {
 
         if (context == null || context.getApplicationContext() == null) {
             HXLog.e(LOG_TAG, "ERROR: resume(): Context cannot be null.");
-        } else if (hxMusic != null && hxMusic.hxMusicStatus.equals(HXMusicStatus.PAUSED) &&
-                hxMusic.hxMusicEngine != null) {
-            Thread playThread = new Thread(new Runnable() {
-                @Override
-                public void run() {
-                    hxMusic.hxMusicEngine.initMusicEngine(hxMusic.hxMusicItem,
-                            hxMusic.musicPosition, hxMusic.isGapless, hxMusic.isLooped,
-                            context.getApplicationContext());
-                }
-            });
-            playThread.start();
+        } else if (hxMusic != null && hxMusic.hxMusicEngine != null) {
+            hxMusic.musicActor.submit(HXMusicActor.CMD_RESUME, null, 0, false, false,
+                    context.getApplicationContext());
         } else {
             HXLog.e(LOG_TAG, "ERROR: resume(): Music could not be resumed.");
         }
@@ -212,27 +437,229 @@ public class HXMusic implements HXMusicEngineListener {
     //  stop(): Stops any music playing in the background.
     public static void stop() {
         if (hxMusic != null && hxMusic.hxMusicEngine != null) {
-            hxMusic.hxMusicEngine.stopMusic();
+            hxMusic.musicActor.submit(HXMusicActor.CMD_STOP, null, 0, false, false, null);
         } else {
             HXLog.e(LOG_TAG, "ERROR: stop(): Music could not be stopped.");
         }
     }
 
+    // seek(): Moves the current music to the specified position (in milliseconds). If the music is
+    // paused, the position is applied when the music is resumed.
+    public static void seek(int position) {
+        if (hxMusic != null && position >= 0) {
+            hxMusic.musicActor.submit(HXMusicActor.CMD_SEEK, null, position, false, false, null);
+        } else {
+            HXLog.e(LOG_TAG, "ERROR: seek(): Music position could not be set.");
+        }
+    }
+
+    // trim(): Releases the idle pooled MediaPlayer objects and those held by the paused music, such
+    // as when the application is running low on memory. A trimmed music is prepared again when it is resumed,
+    // instead of being restarted immediately.
+    public static void trim() {
+        if (hxMusic != null && hxMusic.hxMusicEngine != null) {
+            hxMusic.musicActor.submit(HXMusicActor.CMD_TRIM, null, 0, false, false, null);
+        }
+    }
+
     /** MUSIC HELPER METHODS ___________________________________________________________________ **/
 
     // clear(): Releases resources held by the MediaPlayer object and clears this object. This
     // method should be called when the singleton object is no longer in use.
     public static void clear() {
         if (hxMusic != null) {
+            hxMusic.musicActor.stop();
+            hxMusic.musicScheduler.stop();
+            if (hxMusic.cacheProxy != null) {
+                hxMusic.cacheProxy.stop();
+                hxMusic.musicDownloader.stop();
+            }
             if (hxMusic.hxMusicEngine != null) {
                 hxMusic.hxMusicEngine.release();
             }
+            if (hxMusic.channelGroup != null) {
+                hxMusic.channelGroup.cancel();
+            }
+            for (HXMusicChannel channel : hxMusic.channels.values()) {
+                channel.release();
+            }
+            hxMusic.channels.clear();
+            hxMusic.playerPool.clear();
             hxMusic.hxMusicItem = null;
-            hxMusic.musicListener = null;
+            hxMusic.eventDispatcher.setListener(null);
         }
         hxMusic = null;
     }
 
+    // pool(): Sets the maximum number of idle MediaPlayer objects kept for reuse, and the time (in
+    // milliseconds) after which an idle MediaPlayer object is released. Setting maxIdle to 0
+    // disables MediaPlayer reuse.
+    public static void pool(int maxIdle, long idleTimeout) {
+        instance();
+        hxMusic.playerPool.setMaxIdle(maxIdle);
+        hxMusic.playerPool.setIdleTimeout(idleTimeout);
+    }
+
+    // backend(): Specifies the HXAudioBackend used for playing music. By default, music is played
+    // through MediaPlayer by HXAndroidBackend, while HXHeadlessBackend renders it into a file or
+    // memory buffer instead, so that HXMusic can run off-device. Setting a null backend restores
+    // HXAndroidBackend. Idle MediaPlayer objects are released, and the backend is used from the
+    // next music that is played.
+    public static void backend(HXAudioBackend backend) {
+        instance();
+        hxMusic.playerPool.setBackend(backend != null ? backend : new HXAndroidBackend());
+    }
+
+    // cache(): Enables caching of streamed music URLs on disk, limited to the specified number of
+    // bytes, or disables it if maxBytes is 0. Streamed music is routed through a loopback proxy
+    // that writes it to the cache while it plays, and cached music is played from disk. Disabling
+    // the cache cancels all downloads.
+    public static synchronized void cache(long maxBytes, Context context) {
+        instance();
+        if (hxMusic.cacheProxy != null) {
+            hxMusic.cacheProxy.stop();
+            hxMusic.musicDownloader.stop();
+            hxMusic.cacheProxy = null;
+            hxMusic.musicDownloader = null;
+            hxMusic.musicCache = null;
+        }
+
+        if (maxBytes > 0) {
+            if (context == null) {
+                HXLog.e(LOG_TAG, "ERROR: cache(): Context cannot be null.");
+                return;
+            }
+
+            HXMusicDiskCache musicCache = new HXMusicDiskCache(new File(context.getCacheDir(),
+                    MUSIC_CACHE_DIRECTORY), maxBytes);
+            HXMusicCacheProxy cacheProxy = new HXMusicCacheProxy(musicCache);
+            if (cacheProxy.start()) {
+                hxMusic.musicCache = musicCache;
+                hxMusic.cacheProxy = cacheProxy;
+                hxMusic.musicDownloader = new HXMusicDownloader(musicCache);
+                hxMusic.musicDownloader.setConcurrency(hxMusic.downloadConcurrency);
+                hxMusic.musicDownloader.setBandwidthLimit(hxMusic.downloadBandwidth);
+                hxMusic.musicDownloader.setListener(hxMusic.downloadListener);
+            }
+        }
+
+        if (hxMusic.hxMusicEngine != null) {
+            hxMusic.hxMusicEngine.setMusicCache(hxMusic.musicCache, hxMusic.cacheProxy);
+        }
+        for (HXMusicChannel channel : hxMusic.channels.values()) {
+            channel.engine.setMusicCache(hxMusic.musicCache, hxMusic.cacheProxy);
+        }
+    }
+
+    // download(): Downloads the specified music URL into the music cache in the background, so that
+    // it is later played from disk without using the network. If md5 is not null, the downloaded
+    // music is verified against it. Interrupted downloads resume when downloaded again. The music
+    // cache must be enabled with cache() first.
+    public static synchronized void download(String url, String md5) {
+        if (hxMusic == null || hxMusic.musicDownloader == null) {
+            HXLog.e(LOG_TAG, "ERROR: download(): The music cache must be enabled before music can be downloaded.");
+            return;
+        } else if (url == null) {
+            HXLog.e(LOG_TAG, "ERROR: download(): Music URL cannot be null.");
+            return;
+        }
+        hxMusic.musicDownloader.download(url, md5);
+    }
+
+    // cancelDownload(): Cancels the download of the specified music URL. Downloaded data is kept so
+    // that the download resumes if the music is downloaded again.
+    public static synchronized void cancelDownload(String url) {
+        if (hxMusic != null && hxMusic.musicDownloader != null) {
+            hxMusic.musicDownloader.cancel(url);
+        }
+    }
+
+    // downloads(): Sets the maximum number of download threads and the maximum download bandwidth
+    // shared by all downloads, in bytes per second. Setting bytesPerSecond to 0 removes the limit.
+    public static synchronized void downloads(int concurrency, long bytesPerSecond) {
+        instance();
+        hxMusic.downloadConcurrency = concurrency;
+        hxMusic.downloadBandwidth = bytesPerSecond;
+        if (hxMusic.musicDownloader != null) {
+            hxMusic.musicDownloader.setConcurrency(concurrency);
+            hxMusic.musicDownloader.setBandwidthLimit(bytesPerSecond);
+        }
+    }
+
+    // clearCache(): Deletes all cached music.
+    public static void clearCache() {
+        if (hxMusic != null && hxMusic.musicCache != null) {
+            hxMusic.musicCache.clear();
+        }
+    }
+
+    /** CHANNEL METHODS ________________________________________________________________________ **/
+
+    // channel(): Returns the named music channel, creating it if it does not exist. Channels play
+    // independently of the main music, each with its own volume and state. Music is played on a
+    // channel with HXMusic.music().channel(name).
+    public static synchronized HXMusicChannel channel(String name) {
+        instance();
+        HXMusicChannel channel = hxMusic.channels.get(name);
+        if (channel == null) {
+            HXMusicEngine engine = new HXMusicEngine(hxMusic.playerPool, hxMusic.musicScheduler,
+                    CHANNEL_METRICS + name);
+            engine.setMusicCache(hxMusic.musicCache, hxMusic.cacheProxy);
+            channel = new HXMusicChannel(name, engine);
+            hxMusic.channels.put(name, channel);
+        }
+        return channel;
+    }
+
+    // startChannels(): Starts the specified channels together, such as the stems of layered music.
+    // Channels prepared with HXMusicBuilder.prepare() are started once all have finished
+    // preparing; channels that are playing or paused are restarted together from their current
+    // positions. While the channels play, any channel that drifts from the first channel is moved
+    // back into alignment.
+    public static synchronized void startChannels(String... names) {
+        instance();
+        ArrayList<HXMusicChannel> group = new ArrayList<>();
+        for (String name : names) {
+            HXMusicChannel channel = hxMusic.channels.get(name);
+            if (channel == null || channel.getMusic() == null) {
+                HXLog.e(LOG_TAG, "ERROR: startChannels(): No music has been prepared on channel: {}", name);
+                continue;
+            }
+
+            if (channel.isPlaying()) {
+                channel.pause();
+            }
+            channel.engine.setHeld(true);
+            group.add(channel);
+        }
+
+        if (hxMusic.channelGroup != null) {
+            hxMusic.channelGroup.cancel();
+        }
+        if (!group.isEmpty()) {
+            hxMusic.channelGroup = new HXMusicChannelGroup(group.toArray(new HXMusicChannel[group.size()]),
+                    hxMusic.driftThreshold);
+            hxMusic.musicScheduler.schedule(hxMusic.channelGroup);
+        }
+    }
+
+    // releaseChannel(): Stops the specified channel and releases its MediaPlayer objects.
+    public static synchronized void releaseChannel(String name) {
+        if (hxMusic != null) {
+            HXMusicChannel channel = hxMusic.channels.remove(name);
+            if (channel != null) {
+                channel.release();
+            }
+        }
+    }
+
+    // channelDrift(): Sets the maximum drift (in milliseconds) between channels started together
+    // before they are realigned, or 0 to disable realignment. Applies to the next startChannels().
+    public static synchronized void channelDrift(int threshold) {
+        instance();
+        hxMusic.driftThreshold = Math.max(threshold, 0);
+    }
+
     // enable(): Used for enabling and disabling music playback.
     public static void enable(boolean isEnabled) {
         instance();
@@ -244,10 +671,12 @@ public class HXMusic implements HXMusicEngineListener {
         HXLog.setLogging(isEnabled);
     }
 
-    // getPosition(): Returns the current music position.
+    // getPosition(): Returns the current music position. While the music is playing, the position
+    // is read from the MediaPlayer object.
     public static int getPosition() {
         if (hxMusic != null) {
-            return hxMusic.musicPosition;
+            HXMusicEngine engine = hxMusic.hxMusicEngine;
+            return engine != null ? engine.getCurrentPosition() : hxMusic.musicPosition;
         } else {
             return 0;
         }
@@ -262,16 +691,142 @@ public class HXMusic implements HXMusicEngineListener {
         }
     }
 
-    // removeListener(): Removes the attached listener interface for this class.
+    /** METRIC METHODS _________________________________________________________________________ **/
+
+    // getWarmResumeCount(): Returns the number of resumes that restarted the paused MediaPlayer
+    // object directly.
+    public static long getWarmResumeCount() {
+        if (hxMusic != null && hxMusic.hxMusicEngine != null) {
+            return hxMusic.hxMusicEngine.getWarmResumeCount();
+        }
+        return 0;
+    }
+
+    // getColdResumeCount(): Returns the number of resumes that had to prepare the music again.
+    public static long getColdResumeCount() {
+        if (hxMusic != null && hxMusic.hxMusicEngine != null) {
+            return hxMusic.hxMusicEngine.getColdResumeCount();
+        }
+        return 0;
+    }
+
+    // getAverageWarmResumeLatency(): Returns the average time (in nanoseconds) taken to restart the
+    // paused MediaPlayer object.
+    public static long getAverageWarmResumeLatency() {
+        if (hxMusic != null && hxMusic.hxMusicEngine != null) {
+            return hxMusic.hxMusicEngine.getAverageWarmResumeLatency();
+        }
+        return 0;
+    }
+
+    // getAverageColdResumeLatency(): Returns the average time (in nanoseconds) between a resume that
+    // prepared the music again and the start of playback.
+    public static long getAverageColdResumeLatency() {
+        if (hxMusic != null && hxMusic.hxMusicEngine != null) {
+            return hxMusic.hxMusicEngine.getAverageColdResumeLatency();
+        }
+        return 0;
+    }
+
+    // getPlayersCreated(): Returns the number of MediaPlayer objects created.
+    public static long getPlayersCreated() {
+        return hxMusic != null ? hxMusic.playerPool.getCreatedCount() : 0;
+    }
+
+    // getPlayersReused(): Returns the number of MediaPlayer objects reused from the idle pool.
+    public static long getPlayersReused() {
+        return hxMusic != null ? hxMusic.playerPool.getReusedCount() : 0;
+    }
+
+    // getPlayersReleased(): Returns the number of MediaPlayer objects released.
+    public static long getPlayersReleased() {
+        return hxMusic != null ? hxMusic.playerPool.getReleasedCount() : 0;
+    }
+
+    // getChannelRealignCount(): Returns the number of times a channel has been realigned since the
+    // channels were last started together.
+    public static synchronized long getChannelRealignCount() {
+        return hxMusic != null && hxMusic.channelGroup != null ? hxMusic.channelGroup.getRealignCount() : 0;
+    }
+
+    // getCacheSize(): Returns the size of the cached music, in bytes.
+    public static long getCacheSize() {
+        return hxMusic != null && hxMusic.musicCache != null ? hxMusic.musicCache.getSize() : 0;
+    }
+
+    // getCacheHits(): Returns the number of music streams served from the cache.
+    public static long getCacheHits() {
+        return hxMusic != null && hxMusic.musicCache != null ? hxMusic.musicCache.getHitCount() : 0;
+    }
+
+    // getCacheMisses(): Returns the number of music streams that were not found in the cache.
+    public static long getCacheMisses() {
+        return hxMusic != null && hxMusic.musicCache != null ? hxMusic.musicCache.getMissCount() : 0;
+    }
+
+    // getDownloadProgress(): Returns the download progress of the specified music URL, from 0 to 1,
+    // or -1 if the music is not being downloaded.
+    public static synchronized float getDownloadProgress(String url) {
+        return hxMusic != null && hxMusic.musicDownloader != null ? hxMusic.musicDownloader.getProgress(url) : -1;
+    }
+
+    /** LISTENER METHODS _______________________________________________________________________ **/
+
+    // addListener(): Registers an additional HXMusicListener interface for this class.
+    public static void addListener(HXMusicListener listener) {
+        if (listener != null) {
+            instance();
+            hxMusic.eventDispatcher.addListener(listener);
+        }
+    }
+
+    // removeListener(): Removes all attached listener interfaces for this class.
     public static void removeListener() {
-        if (hxMusic != null && hxMusic.musicListener != null) {
-            hxMusic.musicListener = null;
+        if (hxMusic != null) {
+            hxMusic.eventDispatcher.setListener(null);
+        }
+    }
+
+    // removeListener(): Removes the specified listener interface for this class.
+    public static void removeListener(HXMusicListener listener) {
+        if (hxMusic != null) {
+            hxMusic.eventDispatcher.removeListener(listener);
         }
     }
 
-    // setListener(): Sets the HXMusicListener interface for this class.
+    // setListener(): Sets the HXMusicListener interface for this class, replacing any registered
+    // listener interfaces.
     public static void setListener(HXMusicListener listener) {
         instance();
-        hxMusic.musicListener = listener;
+        hxMusic.eventDispatcher.setListener(listener);
+    }
+
+    // setListenerExecutor(): Sets the Executor that HXMusicListener events are delivered on, such as
+    // HXMusic.MAIN_THREAD, or null to deliver events on the thread that raised them.
+    public static void setListenerExecutor(Executor executor) {
+        instance();
+        hxMusic.eventDispatcher.setExecutor(executor);
+    }
+
+    // setPositionListener(): Sets the HXMusicPositionListener interface notified of the playback
+    // position on the main thread, at the specified interval (in milliseconds), while the music is
+    // playing. Updates are only delivered when the position has changed. Set a null listener to
+    // stop the updates.
+    public static void setPositionListener(HXMusicPositionListener listener, int interval) {
+        instance();
+        hxMusic.positionTask.setListener(listener, interval);
+        if (hxMusic.hxMusicEngine != null && hxMusic.hxMusicEngine.isPlaying()) {
+            hxMusic.positionTask.start();
+        }
+    }
+
+    // setDownloadListener(): Sets the HXMusicDownloadListener interface notified of the progress of
+    // downloads started with download(). Events are delivered on a background thread.
+    public static synchronized void setDownloadListener(HXMusicDownloadListener listener) {
+        instance();
+        hxMusic.downloadListener = listener;
+        if (hxMusic.musicDownloader != null) {
+            hxMusic.musicDownloader.setListener(listener);
+        }
     }
 }
@@ -0,0 +1,182 @@
+package com.huhx0015.hxaudio.audio;
+
+import android.content.Context;
+import com.huhx0015.hxaudio.model.HXMusicItem;
+import com.huhx0015.hxaudio.utils.HXLog;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXMusicActor] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXMusicActor is a single, long-lived music command thread used by HXMusic. Play,
+ *  pause, resume, stop and seek commands are executed one at a time in the order they were
+ *  submitted, so that music commands never race each other on separate threads. Commands that have
+ *  been superseded before they were executed are discarded: a play or stop command discards all
+ *  queued commands, while pause, resume and seek commands replace the queued command of the same
+ *  kind.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+class HXMusicActor implements Runnable {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // COMMAND VARIABLES:
+    private final ArrayDeque<MusicCommand> commands = new ArrayDeque<>(); // Queued music commands.
+    private final HXMusic hxMusic; // HXMusic instance that executes the music commands.
+
+    // THREAD VARIABLES:
+    private final Object lock = new Object(); // Used for guarding the command queue.
+    private volatile boolean isRunning; // Used for determining if the actor thread is running.
+    private Thread actorThread; // The music command thread.
+
+    // METRIC VARIABLES:
+    private volatile long coalescedCount; // Number of commands discarded because they were superseded.
+
+    // CONSTANT VARIABLES:
+    static final int CMD_PLAY = 1; // Command for playing a new music.
+    static final int CMD_PAUSE = 2; // Command for pausing the current music.
+    static final int CMD_RESUME = 3; // Command for resuming the current music.
+    static final int CMD_STOP = 4; // Command for stopping the current music.
+    static final int CMD_SEEK = 5; // Command for seeking the current music.
+    static final int CMD_TRIM = 6; // Command for releasing the MediaPlayer objects of the paused music.
+
+    // LOGGING VARIABLES:
+    private static final String LOG_TAG = HXMusicActor.class.getSimpleName();
+
+    /** CONSTRUCTOR METHOD _____________________________________________________________________ **/
+
+    // HXMusicActor(): Constructor method for this class.
+    HXMusicActor(HXMusic hxMusic) {
+        this.hxMusic = hxMusic;
+    }
+
+    /** THREAD METHODS _________________________________________________________________________ **/
+
+    // start(): Starts the actor thread, if it is not already running. Must be called while holding
+    // the lock.
+    private void start() {
+        if (!isRunning) {
+            isRunning = true;
+            actorThread = new Thread(this, LOG_TAG);
+            actorThread.setDaemon(true);
+            actorThread.start();
+            HXLog.d(LOG_TAG, "START: start(): Music command thread has been started.");
+        }
+    }
+
+    // stop(): Stops the actor thread and discards any queued commands.
+    void stop() {
+        synchronized (lock) {
+            if (isRunning) {
+                isRunning = false;
+                commands.clear();
+                lock.notifyAll();
+                actorThread = null;
+                HXLog.d(LOG_TAG, "STOP: stop(): Music command thread has been stopped.");
+            }
+        }
+    }
+
+    // run(): The actor loop. Waits for queued music commands and executes them on HXMusic.
+    @Override
+    public void run() {
+        MusicCommand command;
+        while (isRunning) {
+            synchronized (lock) {
+                while (commands.isEmpty() && isRunning) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+
+                if (!isRunning) {
+                    return;
+                }
+                command = commands.poll();
+            }
+
+            try {
+                hxMusic.executeCommand(command.type, command.music, command.position,
+                        command.isGapless, command.isLooped, command.context, command.fadeDuration,
+                        command.fadeCurve);
+            } catch (Exception e) {
+                HXLog.e(LOG_TAG, "ERROR: run(): An exception occurred while executing a music command: {}", e.getLocalizedMessage());
+            }
+        }
+    }
+
+    /** COMMAND METHODS ________________________________________________________________________ **/
+
+    // submit(): Queues the specified music command, discarding any queued commands it supersedes.
+    void submit(int type, HXMusicItem music, int position, boolean isGapless, boolean isLooped,
+                Context context) {
+        submit(type, music, position, isGapless, isLooped, context, 0, 0);
+    }
+
+    // submit(): Queues the specified music command with the specified crossfade duration and curve,
+    // discarding any queued commands it supersedes.
+    void submit(int type, HXMusicItem music, int position, boolean isGapless, boolean isLooped,
+                Context context, int fadeDuration, int fadeCurve) {
+        synchronized (lock) {
+            start();
+
+            if (type == CMD_PLAY || type == CMD_STOP) {
+                coalescedCount += commands.size();
+                commands.clear();
+            } else {
+                Iterator<MusicCommand> iterator = commands.iterator();
+                while (iterator.hasNext()) {
+                    int queuedType = iterator.next().type;
+                    if (queuedType == type || (type == CMD_PAUSE && queuedType == CMD_RESUME) ||
+                            (type == CMD_RESUME && queuedType == CMD_PAUSE)) {
+                        iterator.remove();
+                        coalescedCount++;
+                    }
+                }
+            }
+
+            commands.add(new MusicCommand(type, music, position, isGapless, isLooped, context,
+                    fadeDuration, fadeCurve));
+            lock.notify();
+        }
+    }
+
+    /** GET METHODS ____________________________________________________________________________ **/
+
+    // getCoalescedCount(): Returns the number of music commands discarded because they were
+    // superseded by a later command.
+    long getCoalescedCount() {
+        return coalescedCount;
+    }
+
+    /** SUBCLASSES _____________________________________________________________________________ **/
+
+    // MusicCommand: A queued music command and its parameters.
+    private static class MusicCommand {
+
+        private final int type; // Type of this command.
+        private final HXMusicItem music; // Music to be played. Only used by play commands.
+        private final int position; // Music position, in milliseconds.
+        private final boolean isGapless; // Gapless attribute of the music to be played.
+        private final boolean isLooped; // Looping attribute of the music to be played.
+        private final Context context; // Context used for preparing the music.
+        private final int fadeDuration; // Crossfade duration, in milliseconds. Only used by play commands.
+        private final int fadeCurve; // Crossfade curve. Only used by play commands.
+
+        MusicCommand(int type, HXMusicItem music, int position, boolean isGapless,
+                     boolean isLooped, Context context, int fadeDuration, int fadeCurve) {
+            this.type = type;
+            this.music = music;
+            this.position = position;
+            this.isGapless = isGapless;
+            this.isLooped = isLooped;
+            this.context = context;
+            this.fadeDuration = fadeDuration;
+            this.fadeCurve = fadeCurve;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.huhx0015.hxaudio.audio;
+
+import android.content.Context;
+import com.huhx0015.hxaudio.interfaces.HXMusicEngineListener;
+import com.huhx0015.hxaudio.model.HXMusicItem;
+import com.huhx0015.hxaudio.utils.HXLog;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXMusicChannel] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXMusicChannel is a named music channel that plays independently of the main
+ *  HXMusic music, such as an ambience bed or a stem of layered music. Each channel has its own
+ *  HXMusicEngine, volume and state, and shares the MediaPlayer pool and tick thread of HXMusic.
+ *  Channels are retrieved with HXMusic.channel(), and can be started together with
+ *  HXMusic.startChannels().
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class HXMusicChannel implements HXMusicEngineListener {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // CHANNEL VARIABLES:
+    private final String name; // Name of the channel.
+    final HXMusicEngine engine; // Responsible for the control and playback of the channel's MediaPlayer object.
+    private volatile HXMusicItem musicItem; // The music of the channel.
+    private volatile boolean isLooped; // Used to determine if the music of the channel is looped.
+    private volatile float volume = 1f; // Volume of the channel, from 0 to 1.
+    private volatile HXMusicChannelStatus channelStatus = HXMusicChannelStatus.READY; // Current status of the channel.
+    private Context context; // Application context used for preparing the music again.
+
+    // LOGGING VARIABLES:
+    private static final String LOG_TAG = HXMusicChannel.class.getSimpleName();
+
+    /** ENUM ___________________________________________________________________________________ **/
+
+    private enum HXMusicChannelStatus {
+        READY,
+        PREPARING,
+        PLAYING,
+        PAUSED,
+        STOPPED
+    }
+
+    /** CONSTRUCTOR METHOD _____________________________________________________________________ **/
+
+    // HXMusicChannel(): Constructor method for this class.
+    HXMusicChannel(String name, HXMusicEngine engine) {
+        this.name = name;
+        this.engine = engine;
+        engine.setListener(this);
+    }
+
+    /** MUSIC METHODS __________________________________________________________________________ **/
+
+    // play(): Prepares the specified music on this channel. If isHeld is set, the music is prepared
+    // but not started until the channel is started with HXMusic.startChannels().
+    void play(HXMusicItem music, int position, boolean isLooped, boolean isHeld, Context context) {
+        this.musicItem = music;
+        this.isLooped = isLooped;
+        this.context = context;
+        channelStatus = HXMusicChannelStatus.PREPARING;
+
+        engine.setHeld(isHeld);
+        if (!engine.initMusicEngine(music, position, false, isLooped, context)) {
+            channelStatus = HXMusicChannelStatus.STOPPED;
+            HXLog.e(LOG_TAG, "ERROR: play(): Music could not be prepared on channel: {}", name);
+        }
+    }
+
+    // pause(): Pauses the music of this channel.
+    public void pause() {
+        if (channelStatus == HXMusicChannelStatus.PLAYING) {
+            engine.pauseMusic();
+        }
+    }
+
+    // resume(): Resumes the paused music of this channel.
+    public void resume() {
+        if (channelStatus == HXMusicChannelStatus.PAUSED) {
+            engine.setHeld(false);
+            engine.resumeMusic(musicItem, engine.getCurrentPosition(), false, isLooped, context);
+        }
+    }
+
+    // stop(): Stops the music of this channel.
+    public void stop() {
+        engine.stopMusic();
+        channelStatus = HXMusicChannelStatus.STOPPED;
+    }
+
+    // seek(): Moves the music of this channel to the specified position, in milliseconds.
+    public void seek(int position) {
+        engine.seekMusic(position);
+    }
+
+    // release(): Stops the music of this channel and releases its MediaPlayer objects.
+    void release() {
+        engine.stopMusic();
+        engine.setListener(null);
+        musicItem = null;
+        context = null;
+        channelStatus = HXMusicChannelStatus.STOPPED;
+    }
+
+    /** INTERFACE METHODS ______________________________________________________________________ **/
+
+    // onMusicEnginePrepared(): Called by the HXMusicEngine when the channel's music has started.
+    @Override
+    public void onMusicEnginePrepared() {
+        channelStatus = HXMusicChannelStatus.PLAYING;
+    }
+
+    // onMusicEngineCompletion(): Called by the HXMusicEngine when the channel's music has completed.
+    @Override
+    public void onMusicEngineCompletion() {
+        channelStatus = HXMusicChannelStatus.STOPPED;
+    }
+
+    // onMusicEngineBufferingUpdate(): Called by the HXMusicEngine when the channel's MediaPlayer
+    // object calls onBufferingUpdate().
+    @Override
+    public void onMusicEngineBufferingUpdate(int percent) {}
+
+    // onMusicEnginePause(): Called by the HXMusicEngine when the channel's music has been paused.
+    @Override
+    public void onMusicEnginePause() {
+        channelStatus = HXMusicChannelStatus.PAUSED;
+    }
+
+    // onMusicEngineStop(): Called by the HXMusicEngine when the channel's music has been stopped.
+    @Override
+    public void onMusicEngineStop() {
+        channelStatus = HXMusicChannelStatus.STOPPED;
+    }
+
+    // onMusicEngineTrackChanged(): Not used, as channels do not have a music queue.
+    @Override
+    public void onMusicEngineTrackChanged(HXMusicItem music) {}
+
+    /** GET METHODS ____________________________________________________________________________ **/
+
+    // getName(): Returns the name of this channel.
+    public String getName() {
+        return name;
+    }
+
+    // getMusic(): Returns the music of this channel, or null if none has been played.
+    public HXMusicItem getMusic() {
+        return musicItem;
+    }
+
+    // getPosition(): Returns the current position of the music of this channel, in milliseconds.
+    public int getPosition() {
+        return engine.getCurrentPosition();
+    }
+
+    // getStatus(): Returns a String text message regarding the status of this channel.
+    public String getStatus() {
+        return channelStatus.toString();
+    }
+
+    // getVolume(): Returns the volume of this channel, from 0 to 1.
+    public float getVolume() {
+        return volume;
+    }
+
+    // isPaused(): Determines if the music of this channel is paused.
+    boolean isPaused() {
+        return channelStatus == HXMusicChannelStatus.PAUSED;
+    }
+
+    // isPlaying(): Determines if the music of this channel is playing.
+    public boolean isPlaying() {
+        return engine.isPlaying();
+    }
+
+    /** SET METHODS ____________________________________________________________________________ **/
+
+    // setVolume(): Sets the volume of this channel, from 0 to 1.
+    public void setVolume(float volume) {
+        this.volume = Math.min(Math.max(volume, 0f), 1f);
+        engine.setVolume(this.volume);
+    }
+}
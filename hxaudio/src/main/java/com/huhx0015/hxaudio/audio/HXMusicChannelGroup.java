@@ -0,0 +1,203 @@
+package com.huhx0015.hxaudio.audio;
+
+import com.huhx0015.hxaudio.utils.HXLog;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXMusicChannelGroup] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXMusicChannelGroup starts a set of HXMusicChannel objects together, such as the
+ *  stems of layered music, and keeps them aligned. It is ticked by HXMusicScheduler: it waits until
+ *  the music of every channel has been prepared, starts all channels back to back, and then
+ *  periodically compares the position of each channel with the first channel. Channels that have
+ *  drifted beyond the drift threshold on consecutive checks are moved back to the position of the
+ *  first channel, ahead by the time their seek is estimated to take. Once the seek has had time to
+ *  complete, the first channel is sampled again and the remaining drift refines that estimate,
+ *  and the channel is not realigned again until a cooldown has passed. The group removes itself
+ *  once the first channel is no longer playing.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+class HXMusicChannelGroup implements HXMusicScheduler.Task {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // GROUP VARIABLES:
+    private final HXMusicChannel[] channels; // Channels of the group. The first channel is the leader.
+    private final int driftThreshold; // Maximum drift between channels, in milliseconds. 0 if disabled.
+    private long startTime; // Time the group was scheduled, from SystemClock.uptimeMillis().
+    private long lastCheckTime; // Time of the last drift check, from SystemClock.uptimeMillis().
+    private boolean isStarted; // Used for determining if the channels have been started.
+    private volatile boolean isCancelled; // Used for determining if the group has been replaced.
+
+    // ALIGNMENT VARIABLES:
+    private final int[] seekLatencies; // Estimated time each channel loses while seeking, in milliseconds.
+    private final long[] seekTimes; // Time of the last realignment of each channel, or 0 if never realigned.
+    private final boolean[] isVerifying; // Used for determining if the realignment of each channel awaits verification.
+    private final int[] driftCounts; // Number of consecutive drift checks each channel has exceeded the threshold.
+
+    // METRIC VARIABLES:
+    private volatile long realignCount; // Number of times a channel has been moved back into alignment.
+
+    // CONSTANT VARIABLES:
+    static final int DEFAULT_DRIFT_THRESHOLD = 100; // Default maximum drift between channels, in milliseconds.
+    private static final long DRIFT_INTERVAL = 500; // Time between drift checks, in milliseconds.
+    private static final int DRIFT_CONFIRMATIONS = 2; // Consecutive drift checks over the threshold before a channel is realigned.
+    private static final long SEEK_SETTLE_TIME = 250; // Time after a realignment before its seek is verified, in milliseconds.
+    private static final long REALIGN_COOLDOWN = 2000; // Minimum time between realignments of a channel, in milliseconds.
+    private static final int MAX_SEEK_LATENCY = 500; // Maximum seek latency that is compensated for, in milliseconds.
+    private static final long PREPARE_TIMEOUT = 30000; // Time to wait for all channels to be prepared, in milliseconds.
+
+    // LOGGING VARIABLES:
+    private static final String LOG_TAG = HXMusicChannelGroup.class.getSimpleName();
+
+    /** CONSTRUCTOR METHOD _____________________________________________________________________ **/
+
+    // HXMusicChannelGroup(): Constructor method for this class.
+    HXMusicChannelGroup(HXMusicChannel[] channels, int driftThreshold) {
+        this.channels = channels;
+        this.driftThreshold = driftThreshold;
+        this.seekLatencies = new int[channels.length];
+        this.seekTimes = new long[channels.length];
+        this.isVerifying = new boolean[channels.length];
+        this.driftCounts = new int[channels.length];
+    }
+
+    /** TASK METHODS ___________________________________________________________________________ **/
+
+    // onTick(): Starts the channels once all are prepared, then checks the drift between them once
+    // per DRIFT_INTERVAL and verifies realignments in between. Returns false once the group has
+    // finished or has been cancelled.
+    @Override
+    public boolean onTick(long time) {
+        if (isCancelled) {
+            return false;
+        }
+
+        if (!isStarted) {
+            if (startTime == 0) {
+                startTime = time;
+            }
+            if (!isReady()) {
+                if (time - startTime < PREPARE_TIMEOUT) {
+                    return true;
+                }
+                HXLog.e(LOG_TAG, "ERROR: onTick(): Timed out waiting for all channels to be prepared, starting the prepared channels.");
+            }
+
+            for (HXMusicChannel channel : channels) {
+                channel.engine.startHeldMusic();
+            }
+            isStarted = true;
+            lastCheckTime = time;
+            HXLog.d(LOG_TAG, "MUSIC: onTick(): {} channels have been started together.", channels.length);
+            return driftThreshold > 0 && channels.length > 1;
+        }
+
+        if (time - lastCheckTime < DRIFT_INTERVAL) {
+            verifySeeks(time);
+            return true;
+        }
+        lastCheckTime = time;
+        return checkDrift(time);
+    }
+
+    // cancel(): Stops the group. Channels that have not been started remain held.
+    void cancel() {
+        isCancelled = true;
+    }
+
+    /** HELPER METHODS _________________________________________________________________________ **/
+
+    // isReady(): Determines if the music of every channel has been prepared.
+    private boolean isReady() {
+        for (HXMusicChannel channel : channels) {
+            if (!channel.engine.isHeldReady()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // checkDrift(): Moves any channel that has drifted from the first channel by more than the drift
+    // threshold on DRIFT_CONFIRMATIONS consecutive checks back to the position of the first channel,
+    // ahead by its estimated seek latency. Channels are not realigned again within REALIGN_COOLDOWN,
+    // so that a slow seek is not mistaken for new drift. Returns false once the first channel is no
+    // longer playing.
+    private boolean checkDrift(long time) {
+        HXMusicEngine leader = channels[0].engine;
+        if (!leader.isPlaying()) {
+            return false;
+        }
+
+        int leaderPosition = leader.getCurrentPosition();
+        int leaderDuration = leader.getDuration();
+        for (int i = 1; i < channels.length; i++) {
+            HXMusicEngine follower = channels[i].engine;
+            if (!follower.isPlaying() || isVerifying[i] || time - seekTimes[i] < REALIGN_COOLDOWN) {
+                driftCounts[i] = 0;
+                continue;
+            }
+
+            int drift = getDrift(leaderPosition, leaderDuration, follower);
+            if (Math.abs(drift) <= driftThreshold) {
+                driftCounts[i] = 0;
+                continue;
+            } else if (++driftCounts[i] < DRIFT_CONFIRMATIONS) {
+                continue;
+            }
+
+            int position = leaderPosition + seekLatencies[i];
+            if (leaderDuration > 0 && position >= leaderDuration) {
+                position = follower.getDuration() == leaderDuration ? position - leaderDuration : leaderDuration;
+            }
+            follower.seekMusic(position);
+            seekTimes[i] = time;
+            isVerifying[i] = true;
+            driftCounts[i] = 0;
+            realignCount++;
+            HXLog.d(LOG_TAG, "MUSIC: checkDrift(): Channel {} drifted by {} ms and has been realigned.", channels[i].getName(), drift);
+        }
+        return true;
+    }
+
+    // verifySeeks(): Samples the first channel again once the seek of a realigned channel has had
+    // SEEK_SETTLE_TIME to complete. The drift that remains is the time the channel lost (or gained)
+    // while seeking, which is added to its seek latency for its next realignment.
+    private void verifySeeks(long time) {
+        HXMusicEngine leader = channels[0].engine;
+        for (int i = 1; i < channels.length; i++) {
+            if (!isVerifying[i] || time - seekTimes[i] < SEEK_SETTLE_TIME) {
+                continue;
+            }
+            isVerifying[i] = false;
+
+            HXMusicEngine follower = channels[i].engine;
+            if (!leader.isPlaying() || !follower.isPlaying()) {
+                continue;
+            }
+
+            int drift = getDrift(leader.getCurrentPosition(), leader.getDuration(), follower);
+            seekLatencies[i] = Math.max(0, Math.min(seekLatencies[i] - drift, MAX_SEEK_LATENCY));
+            HXLog.d(LOG_TAG, "MUSIC: verifySeeks(): Channel was off by {} ms after realignment, seek latency is now {} ms.", drift, seekLatencies[i]);
+        }
+    }
+
+    // getDrift(): Returns the drift of the specified channel from the specified leader position, in
+    // milliseconds. For music of equal duration, such as looped stems, the drift is measured across
+    // the loop point.
+    private static int getDrift(int leaderPosition, int leaderDuration, HXMusicEngine follower) {
+        int drift = follower.getCurrentPosition() - leaderPosition;
+        if (leaderDuration > 0 && follower.getDuration() == leaderDuration &&
+                Math.abs(drift) > leaderDuration / 2) {
+            drift -= drift > 0 ? leaderDuration : -leaderDuration;
+        }
+        return drift;
+    }
+
+    /** GET METHODS ____________________________________________________________________________ **/
+
+    // getRealignCount(): Returns the number of times a channel has been moved back into alignment.
+    long getRealignCount() {
+        return realignCount;
+    }
+}
@@ -2,22 +2,30 @@ package com.huhx0015.hxaudio.audio;
 
 import android.annotation.TargetApi;
 import android.content.Context;
-import android.content.res.AssetFileDescriptor;
-import android.media.AudioManager;
-import android.media.MediaPlayer;
 import android.net.Uri;
 import android.os.Build;
+import android.os.SystemClock;
+import com.huhx0015.hxaudio.backend.HXMusicBackend;
+import com.huhx0015.hxaudio.cache.HXMusicCacheProxy;
+import com.huhx0015.hxaudio.cache.HXMusicDiskCache;
 import com.huhx0015.hxaudio.interfaces.HXMusicEngineListener;
+import com.huhx0015.hxaudio.metrics.HXLatencyHistogram;
+import com.huhx0015.hxaudio.metrics.HXMetrics;
+import com.huhx0015.hxaudio.metrics.HXStripedCounter;
 import com.huhx0015.hxaudio.model.HXMusicItem;
 import com.huhx0015.hxaudio.utils.HXLog;
+import com.huhx0015.hxaudio.utils.HXTrace;
+import java.io.File;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /** -----------------------------------------------------------------------------------------------
  *  [HXMusicEngine] CLASS
  *  DEVELOPER: Michael Yoon Huh (Huh X0015)
- *  DESCRIPTION: HXMusicEngine class is a wrapper class for the MediaPlayer class and is used
+ *  DESCRIPTION: HXMusicEngine class is a wrapper class for the HXMusicBackend class and is used
  *  directly by the HXMusic class to start, pause, stop, and resume music playback. HXMusicEngine is
  *  designed to handle the full playback state of a single audio stream at a time and is ideal for
- *  applications such as games.
+ *  applications such as games. The HXMusicBackend objects are created by the HXAudioBackend of
+ *  the HXMediaPlayerPool, which plays music through MediaPlayer by default.
  *  -----------------------------------------------------------------------------------------------
  */
 
@@ -27,11 +35,46 @@ class HXMusicEngine {
 
     // AUDIO VARIABLES:
     private boolean isInitialized; // Used to keep track of the initialization state of the current player.
+    private boolean isPrepared; // Used to determine if the current player has finished preparing.
+    private volatile int playGeneration; // Incremented each time the current player is replaced or stopped.
+    private boolean isGapless; // Used to determine if gapless mode has been enabled for the current music.
+    private boolean isLooped; // Used to determine if looping has been enabled for the current music.
+    private boolean isHeld; // Used to determine if the music should be prepared without being started.
+    private float volume = 1f; // Volume of the music, from 0 to 1.
     private int musicPosition; // Used for tracking the current music position.
     private Context context; // Context class used for initializing the MediaPlayer objects.
     private HXMusicItem musicItem; // References the current HXMusicItem that stores information about the current music.
-    private MediaPlayer currentPlayer; // MediaPlayer object used for playing back the current music.
-    private MediaPlayer nextPlayer; // A secondary MediaPlayer object used when gapless playback has been enabled.
+    private HXMusicItem nextMusicItem; // The HXMusicItem to be played after the current music, or null if none has been queued.
+    private HXMusicItem nextPlayerItem; // The HXMusicItem that nextPlayer has been prepared with.
+    private HXMusicBackend currentPlayer; // MediaPlayer object used for playing back the current music.
+    private HXMusicBackend nextPlayer; // A secondary MediaPlayer object used when gapless playback has been enabled.
+    private boolean isNextPrepared; // Used to determine if nextPlayer has finished preparing.
+    private boolean isNextLinked; // Used to determine if nextPlayer has been linked with setNextBackend().
+    private boolean isHandOverPending; // Used to determine if nextPlayer became the current player before it was prepared.
+    private final HXMediaPlayerPool playerPool; // Pool of idle MediaPlayer objects that are reused for new music.
+    private volatile HXMusicDiskCache musicCache; // Disk cache of streamed music. Null if caching is disabled.
+    private volatile HXMusicCacheProxy cacheProxy; // Caching proxy for streamed music. Null if caching is disabled.
+
+    // CROSSFADE VARIABLES:
+    private final HXMusicScheduler scheduler; // Shared tick thread that runs the crossfades.
+    private HXMusicBackend fadingPlayer; // Outgoing MediaPlayer object that keeps playing until the crossfade completes.
+    private HXMusicFade activeFade; // The crossfade in progress, or null if none.
+    private int fadeDuration; // Crossfade duration (in milliseconds) into the current music, or 0 if disabled.
+    private int fadeCurve; // Crossfade curve into the current music.
+
+    // METRIC VARIABLES:
+    private volatile long warmResumeCount; // Number of resumes that restarted the paused MediaPlayer object.
+    private volatile long coldResumeCount; // Number of resumes that had to prepare a new MediaPlayer object.
+    private volatile long warmResumeTime; // Sum of all warm resume latencies, in nanoseconds.
+    private volatile long coldResumeTime; // Sum of all cold resume latencies, in nanoseconds.
+    private final HXLatencyHistogram prepareTime; // Histogram of the time from preparing a music until it is prepared.
+    private final HXStripedCounter rebufferCount; // Number of times streamed music stopped to buffer.
+    private final HXLatencyHistogram gaplessGap; // Histogram of the estimated silence between looped or queued music.
+    private long prepareStartTime; // Time the current music started preparing, from System.nanoTime().
+
+    // TRACE VARIABLES:
+    private static final AtomicInteger traceIdCounter = new AtomicInteger(HXTrace.MUSIC_ENGINE); // Used for assigning trace IDs.
+    private final int traceId = traceIdCounter.getAndIncrement(); // Engine ID of this engine in HXTrace events.
 
     // LISTENER VARIABLES:
     private HXMusicEngineListener musicEngineListener; // Interface for listening for events from the MediaPlayer object.
@@ -39,103 +82,104 @@ class HXMusicEngine {
     // LOGGING VARIABLES:
     private static final String LOG_TAG = HXMusicEngine.class.getSimpleName(); // Used for logging output to logcat.
 
+    /** CONSTRUCTOR METHOD _____________________________________________________________________ **/
+
+    // HXMusicEngine(): Constructor method for this class. The metrics of this engine are registered
+    // in HXMetrics under the specified name.
+    HXMusicEngine(HXMediaPlayerPool playerPool, HXMusicScheduler scheduler, String metricsName) {
+        this.playerPool = playerPool;
+        this.scheduler = scheduler;
+        this.prepareTime = HXMetrics.histogram(metricsName + HXMetrics.PREPARE_TIME);
+        this.rebufferCount = HXMetrics.counter(metricsName + HXMetrics.REBUFFERS);
+        this.gaplessGap = HXMetrics.histogram(metricsName + HXMetrics.GAPLESS_GAP);
+    }
+
     /** INITIALIZATION METHODS _________________________________________________________________ **/
 
     // initMusicEngine(): Initializes the engine with the specified music parameters.
-    synchronized boolean initMusicEngine(HXMusicItem music, final int position,
-                                         final boolean isGapless, final boolean isLooped,
-                                         final Context context) {
+    synchronized boolean initMusicEngine(HXMusicItem music, int position, boolean isGapless,
+                                         boolean isLooped, Context context) {
+        return initMusicEngine(music, position, isGapless, isLooped, context, 0, 0, 0);
+    }
+
+    // initMusicEngine(): Initializes the engine with the specified music parameters. If a crossfade
+    // duration is set and a music is currently playing, the current music keeps playing while the
+    // new music is prepared, and both are then crossfaded along the specified curve.
+    synchronized boolean initMusicEngine(HXMusicItem music, int position, boolean isGapless,
+                                         boolean isLooped, Context context, int fadeDuration,
+                                         int fadeCurve) {
+        return initMusicEngine(music, position, isGapless, isLooped, context, 0, fadeDuration,
+                fadeCurve);
+    }
+
+    // initMusicEngine(): Initializes the engine with the specified music parameters. If resumeTime
+    // is set, the time (from System.nanoTime()) until playback begins is recorded as a cold resume.
+    private synchronized boolean initMusicEngine(HXMusicItem music, final int position,
+                                                 final boolean isGapless, final boolean isLooped,
+                                                 final Context context, final long resumeTime,
+                                                 int fadeDuration, int fadeCurve) {
         this.context = context;
         this.musicItem = music;
+        this.nextMusicItem = null;
         this.musicPosition = position;
+        this.isGapless = isGapless;
+        this.isLooped = isLooped;
+        this.fadeDuration = fadeDuration;
+        this.fadeCurve = fadeCurve;
+
+        // Invalidates any MediaPlayer object that is still being prepared for a previous music, so
+        // that it is discarded instead of started once its prepareAsync() call completes.
+        final int generation = ++playGeneration;
 
-        // Stops any music currently playing in the background.
+        // Stops any music currently playing in the background. Releasing the MediaPlayer object
+        // also cancels any prepareAsync() call that is still in progress.
         if (currentPlayer != null) {
             try {
-                if (currentPlayer.isPlaying()) {
-                    HXLog.d(LOG_TAG, "PREPARING: initMusicEngine(): Song currently playing in the background. Stopping playback before switching to a new song.");
+                finishFade(); // Ends any crossfade in progress before starting a new one.
+
+                if (fadeDuration > 0 && isPrepared && currentPlayer.isPlaying()) {
+                    HXLog.d(LOG_TAG, "PREPARING: initMusicEngine(): Song currently playing in the background. Keeping playback until the new song can be crossfaded in.");
                     removeNextMediaPlayer(); // Prevents nextPlayer from starting after currentPlayer has completed playback.
-                    currentPlayer.stop();
+                    fadingPlayer = currentPlayer;
+                    fadingPlayer.setOnCompletionListener(null);
+                    fadingPlayer.setOnBufferingUpdateListener(null);
+                    currentPlayer = null;
+                    isInitialized = false;
+                    isPrepared = false;
+                } else {
+                    if (currentPlayer.isPlaying()) {
+                        HXLog.d(LOG_TAG, "PREPARING: initMusicEngine(): Song currently playing in the background. Stopping playback before switching to a new song.");
+                        removeNextMediaPlayer(); // Prevents nextPlayer from starting after currentPlayer has completed playback.
+                        currentPlayer.stop();
+                    }
+                    release(); // Releases MediaPool resources.
                 }
-                release(); // Releases MediaPool resources.
             } catch (Exception e) {
                 HXLog.e(LOG_TAG, "ERROR: initMusicEngine(): An exception occurred while attempting to stop & release the existing MediaPlayer object. ");
             }
         }
 
-        currentPlayer = prepareMediaPlayer(context);
+        prepareStartTime = System.nanoTime();
+        currentPlayer = prepareMediaPlayer(music, context);
 
         if (currentPlayer != null) {
 
             // Sets up the prepared listener for the MediaPlayer object. Music playback begins
             // immediately once the MediaPlayer object is ready.
-            currentPlayer.setOnPreparedListener(new MediaPlayer.OnPreparedListener() {
+            currentPlayer.setOnPreparedListener(new HXMusicBackend.OnPreparedListener() {
 
                 @Override
-                public void onPrepared(MediaPlayer currentPlayer) {
-                    try {
-                        if (musicPosition != 0) {
-                            currentPlayer.seekTo(musicPosition);
-                            HXLog.d(LOG_TAG, "PREPARING: onPrepared(): MediaPlayer position set to: " + position);
-                        }
-
-                        // GAPLESS: If gapless mode is enabled, the secondary MediaPlayer will begin
-                        // immediate playback after playback on the current MediaPlayer has completed.
-                        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN && isGapless &&
-                                isLooped) {
-
-                            currentPlayer.setLooping(false); // Disables looping attribute.
-
-                            nextPlayer = prepareMediaPlayer(context);
-                            nextPlayer.setOnPreparedListener(nextPlayerPreparedListener);
-                            nextPlayer.setOnCompletionListener(nextPlayerCompletionListener);
-                            nextPlayer.setOnBufferingUpdateListener(playerBufferingUpdateListener);
-
-                            HXLog.d(LOG_TAG, "PREPARING: Gapless mode prepared.");
-                        } else {
-                            currentPlayer.setLooping(isLooped); // Sets the looping attribute.
-                            HXLog.d(LOG_TAG, "PREPARING: onPrepared(): MediaPlayer looping status: " + isLooped);
-                        }
-
-                        currentPlayer.start(); // Begins playing the music.
-
-                        // Invokes the associated listener call.
-                        if (musicEngineListener != null) {
-                            musicEngineListener.onMusicEnginePrepared();
-                        }
-
-                        HXLog.d(LOG_TAG, "MUSIC: onPrepared(): Music playback has begun.");
-                    } catch (Exception e) {
-                        HXLog.e(LOG_TAG, "ERROR: onPrepared(): " + e.getLocalizedMessage());
+                public void onPrepared(HXMusicBackend mp) {
+                    synchronized (HXMusicEngine.this) {
+                        startPreparedPlayer(mp, generation, resumeTime);
                     }
                 }
             });
 
-            // Sets up a completion listener for the MediaPlayer object.
-            currentPlayer.setOnCompletionListener(new MediaPlayer.OnCompletionListener() {
-                @Override
-                public void onCompletion(MediaPlayer mp) {
-
-                    // GAPLESS: Sets the current MediaPlayer object and prepares the next
-                    // MediaPlayer to be played when the current MediaPlayer playback has completed.
-                    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN && isGapless &&
-                            isLooped) {
-                        currentPlayer = nextPlayer; // Sets the current MediaPlayer.
-                        nextPlayer = prepareMediaPlayer(context); // Prepares the next MediaPlayer.
-                        nextPlayer.setOnPreparedListener(nextPlayerPreparedListener);
-                        mp.release(); // Releases the previous MediaPlayer object.
-                    } else {
-                        musicPosition = 0;
-
-                        // Invokes the associated listener call.
-                        if (musicEngineListener != null) {
-                            musicEngineListener.onMusicEngineCompletion();
-                        }
-
-                        HXLog.d(LOG_TAG, "MUSIC: onCompletion(): Music playback has completed.");
-                    }
-                }
-            });
+            // Sets up a completion listener for the MediaPlayer object. If the next MediaPlayer has
+            // been linked with setNextBackend(), this listener is replaced by
+            // nextPlayerCompletionListener.
+            currentPlayer.setOnCompletionListener(playerCompletionListener);
 
             // Sets up a buffering update listener for the MediaPlayer object. This listener will
             // be constantly invoked as the song is being buffered.
@@ -146,123 +190,467 @@ class HXMusicEngine {
             return true;
         } else {
             HXLog.e(LOG_TAG, "ERROR: initMusicEngine(): An error occurred while preparing the MediaPlayer object.");
+
+            // CROSSFADE: The incoming music failed before it could be prepared, so the crossfade is
+            // aborted and the outgoing music, which no longer has a completion listener, is stopped.
+            if (fadingPlayer != null) {
+                playGeneration++;
+                finishFade();
+                HXLog.e(LOG_TAG, "ERROR: initMusicEngine(): Incoming music could not be prepared, the crossfade has been aborted.");
+
+                // Invokes the associated listener call.
+                if (musicEngineListener != null) {
+                    musicEngineListener.onMusicEngineStop();
+                }
+            }
             return false;
         }
     }
 
+    // startPreparedPlayer(): Called once the current MediaPlayer object has been prepared. Applies
+    // the music position and looping attribute, prepares the next MediaPlayer object if a next
+    // music is available, and begins playback. MediaPlayer objects of stale generations are
+    // ignored.
+    private void startPreparedPlayer(HXMusicBackend player, int generation, long resumeTime) {
+
+        // Discards the MediaPlayer object if a newer music has been requested or the music has been
+        // stopped while it was being prepared.
+        if (generation != playGeneration) {
+            HXLog.d(LOG_TAG, "PREPARING: onPrepared(): Stale MediaPlayer object has been discarded.");
+            return;
+        }
+        HXTrace.record(HXTrace.PREPARED, traceId, getTraceResource(musicItem), musicPosition);
+        prepareTime.record(System.nanoTime() - prepareStartTime);
+
+        try {
+            isPrepared = true;
+            if (musicPosition != 0) {
+                player.seekTo(musicPosition);
+                HXLog.d(LOG_TAG, "PREPARING: onPrepared(): MediaPlayer position set to: {}", musicPosition);
+            }
+
+            // GAPLESS: If gapless mode is enabled or a next music has been queued, the secondary
+            // MediaPlayer will begin immediate playback after playback on the current MediaPlayer
+            // has completed.
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN &&
+                    getNextItem() != null) {
+                player.setLooping(false); // Disables looping attribute.
+                prepareNextMediaPlayer();
+            } else {
+                player.setLooping(isLooped); // Sets the looping attribute.
+                HXLog.d(LOG_TAG, "PREPARING: onPrepared(): MediaPlayer looping status: {}", isLooped);
+            }
+
+            // CROSSFADE: The new music starts silent and is faded in on the shared tick thread,
+            // while the outgoing music is faded out.
+            if (fadingPlayer != null) {
+                player.setVolume(0f, 0f);
+                player.start(); // Begins playing the music.
+                activeFade = new HXMusicFade(this, player, fadingPlayer, SystemClock.uptimeMillis(),
+                        fadeDuration, fadeCurve);
+                scheduler.schedule(activeFade);
+                HXLog.d(LOG_TAG, "MUSIC: onPrepared(): Crossfade of {} ms has begun.", fadeDuration);
+            } else if (isHeld) {
+                player.setVolume(volume, volume);
+                HXLog.d(LOG_TAG, "MUSIC: onPrepared(): Music has been prepared and is held until startHeldMusic() is called.");
+                return;
+            } else {
+                player.setVolume(volume, volume);
+                player.start(); // Begins playing the music.
+            }
+
+            if (resumeTime != 0) {
+                coldResumeTime += System.nanoTime() - resumeTime;
+                coldResumeCount++;
+            }
+
+            // QUEUE: The music has already been reported by onMusicEngineTrackChanged() if playback
+            // was handed over to this MediaPlayer before it was prepared.
+            boolean isHandOver = isHandOverPending;
+            isHandOverPending = false;
+
+            // Invokes the associated listener call.
+            if (musicEngineListener != null && !isHandOver) {
+                musicEngineListener.onMusicEnginePrepared();
+            }
+
+            HXLog.d(LOG_TAG, "MUSIC: onPrepared(): Music playback has begun.");
+        } catch (Exception e) {
+            HXLog.e(LOG_TAG, "ERROR: onPrepared(): {}", e.getLocalizedMessage());
+        }
+    }
+
     // prepareMediaPlayer(): Prepares a MediaPlayer object with the resource or path defined by the
-    // HXMusicItem.
-    private synchronized MediaPlayer prepareMediaPlayer(Context context) {
+    // HXMusicItem. Returns null if the MediaPlayer object could not be prepared, in which case it is
+    // returned to the pool.
+    private synchronized HXMusicBackend prepareMediaPlayer(HXMusicItem musicItem, Context context) {
 
         // Sets up the MediaPlayer object for the music to be played.
-        MediaPlayer player = new MediaPlayer(); // Initializes the MediaPlayer.
-        player.setAudioStreamType(AudioManager.STREAM_MUSIC); // Sets the audio type for the MediaPlayer object.
-        HXLog.d(LOG_TAG, "PREPARING: prepareMediaPlayer(): MediaPlayer stream type set to STREAM_MUSIC.");
+        HXMusicBackend player = playerPool.acquire(); // Reuses an idle MediaPlayer, or creates a new one.
+        HXTrace.record(HXTrace.PREPARE_START, traceId, getTraceResource(musicItem), 0);
+
+        // Sets up the error listener before preparing, as a data source that cannot be read may
+        // fail before prepareAsync() returns. It aborts the crossfade if the incoming music fails.
+        player.setOnErrorListener(playerErrorListener);
 
         // Prepares the specified music URL for playback.
         if (musicItem.getMusicUrl() != null) {
             try {
-                player.setDataSource(context, Uri.parse(musicItem.getMusicUrl()));
+                player.setDataSource(context, getStreamUrl(musicItem.getMusicUrl()));
+                player.setOnInfoListener(playerInfoListener);
                 player.prepareAsync(); // Prepares the MediaPlayer object asynchronously.
                 isInitialized = true;
                 HXLog.d(LOG_TAG, "PREPARING: prepareMediaPlayer(): MediaPlayer URL was set, preparing MediaPlayer...");
+                return player;
             } catch (Exception e) {
-                HXLog.e(LOG_TAG, "ERROR: prepareMediaPlayer(): An error occurred while loading the music from the specified URL: " + e.getLocalizedMessage());
+                HXLog.e(LOG_TAG, "ERROR: prepareMediaPlayer(): An error occurred while loading the music from the specified URL: {}", e.getLocalizedMessage());
             }
         }
 
         // Prepares the specified music resource for playback.
         else if (musicItem.getMusicResource() != 0) {
             try {
-                AssetFileDescriptor asset = context.getResources().openRawResourceFd(musicItem.getMusicResource());
-                player.setDataSource(asset.getFileDescriptor(), asset.getStartOffset(), asset.getLength());
+                player.setDataSource(context, musicItem.getMusicResource());
                 player.prepareAsync(); // Prepares the MediaPlayer object asynchronously.
                 isInitialized = true;
                 HXLog.d(LOG_TAG, "PREPARING: prepareMediaPlayer(): MediaPlayer resource was set, preparing MediaPlayer...");
+                return player;
             } catch (Exception e) {
-                HXLog.e(LOG_TAG, "ERROR: prepareMediaPlayer(): An error occurred while loading the music resource: " + e.getLocalizedMessage());
+                HXLog.e(LOG_TAG, "ERROR: prepareMediaPlayer(): An error occurred while loading the music resource: {}", e.getLocalizedMessage());
             }
         }
 
-        return player;
+        // The MediaPlayer object is never prepared, so none of its listeners will be called.
+        playerPool.recycle(player);
+        return null;
+    }
+
+    // prepareNextMediaPlayer(): Prepares the secondary MediaPlayer object used for gapless
+    // playback, which begins immediate playback after currentPlayer has completed playback.
+    private synchronized void prepareNextMediaPlayer() {
+        nextPlayerItem = getNextItem();
+        nextPlayer = prepareMediaPlayer(nextPlayerItem, context);
+        isNextPrepared = false;
+        isNextLinked = false;
+        if (nextPlayer == null) {
+            nextPlayerItem = null;
+            HXLog.e(LOG_TAG, "ERROR: prepareNextMediaPlayer(): Next MediaPlayer object could not be prepared.");
+            return;
+        }
+        nextPlayer.setOnPreparedListener(nextPlayerPreparedListener);
+        nextPlayer.setOnCompletionListener(playerCompletionListener); // Replaced once the MediaPlayer after it has been linked.
+        nextPlayer.setOnBufferingUpdateListener(playerBufferingUpdateListener);
+
+        HXLog.d(LOG_TAG, "PREPARING: prepareNextMediaPlayer(): Gapless mode prepared.");
     }
 
     // removeNextMediaPlayer(): Prevents the next MediaPlayer from being played after currentPlayer
-    // playback has been completed.
+    // playback has been completed. The next MediaPlayer is released, as a new one is prepared if
+    // playback is resumed, and currentPlayer completes normally again.
     private synchronized void removeNextMediaPlayer() {
 
         // Removes the link between currentPlayer and nextPlayer if nextPlayer has been prepared for
         // playback after currentPlayer completes playback.
         if (nextPlayer != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
             try {
-                currentPlayer.setNextMediaPlayer(null);
-                nextPlayer = null;
+                if (isNextLinked) {
+                    currentPlayer.setNextBackend(null);
+                    currentPlayer.setOnCompletionListener(playerCompletionListener);
+                }
             } catch (Exception e) {
-                HXLog.e(LOG_TAG, "ERROR: pause(): " + e.getLocalizedMessage());
+                HXLog.e(LOG_TAG, "ERROR: removeNextMediaPlayer(): {}", e.getLocalizedMessage());
             }
+            playerPool.recycle(nextPlayer);
+            nextPlayer = null;
+            nextPlayerItem = null;
+            isNextPrepared = false;
+            isNextLinked = false;
+        }
+    }
+
+    // completePlayer(): Called once the specified MediaPlayer object has completed playback. If a
+    // next MediaPlayer exists, playback is handed over to it: a linked MediaPlayer has already
+    // been started by setNextBackend(), a prepared one is started here, and one that is still
+    // being prepared is started by startPreparedPlayer() once it is ready. Otherwise, a gapless
+    // looped music is restarted on the same MediaPlayer, and any other music completes.
+    private void completePlayer(HXMusicBackend mp, long completionTime) {
+        HXMusicItem changedItem = null;
+        boolean isCompleted = false;
+
+        synchronized (this) {
+            if (mp != currentPlayer) {
+                HXLog.d(LOG_TAG, "MUSIC: completePlayer(): Stale MediaPlayer object has been ignored.");
+                return;
+            }
+
+            if (nextPlayer != null && (isNextPrepared || nextMusicItem != null)) {
+                changedItem = handOverPlayer(mp, completionTime);
+            }
+
+            // GAPLESS: The next MediaPlayer was not prepared in time, so the music is restarted on
+            // the current MediaPlayer instead.
+            else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN && isGapless &&
+                    isLooped && nextMusicItem == null) {
+                try {
+                    mp.seekTo(0);
+                    mp.start();
+                    recordGap(mp, completionTime);
+                    HXLog.d(LOG_TAG, "MUSIC: completePlayer(): Next MediaPlayer was not ready, restarting the current MediaPlayer.");
+                } catch (Exception e) {
+                    HXLog.e(LOG_TAG, "ERROR: completePlayer(): {}", e.getLocalizedMessage());
+                }
+            } else {
+                musicPosition = 0;
+                isCompleted = true;
+                HXTrace.record(HXTrace.COMPLETION, traceId, getTraceResource(musicItem), 0);
+                HXLog.d(LOG_TAG, "MUSIC: completePlayer(): Music playback has completed.");
+            }
+        }
+
+        // Invokes the associated listener calls outside of the engine lock.
+        if (musicEngineListener != null) {
+            if (isCompleted) {
+                musicEngineListener.onMusicEngineCompletion();
+            } else if (changedItem != null) {
+                musicEngineListener.onMusicEngineTrackChanged(changedItem);
+            }
+        }
+    }
+
+    // handOverPlayer(): Makes nextPlayer the current MediaPlayer after the specified MediaPlayer has
+    // completed playback, and returns the queued music that is now current, or null if the same
+    // music continues.
+    private synchronized HXMusicItem handOverPlayer(HXMusicBackend mp, long completionTime) {
+        HXMusicItem changedItem = null;
+        HXTrace.record(HXTrace.COMPLETION, traceId, getTraceResource(musicItem), 0);
+        currentPlayer = nextPlayer; // Sets the current MediaPlayer.
+        nextPlayer = null;
+        musicPosition = 0;
+
+        // QUEUE: The queued next music is now current, and the listener queues the music that
+        // follows it.
+        if (nextMusicItem != null) {
+            musicItem = nextPlayerItem;
+            nextMusicItem = null;
+            changedItem = musicItem;
+        }
+
+        if (isNextPrepared) {
+            try {
+                if (!isNextLinked) {
+                    currentPlayer.setVolume(volume, volume);
+                    currentPlayer.start(); // Begins playing the music, as it was not linked in time.
+                }
+            } catch (Exception e) {
+                HXLog.e(LOG_TAG, "ERROR: handOverPlayer(): {}", e.getLocalizedMessage());
+            }
+            recordGap(currentPlayer, completionTime);
+
+            // GAPLESS: The same music is prepared again to follow the new current MediaPlayer.
+            if (changedItem == null && getNextItem() != null) {
+                prepareNextMediaPlayer(); // Prepares the next MediaPlayer.
+            }
+        } else {
+            // The next MediaPlayer is still being prepared, and is started by
+            // nextPlayerPreparedListener once it is ready.
+            isPrepared = false;
+            isHandOverPending = true;
+            prepareStartTime = System.nanoTime();
+            HXLog.d(LOG_TAG, "MUSIC: handOverPlayer(): Next MediaPlayer was not ready, it will be started once prepared.");
+        }
+
+        nextPlayerItem = null;
+        isNextPrepared = false;
+        isNextLinked = false;
+        playerPool.recycle(mp); // Returns the previous MediaPlayer to the pool.
+        HXLog.d(LOG_TAG, "MUSIC: handOverPlayer(): Playback has been handed over to the next MediaPlayer object.");
+        return changedItem;
+    }
+
+    // getStreamUrl(): Returns the URL that MediaPlayer streams the specified music URL from. Music
+    // that has been cached or downloaded is played from its cached file, and other HTTP URLs are
+    // routed through HXMusicCacheProxy if caching has been enabled.
+    private String getStreamUrl(String url) {
+        HXMusicDiskCache cache = musicCache;
+        if (cache != null && cache.contains(url)) {
+            File file = cache.get(url);
+            if (file != null) {
+                return Uri.fromFile(file).toString();
+            }
+        }
+
+        HXMusicCacheProxy proxy = cacheProxy;
+        if (proxy != null && (url.startsWith("http://") || url.startsWith("https://"))) {
+            return proxy.getProxyUrl(url);
+        }
+        return url;
+    }
+
+    // getNextItem(): Returns the HXMusicItem to be played after the current music: the queued next
+    // music if set, the current music if gapless looping is enabled, or null otherwise.
+    private HXMusicItem getNextItem() {
+        if (nextMusicItem != null) {
+            return nextMusicItem;
+        }
+        return isGapless && isLooped ? musicItem : null;
+    }
+
+    /** CROSSFADE METHODS ______________________________________________________________________ **/
+
+    // applyFade(): Called by HXMusicFade on the tick thread to set the volumes of the specified
+    // crossfade at the specified progress, from 0 to 1. The outgoing MediaPlayer is released once
+    // the crossfade has completed. Returns false once the crossfade is no longer active.
+    synchronized boolean applyFade(HXMusicFade fade, float progress) {
+        if (fade != activeFade) {
+            return false;
+        }
+
+        try {
+            float incomingVolume = fade.getIncomingVolume(progress) * volume;
+            float outgoingVolume = fade.getOutgoingVolume(progress) * volume;
+            fade.incomingPlayer.setVolume(incomingVolume, incomingVolume);
+            fade.outgoingPlayer.setVolume(outgoingVolume, outgoingVolume);
+        } catch (Exception e) {
+            HXLog.e(LOG_TAG, "ERROR: applyFade(): {}", e.getLocalizedMessage());
+            progress = 1f;
+        }
+
+        if (progress >= 1f) {
+            finishFade();
+            HXLog.d(LOG_TAG, "MUSIC: applyFade(): Crossfade has completed.");
+            return false;
+        }
+        return true;
+    }
+
+    // finishFade(): Ends any crossfade in progress immediately. The outgoing MediaPlayer is released
+    // and the current MediaPlayer is set to full volume.
+    private synchronized void finishFade() {
+        if (activeFade != null) {
+            scheduler.cancel(activeFade);
+            activeFade = null;
+        }
+
+        if (fadingPlayer != null) {
+            playerPool.recycle(fadingPlayer);
+            fadingPlayer = null;
+
+            if (currentPlayer != null && isPrepared) {
+                currentPlayer.setVolume(volume, volume);
+            }
+        }
+    }
+
+    // abortFade(): Called once the specified MediaPlayer object has failed. If it is the incoming
+    // MediaPlayer of a crossfade, which may still be preparing, the crossfade is aborted: both the
+    // outgoing and incoming MediaPlayer objects are released and the music is stopped. Returns
+    // false for any other MediaPlayer, leaving the error to the OnCompletionListener.
+    private boolean abortFade(HXMusicBackend mp, int what, int extra) {
+        synchronized (this) {
+            if (mp != currentPlayer || fadingPlayer == null) {
+                return false;
+            }
+
+            HXLog.e(LOG_TAG, "ERROR: abortFade(): Incoming music failed ({}, {}), the crossfade has been aborted.", what, extra);
+            playGeneration++;
+            release(); // Releases the outgoing MediaPlayer with finishFade(), then the incoming one.
+        }
+
+        // Invokes the associated listener call outside of the engine lock.
+        if (musicEngineListener != null) {
+            musicEngineListener.onMusicEngineStop();
         }
+        return true;
     }
 
     /** LISTENER METHODS ________________________________________________________________________**/
 
+    // playerCompletionListener: Used to set the OnCompletionListener for the current MediaPlayer
+    // object while no next MediaPlayer has been linked to it.
+    private HXMusicBackend.OnCompletionListener playerCompletionListener = new HXMusicBackend.OnCompletionListener() {
+        @Override
+        public void onCompletion(HXMusicBackend mp) {
+            completePlayer(mp, System.nanoTime());
+        }
+    };
+
     // nextPlayerPreparedListener: Used to set the next OnPreparedListener for the nextMediaPlayer
-    // object when gapless playback mode has been enabled.
-    private MediaPlayer.OnPreparedListener nextPlayerPreparedListener = new MediaPlayer.OnPreparedListener() {
+    // object when gapless playback mode has been enabled. If playback has already been handed over
+    // to the MediaPlayer while it was being prepared, it is started as the current MediaPlayer. The
+    // work is posted to the shared tick thread, off the MediaPlayer thread.
+    private HXMusicBackend.OnPreparedListener nextPlayerPreparedListener = new HXMusicBackend.OnPreparedListener() {
         @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
         @Override
-        public void onPrepared(MediaPlayer mp) {
-            Thread preparePlayerThread = new Thread(new Runnable() {
+        public void onPrepared(final HXMusicBackend mp) {
+            scheduler.post(new Runnable() {
                 @Override
                 public void run() {
-                    if (currentPlayer != null && nextPlayer != null) {
-                        try {
-                            currentPlayer.setNextMediaPlayer(nextPlayer);
-                            currentPlayer.setOnCompletionListener(nextPlayerCompletionListener);
-                        } catch (Exception e) {
-                            HXLog.e(LOG_TAG, "ERROR: onPrepared(): " + e.getLocalizedMessage());
+                    synchronized (HXMusicEngine.this) {
+                        if (currentPlayer != null && nextPlayer == mp) {
+                            isNextPrepared = true;
+                            try {
+                                currentPlayer.setNextBackend(nextPlayer);
+                                currentPlayer.setOnCompletionListener(nextPlayerCompletionListener);
+                                isNextLinked = true;
+                            } catch (Exception e) {
+                                HXLog.e(LOG_TAG, "ERROR: onPrepared(): {}", e.getLocalizedMessage());
+                            }
+                        } else if (currentPlayer == mp && !isPrepared) {
+                            startPreparedPlayer(mp, playGeneration, 0);
                         }
                     }
                 }
             });
-            preparePlayerThread.start();
         }
     };
 
-    // nextPlayerCompletionListener: Used to set the next OnCompletionListener for the
-    // nextMediaPlayer object when gapless playback mode has been enabled.
-    private MediaPlayer.OnCompletionListener nextPlayerCompletionListener = new MediaPlayer.OnCompletionListener() {
+    // nextPlayerCompletionListener: Used to set the OnCompletionListener for the current
+    // MediaPlayer object once the next MediaPlayer has been linked to it with setNextBackend(). The
+    // completion is posted to the shared tick thread, off the MediaPlayer thread.
+    private HXMusicBackend.OnCompletionListener nextPlayerCompletionListener = new HXMusicBackend.OnCompletionListener() {
         @Override
-        public void onCompletion(final MediaPlayer mp) {
-            Thread preparePlayerThread = new Thread(new Runnable() {
+        public void onCompletion(final HXMusicBackend mp) {
+            final long completionTime = System.nanoTime();
+            scheduler.post(new Runnable() {
                 @Override
                 public void run() {
-                    if (nextPlayer != null) {
-                        currentPlayer = nextPlayer; // Sets the current MediaPlayer.
-                        nextPlayer = prepareMediaPlayer(context); // Prepares the next MediaPlayer.
-                        nextPlayer.setOnPreparedListener(nextPlayerPreparedListener);
-                        mp.release(); // Releases the previous MediaPlayer.
-                        HXLog.d(LOG_TAG, "MUSIC: onCompletion(): Preparing next MediaPlayer object for gapless playback.");
-                    } else {
-                        HXLog.e(LOG_TAG, "ERROR: onCompletion(): Unable to set nextPlayer as currentPlayer as nextPlayer was null.");
-                    }
+                    completePlayer(mp, completionTime);
                 }
             });
-            preparePlayerThread.start();
+        }
+    };
+
+    // playerErrorListener: Used to set the OnErrorListener for the current MediaPlayer object, so
+    // that a failed crossfade does not leave the outgoing music playing at full volume.
+    private HXMusicBackend.OnErrorListener playerErrorListener = new HXMusicBackend.OnErrorListener() {
+        @Override
+        public boolean onError(HXMusicBackend mp, int what, int extra) {
+            return abortFade(mp, what, extra);
         }
     };
 
     // playerBufferingUpdateListener: Used to set the OnBufferingUpdateListener for the MediaPlayer
     // object.
-    private MediaPlayer.OnBufferingUpdateListener playerBufferingUpdateListener = new MediaPlayer.OnBufferingUpdateListener() {
+    private HXMusicBackend.OnBufferingUpdateListener playerBufferingUpdateListener = new HXMusicBackend.OnBufferingUpdateListener() {
         @Override
-        public void onBufferingUpdate(MediaPlayer mp, int percent) {
+        public void onBufferingUpdate(HXMusicBackend mp, int percent) {
 
             // Invokes the associated listener call.
             if (musicEngineListener != null) {
                 musicEngineListener.onMusicEngineBufferingUpdate(percent);
             }
+        }
+    };
 
-            HXLog.d(LOG_TAG, "MUSIC: initMusicEngine(): Music buffering at: " + percent);
+    // playerInfoListener: Used to set the OnInfoListener for streamed music, which counts each time
+    // playback stops to buffer.
+    private HXMusicBackend.OnInfoListener playerInfoListener = new HXMusicBackend.OnInfoListener() {
+        @Override
+        public boolean onInfo(HXMusicBackend mp, int what, int extra) {
+            if (what == HXMusicBackend.INFO_BUFFERING_START) {
+                rebufferCount.increment();
+            }
+            return false;
         }
     };
 
@@ -274,19 +662,21 @@ class HXMusicEngine {
             boolean isPlaying = currentPlayer != null && isInitialized && currentPlayer.isPlaying();
             return isPlaying;
         } catch (Exception e) {
-            HXLog.e(LOG_TAG, "ERROR: isPlaying(): " + e.getLocalizedMessage());
+            HXLog.e(LOG_TAG, "ERROR: isPlaying(): {}", e.getLocalizedMessage());
             return false;
         }
     }
 
-    // pause(): Pauses any music playing in the background.
-    int pauseMusic() {
+    // pause(): Pauses any music playing in the background. The paused MediaPlayer object is kept
+    // prepared, so that resumeMusic() can restart it without preparing the music again.
+    synchronized int pauseMusic() {
 
         // Checks to see if the MediaPlayer object has been initialized first before retrieving the
         // current music position and pausing the music.
         if (currentPlayer != null && isInitialized) {
 
             try {
+                finishFade(); // Stops any outgoing music that is still being faded out.
                 musicPosition = currentPlayer.getCurrentPosition(); // Retrieves the current music position.
 
                 // Pauses the music only if there is a music is currently playing.
@@ -312,15 +702,149 @@ class HXMusicEngine {
         return 0;
     }
 
-    // release(): Used to release the resources being used by the MediaPlayer object.
+    // resumeMusic(): Resumes the paused music. If the paused MediaPlayer object is still prepared,
+    // playback is restarted directly (warm resume). Otherwise, such as after trimMusic() released
+    // the MediaPlayer object, the music is prepared again and started at the specified position
+    // (cold resume).
+    synchronized boolean resumeMusic(HXMusicItem music, int position, boolean isGapless,
+                                     boolean isLooped, Context context) {
+        long resumeTime = System.nanoTime();
+
+        if (currentPlayer != null && isPrepared && musicItem == music) {
+            try {
+                if (!currentPlayer.isPlaying()) {
+                    currentPlayer.start(); // Restarts the paused music.
+
+                    // GAPLESS: The secondary MediaPlayer was released when the music was paused.
+                    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN &&
+                            getNextItem() != null && nextPlayer == null) {
+                        prepareNextMediaPlayer();
+                    }
+                }
+
+                warmResumeTime += System.nanoTime() - resumeTime;
+                warmResumeCount++;
+
+                // Invokes the associated listener call.
+                if (musicEngineListener != null) {
+                    musicEngineListener.onMusicEnginePrepared();
+                }
+
+                HXLog.d(LOG_TAG, "MUSIC: resumeMusic(): Paused MediaPlayer object has been restarted.");
+                return true;
+            } catch (Exception e) {
+                HXLog.e(LOG_TAG, "ERROR: resumeMusic(): An exception occurred while attempting to restart the paused MediaPlayer object: {}", e.getLocalizedMessage());
+            }
+        }
+
+        HXLog.d(LOG_TAG, "MUSIC: resumeMusic(): MediaPlayer object is not prepared, preparing the music again.");
+        return initMusicEngine(music, position, isGapless, isLooped, context, resumeTime, 0, 0);
+    }
+
+    // startHeldMusic(): Starts the music that has been prepared while held. Returns false if the
+    // music is not held or has not finished preparing.
+    synchronized boolean startHeldMusic() {
+        if (currentPlayer == null || !isPrepared || !isHeld) {
+            return false;
+        }
+
+        try {
+            isHeld = false;
+            currentPlayer.start(); // Begins playing the music.
+
+            // Invokes the associated listener call.
+            if (musicEngineListener != null) {
+                musicEngineListener.onMusicEnginePrepared();
+            }
+
+            HXLog.d(LOG_TAG, "MUSIC: startHeldMusic(): Held music playback has begun.");
+            return true;
+        } catch (Exception e) {
+            HXLog.e(LOG_TAG, "ERROR: startHeldMusic(): {}", e.getLocalizedMessage());
+            return false;
+        }
+    }
+
+    // setNextMusic(): Sets the music to be played after the current music, or null to stop after the
+    // current music. On Android API 16 and above, the next music is prepared in the background
+    // while the current music plays, and playback is handed over through setNextBackend().
+    synchronized void setNextMusic(HXMusicItem music) {
+        boolean isQueued = music == nextMusicItem;
+        nextMusicItem = music;
+        if (isQueued && nextPlayerItem == getNextItem()) {
+            return; // The next MediaPlayer has already been prepared with the next music.
+        }
+
+        // Replaces the next MediaPlayer if the current MediaPlayer is already playing.
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN && currentPlayer != null &&
+                isPrepared) {
+            removeNextMediaPlayer();
+            if (getNextItem() != null) {
+                currentPlayer.setLooping(false);
+                prepareNextMediaPlayer();
+            } else {
+                currentPlayer.setLooping(isLooped);
+            }
+        }
+    }
+
+    // trimMusic(): Releases the idle pooled MediaPlayer objects and the MediaPlayer objects of the
+    // paused music to free memory. The music is prepared again when it is resumed. Returns true if
+    // the MediaPlayer objects of the paused music were released.
+    synchronized boolean trimMusic() {
+        boolean isTrimmed = false;
+        try {
+            if (currentPlayer != null && isPrepared && !currentPlayer.isPlaying()) {
+                playGeneration++;
+                release(); // Returns the MediaPlayer objects of the paused music to the pool.
+                isTrimmed = true;
+                HXLog.d(LOG_TAG, "MUSIC: trimMusic(): Paused MediaPlayer object has been released.");
+            }
+        } catch (Exception e) {
+            HXLog.e(LOG_TAG, "ERROR: trimMusic(): {}", e.getLocalizedMessage());
+        }
+
+        playerPool.clear(); // Releases all idle MediaPlayer objects.
+        return isTrimmed;
+    }
+
+    // seekMusic(): Moves the music to the specified position. If the MediaPlayer object is still
+    // being prepared or the music is paused, the position is applied once playback begins.
+    synchronized void seekMusic(int position) {
+        musicPosition = position;
+
+        if (currentPlayer != null && isPrepared) {
+            try {
+                currentPlayer.seekTo(position);
+                HXLog.d(LOG_TAG, "MUSIC: seekMusic(): Music position set to: {}", position);
+            } catch (Exception e) {
+                HXLog.e(LOG_TAG, "ERROR: seekMusic(): An exception occurred while attempting to seek the existing MediaPlayer object.");
+            }
+        }
+    }
+
+    // release(): Used to release the resources being used by the MediaPlayer object. The MediaPlayer
+    // objects are reset and returned to HXMediaPlayerPool for reuse.
     synchronized boolean release() {
         isInitialized = false;
+        isPrepared = false;
+        finishFade(); // Releases any outgoing MediaPlayer object that is still being faded out.
+
+        // Releases the secondary MediaPlayer object, which may still be preparing.
+        if (nextPlayer != null) {
+            playerPool.recycle(nextPlayer);
+            nextPlayer = null;
+            nextPlayerItem = null;
+        }
+        isNextPrepared = false;
+        isNextLinked = false;
+        isHandOverPending = false;
 
         if (currentPlayer != null) {
-            currentPlayer.reset();
-            currentPlayer.release();
+            playerPool.recycle(currentPlayer);
             currentPlayer = null;
-            HXLog.d(LOG_TAG, "RELEASE: release(): MediaPlayer object has been released.");
+            HXTrace.record(HXTrace.RELEASE, traceId, getTraceResource(musicItem), 0);
+            HXLog.d(LOG_TAG, "RELEASE: release(): MediaPlayer object has been returned to the pool.");
             return true;
         } else {
             HXLog.e(LOG_TAG, "ERROR: release(): MediaPlayer object is null and cannot be released.");
@@ -328,8 +852,10 @@ class HXMusicEngine {
         }
     }
 
-    // stop(): Stops any music playing in the background.
-    boolean stopMusic() {
+    // stop(): Stops any music playing in the background. Any MediaPlayer object still being
+    // prepared is discarded.
+    synchronized boolean stopMusic() {
+        playGeneration++;
 
         if (currentPlayer != null) {
             try {
@@ -356,8 +882,131 @@ class HXMusicEngine {
         }
     }
 
+    /** METRIC METHODS _________________________________________________________________________ **/
+
+    // recordGap(): Records the estimated silence between the completed music and the specified
+    // MediaPlayer object, which has taken over playback. The time elapsed since the completion
+    // callback is compared with how far the MediaPlayer object has already played: a MediaPlayer
+    // object that started at or before the completion records no gap.
+    private void recordGap(HXMusicBackend player, long completionTime) {
+        try {
+            long elapsed = System.nanoTime() - completionTime;
+            long played = player.getCurrentPosition() * 1000000L;
+            gaplessGap.record(Math.max(elapsed - played, 0));
+        } catch (Exception e) {
+            HXLog.e(LOG_TAG, "ERROR: recordGap(): {}", e.getLocalizedMessage());
+        }
+    }
+
+    /** GET METHODS ____________________________________________________________________________ **/
+
+    // getTraceResource(): Returns the resource ID of the specified music in HXTrace events. Music
+    // URLs are identified by the hash code of the URL.
+    private static int getTraceResource(HXMusicItem music) {
+        if (music == null) {
+            return 0;
+        }
+        return music.getMusicUrl() != null ? music.getMusicUrl().hashCode() : music.getMusicResource();
+    }
+
+    // getCurrentPosition(): Returns the current position of the music, or the position it will be
+    // started at if it is not playing.
+    synchronized int getCurrentPosition() {
+        try {
+            if (currentPlayer != null && isPrepared && currentPlayer.isPlaying()) {
+                return currentPlayer.getCurrentPosition();
+            }
+        } catch (Exception e) {
+            HXLog.e(LOG_TAG, "ERROR: getCurrentPosition(): {}", e.getLocalizedMessage());
+        }
+        return musicPosition;
+    }
+
+    // getDuration(): Returns the duration of the music, in milliseconds, or -1 if it is not known.
+    synchronized int getDuration() {
+        try {
+            if (currentPlayer != null && isPrepared) {
+                return currentPlayer.getDuration();
+            }
+        } catch (Exception e) {
+            HXLog.e(LOG_TAG, "ERROR: getDuration(): {}", e.getLocalizedMessage());
+        }
+        return -1;
+    }
+
+    // isHeldReady(): Determines if the music is held and has finished preparing, so that it can be
+    // started with startHeldMusic().
+    synchronized boolean isHeldReady() {
+        return currentPlayer != null && isPrepared && isHeld;
+    }
+
+    // samplePosition(): Passes the current music, position and duration to the specified
+    // HXMusicPositionTask. Returns true if the music is playing.
+    synchronized boolean samplePosition(HXMusicPositionTask task) {
+        if (currentPlayer == null || !isPrepared) {
+            return false;
+        }
+
+        try {
+            task.onSample(musicItem, currentPlayer.getCurrentPosition(), currentPlayer.getDuration());
+            return currentPlayer.isPlaying();
+        } catch (Exception e) {
+            HXLog.e(LOG_TAG, "ERROR: samplePosition(): {}", e.getLocalizedMessage());
+            return false;
+        }
+    }
+
+    // getWarmResumeCount(): Returns the number of resumes that restarted the paused MediaPlayer.
+    long getWarmResumeCount() {
+        return warmResumeCount;
+    }
+
+    // getColdResumeCount(): Returns the number of resumes that prepared a new MediaPlayer.
+    long getColdResumeCount() {
+        return coldResumeCount;
+    }
+
+    // getAverageWarmResumeLatency(): Returns the average warm resume latency, in nanoseconds.
+    long getAverageWarmResumeLatency() {
+        long count = warmResumeCount;
+        return count > 0 ? warmResumeTime / count : 0;
+    }
+
+    // getAverageColdResumeLatency(): Returns the average time (in nanoseconds) between a cold resume
+    // and the start of playback.
+    long getAverageColdResumeLatency() {
+        long count = coldResumeCount;
+        return count > 0 ? coldResumeTime / count : 0;
+    }
+
     /** SET METHODS ____________________________________________________________________________ **/
 
+    // setMusicCache(): Sets the HXMusicDiskCache that cached music is played from and the
+    // HXMusicCacheProxy used for streaming music URLs, or null to stream music URLs directly.
+    void setMusicCache(HXMusicDiskCache cache, HXMusicCacheProxy proxy) {
+        this.musicCache = cache;
+        this.cacheProxy = proxy;
+    }
+
+    // setHeld(): Sets whether music is prepared without being started. Held music is started with
+    // startHeldMusic().
+    synchronized void setHeld(boolean isHeld) {
+        this.isHeld = isHeld;
+    }
+
+    // setVolume(): Sets the volume of the music, from 0 to 1. Crossfades are scaled by the volume.
+    synchronized void setVolume(float volume) {
+        this.volume = Math.min(Math.max(volume, 0f), 1f);
+
+        try {
+            if (currentPlayer != null && isPrepared && activeFade == null) {
+                currentPlayer.setVolume(this.volume, this.volume);
+            }
+        } catch (Exception e) {
+            HXLog.e(LOG_TAG, "ERROR: setVolume(): {}", e.getLocalizedMessage());
+        }
+    }
+
     // setListener(): Sets the HXMusicEngineListener between this HXMusicEngine and HXMusic classes.
     void setListener(HXMusicEngineListener listener) {
         this.musicEngineListener = listener;
@@ -0,0 +1,198 @@
+package com.huhx0015.hxaudio.audio;
+
+import android.os.Handler;
+import android.os.Looper;
+import com.huhx0015.hxaudio.interfaces.HXMusicListener;
+import com.huhx0015.hxaudio.model.HXMusicItem;
+import java.util.concurrent.Executor;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXMusicEventDispatcher] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXMusicEventDispatcher delivers HXMusic events to all registered HXMusicListener
+ *  interfaces. Listeners are stored in a copy-on-write array, so dispatching an event does not
+ *  acquire any locks. Events are delivered on the Executor selected by the application, or on the
+ *  thread that raised them if none has been set. Buffering updates are coalesced: only the latest
+ *  buffering percent is delivered each time the Executor runs, using a single reused Runnable, and
+ *  unchanged buffering percents are dropped.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+class HXMusicEventDispatcher {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // LISTENER VARIABLES:
+    private volatile HXMusicListener[] listeners = new HXMusicListener[0]; // Registered listeners, replaced on each change.
+    private volatile Executor executor; // Executor that events are delivered on, or null for the calling thread.
+
+    // BUFFERING VARIABLES:
+    private final Object lock = new Object(); // Used for guarding listener changes and the pending buffering update.
+    private HXMusicItem bufferingMusic; // Music of the latest buffering update.
+    private int bufferingPercent = -1; // Latest buffering percent, or -1 if none.
+    private boolean isBufferingPosted; // Used for determining if a buffering update is waiting to be delivered.
+
+    // CONSTANT VARIABLES:
+    static final int EVENT_PREPARED = 1; // The music has been prepared and started.
+    static final int EVENT_COMPLETION = 2; // The music has completed.
+    static final int EVENT_PAUSE = 3; // The music has been paused.
+    static final int EVENT_STOP = 4; // The music has been stopped.
+
+    // bufferingRunnable: Delivers the latest buffering update. Reused for every buffering update.
+    private final Runnable bufferingRunnable = new Runnable() {
+        @Override
+        public void run() {
+            HXMusicItem music;
+            int percent;
+            synchronized (lock) {
+                music = bufferingMusic;
+                percent = bufferingPercent;
+                isBufferingPosted = false;
+            }
+
+            for (HXMusicListener listener : listeners) {
+                listener.onMusicBufferingUpdate(music, percent);
+            }
+        }
+    };
+
+    /** LISTENER METHODS _______________________________________________________________________ **/
+
+    // addListener(): Registers the specified listener. Has no effect if it is already registered.
+    void addListener(HXMusicListener listener) {
+        synchronized (lock) {
+            HXMusicListener[] current = listeners;
+            for (HXMusicListener registered : current) {
+                if (registered == listener) {
+                    return;
+                }
+            }
+
+            HXMusicListener[] updated = new HXMusicListener[current.length + 1];
+            System.arraycopy(current, 0, updated, 0, current.length);
+            updated[current.length] = listener;
+            listeners = updated;
+        }
+    }
+
+    // removeListener(): Unregisters the specified listener.
+    void removeListener(HXMusicListener listener) {
+        synchronized (lock) {
+            HXMusicListener[] current = listeners;
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] == listener) {
+                    HXMusicListener[] updated = new HXMusicListener[current.length - 1];
+                    System.arraycopy(current, 0, updated, 0, i);
+                    System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                    listeners = updated;
+                    return;
+                }
+            }
+        }
+    }
+
+    // setListener(): Replaces all registered listeners with the specified listener, or unregisters
+    // all listeners if it is null.
+    void setListener(HXMusicListener listener) {
+        synchronized (lock) {
+            listeners = listener != null ? new HXMusicListener[] { listener } : new HXMusicListener[0];
+        }
+    }
+
+    /** DISPATCH METHODS _______________________________________________________________________ **/
+
+    // dispatch(): Delivers the specified event for the specified music to all listeners.
+    void dispatch(final int event, final HXMusicItem music) {
+        if (listeners.length == 0 || music == null) {
+            return;
+        }
+
+        Executor eventExecutor = executor;
+        if (eventExecutor == null) {
+            deliver(event, music);
+        } else {
+            eventExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    deliver(event, music);
+                }
+            });
+        }
+    }
+
+    // dispatchBuffering(): Delivers the specified buffering percent to all listeners. If a previous
+    // buffering update has not been delivered yet, it is replaced by this one.
+    void dispatchBuffering(HXMusicItem music, int percent) {
+        if (listeners.length == 0) {
+            return;
+        }
+
+        synchronized (lock) {
+            if (percent == bufferingPercent && music == bufferingMusic) {
+                return;
+            }
+            bufferingMusic = music;
+            bufferingPercent = percent;
+            if (isBufferingPosted) {
+                return;
+            }
+            isBufferingPosted = true;
+        }
+
+        Executor eventExecutor = executor;
+        if (eventExecutor == null) {
+            bufferingRunnable.run();
+        } else {
+            eventExecutor.execute(bufferingRunnable);
+        }
+    }
+
+    // deliver(): Invokes the listener method of the specified event on all listeners.
+    private void deliver(int event, HXMusicItem music) {
+        for (HXMusicListener listener : listeners) {
+            switch (event) {
+                case EVENT_PREPARED:
+                    listener.onMusicPrepared(music);
+                    break;
+                case EVENT_COMPLETION:
+                    listener.onMusicCompletion(music);
+                    break;
+                case EVENT_PAUSE:
+                    listener.onMusicPause(music);
+                    break;
+                case EVENT_STOP:
+                    listener.onMusicStop(music);
+                    break;
+            }
+        }
+    }
+
+    /** SET METHODS ____________________________________________________________________________ **/
+
+    // setExecutor(): Sets the Executor that events are delivered on, or null to deliver events on
+    // the thread that raised them.
+    void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /** SUBCLASSES _____________________________________________________________________________ **/
+
+    // MainThreadExecutor: Executor that posts to the main thread. The Handler is created on first
+    // use.
+    static class MainThreadExecutor implements Executor {
+
+        // HANDLER VARIABLES:
+        private volatile Handler mainHandler; // Handler of the main thread's Looper.
+
+        // execute(): Posts the specified Runnable to the main thread.
+        @Override
+        public void execute(Runnable runnable) {
+            Handler handler = mainHandler;
+            if (handler == null) {
+                handler = new Handler(Looper.getMainLooper());
+                mainHandler = handler;
+            }
+            handler.post(runnable);
+        }
+    }
+}
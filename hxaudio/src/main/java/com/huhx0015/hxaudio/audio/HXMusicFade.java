@@ -0,0 +1,76 @@
+package com.huhx0015.hxaudio.audio;
+
+import com.huhx0015.hxaudio.backend.HXMusicBackend;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXMusicFade] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXMusicFade is a crossfade between an outgoing and an incoming MediaPlayer object,
+ *  ticked by HXMusicScheduler. On each tick, the volumes of both MediaPlayer objects are ramped
+ *  along the selected crossfade curve by HXMusicEngine, which releases the outgoing MediaPlayer
+ *  once the crossfade has completed.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+class HXMusicFade implements HXMusicScheduler.Task {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // FADE VARIABLES:
+    private final HXMusicEngine engine; // HXMusicEngine that owns both MediaPlayer objects.
+    final HXMusicBackend incomingPlayer; // MediaPlayer object being faded in.
+    final HXMusicBackend outgoingPlayer; // MediaPlayer object being faded out.
+    private final long startTime; // Start time of the crossfade, from SystemClock.uptimeMillis().
+    private final int duration; // Duration of the crossfade, in milliseconds.
+    private final int curve; // Crossfade curve, one of the HXMusic CROSSFADE constants.
+
+    /** CONSTRUCTOR METHOD _____________________________________________________________________ **/
+
+    // HXMusicFade(): Constructor method for this class.
+    HXMusicFade(HXMusicEngine engine, HXMusicBackend incomingPlayer, HXMusicBackend outgoingPlayer,
+                long startTime, int duration, int curve) {
+        this.engine = engine;
+        this.incomingPlayer = incomingPlayer;
+        this.outgoingPlayer = outgoingPlayer;
+        this.startTime = startTime;
+        this.duration = Math.max(duration, 1);
+        this.curve = curve;
+    }
+
+    /** TASK METHODS ___________________________________________________________________________ **/
+
+    // onTick(): Applies the crossfade volumes for the current time. Returns false once the
+    // crossfade has completed or has been cancelled.
+    @Override
+    public boolean onTick(long time) {
+        float progress = Math.min(Math.max((time - startTime) / (float) duration, 0f), 1f);
+        return engine.applyFade(this, progress);
+    }
+
+    /** CURVE METHODS __________________________________________________________________________ **/
+
+    // getIncomingVolume(): Returns the volume of the incoming MediaPlayer at the specified progress,
+    // from 0 to 1.
+    float getIncomingVolume(float progress) {
+        switch (curve) {
+            case HXMusic.CROSSFADE_LINEAR:
+                return progress;
+            case HXMusic.CROSSFADE_S_CURVE:
+                return progress * progress * (3 - 2 * progress);
+            default:
+                return (float) Math.sin(progress * Math.PI / 2);
+        }
+    }
+
+    // getOutgoingVolume(): Returns the volume of the outgoing MediaPlayer at the specified progress,
+    // from 0 to 1.
+    float getOutgoingVolume(float progress) {
+        switch (curve) {
+            case HXMusic.CROSSFADE_LINEAR:
+            case HXMusic.CROSSFADE_S_CURVE:
+                return 1 - getIncomingVolume(progress);
+            default:
+                return (float) Math.cos(progress * Math.PI / 2);
+        }
+    }
+}
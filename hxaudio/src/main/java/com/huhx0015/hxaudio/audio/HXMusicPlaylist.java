@@ -0,0 +1,163 @@
+package com.huhx0015.hxaudio.audio;
+
+import com.huhx0015.hxaudio.model.HXMusicItem;
+import java.util.ArrayList;
+import java.util.Random;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXMusicPlaylist] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXMusicPlaylist is the music queue used by HXMusic. It keeps the queued
+ *  HXMusicItem objects along with their play order, which is shuffled when shuffle mode is
+ *  enabled, and determines the next and previous music based on the current repeat mode.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+class HXMusicPlaylist {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // QUEUE VARIABLES:
+    private final ArrayList<HXMusicItem> items = new ArrayList<>(); // Queued music, in the order they were added.
+    private final ArrayList<Integer> order = new ArrayList<>(); // Play order, as indices into items.
+    private final Random random = new Random(); // Used for shuffling the play order.
+    private int position = -1; // Position of the current music in the play order, or -1 if none.
+    private boolean isShuffled; // Used to determine if shuffle mode has been enabled.
+    private int repeatMode = HXMusic.REPEAT_OFF; // Current repeat mode.
+
+    /** QUEUE METHODS __________________________________________________________________________ **/
+
+    // add(): Adds the specified music to the end of the queue. In shuffle mode, the music is placed
+    // at a random position after the current music.
+    synchronized void add(HXMusicItem music) {
+        items.add(music);
+        int index = items.size() - 1;
+        if (isShuffled) {
+            int first = position + 1;
+            order.add(first + random.nextInt(order.size() - first + 1), index);
+        } else {
+            order.add(index);
+        }
+    }
+
+    // clear(): Removes all music from the queue.
+    synchronized void clear() {
+        items.clear();
+        order.clear();
+        position = -1;
+    }
+
+    // moveToNext(): Moves to the next music in the play order and returns it, or returns null if
+    // the end of the queue has been reached and the queue does not repeat. The next music is
+    // always skipped to, even in REPEAT_ONE mode.
+    synchronized HXMusicItem moveToNext() {
+        int next = position + 1;
+        if (next >= order.size()) {
+            if (repeatMode == HXMusic.REPEAT_OFF || order.isEmpty()) {
+                return null;
+            }
+            next = 0;
+        }
+        position = next;
+        return getItem(position);
+    }
+
+    // moveToPrevious(): Moves to the previous music in the play order and returns it, or returns
+    // null if the start of the queue has been reached and the queue does not repeat.
+    synchronized HXMusicItem moveToPrevious() {
+        int previous = position - 1;
+        if (previous < 0) {
+            if (repeatMode == HXMusic.REPEAT_OFF || order.isEmpty()) {
+                return null;
+            }
+            previous = order.size() - 1;
+        }
+        position = previous;
+        return getItem(position);
+    }
+
+    // moveTo(): Moves to the specified music, searching forward from the current music. Returns
+    // false if the music is not in the queue.
+    synchronized boolean moveTo(HXMusicItem music) {
+        int size = order.size();
+        for (int i = 0; i < size; i++) {
+            int candidate = (Math.max(position, 0) + i) % size;
+            if (getItem(candidate) == music) {
+                position = candidate;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // peekNext(): Returns the music to be played automatically once the current music completes,
+    // based on the current repeat mode, or null if playback should stop.
+    synchronized HXMusicItem peekNext() {
+        if (position < 0) {
+            return null;
+        } else if (repeatMode == HXMusic.REPEAT_ONE) {
+            return getItem(position);
+        } else if (position + 1 < order.size()) {
+            return getItem(position + 1);
+        }
+        return repeatMode == HXMusic.REPEAT_ALL ? getItem(0) : null;
+    }
+
+    /** HELPER METHODS _________________________________________________________________________ **/
+
+    // getItem(): Returns the music at the specified position of the play order.
+    private HXMusicItem getItem(int orderPosition) {
+        return items.get(order.get(orderPosition));
+    }
+
+    /** GET METHODS ____________________________________________________________________________ **/
+
+    // isCurrent(): Determines if the specified music is the current music of the queue.
+    synchronized boolean isCurrent(HXMusicItem music) {
+        return music != null && position >= 0 && getItem(position) == music;
+    }
+
+    // size(): Returns the number of music in the queue.
+    synchronized int size() {
+        return items.size();
+    }
+
+    /** SET METHODS ____________________________________________________________________________ **/
+
+    // setShuffle(): Enables or disables shuffle mode. When enabled, the current music is kept and
+    // the remaining music is shuffled after it. When disabled, the original order is restored.
+    synchronized void setShuffle(boolean isShuffled) {
+        if (this.isShuffled == isShuffled) {
+            return;
+        }
+        this.isShuffled = isShuffled;
+
+        int current = position >= 0 ? order.get(position) : -1;
+        order.clear();
+        for (int i = 0; i < items.size(); i++) {
+            order.add(i);
+        }
+
+        if (isShuffled) {
+            if (current >= 0) {
+                order.remove(Integer.valueOf(current));
+                order.add(0, current);
+            }
+
+            // Fisher-Yates shuffle of the music after the current music.
+            int first = current >= 0 ? 1 : 0;
+            for (int i = order.size() - 1; i > first; i--) {
+                int j = first + random.nextInt(i - first + 1);
+                order.set(i, order.set(j, order.get(i)));
+            }
+            position = current >= 0 ? 0 : -1;
+        } else {
+            position = current;
+        }
+    }
+
+    // setRepeat(): Sets the repeat mode of the queue.
+    synchronized void setRepeat(int repeatMode) {
+        this.repeatMode = repeatMode;
+    }
+}
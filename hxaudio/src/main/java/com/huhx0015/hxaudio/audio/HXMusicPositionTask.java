@@ -0,0 +1,156 @@
+package com.huhx0015.hxaudio.audio;
+
+import android.os.Handler;
+import android.os.Looper;
+import com.huhx0015.hxaudio.interfaces.HXMusicPositionListener;
+import com.huhx0015.hxaudio.model.HXMusicItem;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXMusicPositionTask] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXMusicPositionTask reports the playback position of HXMusicEngine to a
+ *  HXMusicPositionListener at a fixed interval. It is ticked by the shared HXMusicScheduler and
+ *  removes itself once the music is no longer playing, so that the tick thread can idle. Updates
+ *  are only delivered when the position has changed, and are posted to the main thread with a
+ *  single reused Runnable; an update that has not been delivered yet is replaced by the latest one.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+class HXMusicPositionTask implements HXMusicScheduler.Task, Runnable {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // POSITION VARIABLES:
+    private final HXMusicScheduler scheduler; // Shared tick thread that runs this task.
+    private final Handler mainHandler = new Handler(Looper.getMainLooper()); // Used for delivering updates on the main thread.
+    private volatile HXMusicEngine engine; // HXMusicEngine whose position is reported.
+    private volatile HXMusicPositionListener listener; // Listener notified of position updates.
+    private volatile int interval = DEFAULT_INTERVAL; // Time between position updates, in milliseconds.
+    private long lastUpdateTime; // Time of the last position update, from SystemClock.uptimeMillis().
+    private HXMusicItem lastMusic; // Music of the last sampled position.
+    private int lastPosition = -1; // Last sampled position, in milliseconds.
+
+    // DELIVERY VARIABLES:
+    private HXMusicItem pendingMusic; // Music of the update waiting to be delivered.
+    private int pendingPosition; // Position of the update waiting to be delivered.
+    private int pendingDuration; // Duration of the update waiting to be delivered.
+    private boolean isPosted; // Used for determining if an update is waiting to be delivered.
+
+    // SCHEDULING VARIABLES:
+    private boolean isScheduled; // Used for determining if this task is scheduled.
+    private volatile boolean isRequested; // Set by start() to keep this task scheduled for another tick.
+
+    // CONSTANT VARIABLES:
+    static final int DEFAULT_INTERVAL = 250; // Default time between position updates, in milliseconds.
+
+    /** CONSTRUCTOR METHOD _____________________________________________________________________ **/
+
+    // HXMusicPositionTask(): Constructor method for this class.
+    HXMusicPositionTask(HXMusicScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /** TASK METHODS ___________________________________________________________________________ **/
+
+    // start(): Schedules this task if a listener has been set. Called whenever the music starts
+    // playing or its position is changed.
+    void start() {
+        if (listener == null || engine == null) {
+            return;
+        }
+
+        isRequested = true;
+        synchronized (this) {
+            if (!isScheduled) {
+                isScheduled = true;
+                lastUpdateTime = 0;
+                scheduler.schedule(this);
+            }
+        }
+    }
+
+    // onTick(): Samples the playback position once per interval and posts it to the main thread if
+    // it has changed. Returns false once the music has stopped playing or the listener has been
+    // removed.
+    @Override
+    public boolean onTick(long time) {
+        HXMusicEngine currentEngine = engine;
+        if (listener != null && currentEngine != null) {
+            if (time - lastUpdateTime < interval) {
+                return true;
+            }
+
+            lastUpdateTime = time;
+            isRequested = false;
+            if (currentEngine.samplePosition(this)) {
+                return true;
+            }
+        }
+
+        // Keeps ticking if start() was called while the music was being sampled.
+        synchronized (this) {
+            if (isRequested && listener != null) {
+                isRequested = false;
+                return true;
+            }
+            isScheduled = false;
+            return false;
+        }
+    }
+
+    // onSample(): Called by HXMusicEngine with the sampled playback position. The update is posted
+    // to the main thread if the position or music has changed.
+    void onSample(HXMusicItem music, int position, int duration) {
+        if (position == lastPosition && music == lastMusic) {
+            return;
+        }
+        lastPosition = position;
+        lastMusic = music;
+
+        synchronized (this) {
+            pendingMusic = music;
+            pendingPosition = position;
+            pendingDuration = duration;
+            if (isPosted) {
+                return;
+            }
+            isPosted = true;
+        }
+        mainHandler.post(this);
+    }
+
+    // run(): Delivers the latest position update to the listener on the main thread.
+    @Override
+    public void run() {
+        HXMusicItem music;
+        int position;
+        int duration;
+        synchronized (this) {
+            music = pendingMusic;
+            position = pendingPosition;
+            duration = pendingDuration;
+            pendingMusic = null;
+            isPosted = false;
+        }
+
+        HXMusicPositionListener positionListener = listener;
+        if (positionListener != null) {
+            positionListener.onMusicPosition(music, position, duration);
+        }
+    }
+
+    /** SET METHODS ____________________________________________________________________________ **/
+
+    // setEngine(): Sets the HXMusicEngine whose position is reported.
+    void setEngine(HXMusicEngine engine) {
+        this.engine = engine;
+    }
+
+    // setListener(): Sets the listener notified of position updates and the time between updates,
+    // in milliseconds. Setting a null listener stops the updates.
+    void setListener(HXMusicPositionListener listener, int interval) {
+        this.interval = interval > 0 ? interval : DEFAULT_INTERVAL;
+        this.listener = listener;
+        lastPosition = -1;
+    }
+}
@@ -0,0 +1,148 @@
+package com.huhx0015.hxaudio.audio;
+
+import android.os.SystemClock;
+import com.huhx0015.hxaudio.utils.HXLog;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXMusicScheduler] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXMusicScheduler runs all periodic music work, such as crossfades, on a single
+ *  shared tick thread instead of a thread per task. One-shot work, such as MediaPlayer callbacks
+ *  that must not run on the MediaPlayer thread, is posted to the same thread. The thread only ticks
+ *  while at least one task is scheduled, and waits idle otherwise. Tasks are stored in a copy-on-write array, so ticking
+ *  does not acquire any locks or allocate any objects.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+class HXMusicScheduler implements Runnable {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // TASK VARIABLES:
+    private volatile Task[] tasks = new Task[0]; // Scheduled tasks, replaced on each change.
+
+    // THREAD VARIABLES:
+    private final Object lock = new Object(); // Used for guarding task changes and idle waiting.
+    private volatile boolean isRunning; // Used for determining if the tick thread is running.
+    private volatile Thread tickThread; // The shared tick thread.
+
+    // CONSTANT VARIABLES:
+    static final long TICK_INTERVAL = 20; // Time between ticks, in milliseconds.
+
+    // LOGGING VARIABLES:
+    private static final String LOG_TAG = HXMusicScheduler.class.getSimpleName();
+
+    /** INTERFACE ______________________________________________________________________________ **/
+
+    // Task: A periodic task run on the tick thread.
+    interface Task {
+
+        // onTick(): Called on every tick with the current time from SystemClock.uptimeMillis().
+        // Returns false once the task has finished, removing it from the scheduler.
+        boolean onTick(long time);
+    }
+
+    /** TASK METHODS ___________________________________________________________________________ **/
+
+    // schedule(): Adds the specified task, starting the tick thread if it is not running.
+    void schedule(Task task) {
+        synchronized (lock) {
+            Task[] current = tasks;
+            Task[] updated = new Task[current.length + 1];
+            System.arraycopy(current, 0, updated, 0, current.length);
+            updated[current.length] = task;
+            tasks = updated;
+
+            if (!isRunning) {
+                isRunning = true;
+                tickThread = new Thread(this, LOG_TAG);
+                tickThread.setDaemon(true);
+                tickThread.start();
+                HXLog.d(LOG_TAG, "START: schedule(): Music tick thread has been started.");
+            }
+            lock.notify();
+        }
+    }
+
+    // post(): Runs the specified Runnable once on the tick thread, on the next tick.
+    void post(final Runnable runnable) {
+        schedule(new Task() {
+            @Override
+            public boolean onTick(long time) {
+                runnable.run();
+                return false;
+            }
+        });
+    }
+
+    // cancel(): Removes the specified task. Has no effect if the task is not scheduled.
+    void cancel(Task task) {
+        synchronized (lock) {
+            Task[] current = tasks;
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] == task) {
+                    Task[] updated = new Task[current.length - 1];
+                    System.arraycopy(current, 0, updated, 0, i);
+                    System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                    tasks = updated;
+                    return;
+                }
+            }
+        }
+    }
+
+    // stop(): Removes all tasks and stops the tick thread.
+    void stop() {
+        synchronized (lock) {
+            tasks = new Task[0];
+            if (isRunning) {
+                isRunning = false;
+                tickThread = null;
+                lock.notifyAll();
+                HXLog.d(LOG_TAG, "STOP: stop(): Music tick thread has been stopped.");
+            }
+        }
+    }
+
+    /** THREAD METHODS _________________________________________________________________________ **/
+
+    // run(): The tick loop. Ticks all scheduled tasks every TICK_INTERVAL milliseconds, and waits
+    // while no tasks are scheduled. A tick thread exits once it has been replaced by a new one.
+    @Override
+    public void run() {
+        Thread thread = Thread.currentThread();
+        while (isRunning && tickThread == thread) {
+            Task[] current = tasks;
+
+            if (current.length == 0) {
+                synchronized (lock) {
+                    while (tasks.length == 0 && isRunning && tickThread == thread) {
+                        try {
+                            lock.wait();
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                    }
+                }
+                continue;
+            }
+
+            long time = SystemClock.uptimeMillis();
+            for (Task task : current) {
+                boolean isActive;
+                try {
+                    isActive = task.onTick(time);
+                } catch (Exception e) {
+                    HXLog.e(LOG_TAG, "ERROR: run(): An exception occurred while running a music task: {}", e.getLocalizedMessage());
+                    isActive = false;
+                }
+
+                if (!isActive) {
+                    cancel(task);
+                }
+            }
+
+            SystemClock.sleep(TICK_INTERVAL);
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.huhx0015.hxaudio.audio;
+
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.os.Build;
+import com.huhx0015.hxaudio.utils.HXLog;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXPcmCache] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXPcmCache stores the decoded 16-bit PCM data of sound resources as WAV files in
+ *  the application cache directory, so that compressed sound resources are only decoded once.
+ *  Cached files are keyed by the sound resource ID and the application version code, as resource
+ *  IDs may change between builds. Cached files are read back through a memory-mapped FileChannel,
+ *  or passed to SoundPool through a file descriptor. Decoding is only available on devices running
+ *  on Android API 16 and above.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+@TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+class HXPcmCache {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // CACHE VARIABLES:
+    private final File cacheDir; // Directory of the cached WAV files.
+    private final String versionSuffix; // File name suffix containing the application version code.
+
+    // CONSTANT VARIABLES:
+    private static final String CACHE_DIRECTORY = "hxaudio_pcm"; // Name of the cache directory.
+    private static final String CACHE_EXTENSION = ".wav"; // File extension of the cached files.
+    private static final String TEMP_EXTENSION = ".tmp"; // File extension of partially written files.
+    private static final int HEADER_SIZE = 44; // Size of the WAV header, in bytes.
+    private static final int BITS_PER_SAMPLE = 16; // Bits per sample of the cached PCM data.
+    private static final int FORMAT_PCM = 1; // WAV format code for PCM data.
+
+    // LOGGING VARIABLES:
+    private static final String LOG_TAG = HXPcmCache.class.getSimpleName();
+
+    /** CONSTRUCTOR METHOD _____________________________________________________________________ **/
+
+    // HXPcmCache(): Constructor method for this class. Cached files of other application versions
+    // are deleted.
+    HXPcmCache(Context context) {
+        this.cacheDir = new File(context.getCacheDir(), CACHE_DIRECTORY);
+        this.versionSuffix = "_" + readVersionCode(context) + CACHE_EXTENSION;
+
+        if (!cacheDir.exists() && !cacheDir.mkdirs()) {
+            HXLog.e(LOG_TAG, "ERROR: HXPcmCache(): Unable to create the cache directory.");
+        }
+        deleteStaleFiles();
+    }
+
+    /** CACHE METHODS __________________________________________________________________________ **/
+
+    // read(): Returns the PCM data of the specified sound resource. The cached file is memory-mapped
+    // if it exists, otherwise the sound resource is decoded and written to the cache. Returns null
+    // if the sound resource could not be decoded.
+    HXPcmData read(Context context, int resource) {
+        File file = getCacheFile(resource);
+        if (file.exists()) {
+            HXPcmData pcm = readFile(file);
+            if (pcm != null) {
+                return pcm;
+            }
+            deleteFile(file);
+        }
+
+        HXPcmData pcm = HXPcmDecoder.decode(context, resource);
+        if (pcm != null) {
+            writeFile(file, pcm);
+        }
+        return pcm;
+    }
+
+    // getFile(): Returns the cached WAV file of the specified sound resource, decoding and writing
+    // it first if it does not exist. Returns null if the sound resource could not be decoded.
+    File getFile(Context context, int resource) {
+        File file = findFile(resource);
+        if (file != null) {
+            return file;
+        }
+
+        file = getCacheFile(resource);
+        HXPcmData pcm = HXPcmDecoder.decode(context, resource);
+        return pcm != null && writeFile(file, pcm) ? file : null;
+    }
+
+    // findFile(): Returns the cached WAV file of the specified sound resource, or null if it has not
+    // been cached. Sound resources are never decoded by this method.
+    File findFile(int resource) {
+        File file = getCacheFile(resource);
+        return file.exists() ? file : null;
+    }
+
+    // clear(): Deletes all cached files.
+    void clear() {
+        File[] files = cacheDir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                deleteFile(file);
+            }
+        }
+    }
+
+    /** FILE METHODS ___________________________________________________________________________ **/
+
+    // readFile(): Reads the PCM data of the specified cached WAV file through a memory-mapped
+    // FileChannel. Returns null if the file is not a valid cached WAV file.
+    private static HXPcmData readFile(File file) {
+        RandomAccessFile input = null;
+        try {
+            input = new RandomAccessFile(file, "r");
+            FileChannel channel = input.getChannel();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (!isValidHeader(buffer, channel.size())) {
+                HXLog.e(LOG_TAG, "ERROR: readFile(): Cached file has an invalid header.");
+                return null;
+            }
+
+            int channels = buffer.getShort(22);
+            int sampleRate = buffer.getInt(24);
+            int length = buffer.getInt(40) / 2;
+
+            short[] data = new short[length];
+            buffer.position(HEADER_SIZE);
+            buffer.asShortBuffer().get(data, 0, length);
+            return new HXPcmData(data, length, channels, sampleRate);
+        } catch (IOException e) {
+            HXLog.e(LOG_TAG, "ERROR: readFile(): Unable to read the cached file: {}", e.getLocalizedMessage());
+            return null;
+        } finally {
+            closeFile(input);
+        }
+    }
+
+    // readDuration(): Returns the duration (in milliseconds) of the specified cached WAV file, or 0
+    // if the file could not be read.
+    static int readDuration(File file) {
+        RandomAccessFile input = null;
+        try {
+            input = new RandomAccessFile(file, "r");
+            FileChannel channel = input.getChannel();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(header, 0);
+
+            if (!isValidHeader(header, channel.size())) {
+                return 0;
+            }
+
+            int bytesPerSecond = header.getInt(28);
+            return bytesPerSecond > 0 ? (int) ((long) header.getInt(40) * 1000 / bytesPerSecond) : 0;
+        } catch (IOException e) {
+            HXLog.e(LOG_TAG, "ERROR: readDuration(): Unable to read the cached file: {}", e.getLocalizedMessage());
+            return 0;
+        } finally {
+            closeFile(input);
+        }
+    }
+
+    // writeFile(): Writes the specified PCM data as a WAV file. The data is written to a temporary
+    // file first, which is then renamed, so that a partially written file is never read. Returns
+    // true if the file was written.
+    private static boolean writeFile(File file, HXPcmData pcm) {
+        File tempFile = new File(file.getPath() + "." + Thread.currentThread().getId() + TEMP_EXTENSION);
+        FileOutputStream output = null;
+        try {
+            int dataSize = pcm.length * 2;
+            int blockAlign = pcm.channels * BITS_PER_SAMPLE / 8;
+
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + dataSize).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.put((byte) 'R').put((byte) 'I').put((byte) 'F').put((byte) 'F');
+            buffer.putInt(36 + dataSize);
+            buffer.put((byte) 'W').put((byte) 'A').put((byte) 'V').put((byte) 'E');
+            buffer.put((byte) 'f').put((byte) 'm').put((byte) 't').put((byte) ' ');
+            buffer.putInt(16);
+            buffer.putShort((short) FORMAT_PCM);
+            buffer.putShort((short) pcm.channels);
+            buffer.putInt(pcm.sampleRate);
+            buffer.putInt(pcm.sampleRate * blockAlign);
+            buffer.putShort((short) blockAlign);
+            buffer.putShort((short) BITS_PER_SAMPLE);
+            buffer.put((byte) 'd').put((byte) 'a').put((byte) 't').put((byte) 'a');
+            buffer.putInt(dataSize);
+            buffer.asShortBuffer().put(pcm.data, 0, pcm.length);
+            buffer.position(0);
+
+            output = new FileOutputStream(tempFile);
+            FileChannel channel = output.getChannel();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            output.getFD().sync();
+            output.close();
+            output = null;
+
+            if (!tempFile.renameTo(file)) {
+                deleteFile(tempFile);
+                return file.exists();
+            }
+
+            HXLog.d(LOG_TAG, "CACHE: writeFile(): Decoded PCM data has been cached.");
+            return true;
+        } catch (IOException e) {
+            HXLog.e(LOG_TAG, "ERROR: writeFile(): Unable to write the cached file: {}", e.getLocalizedMessage());
+            deleteFile(tempFile);
+            return false;
+        } finally {
+            closeFile(output);
+        }
+    }
+
+    /** HELPER METHODS _________________________________________________________________________ **/
+
+    // isValidHeader(): Determines if the specified buffer starts with a WAV header written by
+    // writeFile(), for a file of the specified size.
+    private static boolean isValidHeader(ByteBuffer header, long fileSize) {
+        return fileSize >= HEADER_SIZE &&
+                header.get(0) == 'R' && header.get(1) == 'I' && header.get(2) == 'F' && header.get(3) == 'F' &&
+                header.get(8) == 'W' && header.get(9) == 'A' && header.get(10) == 'V' && header.get(11) == 'E' &&
+                header.getShort(20) == FORMAT_PCM && header.getShort(34) == BITS_PER_SAMPLE &&
+                header.getShort(22) > 0 && header.getInt(24) > 0 &&
+                header.getInt(40) >= 0 && HEADER_SIZE + (long) header.getInt(40) <= fileSize;
+    }
+
+    // getCacheFile(): Returns the cache file of the specified sound resource.
+    private File getCacheFile(int resource) {
+        return new File(cacheDir, resource + versionSuffix);
+    }
+
+    // deleteStaleFiles(): Deletes the cached files of other application versions, as well as any
+    // partially written files.
+    private void deleteStaleFiles() {
+        File[] files = cacheDir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (!file.getName().endsWith(versionSuffix)) {
+                    deleteFile(file);
+                }
+            }
+        }
+    }
+
+    // deleteFile(): Deletes the specified file, logging any failure.
+    private static void deleteFile(File file) {
+        if (file.exists() && !file.delete()) {
+            HXLog.e(LOG_TAG, "ERROR: deleteFile(): Unable to delete cached file: {}", file.getName());
+        }
+    }
+
+    // closeFile(): Closes the specified file, ignoring any failure.
+    private static void closeFile(Closeable file) {
+        if (file != null) {
+            try {
+                file.close();
+            } catch (IOException e) {
+                HXLog.e(LOG_TAG, "ERROR: closeFile(): Unable to close the cached file: {}", e.getLocalizedMessage());
+            }
+        }
+    }
+
+    // readVersionCode(): Returns the version code of the application, or 0 if it is not available.
+    private static int readVersionCode(Context context) {
+        try {
+            return context.getPackageManager().getPackageInfo(context.getPackageName(), 0).versionCode;
+        } catch (Exception e) {
+            HXLog.e(LOG_TAG, "ERROR: readVersionCode(): Unable to read the application version code: {}", e.getLocalizedMessage());
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.huhx0015.hxaudio.audio;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXPcmData] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXPcmData holds the decoded 16-bit PCM data of a sound resource, as produced by
+ *  HXPcmDecoder or read back from HXPcmCache.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+class HXPcmData {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // PCM VARIABLES:
+    final short[] data; // Interleaved 16-bit PCM data. May be larger than the decoded length.
+    final int length; // Number of decoded 16-bit values in the data array.
+    final int channels; // Number of channels.
+    final int sampleRate; // Sample rate of the PCM data, in Hz.
+
+    /** CONSTRUCTOR METHOD _____________________________________________________________________ **/
+
+    // HXPcmData(): Constructor method for this class.
+    HXPcmData(short[] data, int length, int channels, int sampleRate) {
+        this.data = data;
+        this.length = length;
+        this.channels = channels;
+        this.sampleRate = sampleRate;
+    }
+
+    /** GET METHODS ____________________________________________________________________________ **/
+
+    // getDuration(): Returns the duration of the PCM data, in milliseconds.
+    int getDuration() {
+        return (int) ((long) length / channels * 1000 / sampleRate);
+    }
+}
@@ -0,0 +1,157 @@
+package com.huhx0015.hxaudio.audio;
+
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.media.MediaCodec;
+import android.media.MediaExtractor;
+import android.media.MediaFormat;
+import android.os.Build;
+import com.huhx0015.hxaudio.utils.HXLog;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.util.Arrays;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXPcmDecoder] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXPcmDecoder decodes raw sound resources into 16-bit PCM data using MediaExtractor
+ *  and MediaCodec. Only available on devices running on Android API 16 and above.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+@TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+class HXPcmDecoder {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // CONSTANT VARIABLES:
+    private static final long CODEC_TIMEOUT = 10000; // Timeout (in microseconds) for dequeuing codec buffers.
+    private static final int MAX_CHANNELS = 2; // Maximum number of channels supported by HXMixer.
+
+    // LOGGING VARIABLES:
+    private static final String LOG_TAG = HXPcmDecoder.class.getSimpleName();
+
+    /** DECODE METHODS _________________________________________________________________________ **/
+
+    // decode(): Decodes the specified sound resource into 16-bit PCM data. Returns null if the sound
+    // resource could not be decoded.
+    static HXPcmData decode(Context context, int resource) {
+        MediaExtractor extractor = new MediaExtractor();
+        MediaCodec codec = null;
+        AssetFileDescriptor asset = null;
+
+        try {
+            asset = context.getResources().openRawResourceFd(resource);
+            extractor.setDataSource(asset.getFileDescriptor(), asset.getStartOffset(), asset.getLength());
+
+            // Selects the first audio track of the sound resource.
+            MediaFormat format = null;
+            String mime = null;
+            for (int i = 0; i < extractor.getTrackCount(); i++) {
+                MediaFormat trackFormat = extractor.getTrackFormat(i);
+                String trackMime = trackFormat.getString(MediaFormat.KEY_MIME);
+                if (trackMime != null && trackMime.startsWith("audio/")) {
+                    extractor.selectTrack(i);
+                    format = trackFormat;
+                    mime = trackMime;
+                    break;
+                }
+            }
+
+            if (format == null) {
+                HXLog.e(LOG_TAG, "ERROR: decode(): Sound resource ({}) has no audio track.", resource);
+                return null;
+            }
+
+            int channels = format.getInteger(MediaFormat.KEY_CHANNEL_COUNT);
+            int sampleRate = format.getInteger(MediaFormat.KEY_SAMPLE_RATE);
+
+            codec = MediaCodec.createDecoderByType(mime);
+            codec.configure(format, null, null, 0);
+            codec.start();
+
+            ByteBuffer[] inputBuffers = codec.getInputBuffers();
+            ByteBuffer[] outputBuffers = codec.getOutputBuffers();
+            MediaCodec.BufferInfo info = new MediaCodec.BufferInfo();
+
+            short[] pcm = new short[sampleRate * channels]; // Initially sized for one second.
+            int length = 0;
+            boolean isInputDone = false;
+            boolean isOutputDone = false;
+
+            while (!isOutputDone) {
+
+                // Feeds the encoded sound resource into the decoder.
+                if (!isInputDone) {
+                    int inputIndex = codec.dequeueInputBuffer(CODEC_TIMEOUT);
+                    if (inputIndex >= 0) {
+                        int size = extractor.readSampleData(inputBuffers[inputIndex], 0);
+                        if (size < 0) {
+                            codec.queueInputBuffer(inputIndex, 0, 0, 0, MediaCodec.BUFFER_FLAG_END_OF_STREAM);
+                            isInputDone = true;
+                        } else {
+                            codec.queueInputBuffer(inputIndex, 0, size, extractor.getSampleTime(), 0);
+                            extractor.advance();
+                        }
+                    }
+                }
+
+                // Copies the decoded PCM data out of the decoder.
+                int outputIndex = codec.dequeueOutputBuffer(info, CODEC_TIMEOUT);
+                if (outputIndex >= 0) {
+                    ByteBuffer buffer = outputBuffers[outputIndex];
+                    buffer.position(info.offset);
+                    buffer.limit(info.offset + info.size);
+                    ShortBuffer shorts = buffer.order(ByteOrder.nativeOrder()).asShortBuffer();
+
+                    int count = shorts.remaining();
+                    if (length + count > pcm.length) {
+                        pcm = Arrays.copyOf(pcm, Math.max(pcm.length * 2, length + count));
+                    }
+                    shorts.get(pcm, length, count);
+                    length += count;
+
+                    buffer.clear();
+                    codec.releaseOutputBuffer(outputIndex, false);
+                    isOutputDone = (info.flags & MediaCodec.BUFFER_FLAG_END_OF_STREAM) != 0;
+                } else if (outputIndex == MediaCodec.INFO_OUTPUT_BUFFERS_CHANGED) {
+                    outputBuffers = codec.getOutputBuffers();
+                } else if (outputIndex == MediaCodec.INFO_OUTPUT_FORMAT_CHANGED) {
+                    MediaFormat outputFormat = codec.getOutputFormat();
+                    channels = outputFormat.getInteger(MediaFormat.KEY_CHANNEL_COUNT);
+                    sampleRate = outputFormat.getInteger(MediaFormat.KEY_SAMPLE_RATE);
+                }
+            }
+
+            if (channels > MAX_CHANNELS) {
+                HXLog.e(LOG_TAG, "ERROR: decode(): Sound resource ({}) has more than {} channels.", resource, MAX_CHANNELS);
+                return null;
+            }
+
+            HXLog.d(LOG_TAG, "DECODE: decode(): Sound resource ({}) has been decoded.", resource);
+            return new HXPcmData(pcm, length, channels, sampleRate);
+        } catch (Exception e) {
+            HXLog.e(LOG_TAG, "ERROR: decode(): Unable to decode sound resource ({}): {}", resource, e.getLocalizedMessage());
+            return null;
+        } finally {
+            if (codec != null) {
+                try {
+                    codec.stop();
+                } catch (Exception e) {
+                    HXLog.e(LOG_TAG, "ERROR: decode(): Unable to stop the decoder: {}", e.getLocalizedMessage());
+                }
+                codec.release();
+            }
+            extractor.release();
+            if (asset != null) {
+                try {
+                    asset.close();
+                } catch (Exception e) {
+                    HXLog.e(LOG_TAG, "ERROR: decode(): Unable to close the sound resource: {}", e.getLocalizedMessage());
+                }
+            }
+        }
+    }
+}
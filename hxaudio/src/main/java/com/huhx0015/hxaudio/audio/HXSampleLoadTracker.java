@@ -0,0 +1,288 @@
+package com.huhx0015.hxaudio.audio;
+
+import com.huhx0015.hxaudio.metrics.HXMetrics;
+import com.huhx0015.hxaudio.metrics.HXStripedCounter;
+import java.util.Arrays;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXSampleLoadTracker] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXSampleLoadTracker is used by HXSoundEngine to track the load state of each
+ *  SoundPool sample, along with its load timestamps. Sound effects that are requested before their
+ *  sample has finished loading are stored in a small pending play queue, keyed by sample ID, which
+ *  is drained by the shared OnLoadCompleteListener of HXSoundEngine. Pending plays that have waited
+ *  longer than the configured deadline are discarded, and their handles are freed.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+class HXSampleLoadTracker {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // STATE VARIABLES:
+    private int[] sampleStates; // Stores the load state of each sample, indexed by sample ID.
+    private long[] loadStartTimes; // Stores the time (in nanoseconds) each sample started loading.
+    private long[] loadEndTimes; // Stores the time (in nanoseconds) each sample finished loading.
+
+    // PENDING PLAY VARIABLES:
+    private final int[] pendingSamples; // Stores the sample ID of each pending play.
+    private final boolean[] pendingLoops; // Stores the looping attribute of each pending play.
+    private final int[] pendingPriorities; // Stores the priority of each pending play.
+    private final long[] pendingHandles; // Stores the HXSoundHandles handle of each pending play.
+    private final long[] pendingTimes; // Stores the time (in nanoseconds) each play was requested.
+    private int pendingCount; // Number of pending plays.
+    private volatile long pendingDeadline = DEFAULT_PENDING_DEADLINE; // Maximum wait time for pending plays, in nanoseconds.
+    private volatile long expiredCount; // Number of pending plays that were discarded.
+    private final HXSoundHandles soundHandles; // Used for freeing the handles of discarded pending plays.
+    private static final HXStripedCounter droppedPlays = HXMetrics.counter(HXMetrics.SOUND_PLAYS_DROPPED); // Shared count of dropped sound effects.
+
+    // CONSTANT VARIABLES:
+    static final int STATE_UNKNOWN = 0; // The sample has not been loaded.
+    static final int STATE_LOADING = 1; // The sample is currently being loaded by SoundPool.
+    static final int STATE_READY = 2; // The sample has been loaded and is ready for playback.
+    static final int STATE_FAILED = 3; // SoundPool failed to load the sample.
+    static final long NO_PENDING_PLAY = Long.MIN_VALUE; // Returned by takePendingPlay() when no play is pending.
+    static final long DEFAULT_PENDING_DEADLINE = 1000000000L; // Default pending play deadline (1 second).
+    private static final int INITIAL_SAMPLE_CAPACITY = 32; // Initial size of the sample state arrays.
+    private static final int MAX_PENDING_PLAYS = 16; // Maximum number of pending plays. Adjust this value accordingly.
+
+    /** CONSTRUCTOR METHOD _____________________________________________________________________ **/
+
+    // HXSampleLoadTracker(): Constructor method for this class.
+    HXSampleLoadTracker(HXSoundHandles soundHandles) {
+        this.soundHandles = soundHandles;
+        this.sampleStates = new int[INITIAL_SAMPLE_CAPACITY];
+        this.loadStartTimes = new long[INITIAL_SAMPLE_CAPACITY];
+        this.loadEndTimes = new long[INITIAL_SAMPLE_CAPACITY];
+        this.pendingSamples = new int[MAX_PENDING_PLAYS];
+        this.pendingLoops = new boolean[MAX_PENDING_PLAYS];
+        this.pendingPriorities = new int[MAX_PENDING_PLAYS];
+        this.pendingHandles = new long[MAX_PENDING_PLAYS];
+        this.pendingTimes = new long[MAX_PENDING_PLAYS];
+    }
+
+    /** LOAD STATE METHODS _____________________________________________________________________ **/
+
+    // onLoadStarted(): Marks the specified sample as LOADING.
+    synchronized void onLoadStarted(int sampleId, long time) {
+        if (sampleId <= 0) {
+            return;
+        }
+        ensureCapacity(sampleId);
+        loadStartTimes[sampleId] = time;
+
+        // SoundPool may report the sample as loaded before this method is called, in which case
+        // the completed state is kept.
+        if (sampleStates[sampleId] != STATE_READY && sampleStates[sampleId] != STATE_FAILED) {
+            sampleStates[sampleId] = STATE_LOADING;
+            loadEndTimes[sampleId] = 0;
+        }
+    }
+
+    // onLoadComplete(): Marks the specified sample as READY or FAILED, depending on the status
+    // reported by SoundPool. If the sample failed to load, its pending plays are discarded.
+    synchronized void onLoadComplete(int sampleId, int status, long time) {
+        if (sampleId <= 0) {
+            return;
+        }
+        ensureCapacity(sampleId);
+        sampleStates[sampleId] = status == 0 ? STATE_READY : STATE_FAILED;
+        loadEndTimes[sampleId] = time;
+
+        if (status != 0) {
+            removePendingPlays(sampleId);
+        }
+    }
+
+    // onUnload(): Resets the state of the specified sample and discards its pending plays.
+    synchronized void onUnload(int sampleId) {
+        if (sampleId > 0 && sampleId < sampleStates.length) {
+            sampleStates[sampleId] = STATE_UNKNOWN;
+            loadStartTimes[sampleId] = 0;
+            loadEndTimes[sampleId] = 0;
+            removePendingPlays(sampleId);
+        }
+    }
+
+    // clear(): Resets the state of all samples and discards all pending plays.
+    synchronized void clear() {
+        Arrays.fill(sampleStates, STATE_UNKNOWN);
+        Arrays.fill(loadStartTimes, 0);
+        Arrays.fill(loadEndTimes, 0);
+        for (int i = 0; i < pendingCount; i++) {
+            soundHandles.cancel(pendingHandles[i]);
+        }
+        pendingCount = 0;
+    }
+
+    /** PENDING PLAY METHODS ___________________________________________________________________ **/
+
+    // requestPlay(): Returns the load state of the specified sample. If the sample is still
+    // LOADING, the play request is queued as a pending play within the same lock, so that it cannot
+    // be missed by a load completing concurrently.
+    synchronized int requestPlay(int sampleId, boolean isLoop, int priority, long handle, long time) {
+        int state = getState(sampleId);
+        if (state == STATE_LOADING) {
+            addPendingPlay(sampleId, isLoop, priority, handle, time);
+        }
+        return state;
+    }
+
+    // addPendingPlay(): Queues a play request for the specified sample, to be played once the
+    // sample has finished loading. If the queue is full, expired requests are discarded first,
+    // followed by the oldest request.
+    private void addPendingPlay(int sampleId, boolean isLoop, int priority, long handle, long time) {
+        if (pendingCount == MAX_PENDING_PLAYS) {
+            removeExpiredPlays(time);
+        }
+        if (pendingCount == MAX_PENDING_PLAYS) {
+            discardPendingPlay(0);
+        }
+
+        pendingSamples[pendingCount] = sampleId;
+        pendingLoops[pendingCount] = isLoop;
+        pendingPriorities[pendingCount] = priority;
+        pendingHandles[pendingCount] = handle;
+        pendingTimes[pendingCount] = time;
+        pendingCount++;
+    }
+
+    // takePendingPlay(): Removes the oldest pending play for the specified sample that has not
+    // expired. Returns the play packed as (priority << 1 | looped) in a long, so that any int
+    // priority can be packed without colliding with NO_PENDING_PLAY, which is returned if there are
+    // no pending plays left for the sample. Use isPendingLoop() and getPendingPriority() to unpack.
+    // The handle of the play is stored in the first element of the specified handle array.
+    synchronized long takePendingPlay(int sampleId, long time, long[] handle) {
+        removeExpiredPlays(time);
+
+        for (int i = 0; i < pendingCount; i++) {
+            if (pendingSamples[i] == sampleId) {
+                long pendingPlay = ((long) pendingPriorities[i] << 1) | (pendingLoops[i] ? 1 : 0);
+                handle[0] = pendingHandles[i];
+                removePendingPlay(i);
+                return pendingPlay;
+            }
+        }
+        return NO_PENDING_PLAY;
+    }
+
+    // removeExpiredPlays(): Discards all pending plays that have waited longer than the deadline.
+    private void removeExpiredPlays(long time) {
+        long deadline = pendingDeadline;
+        int i = 0;
+        while (i < pendingCount) {
+            if (time - pendingTimes[i] > deadline) {
+                discardPendingPlay(i);
+            } else {
+                i++;
+            }
+        }
+    }
+
+    // removePendingPlays(): Discards all pending plays for the specified sample.
+    private void removePendingPlays(int sampleId) {
+        int i = 0;
+        while (i < pendingCount) {
+            if (pendingSamples[i] == sampleId) {
+                discardPendingPlay(i);
+            } else {
+                i++;
+            }
+        }
+    }
+
+    // discardPendingPlay(): Discards the pending play at the specified index without playing it,
+    // freeing its handle so that it is no longer reported as queued.
+    private void discardPendingPlay(int index) {
+        soundHandles.cancel(pendingHandles[index]);
+        removePendingPlay(index);
+        expiredCount++;
+        droppedPlays.increment();
+    }
+
+    // removePendingPlay(): Removes the pending play at the specified index, keeping the remaining
+    // pending plays in the order they were requested.
+    private void removePendingPlay(int index) {
+        int moved = pendingCount - index - 1;
+        if (moved > 0) {
+            System.arraycopy(pendingSamples, index + 1, pendingSamples, index, moved);
+            System.arraycopy(pendingLoops, index + 1, pendingLoops, index, moved);
+            System.arraycopy(pendingPriorities, index + 1, pendingPriorities, index, moved);
+            System.arraycopy(pendingHandles, index + 1, pendingHandles, index, moved);
+            System.arraycopy(pendingTimes, index + 1, pendingTimes, index, moved);
+        }
+        pendingCount--;
+    }
+
+    /** HELPER METHODS _________________________________________________________________________ **/
+
+    // ensureCapacity(): Grows the sample state arrays to fit the specified sample ID.
+    private void ensureCapacity(int sampleId) {
+        if (sampleId >= sampleStates.length) {
+            int capacity = sampleStates.length;
+            while (sampleId >= capacity) {
+                capacity <<= 1;
+            }
+            sampleStates = Arrays.copyOf(sampleStates, capacity);
+            loadStartTimes = Arrays.copyOf(loadStartTimes, capacity);
+            loadEndTimes = Arrays.copyOf(loadEndTimes, capacity);
+        }
+    }
+
+    /** GET METHODS ____________________________________________________________________________ **/
+
+    // isPendingLoop(): Returns the looping attribute of a play returned by takePendingPlay().
+    static boolean isPendingLoop(long pendingPlay) {
+        return (pendingPlay & 1) == 1;
+    }
+
+    // getPendingPriority(): Returns the priority of a play returned by takePendingPlay().
+    static int getPendingPriority(long pendingPlay) {
+        return (int) (pendingPlay >> 1);
+    }
+
+    // getState(): Returns the load state of the specified sample.
+    synchronized int getState(int sampleId) {
+        if (sampleId <= 0 || sampleId >= sampleStates.length) {
+            return STATE_UNKNOWN;
+        }
+        return sampleStates[sampleId];
+    }
+
+    // getLoadStartTime(): Returns the time (in nanoseconds) the specified sample started loading.
+    synchronized long getLoadStartTime(int sampleId) {
+        return sampleId > 0 && sampleId < loadStartTimes.length ? loadStartTimes[sampleId] : 0;
+    }
+
+    // getLoadEndTime(): Returns the time (in nanoseconds) the specified sample finished loading.
+    synchronized long getLoadEndTime(int sampleId) {
+        return sampleId > 0 && sampleId < loadEndTimes.length ? loadEndTimes[sampleId] : 0;
+    }
+
+    // getLoadDuration(): Returns the time (in nanoseconds) it took to load the specified sample, or
+    // 0 if the sample has not finished loading.
+    synchronized long getLoadDuration(int sampleId) {
+        if (sampleId <= 0 || sampleId >= sampleStates.length || loadEndTimes[sampleId] == 0) {
+            return 0;
+        }
+        return loadEndTimes[sampleId] - loadStartTimes[sampleId];
+    }
+
+    // getPendingCount(): Returns the number of pending plays.
+    synchronized int getPendingCount() {
+        return pendingCount;
+    }
+
+    // getExpiredCount(): Returns the number of pending plays that were discarded.
+    long getExpiredCount() {
+        return expiredCount;
+    }
+
+    /** SET METHODS ____________________________________________________________________________ **/
+
+    // setPendingDeadline(): Sets the maximum time (in nanoseconds) a pending play waits for its
+    // sample to finish loading.
+    void setPendingDeadline(long deadline) {
+        this.pendingDeadline = deadline;
+    }
+}
@@ -0,0 +1,155 @@
+package com.huhx0015.hxaudio.audio;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXSampleTable] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXSampleTable is an immutable, primitive int-to-int open-addressing hash table used
+ *  by HXSoundEngine for mapping sound resources to SoundPool sample IDs. Lookups do not box or
+ *  allocate. Modifications return a new table, so that a table can be safely published through a
+ *  volatile field and read without any locks. Keys must be non-zero.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+final class HXSampleTable {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // TABLE VARIABLES:
+    private final int[] keys; // Stores the keys of this table. A value of 0 marks an empty slot.
+    private final int[] values; // Stores the values of this table.
+    private final int mask; // Used for wrapping slot indexes around the table.
+    private final int size; // Number of entries stored in this table.
+
+    // CONSTANT VARIABLES:
+    static final int MISSING = -1; // Returned by get() when the key is not present.
+    private static final int MIN_CAPACITY = 16; // Minimum number of slots in a table.
+    static final HXSampleTable EMPTY = new HXSampleTable(MIN_CAPACITY); // The shared empty table.
+
+    /** CONSTRUCTOR METHOD _____________________________________________________________________ **/
+
+    // HXSampleTable(): Constructor method for this class. The capacity must be a power of two.
+    private HXSampleTable(int capacity) {
+        this(new int[capacity], new int[capacity], 0);
+    }
+
+    // HXSampleTable(): Constructor method for this class, used when the arrays are prefilled.
+    private HXSampleTable(int[] keys, int[] values, int size) {
+        this.keys = keys;
+        this.values = values;
+        this.mask = keys.length - 1;
+        this.size = size;
+    }
+
+    /** TABLE METHODS __________________________________________________________________________ **/
+
+    // get(): Returns the value mapped to the specified key, or MISSING if the key is not present.
+    int get(int key) {
+        if (key == 0) {
+            return MISSING;
+        }
+
+        int index = hash(key) & mask;
+        while (true) {
+            int current = keys[index];
+            if (current == key) {
+                return values[index];
+            } else if (current == 0) {
+                return MISSING;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    // contains(): Determines if the specified key is present in this table.
+    boolean contains(int key) {
+        return get(key) != MISSING;
+    }
+
+    // put(): Returns a new table that contains all entries of this table and the specified entry.
+    HXSampleTable put(int key, int value) {
+        if (key == 0) {
+            throw new IllegalArgumentException("HXSampleTable keys must be non-zero.");
+        }
+
+        boolean isNewKey = !contains(key);
+        int newSize = isNewKey ? size + 1 : size;
+
+        // Keeps the load factor at or below 0.5, so that probe sequences stay short.
+        int capacity = keys.length;
+        while (newSize * 2 > capacity) {
+            capacity <<= 1;
+        }
+
+        int[] newKeys = new int[capacity];
+        int[] newValues = new int[capacity];
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                insert(newKeys, newValues, keys[i], values[i]);
+            }
+        }
+        insert(newKeys, newValues, key, value);
+
+        return new HXSampleTable(newKeys, newValues, newSize);
+    }
+
+    // remove(): Returns a new table that contains all entries of this table, except for the entry
+    // with the specified key.
+    HXSampleTable remove(int key) {
+        if (!contains(key)) {
+            return this;
+        }
+
+        int[] newKeys = new int[keys.length];
+        int[] newValues = new int[values.length];
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0 && keys[i] != key) {
+                insert(newKeys, newValues, keys[i], values[i]);
+            }
+        }
+
+        return new HXSampleTable(newKeys, newValues, size - 1);
+    }
+
+    /** HELPER METHODS _________________________________________________________________________ **/
+
+    // insert(): Inserts the specified entry into the specified arrays using linear probing.
+    private static void insert(int[] keys, int[] values, int key, int value) {
+        int mask = keys.length - 1;
+        int index = hash(key) & mask;
+        while (keys[index] != 0 && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        values[index] = value;
+    }
+
+    // hash(): Spreads the bits of the specified key. Android resource IDs share their upper bits,
+    // so the lower bits alone are not well distributed.
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /** GET METHODS ____________________________________________________________________________ **/
+
+    // size(): Returns the number of entries in this table.
+    int size() {
+        return size;
+    }
+
+    // capacity(): Returns the number of slots in this table. Used with keyAt() and valueAt() for
+    // iterating over the entries of this table.
+    int capacity() {
+        return keys.length;
+    }
+
+    // keyAt(): Returns the key stored in the specified slot, or 0 if the slot is empty.
+    int keyAt(int slot) {
+        return keys[slot];
+    }
+
+    // valueAt(): Returns the value stored in the specified slot.
+    int valueAt(int slot) {
+        return values[slot];
+    }
+}
@@ -2,8 +2,16 @@ package com.huhx0015.hxaudio.audio;
 
 import android.content.Context;
 import android.os.Build;
+import com.huhx0015.hxaudio.backend.HXAndroidBackend;
+import com.huhx0015.hxaudio.backend.HXAudioBackend;
 import com.huhx0015.hxaudio.builder.HXSoundBuilder;
+import com.huhx0015.hxaudio.interfaces.HXSoundLoadListener;
+import com.huhx0015.hxaudio.mixer.HXMixer;
+import com.huhx0015.hxaudio.metrics.HXMetrics;
+import com.huhx0015.hxaudio.metrics.HXStripedCounter;
 import com.huhx0015.hxaudio.utils.HXLog;
+import com.huhx0015.hxaudio.utils.HXTrace;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Vector;
 
@@ -27,11 +35,39 @@ public class HXSound {
     private boolean isEnabled = true; // Used for determining if the sound system is enabled or not.
     private volatile int currentEngine; // Used for determining the active HXSoundEngine instance.
     private int numberOfEngines; // Used for determining the number of HXSoundEngine instances.
+    private int maxVoices = HXSoundEngine.MAX_SIMULTANEOUS_SOUNDS; // Maximum number of simultaneous streams per HXSoundEngine instance.
+    private int maxVoicesPerSound = HXSoundEngine.MAX_SIMULTANEOUS_SOUNDS_PER_SOUND; // Maximum number of simultaneous streams per sound effect.
+    private long pendingDeadline = HXSampleLoadTracker.DEFAULT_PENDING_DEADLINE; // Maximum time (in nanoseconds) a sound effect waits for its sample to load.
     private Vector<HXSoundEngine> hxSoundEngines; // Vector which contains the HXSoundEngine instances.
+    private volatile HXSoundEngine[] engineSnapshot; // Lock-free snapshot of hxSoundEngines, used by the sound trigger fast path.
+    private volatile HXSoundDispatcher soundDispatcher; // Audio command thread used for dispatching sound effects.
+    private final HXSoundHandles soundHandles = new HXSoundHandles(); // Table of handles for controlling individual sound effects.
+    private volatile HXPcmCache pcmCache; // Cache of decoded sound resources. Null if the cache is disabled.
+    private volatile HXMixerEngine mixerEngine; // Software mixer engine, used instead of the HXSoundEngine instances when enabled.
+    private final HXSoundLoader soundLoader = new HXSoundLoader(HXSoundLoader.DEFAULT_WORKER_COUNT); // Background loader threads for sound resources.
+    private HXAudioBackend audioBackend = new HXAndroidBackend(); // Creates the HXSoundBackend of each HXSoundEngine instance.
+
+    // BANK VARIABLES:
+    private final HashMap<String, HXSoundBank> soundBanks = new HashMap<>(); // Maps sound bank names to their loaded sound banks.
+    private long memoryBudget; // Maximum estimated decoded PCM size (in bytes) per HXSoundEngine instance. 0 means no limit.
+
+    // SHARD VARIABLES:
+    private volatile boolean isSharded; // Used for determining if the HXSoundEngine instances are used as shards.
+    private volatile HXSampleTable shardTable = HXSampleTable.EMPTY; // Maps sound resources to a bitmask of the shards holding them.
+    private final Object shardLock = new Object(); // Used for serializing writes to shardTable.
+    private volatile HXSampleTable categoryTable = HXSampleTable.EMPTY; // Maps sound resources to their assigned category.
+
+    // METRIC VARIABLES:
+    private static final HXStripedCounter requestedPlays = HXMetrics.counter(HXMetrics.SOUND_PLAYS_REQUESTED); // Shared count of requested sound effects.
+    private static final HXStripedCounter playedPlays = HXMetrics.counter(HXMetrics.SOUND_PLAYS_PLAYED); // Shared count of played sound effects.
+    private static final HXStripedCounter droppedPlays = HXMetrics.counter(HXMetrics.SOUND_PLAYS_DROPPED); // Shared count of dropped sound effects.
 
     // CONSTANT VARIABLES:
     private static final int NUMBER_OF_ENGINES_GB = 2; // Number of sound engines for GINGERBREAD.
     private static final int NUMBER_OF_ENGINES_HC = 1; // Number of sound engines for HONEYCOMB+.
+    private static final int MAX_SHARDS = 16; // Maximum number of shards for LOLLIPOP+.
+    public static final int LOAD_PRIORITY_NORMAL = 0; // Default priority of loaded sound resources.
+    public static final int LOAD_PRIORITY_HIGH = 10; // Priority of critical sound resources, loaded ahead of normal priority sound resources.
 
     // LOGGING VARIABLES:
     private static final String LOG_TAG = HXSound.class.getSimpleName();
@@ -42,6 +78,7 @@ public class HXSound {
     public static HXSound instance() {
         if (hxSound == null) {
             hxSound = new HXSound();
+            hxSound.soundHandles.setStreamProbe(hxSound.streamProbe);
 
             // Sets the number of engine instances depending on the detected Android API level.
             // Multiple sound engine instances are created for Android 2.3.7 devices, to handle a
@@ -73,15 +110,23 @@ public class HXSound {
             hxSoundEngines = new Vector<>();
         }
 
-        HXLog.d(LOG_TAG, "BUILD: Building " + numberOfEngines + " HXSoundEngine instances...");
+        HXLog.d(LOG_TAG, "BUILD: Building {} HXSoundEngine instances...", numberOfEngines);
 
         // Initializes and adds HXSoundEngine instances to the LinkedList.
         int i = 0;
         for (int x : new int[numberOfEngines]) {
-            HXSoundEngine soundEngine = new HXSoundEngine(i);
+            HXSoundEngine soundEngine = new HXSoundEngine(i, maxVoices, maxVoicesPerSound, soundHandles);
+            soundEngine.setPendingDeadline(pendingDeadline);
+            soundEngine.setMemoryBudget(memoryBudget);
+            soundEngine.setSoundLoader(soundLoader);
+            soundEngine.setUnloadListener(unloadListener);
+            soundEngine.setPcmCache(pcmCache);
+            soundEngine.setBackend(audioBackend);
+            retainBanks(soundEngine);
             hxSoundEngines.add(soundEngine);
             i++;
         }
+        engineSnapshot = hxSoundEngines.toArray(new HXSoundEngine[hxSoundEngines.size()]);
 
         HXLog.d(LOG_TAG, "BUILD: All HXSoundEngines are ready.");
     }
@@ -108,7 +153,7 @@ public class HXSound {
             int i = 0;
             for (int x : new int[hxSound.numberOfEngines]) {
                 hxSound.hxSoundEngines.get(i).reinitialize(context.getApplicationContext());
-                HXLog.d(LOG_TAG, "LOADING: Loading HXSoundEngine (" + i + ") with list of sound resources.");
+                HXLog.d(LOG_TAG, "LOADING: Loading HXSoundEngine ({}) with list of sound resources.", i);
                 i++;
             }
         }
@@ -116,43 +161,232 @@ public class HXSound {
 
     /** SOUND ACTION METHODS ___________________________________________________________________ **/
 
-    // initSound(): Prepares the sound engines to play the specified sound effect.
-    public synchronized boolean initSound(int resource, boolean isLooped, Context context) {
+    // queueSound(): Submits the specified sound effect to the HXSoundDispatcher thread, which plays
+    // the sound effect without creating a new Thread. Returns a handle that can be used with stop(),
+    // setVolume(), setRate() and setLoop() for controlling this sound effect, or 0 if the sound
+    // effect could not be queued.
+    public long queueSound(int resource, boolean isLooped, int priority, Context context) {
+
+        if (resource == 0) {
+            HXLog.e(LOG_TAG, "ERROR: queueSound(): Invalid sound resource was set.");
+            return HXSoundHandles.INVALID_HANDLE;
+        }
+
+        if (!isEnabled) {
+            HXLog.e(LOG_TAG, "ERROR: queueSound(): Sound is currently disabled.");
+            return HXSoundHandles.INVALID_HANDLE;
+        }
+
+        long handle = soundHandles.reserve();
+        if (!getDispatcher().submit(resource, isLooped, priority, handle, context)) {
+            soundHandles.cancel(handle);
+            return HXSoundHandles.INVALID_HANDLE;
+        }
+        return handle;
+    }
+
+    // initSound(): Prepares the sound engines to play the specified sound effect with the default
+    // priority.
+    public boolean initSound(int resource, boolean isLooped, Context context) {
+        return initSound(resource, isLooped, HXSoundEngine.SOUND_PRIORITY_LEVEL, context);
+    }
+
+    // initSound(): Prepares the sound engines to play the specified sound effect. Sound effects that
+    // have already been loaded are played through the lock-free fast path, while all other sound
+    // effects are prepared under the HXSound lock. Higher priority sound effects may replace lower
+    // priority sound effects when all voices are in use.
+    public boolean initSound(int resource, boolean isLooped, int priority, Context context) {
+        return playSound(resource, isLooped, priority, HXSoundHandles.INVALID_HANDLE, context);
+    }
+
+    // playSound(): Plays the specified sound effect and stores its stream in the specified handle.
+    boolean playSound(int resource, boolean isLooped, int priority, long handle, Context context) {
 
         if (resource == 0) {
             HXLog.e(LOG_TAG, "ERROR: prepareSoundFx(): Invalid sound resource was set.");
             return false;
         }
 
+        HXTrace.record(HXTrace.TRIGGER, -1, resource, priority);
+        requestedPlays.increment();
         if (isEnabled) {
 
-            if (hxSoundEngines == null) {
-                initSoundEngines();
+            // MIXER: Plays the sound effect through the software mixer, if enabled.
+            HXMixerEngine mixer = mixerEngine;
+            if (mixer != null) {
+                boolean isPlayed = mixer.playSound(resource, isLooped, priority, handle, context);
+                if (isPlayed) {
+                    playedPlays.increment();
+                } else {
+                    droppedPlays.increment();
+                }
+                return isPlayed;
             }
 
-            HXLog.d(LOG_TAG, "SOUND: Attempting to play sound effect on HXSoundEngine (" + currentEngine + ")...");
-            hxSoundEngines.get(currentEngine).prepareSoundFx(resource, isLooped, context);
+            // FAST PATH: Plays the sound effect without acquiring any locks, if it has already been
+            // loaded by the active HXSoundEngine instance.
+            HXSoundEngine[] engines = engineSnapshot;
+            if (isSharded && engines != null) {
+                return triggerShardedSound(engines, resource, isLooped, priority, handle, context);
+            } else if (engines != null && engines.length > 0) {
+                int engine = nextEngine(engines.length);
+                if (engines[engine].triggerSoundFx(resource, isLooped, priority, handle)) {
+                    return true;
+                }
+                return prepareSound(engine, resource, isLooped, priority, handle, context);
+            }
 
-            // Sets the currentEngine value to point to the next HXSoundEngine instance.
-            if (numberOfEngines > 1) {
-                currentEngine++;
+            return prepareSound(-1, resource, isLooped, priority, handle, context);
+        } else {
+            HXLog.e(LOG_TAG, "ERROR: prepareSoundFx(): Sound is currently disabled.");
+            soundHandles.cancel(handle);
+            droppedPlays.increment();
+            return false;
+        }
+    }
+
+    // triggerShardedSound(): Plays the specified sound effect on the least loaded shard that holds
+    // the sound resource. If every shard holding the sound resource has all of its voices in use
+    // while another shard is less loaded, the sound resource is also loaded into that shard.
+    private boolean triggerShardedSound(HXSoundEngine[] engines, int resource, boolean isLooped,
+                                        int priority, long handle, Context context) {
 
-                // Resets the currentEngine value to alternate sound playback between the number of
-                // engines available.
-                if (currentEngine == numberOfEngines) { currentEngine = 0; }
+        int shardMask = shardTable.get(resource);
+        if (shardMask == HXSampleTable.MISSING) {
+            return prepareSound(-1, resource, isLooped, priority, handle, context);
+        }
 
-                HXLog.d(LOG_TAG, "SOUND: HXSoundEngine (" + currentEngine + ") is now the active instance.");
+        int shard = findLeastLoadedShard(engines, shardMask);
+        HXSoundEngine engine = engines[shard];
+        if (engine.getLiveVoiceEstimate() >= engine.getMaxVoices()) {
+            int freeShard = findLeastLoadedShard(engines, ~shardMask);
+            if (freeShard != -1 &&
+                    engines[freeShard].getLiveVoiceEstimate() < engine.getLiveVoiceEstimate()) {
+                return prepareSound(freeShard, resource, isLooped, priority, handle, context);
             }
+        }
+
+        if (engine.triggerSoundFx(resource, isLooped, priority, handle)) {
             return true;
-        } else {
-            HXLog.e(LOG_TAG, "ERROR: prepareSoundFx(): Sound is currently disabled.");
-            return false;
+        }
+        return prepareSound(shard, resource, isLooped, priority, handle, context);
+    }
+
+    // prepareSound(): Prepares the specified HXSoundEngine instance to play the specified sound
+    // effect. If the engine value is -1, the next HXSoundEngine instance is used, or in sharded
+    // mode, the shard assigned to the sound resource.
+    private synchronized boolean prepareSound(int engine, int resource, boolean isLooped,
+                                              int priority, long handle, Context context) {
+
+        if (hxSoundEngines == null) {
+            initSoundEngines();
+        }
+
+        if (engine < 0 || engine >= hxSoundEngines.size()) {
+            engine = isSharded ? assignShard(resource) : nextEngine(hxSoundEngines.size());
+        }
+
+        HXLog.d(LOG_TAG, "SOUND: Attempting to play sound effect on HXSoundEngine ({})...", engine);
+        hxSoundEngines.get(engine).prepareSoundFx(resource, isLooped, priority, handle, context);
+
+        if (isSharded) {
+            addToShard(resource, engine);
+        }
+        return true;
+    }
+
+    // assignShard(): Returns the shard the specified sound resource is held by, or assigns it to a
+    // shard. Sound resources with a category are assigned to the shard of that category, while all
+    // other sound resources are assigned to the shard holding the fewest sound resources.
+    private synchronized int assignShard(int resource) {
+        HXSoundEngine[] engines = engineSnapshot;
+
+        int shardMask = shardTable.get(resource);
+        if (shardMask != HXSampleTable.MISSING) {
+            return findLeastLoadedShard(engines, shardMask);
+        }
+
+        int category = categoryTable.get(resource);
+        if (category != HXSampleTable.MISSING) {
+            return category % engines.length;
+        }
+
+        int shard = 0;
+        for (int i = 1; i < engines.length; i++) {
+            if (engines[i].getSampleCount() < engines[shard].getSampleCount()) {
+                shard = i;
+            }
+        }
+        return shard;
+    }
+
+    // addToShard(): Records that the specified shard holds the specified sound resource.
+    private void addToShard(int resource, int shard) {
+        synchronized (shardLock) {
+            int shardMask = shardTable.get(resource);
+            if (shardMask == HXSampleTable.MISSING) {
+                shardMask = 0;
+            }
+            shardTable = shardTable.put(resource, shardMask | (1 << shard));
         }
     }
 
+    // removeFromShard(): Records that the specified shard no longer holds the specified sound
+    // resource. The sound resource is removed from shardTable once no shard holds it, so that it is
+    // assigned to a shard again the next time it is played. Uses shardLock instead of the HXSound
+    // lock, as it is called while holding the lock of the HXSoundEngine instance.
+    private void removeFromShard(int resource, int shard) {
+        synchronized (shardLock) {
+            int shardMask = shardTable.get(resource);
+            if (shardMask == HXSampleTable.MISSING) {
+                return;
+            }
+
+            shardMask &= ~(1 << shard);
+            shardTable = shardMask == 0 ? shardTable.remove(resource) : shardTable.put(resource, shardMask);
+        }
+    }
+
+    // findLeastLoadedShard(): Returns the shard with the fewest live voices among the shards in
+    // the specified bitmask, or -1 if the bitmask does not contain any shard.
+    private static int findLeastLoadedShard(HXSoundEngine[] engines, int shardMask) {
+        int shard = -1;
+        int shardLoad = Integer.MAX_VALUE;
+        for (int i = 0; i < engines.length; i++) {
+            if ((shardMask & (1 << i)) != 0) {
+                int load = engines[i].getLiveVoiceEstimate();
+                if (load < shardLoad) {
+                    shard = i;
+                    shardLoad = load;
+                }
+            }
+        }
+        return shard;
+    }
+
+    // nextEngine(): Returns the active HXSoundEngine index and sets the currentEngine value to point
+    // to the next HXSoundEngine instance, in order to alternate sound playback between the number
+    // of engines available. Concurrent callers may occasionally select the same engine, which is
+    // harmless.
+    private int nextEngine(int engineCount) {
+        int engine = currentEngine;
+        if (engine >= engineCount) {
+            engine = 0;
+        }
+        currentEngine = engine + 1 == engineCount ? 0 : engine + 1;
+        return engine;
+    }
+
     // pause(): Pauses all sound effect playback in all HXSoundEngine instances.
     public static void pause() {
 
+        // Pauses the software mixer, if enabled.
+        if (hxSound != null && hxSound.mixerEngine != null) {
+            hxSound.mixerEngine.pauseSounds();
+            HXLog.d(LOG_TAG, "PAUSE: HXMixerEngine is paused.");
+            return;
+        }
+
         // Pauses sound effect playback in all HXSoundEngine instances.
         if (hxSound != null && hxSound.hxSoundEngines != null) {
 
@@ -161,7 +395,7 @@ public class HXSound {
             int i = 0;
             for (HXSoundEngine engine : hxSound.hxSoundEngines) {
                 engine.pauseSounds();
-                HXLog.d(LOG_TAG, "PAUSE: HXSoundEngine (" + i + ") is paused.");
+                HXLog.d(LOG_TAG, "PAUSE: HXSoundEngine ({}) is paused.", i);
                 i++;
             }
         } else {
@@ -172,6 +406,13 @@ public class HXSound {
     // resume(): Resumes all sound effect playback in all HXSoundEngine instances.
     public static void resume() {
 
+        // Resumes the software mixer, if enabled.
+        if (hxSound != null && hxSound.mixerEngine != null) {
+            hxSound.mixerEngine.resumeSounds();
+            HXLog.d(LOG_TAG, "RESUME: HXMixerEngine is resumed.");
+            return;
+        }
+
         if (hxSound != null && hxSound.hxSoundEngines != null) {
 
             HXLog.d(LOG_TAG, "RESUME: Resuming sound playback on all HXSoundEngine instances...");
@@ -179,7 +420,7 @@ public class HXSound {
             int i = 0;
             for (HXSoundEngine engine : hxSound.hxSoundEngines) {
                 engine.resumeSounds();
-                HXLog.d(LOG_TAG, "RESUME: HXSoundEngine (" + i + ") is resumed.");
+                HXLog.d(LOG_TAG, "RESUME: HXSoundEngine ({}) is resumed.", i);
                 i++;
             }
         } else {
@@ -187,41 +428,334 @@ public class HXSound {
         }
     }
 
+    // stop(): Stops the sound effect of the specified handle.
+    public static void stop(long handle) {
+        if (hxSound != null) {
+            hxSound.applyHandle(handle, HXSoundHandles.OP_STOP, 0);
+        }
+    }
+
+    // setVolume(): Sets the volume (0.0 to 1.0) of the sound effect of the specified handle.
+    public static void setVolume(long handle, float volume) {
+        if (hxSound != null) {
+            hxSound.applyHandle(handle, HXSoundHandles.OP_VOLUME, volume);
+        }
+    }
+
+    // setRate(): Sets the playback rate (0.5 to 2.0) of the sound effect of the specified handle.
+    public static void setRate(long handle, float rate) {
+        if (hxSound != null) {
+            hxSound.applyHandle(handle, HXSoundHandles.OP_RATE, rate);
+        }
+    }
+
+    // setLoop(): Sets the looping attribute of the sound effect of the specified handle.
+    public static void setLoop(long handle, boolean isLooped) {
+        if (hxSound != null) {
+            hxSound.applyHandle(handle, HXSoundHandles.OP_LOOP, isLooped ? 1 : 0);
+        }
+    }
+
+    // isActive(): Determines if the sound effect of the specified handle is queued or playing.
+    // Sound effects that have ended on their own, have been replaced by other sound effects, or
+    // were discarded before their sound resource finished loading are no longer active.
+    public static boolean isActive(long handle) {
+        return hxSound != null && hxSound.soundHandles.isActive(handle);
+    }
+
+    /** LISTENER METHODS _______________________________________________________________________ **/
+
+    // streamProbe: Checks if the stream of a handle is still playing in the HXSoundEngine or
+    // HXMixerEngine instance that played it. Streams of released engines are no longer live.
+    private final HXSoundHandles.StreamProbe streamProbe = new HXSoundHandles.StreamProbe() {
+        @Override
+        public boolean isStreamLive(int engine, int streamId) {
+            if (engine == HXMixerEngine.ENGINE_ID) {
+                HXMixerEngine mixer = mixerEngine;
+                return mixer != null && mixer.isStreamLive(streamId);
+            }
+            HXSoundEngine[] engines = engineSnapshot;
+            return engines != null && engine < engines.length && engines[engine].isStreamLive(streamId);
+        }
+    };
+
+    // unloadListener: Removes sound resources that have been unloaded or evicted from an
+    // HXSoundEngine instance from the shard that held them, so that they are no longer routed to it.
+    private final HXSoundEngine.UnloadListener unloadListener = new HXSoundEngine.UnloadListener() {
+        @Override
+        public void onSoundFxUnloaded(int engine, int resource) {
+            if (isSharded) {
+                removeFromShard(resource, engine);
+            }
+        }
+    };
+
     /** SOUND HELPER METHODS ___________________________________________________________________ **/
 
-    // load(): Loads the referenced list of sound resources into the HXSoundEngine(s).
-    public static void load(final List<Integer> soundResourceList, final Context context) {
+    // applyHandle(): Applies the specified operation to the stream of the specified handle. If the
+    // sound effect has not been played yet, the operation is applied once it is played.
+    private void applyHandle(long handle, int op, float value) {
+        long stream = soundHandles.request(handle, op, value);
+        if (stream < 0) {
+            return;
+        }
+
+        int engine = HXSoundHandles.getStreamEngine(stream);
+        int streamId = HXSoundHandles.getStreamId(stream);
+
+        // MIXER: Sound effects played through the software mixer are controlled by HXMixerEngine.
+        if (engine == HXMixerEngine.ENGINE_ID) {
+            applyMixerHandle(streamId, op, value);
+            return;
+        }
+
+        HXSoundEngine[] engines = engineSnapshot;
+        if (engines == null || engine >= engines.length) {
+            return;
+        }
+
+        switch (op) {
+            case HXSoundHandles.OP_STOP:
+                engines[engine].stopStream(streamId);
+                break;
+            case HXSoundHandles.OP_VOLUME:
+                engines[engine].setStreamVolume(streamId, value);
+                break;
+            case HXSoundHandles.OP_RATE:
+                engines[engine].setStreamRate(streamId, value);
+                break;
+            case HXSoundHandles.OP_LOOP:
+                engines[engine].setStreamLoop(streamId, value != 0);
+                break;
+            default:
+                break;
+        }
+    }
+
+    // applyMixerHandle(): Applies the specified operation to the specified HXMixerEngine voice.
+    private void applyMixerHandle(int voice, int op, float value) {
+        HXMixerEngine mixer = mixerEngine;
+        if (mixer == null) {
+            return;
+        }
+
+        switch (op) {
+            case HXSoundHandles.OP_STOP:
+                mixer.stopStream(voice);
+                break;
+            case HXSoundHandles.OP_VOLUME:
+                mixer.setStreamVolume(voice, value);
+                break;
+            case HXSoundHandles.OP_RATE:
+                mixer.setStreamRate(voice, value);
+                break;
+            case HXSoundHandles.OP_LOOP:
+                mixer.setStreamLoop(voice, value != 0);
+                break;
+            default:
+                break;
+        }
+    }
+
+    // getDispatcher(): Returns the HXSoundDispatcher instance, starting its thread if needed. The
+    // HXSound monitor is not used here, as it is held by the dispatcher thread during initSound().
+    private HXSoundDispatcher getDispatcher() {
+        HXSoundDispatcher dispatcher = soundDispatcher;
+        if (dispatcher == null) {
+            synchronized (HXSoundDispatcher.class) {
+                dispatcher = soundDispatcher;
+                if (dispatcher == null) {
+                    dispatcher = new HXSoundDispatcher(this, HXSoundDispatcher.DEFAULT_QUEUE_CAPACITY);
+                    dispatcher.start();
+                    soundDispatcher = dispatcher;
+                }
+            }
+        }
+        return dispatcher;
+    }
+
+    // load(): Loads the referenced list of sound resources into the HXSoundEngine(s) on the
+    // background loader threads. Returns a HXSoundLoadTask that can be used to track the load
+    // progress or to cancel the load, or null if the sound resources could not be queued.
+    public static HXSoundLoadTask load(List<Integer> soundResourceList, Context context) {
+        return load(soundResourceList, LOAD_PRIORITY_NORMAL, context, null);
+    }
+
+    // load(): Loads the referenced list of sound resources and reports the load progress to the
+    // specified HXSoundLoadListener.
+    public static HXSoundLoadTask load(List<Integer> soundResourceList, Context context,
+                                       HXSoundLoadListener listener) {
+        return load(soundResourceList, LOAD_PRIORITY_NORMAL, context, listener);
+    }
+
+    // load(): Loads the referenced list of sound resources with the specified priority. Sound
+    // resources with a higher priority are loaded ahead of queued sound resources with a lower
+    // priority, so that critical sound resources can be loaded ahead of bulk preloads.
+    public static HXSoundLoadTask load(List<Integer> soundResourceList, int priority,
+                                       Context context, HXSoundLoadListener listener) {
 
         // Checks if the context is null.
         if (context == null || context.getApplicationContext() == null) {
             HXLog.e(LOG_TAG, "ERROR: load(): Context cannot be null.");
-            return;
+            return null;
+        } else if (soundResourceList == null) {
+            HXLog.e(LOG_TAG, "ERROR: load(): Sound resource list cannot be null.");
+            return null;
         }
 
         // Initializes hxSound and hxSoundEngines, if not already initialized.
         instance();
-        if (hxSound.hxSoundEngines == null) {
-            hxSound.initSoundEngines();
-        }
-
-        // Loads the list of sound resources into the HXSoundEngine's SoundPool objects.
-        Thread loadingThread = new Thread(new Runnable() {
-            @Override
-            public void run() {
-                int i = 0;
-                for (int x : new int[hxSound.numberOfEngines]) {
-                    hxSound.hxSoundEngines.get(i).loadSoundFxList(soundResourceList, context.getApplicationContext());
-                    HXLog.d(LOG_TAG, "LOADING: Loading HXSoundEngine (" + i + ") with list of sound resources.");
-                    i++;
+        HXMixerEngine mixer = hxSound.mixerEngine;
+        HXSoundEngine[] engines;
+        synchronized (hxSound) {
+            if (hxSound.hxSoundEngines == null) {
+                hxSound.initSoundEngines();
+            }
+            engines = hxSound.engineSnapshot;
+        }
+
+        int count = 0;
+        for (int resource : soundResourceList) {
+            if (resource != 0) {
+                count++;
+            }
+        }
+        int[] resources = new int[count];
+        int i = 0;
+        for (int resource : soundResourceList) {
+            if (resource != 0) {
+                resources[i++] = resource;
+            }
+        }
+
+        // SHARDED: Each sound resource is only loaded into the shard it is assigned to.
+        // MIXER: Sound resources are only decoded into the software mixer, if enabled.
+        boolean isSharded = hxSound.isSharded;
+        HXSoundLoadTask task = new HXSoundLoadTask(hxSound.soundLoader, resources,
+                isSharded || mixer != null ? 1 : engines.length, listener);
+        Context appContext = context.getApplicationContext();
+
+        for (i = 0; i < resources.length; i++) {
+            if (mixer != null) {
+                hxSound.soundLoader.load(task, i, mixer, priority, appContext);
+            } else if (isSharded) {
+                int shard = hxSound.assignShard(resources[i]);
+                hxSound.addToShard(resources[i], shard);
+                hxSound.soundLoader.load(task, i, engines[shard], priority, appContext);
+            } else {
+                for (HXSoundEngine engine : engines) {
+                    hxSound.soundLoader.load(task, i, engine, priority, appContext);
+                }
+            }
+        }
+        task.onEmpty();
+
+        HXLog.d(LOG_TAG, "LOADING: load(): Queued {} sound resources for loading.", resources.length);
+        return task;
+    }
+
+    // loadBank(): Loads the referenced list of sound resources as a named sound bank. Sound
+    // resources of a loaded sound bank are never unloaded to meet the memory budget. Sound banks are
+    // reference counted, so a sound bank loaded more than once is only unloaded after the same
+    // number of unloadBank() calls. Returns the HXSoundLoadTask of the sound bank's sound resources.
+    public static HXSoundLoadTask loadBank(String name, List<Integer> soundResourceList, Context context) {
+
+        // Checks if the context is null.
+        if (context == null || context.getApplicationContext() == null) {
+            HXLog.e(LOG_TAG, "ERROR: loadBank(): Context cannot be null.");
+            return null;
+        } else if (name == null || soundResourceList == null) {
+            HXLog.e(LOG_TAG, "ERROR: loadBank(): Sound bank name and sound resources cannot be null.");
+            return null;
+        }
+
+        // Initializes hxSound and hxSoundEngines, if not already initialized.
+        instance();
+        synchronized (hxSound) {
+            if (hxSound.hxSoundEngines == null) {
+                hxSound.initSoundEngines();
+            }
+
+            HXSoundBank soundBank = hxSound.soundBanks.get(name);
+            if (soundBank != null) {
+                soundBank.retain();
+                HXLog.d(LOG_TAG, "LOADING: loadBank(): Sound bank ({}) is already loaded.", name);
+                return load(soundResourceList, context);
+            }
+
+            soundBank = new HXSoundBank(name, soundResourceList);
+            soundBank.retain();
+            hxSound.soundBanks.put(name, soundBank);
+
+            for (HXSoundEngine engine : hxSound.engineSnapshot) {
+                for (int resource : soundBank.getResources()) {
+                    engine.retainSoundFx(resource);
+                }
+            }
+        }
+
+        HXLog.d(LOG_TAG, "LOADING: loadBank(): Loading sound bank ({}).", name);
+        return load(soundResourceList, context);
+    }
+
+    // unloadBank(): Releases a reference to the named sound bank. Once the sound bank is no longer
+    // referenced, its sound resources are unloaded, unless they are held by another sound bank.
+    public static void unloadBank(String name) {
+        if (hxSound == null || name == null) {
+            return;
+        }
+
+        synchronized (hxSound) {
+            HXSoundBank soundBank = hxSound.soundBanks.get(name);
+            if (soundBank == null) {
+                HXLog.w(LOG_TAG, "WARNING: unloadBank(): Sound bank ({}) is not loaded.", name);
+                return;
+            } else if (soundBank.release() > 0) {
+                return;
+            }
+
+            hxSound.soundBanks.remove(name);
+
+            HXSoundEngine[] engines = hxSound.engineSnapshot;
+            if (engines != null) {
+                for (HXSoundEngine engine : engines) {
+                    for (int resource : soundBank.getResources()) {
+                        engine.releaseSoundFx(resource);
+                    }
                 }
             }
-        });
-        loadingThread.start();
+        }
+
+        HXLog.d(LOG_TAG, "UNLOAD: unloadBank(): Sound bank ({}) has been unloaded.", name);
+    }
+
+    // retainBanks(): Adds the references of all loaded sound banks to the specified HXSoundEngine
+    // instance. Used when the HXSoundEngine instances are rebuilt.
+    private void retainBanks(HXSoundEngine engine) {
+        for (HXSoundBank soundBank : soundBanks.values()) {
+            for (int resource : soundBank.getResources()) {
+                engine.retainSoundFx(resource);
+            }
+        }
     }
 
     // clear(): Releases resources held by this singleton and other objects associated with this
     // object. This method should be called when the singleton object is no longer in use.
     public static void clear() {
+        if (hxSound != null && hxSound.soundDispatcher != null) {
+            hxSound.soundDispatcher.stop();
+            hxSound.soundDispatcher = null;
+        }
+
+        if (hxSound != null) {
+            hxSound.soundLoader.stop();
+        }
+
+        if (hxSound != null && hxSound.mixerEngine != null) {
+            hxSound.mixerEngine.release();
+            hxSound.mixerEngine = null;
+        }
+
         if (hxSound != null && hxSound.hxSoundEngines != null) {
             hxSound.release();
             hxSound = null;
@@ -244,36 +778,367 @@ public class HXSound {
                 return;
             }
 
-            if (hxSound != null && hxSound.hxSoundEngines != null) {
-                hxSound.release();
-            } else {
-                instance();
-            }
+            instance();
+            synchronized (hxSound) {
+                if (hxSound.hxSoundEngines != null) {
+                    hxSound.release();
+                }
 
-            hxSound.numberOfEngines = engines;
-            hxSound.initSoundEngines();
+                hxSound.numberOfEngines = engines;
+                hxSound.initSoundEngines();
+            }
         } else {
             HXLog.w(LOG_TAG, "PREPARING: engines(): This feature is only available for devices running on Android API 10 and below.");
         }
     }
 
+    // shards(): Specifies the number of SoundPool shards to be used. Each shard is a HXSoundEngine
+    // instance that holds a subset of the sound resources, and sound effects are played on the
+    // least loaded shard that holds the sound resource. This raises the number of simultaneous sound
+    // effects beyond a single SoundPool and spreads the native mixer load. This feature is only
+    // enabled on devices running on Android API 21 and above.
+    public static void shards(int shards) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+
+            if (shards < 1 || shards > MAX_SHARDS) {
+                HXLog.w(LOG_TAG, "PREPARING: shards(): Invalid shard value input. 1 to {} shards must be specified.", MAX_SHARDS);
+                return;
+            }
+
+            instance();
+            synchronized (hxSound) {
+                if (hxSound.hxSoundEngines != null) {
+                    hxSound.release();
+                }
+
+                hxSound.numberOfEngines = shards;
+                hxSound.isSharded = shards > 1;
+                hxSound.initSoundEngines();
+            }
+        } else {
+            HXLog.w(LOG_TAG, "PREPARING: shards(): This feature is only available for devices running on Android API 21 and above.");
+        }
+    }
+
+    // mixer(): Enables or disables the software mixer. When enabled, sound effects are decoded into
+    // PCM data and mixed on a single real-time thread into a streaming AudioTrack, instead of being
+    // played through SoundPool. This removes the SoundPool stream limit and gives each sound effect
+    // its own gain and playback rate control. Sound resources must be loaded again after the
+    // mixer is enabled or disabled. This feature is only enabled on devices running on Android API
+    // 16 and above.
+    public static void mixer(boolean isEnabled, Context context) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN) {
+            HXLog.w(LOG_TAG, "PREPARING: mixer(): This feature is only available for devices running on Android API 16 and above.");
+            return;
+        } else if (context == null || context.getApplicationContext() == null) {
+            HXLog.e(LOG_TAG, "ERROR: mixer(): Context cannot be null.");
+            return;
+        }
+
+        instance();
+        synchronized (hxSound) {
+            if (isEnabled && hxSound.mixerEngine == null) {
+                HXMixerEngine mixer = new HXMixerEngine(context.getApplicationContext(),
+                        HXMixer.DEFAULT_MAX_VOICES, hxSound.soundHandles);
+                mixer.setPcmCache(hxSound.pcmCache);
+                mixer.start();
+                hxSound.mixerEngine = mixer;
+            } else if (!isEnabled && hxSound.mixerEngine != null) {
+                hxSound.mixerEngine.release();
+                hxSound.mixerEngine = null;
+            }
+        }
+    }
+
+    // cache(): Enables or disables the decoded sound cache. When enabled, each sound resource is
+    // decoded into PCM data once and stored in the application cache directory, keyed by the sound
+    // resource and the application version. Later loads read the cached PCM data instead of
+    // decoding the sound resource again. This feature is only enabled on devices running on Android
+    // API 16 and above.
+    public static void cache(boolean isEnabled, Context context) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN) {
+            HXLog.w(LOG_TAG, "PREPARING: cache(): This feature is only available for devices running on Android API 16 and above.");
+            return;
+        } else if (context == null || context.getApplicationContext() == null) {
+            HXLog.e(LOG_TAG, "ERROR: cache(): Context cannot be null.");
+            return;
+        }
+
+        instance();
+        synchronized (hxSound) {
+            if (isEnabled && hxSound.pcmCache == null) {
+                hxSound.pcmCache = new HXPcmCache(context.getApplicationContext());
+            } else if (!isEnabled) {
+                hxSound.pcmCache = null;
+            }
+
+            HXSoundEngine[] engines = hxSound.engineSnapshot;
+            if (engines != null) {
+                for (HXSoundEngine engine : engines) {
+                    engine.setPcmCache(hxSound.pcmCache);
+                }
+            }
+            if (hxSound.mixerEngine != null) {
+                hxSound.mixerEngine.setPcmCache(hxSound.pcmCache);
+            }
+        }
+    }
+
+    // category(): Assigns the referenced list of sound resources to the specified category. When
+    // shards are enabled, all sound resources of a category are held by the same shard.
+    public static void category(int category, List<Integer> soundResourceList) {
+        if (category < 0) {
+            HXLog.w(LOG_TAG, "PREPARING: category(): Invalid category value input. Category cannot be negative.");
+            return;
+        }
+
+        instance();
+        synchronized (hxSound) {
+            for (int resource : soundResourceList) {
+                if (resource != 0) {
+                    hxSound.categoryTable = hxSound.categoryTable.put(resource, category);
+                }
+            }
+        }
+    }
+
+    // voices(): Specifies the maximum number of sound effect streams that can be played
+    // simultaneously by each HXSoundEngine instance. When all streams are in use, the oldest lowest
+    // priority stream is replaced. Existing HXSoundEngine instances are released and rebuilt.
+    public static void voices(int voices) {
+        if (voices < 1) {
+            HXLog.w(LOG_TAG, "PREPARING: voices(): Invalid voices value input. 1 or more voices must be specified.");
+            return;
+        }
+
+        instance();
+        synchronized (hxSound) {
+            hxSound.maxVoices = voices;
+
+            if (hxSound.hxSoundEngines != null) {
+                hxSound.release();
+                hxSound.initSoundEngines();
+            }
+        }
+    }
+
+    // backend(): Specifies the HXAudioBackend used for loading and playing sound effects. By
+    // default, sound effects are played through SoundPool by HXAndroidBackend, while
+    // HXHeadlessBackend renders them into a file or memory buffer instead, so that HXSound can run
+    // off-device. Setting a null backend restores HXAndroidBackend. Existing HXSoundEngine instances
+    // are released and rebuilt, and sound resources must be loaded again. The software mixer
+    // enabled by mixer() always plays through AudioTrack.
+    public static void backend(HXAudioBackend backend) {
+        instance();
+        synchronized (hxSound) {
+            hxSound.audioBackend = backend != null ? backend : new HXAndroidBackend();
+
+            if (hxSound.hxSoundEngines != null) {
+                hxSound.release();
+                hxSound.initSoundEngines();
+            }
+        }
+    }
+
+    // voicesPerSound(): Specifies the maximum number of streams of the same sound effect that can be
+    // played simultaneously by each HXSoundEngine instance.
+    public static void voicesPerSound(int voices) {
+        if (voices < 1) {
+            HXLog.w(LOG_TAG, "PREPARING: voicesPerSound(): Invalid voices value input. 1 or more voices must be specified.");
+            return;
+        }
+
+        instance();
+        hxSound.maxVoicesPerSound = voices;
+
+        HXSoundEngine[] engines = hxSound.engineSnapshot;
+        if (engines != null) {
+            for (HXSoundEngine engine : engines) {
+                engine.setMaxVoicesPerSound(voices);
+            }
+        }
+    }
+
+    // deadline(): Specifies the maximum time (in milliseconds) a sound effect waits for its sound
+    // resource to finish loading. Sound effects that wait longer than this are discarded.
+    public static void deadline(int milliseconds) {
+        if (milliseconds < 0) {
+            HXLog.w(LOG_TAG, "PREPARING: deadline(): Invalid deadline value input. Deadline cannot be negative.");
+            return;
+        }
+
+        instance();
+        hxSound.pendingDeadline = milliseconds * 1000000L;
+
+        HXSoundEngine[] engines = hxSound.engineSnapshot;
+        if (engines != null) {
+            for (HXSoundEngine engine : engines) {
+                engine.setPendingDeadline(hxSound.pendingDeadline);
+            }
+        }
+    }
+
+    // budget(): Specifies the maximum estimated decoded PCM size (in bytes) of the sound resources
+    // loaded by each HXSoundEngine instance. When the budget is exceeded, the least recently played
+    // sound resources that are not held by a sound bank are unloaded. A value of 0 disables the
+    // memory budget.
+    public static void budget(long bytes) {
+        if (bytes < 0) {
+            HXLog.w(LOG_TAG, "PREPARING: budget(): Invalid budget value input. Budget cannot be negative.");
+            return;
+        }
+
+        instance();
+        hxSound.memoryBudget = bytes;
+
+        HXSoundEngine[] engines = hxSound.engineSnapshot;
+        if (engines != null) {
+            for (HXSoundEngine engine : engines) {
+                engine.setMemoryBudget(bytes);
+            }
+        }
+    }
+
     // logging(): Enables logging for HXSound and HXSoundEngine events.
     public static void logging(boolean isEnabled) {
         HXLog.setLogging(isEnabled);
     }
 
+    /** METRIC METHODS _________________________________________________________________________ **/
+
+    // getQueueDepth(): Returns the number of sound effects waiting in the dispatcher queue.
+    public static int getQueueDepth() {
+        if (hxSound != null && hxSound.soundDispatcher != null) {
+            return hxSound.soundDispatcher.getQueueDepth();
+        }
+        return 0;
+    }
+
+    // getPeakQueueDepth(): Returns the highest number of sound effects queued at once.
+    public static int getPeakQueueDepth() {
+        if (hxSound != null && hxSound.soundDispatcher != null) {
+            return hxSound.soundDispatcher.getPeakQueueDepth();
+        }
+        return 0;
+    }
+
+    // getDroppedCount(): Returns the number of sound effects dropped due to a full dispatcher queue.
+    public static long getDroppedCount() {
+        if (hxSound != null && hxSound.soundDispatcher != null) {
+            return hxSound.soundDispatcher.getDroppedCount();
+        }
+        return 0;
+    }
+
+    // getDispatchedCount(): Returns the number of sound effects dispatched to HXSoundEngine.
+    public static long getDispatchedCount() {
+        if (hxSound != null && hxSound.soundDispatcher != null) {
+            return hxSound.soundDispatcher.getDispatchedCount();
+        }
+        return 0;
+    }
+
+    // getAverageDispatchLatency(): Returns the average time (in nanoseconds) between a sound effect
+    // being queued and being dispatched to HXSoundEngine.
+    public static long getAverageDispatchLatency() {
+        if (hxSound != null && hxSound.soundDispatcher != null) {
+            return hxSound.soundDispatcher.getAverageLatency();
+        }
+        return 0;
+    }
+
+    // getMaxDispatchLatency(): Returns the highest dispatch latency, in nanoseconds.
+    public static long getMaxDispatchLatency() {
+        if (hxSound != null && hxSound.soundDispatcher != null) {
+            return hxSound.soundDispatcher.getMaxLatency();
+        }
+        return 0;
+    }
+
+    // getLiveVoices(): Returns the number of sound effect streams currently playing in all
+    // HXSoundEngine instances.
+    public static int getLiveVoices() {
+        int count = 0;
+        if (hxSound != null && hxSound.mixerEngine != null) {
+            count += hxSound.mixerEngine.getLiveVoiceCount();
+        }
+        if (hxSound != null && hxSound.engineSnapshot != null) {
+            for (HXSoundEngine engine : hxSound.engineSnapshot) {
+                count += engine.getLiveVoiceCount();
+            }
+        }
+        return count;
+    }
+
+    // getLiveVoices(): Returns the number of streams of the specified sound resource currently
+    // playing in all HXSoundEngine instances.
+    public static int getLiveVoices(int resource) {
+        int count = 0;
+        if (hxSound != null && hxSound.engineSnapshot != null) {
+            for (HXSoundEngine engine : hxSound.engineSnapshot) {
+                count += engine.getLiveVoiceCount(resource);
+            }
+        }
+        return count;
+    }
+
+    // getStolenVoices(): Returns the number of sound effect streams that were stopped to make room
+    // for higher priority or newer sound effects.
+    public static long getStolenVoices() {
+        long count = 0;
+        if (hxSound != null && hxSound.mixerEngine != null) {
+            count += hxSound.mixerEngine.getStolenVoiceCount();
+        }
+        if (hxSound != null && hxSound.engineSnapshot != null) {
+            for (HXSoundEngine engine : hxSound.engineSnapshot) {
+                count += engine.getStolenVoiceCount();
+            }
+        }
+        return count;
+    }
+
+    // getExpiredCount(): Returns the number of sound effects discarded because their sound resource
+    // did not finish loading before the deadline.
+    public static long getExpiredCount() {
+        long count = 0;
+        if (hxSound != null && hxSound.engineSnapshot != null) {
+            for (HXSoundEngine engine : hxSound.engineSnapshot) {
+                count += engine.getExpiredPlayCount();
+            }
+        }
+        return count;
+    }
+
+    // getMemoryUsed(): Returns the estimated decoded PCM size (in bytes) of the sound resources
+    // loaded by all HXSoundEngine instances.
+    public static long getMemoryUsed() {
+        long bytes = 0;
+        if (hxSound != null && hxSound.engineSnapshot != null) {
+            for (HXSoundEngine engine : hxSound.engineSnapshot) {
+                bytes += engine.getMemoryUsed();
+            }
+        }
+        return bytes;
+    }
+
     // release(): Used to free up memory resources utilized by all HXSoundEngine instances.
     private void release() {
 
         HXLog.d(LOG_TAG, "RELEASE: release(): Releasing all HXSoundEngine instances...");
 
+        // Cancels all sound resources waiting to be loaded into the released HXSoundEngine instances.
+        soundLoader.cancelAll();
+
         // Releases all HXSoundEngine instances.
         int i = 0;
         for (HXSoundEngine engine : hxSoundEngines) {
             engine.release();
-            HXLog.d(LOG_TAG, "RELEASE: release(): HXSoundEngine (" + i + ") is released.");
+            HXLog.d(LOG_TAG, "RELEASE: release(): HXSoundEngine ({}) is released.", i);
             i++;
         }
+        engineSnapshot = null;
         hxSoundEngines = null;
+        shardTable = HXSampleTable.EMPTY;
+        soundHandles.clear();
     }
 }
\ No newline at end of file
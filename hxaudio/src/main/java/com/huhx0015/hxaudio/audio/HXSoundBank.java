@@ -0,0 +1,76 @@
+package com.huhx0015.hxaudio.audio;
+
+import java.util.List;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXSoundBank] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXSoundBank stores a named group of sound resources that are loaded and unloaded
+ *  together by HXSound. Each sound bank is reference counted, so that a sound bank loaded by
+ *  several screens is only unloaded once all of them have released it.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+class HXSoundBank {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // BANK VARIABLES:
+    private final String name; // Name of this sound bank.
+    private final int[] resources; // Sound resources of this sound bank.
+    private int references; // Number of times this sound bank has been loaded, but not unloaded.
+
+    /** CONSTRUCTOR METHOD _____________________________________________________________________ **/
+
+    // HXSoundBank(): Constructor method for this class.
+    HXSoundBank(String name, List<Integer> soundResourceList) {
+        this.name = name;
+
+        int count = 0;
+        for (int resource : soundResourceList) {
+            if (resource != 0) {
+                count++;
+            }
+        }
+
+        this.resources = new int[count];
+        int i = 0;
+        for (int resource : soundResourceList) {
+            if (resource != 0) {
+                resources[i++] = resource;
+            }
+        }
+    }
+
+    /** REFERENCE METHODS ______________________________________________________________________ **/
+
+    // retain(): Adds a reference to this sound bank and returns the new reference count.
+    int retain() {
+        return ++references;
+    }
+
+    // release(): Removes a reference from this sound bank and returns the new reference count.
+    int release() {
+        if (references > 0) {
+            references--;
+        }
+        return references;
+    }
+
+    /** GET METHODS ____________________________________________________________________________ **/
+
+    // getName(): Returns the name of this sound bank.
+    String getName() {
+        return name;
+    }
+
+    // getResources(): Returns the sound resources of this sound bank.
+    int[] getResources() {
+        return resources;
+    }
+
+    // getReferences(): Returns the reference count of this sound bank.
+    int getReferences() {
+        return references;
+    }
+}
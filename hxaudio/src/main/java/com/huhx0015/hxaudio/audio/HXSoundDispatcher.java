@@ -0,0 +1,268 @@
+package com.huhx0015.hxaudio.audio;
+
+import android.content.Context;
+import android.os.Process;
+import com.huhx0015.hxaudio.metrics.HXMetrics;
+import com.huhx0015.hxaudio.metrics.HXStripedCounter;
+import com.huhx0015.hxaudio.utils.HXLog;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXSoundDispatcher] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXSoundDispatcher is a long-lived, high priority audio command thread that receives
+ *  sound effect triggers from HXSound and HXSoundBuilder. Triggers are stored in a bounded,
+ *  preallocated ring buffer, so that submitting a sound effect does not create a new Thread or
+ *  allocate any new objects. Each dispatcher is bound to the HXSound instance that created it, and
+ *  commands are dropped once it is stopped. Queue depth and dispatch latency metrics are also
+ *  tracked here.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+class HXSoundDispatcher implements Runnable {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // COMMAND VARIABLES:
+    private final int capacity; // Maximum number of sound commands that can be queued.
+    private final int[] commandResources; // Stores the sound resource of each queued command.
+    private final boolean[] commandLoops; // Stores the looping attribute of each queued command.
+    private final int[] commandPriorities; // Stores the priority of each queued command.
+    private final long[] commandHandles; // Stores the HXSoundHandles handle of each queued command.
+    private final long[] commandTimes; // Stores the time (in nanoseconds) each command was queued.
+    private final Context[] commandContexts; // Stores the Context of each queued command.
+    private int commandHead; // Index of the next command to be dispatched.
+    private int commandCount; // Number of commands currently queued.
+
+    // SOUND VARIABLES:
+    private final HXSound hxSound; // HXSound instance that plays the dispatched commands.
+
+    // THREAD VARIABLES:
+    private final Object lock = new Object(); // Used for guarding the command ring buffer.
+    private volatile boolean isRunning; // Used for determining if the dispatcher thread is running.
+    private Thread dispatchThread; // The audio command thread.
+
+    // METRIC VARIABLES:
+    private volatile int peakDepth; // Highest number of commands that were queued at once.
+    private volatile long submittedCount; // Number of commands that were accepted into the queue.
+    private volatile long dispatchedCount; // Number of commands that were dispatched to HXSound.
+    private volatile long droppedCount; // Number of commands that were dropped due to a full queue.
+    private volatile long lastLatency; // Dispatch latency of the last command, in nanoseconds.
+    private volatile long maxLatency; // Highest dispatch latency, in nanoseconds.
+    private volatile long totalLatency; // Sum of all dispatch latencies, in nanoseconds.
+    private static final HXStripedCounter requestedPlays = HXMetrics.counter(HXMetrics.SOUND_PLAYS_REQUESTED); // Shared count of requested sound effects.
+    private static final HXStripedCounter droppedPlays = HXMetrics.counter(HXMetrics.SOUND_PLAYS_DROPPED); // Shared count of dropped sound effects.
+
+    // CONSTANT VARIABLES:
+    static final int DEFAULT_QUEUE_CAPACITY = 64; // Default number of queued sound commands. Adjust this value accordingly.
+    private static final long STOP_TIMEOUT = 1000; // Time to wait for the dispatcher thread to finish, in milliseconds.
+
+    // LOGGING VARIABLES:
+    private static final String LOG_TAG = HXSoundDispatcher.class.getSimpleName();
+
+    /** CONSTRUCTOR METHOD _____________________________________________________________________ **/
+
+    // HXSoundDispatcher(): Constructor method for this class.
+    HXSoundDispatcher(HXSound hxSound, int capacity) {
+        this.hxSound = hxSound;
+        this.capacity = capacity < 1 ? DEFAULT_QUEUE_CAPACITY : capacity;
+        this.commandResources = new int[this.capacity];
+        this.commandLoops = new boolean[this.capacity];
+        this.commandPriorities = new int[this.capacity];
+        this.commandHandles = new long[this.capacity];
+        this.commandTimes = new long[this.capacity];
+        this.commandContexts = new Context[this.capacity];
+    }
+
+    /** THREAD METHODS _________________________________________________________________________ **/
+
+    // start(): Starts the dispatcher thread, if it is not already running.
+    synchronized void start() {
+        if (!isRunning) {
+            isRunning = true;
+            dispatchThread = new Thread(this, LOG_TAG);
+            dispatchThread.setDaemon(true);
+            dispatchThread.setPriority(Thread.MAX_PRIORITY);
+            dispatchThread.start();
+            HXLog.d(LOG_TAG, "START: start(): Sound dispatcher thread has been started.");
+        }
+    }
+
+    // stop(): Stops the dispatcher thread, discards any queued commands and waits for the command
+    // in flight to finish, so that no command reaches HXSound after this method returns.
+    synchronized void stop() {
+        if (isRunning) {
+            isRunning = false;
+            synchronized (lock) {
+                clearCommands();
+                lock.notifyAll();
+            }
+
+            if (dispatchThread != Thread.currentThread()) {
+                try {
+                    dispatchThread.join(STOP_TIMEOUT);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            dispatchThread = null;
+            HXLog.d(LOG_TAG, "STOP: stop(): Sound dispatcher thread has been stopped.");
+        }
+    }
+
+    // run(): The dispatcher loop. Waits for queued sound commands and forwards them to the HXSound
+    // instance of this dispatcher.
+    @Override
+    public void run() {
+        Process.setThreadPriority(Process.THREAD_PRIORITY_AUDIO);
+
+        int resource;
+        boolean isLooped;
+        int priority;
+        long handle;
+        long queuedTime;
+        Context context;
+
+        while (isRunning) {
+            synchronized (lock) {
+                while (commandCount == 0 && isRunning) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+
+                if (!isRunning) {
+                    return;
+                }
+
+                // Removes the command at the head of the ring buffer.
+                resource = commandResources[commandHead];
+                isLooped = commandLoops[commandHead];
+                priority = commandPriorities[commandHead];
+                handle = commandHandles[commandHead];
+                queuedTime = commandTimes[commandHead];
+                context = commandContexts[commandHead];
+                commandContexts[commandHead] = null;
+                commandHead = (commandHead + 1) % capacity;
+                commandCount--;
+            }
+
+            // Drops the command if the dispatcher was stopped after it was removed from the queue.
+            if (!isRunning) {
+                return;
+            }
+
+            updateLatency(System.nanoTime() - queuedTime);
+
+            try {
+                hxSound.playSound(resource, isLooped, priority, handle, context);
+            } catch (Exception e) {
+                HXLog.e(LOG_TAG, "ERROR: run(): An exception occurred while dispatching a sound command: {}", e.getLocalizedMessage());
+            }
+        }
+    }
+
+    /** COMMAND METHODS ________________________________________________________________________ **/
+
+    // submit(): Queues the specified sound effect for playback on the dispatcher thread. Returns
+    // false if the dispatcher is stopped or the command queue is full and the sound effect was
+    // dropped.
+    boolean submit(int resource, boolean isLooped, int priority, long handle, Context context) {
+        synchronized (lock) {
+            if (!isRunning) {
+                HXLog.w(LOG_TAG, "WARNING: submit(): Sound dispatcher is stopped. Sound effect has been dropped.");
+                return false;
+            }
+
+            if (commandCount == capacity) {
+                droppedCount++;
+                requestedPlays.increment();
+                droppedPlays.increment();
+                HXLog.w(LOG_TAG, "WARNING: submit(): Sound command queue is full. Sound effect has been dropped.");
+                return false;
+            }
+
+            int tail = (commandHead + commandCount) % capacity;
+            commandResources[tail] = resource;
+            commandLoops[tail] = isLooped;
+            commandPriorities[tail] = priority;
+            commandHandles[tail] = handle;
+            commandTimes[tail] = System.nanoTime();
+            commandContexts[tail] = context;
+            commandCount++;
+            submittedCount++;
+
+            if (commandCount > peakDepth) {
+                peakDepth = commandCount;
+            }
+
+            lock.notify();
+        }
+        return true;
+    }
+
+    // clearCommands(): Discards all queued commands. Must be called while holding the lock.
+    private void clearCommands() {
+        for (int i = 0; i < capacity; i++) {
+            commandContexts[i] = null;
+        }
+        commandHead = 0;
+        commandCount = 0;
+    }
+
+    // updateLatency(): Records the dispatch latency of the most recently dispatched command.
+    private void updateLatency(long latency) {
+        lastLatency = latency;
+        totalLatency += latency;
+        dispatchedCount++;
+        if (latency > maxLatency) {
+            maxLatency = latency;
+        }
+    }
+
+    /** GET METHODS ____________________________________________________________________________ **/
+
+    // getQueueDepth(): Returns the number of sound commands currently waiting to be dispatched.
+    int getQueueDepth() {
+        synchronized (lock) {
+            return commandCount;
+        }
+    }
+
+    // getPeakQueueDepth(): Returns the highest number of sound commands that were queued at once.
+    int getPeakQueueDepth() {
+        return peakDepth;
+    }
+
+    // getSubmittedCount(): Returns the number of sound commands accepted into the queue.
+    long getSubmittedCount() {
+        return submittedCount;
+    }
+
+    // getDispatchedCount(): Returns the number of sound commands dispatched to HXSound.
+    long getDispatchedCount() {
+        return dispatchedCount;
+    }
+
+    // getDroppedCount(): Returns the number of sound commands dropped due to a full queue.
+    long getDroppedCount() {
+        return droppedCount;
+    }
+
+    // getLastLatency(): Returns the dispatch latency of the last command, in nanoseconds.
+    long getLastLatency() {
+        return lastLatency;
+    }
+
+    // getMaxLatency(): Returns the highest dispatch latency, in nanoseconds.
+    long getMaxLatency() {
+        return maxLatency;
+    }
+
+    // getAverageLatency(): Returns the average dispatch latency, in nanoseconds.
+    long getAverageLatency() {
+        long count = dispatchedCount;
+        return count == 0 ? 0 : totalLatency / count;
+    }
+}
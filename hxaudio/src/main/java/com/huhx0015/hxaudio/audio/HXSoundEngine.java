@@ -1,114 +1,155 @@
 package com.huhx0015.hxaudio.audio;
 
-import android.annotation.TargetApi;
 import android.content.Context;
-import android.media.AudioAttributes;
+import android.content.res.AssetFileDescriptor;
 import android.media.AudioManager;
-import android.media.SoundPool;
+import android.media.MediaMetadataRetriever;
 import android.os.Build;
+import android.os.SystemClock;
+import com.huhx0015.hxaudio.backend.HXAndroidBackend;
+import com.huhx0015.hxaudio.backend.HXAudioBackend;
+import com.huhx0015.hxaudio.backend.HXSoundBackend;
+import com.huhx0015.hxaudio.interfaces.HXMetricsGauge;
+import com.huhx0015.hxaudio.metrics.HXLatencyHistogram;
+import com.huhx0015.hxaudio.metrics.HXMetrics;
+import com.huhx0015.hxaudio.metrics.HXStripedCounter;
 import com.huhx0015.hxaudio.utils.HXLog;
+import com.huhx0015.hxaudio.utils.HXTrace;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Vector;
-import java.util.concurrent.ConcurrentHashMap;
 
 /** -----------------------------------------------------------------------------------------------
  *  [HXSoundEngine] CLASS
  *  DEVELOPER: Michael Yoon Huh (Huh X0015)
- *  DESCRIPTION: HXSoundEngine class is a wrapper class for the SoundPool object, used for
- *  simplifying the outputting of sound effects for the application.
+ *  DESCRIPTION: HXSoundEngine class is a wrapper class for the HXSoundBackend object, used for
+ *  simplifying the outputting of sound effects for the application. The HXSoundBackend is created
+ *  by the HXAudioBackend of this engine, which plays sound effects through SoundPool by default.
  *  -----------------------------------------------------------------------------------------------
  */
 
-class HXSoundEngine {
+class HXSoundEngine implements HXSoundLoadTarget {
 
     /** CLASS VARIABLES ________________________________________________________________________ **/
 
     // AUDIO VARIABLES:
     private AudioManager soundManager; // AudioManager variable for sound effects.
-    private volatile ConcurrentHashMap<Integer, Integer> soundEffectMap; // Used for storing the loaded sound effects.
+    private volatile HXSampleTable soundEffectTable = HXSampleTable.EMPTY; // Maps sound resources to HXSoundBackend sample IDs.
+    private volatile HXSampleTable readyEffectTable = HXSampleTable.EMPTY; // Maps sound resources to fully loaded sample IDs.
+    private volatile HXSampleTable sampleResourceTable = HXSampleTable.EMPTY; // Maps HXSoundBackend sample IDs to sound resources.
+    private volatile HXSampleTable sampleDurationTable = HXSampleTable.EMPTY; // Maps HXSoundBackend sample IDs to their durations (in milliseconds).
     private volatile Vector<Integer> soundFxList; // Used for storing the referenced sound effects.
-    private volatile SoundPool soundPool; // SoundPool variable for sound effects.
+    private volatile HXSoundBackend soundBackend; // HXSoundBackend variable for sound effects.
+    private volatile HXAudioBackend audioBackend = new HXAndroidBackend(); // Creates the HXSoundBackend object.
     private int engineID; // Used to determine the ID value of this instance.
     private volatile int soundEventCount = 0; // Used to count the number of sound events that have occurred.
+    private final Object tableLock = new Object(); // Used for serializing writes to the sample tables.
+    private boolean isPublishing; // Used for determining if addSoundFx() has loaded a sample that has not been published yet. Guarded by tableLock.
+    private HXSampleTable earlyLoadTable = HXSampleTable.EMPTY; // Maps samples that finished loading before being published to their load status. Guarded by tableLock.
+    private final HXSampleLoadTracker loadTracker; // Tracks the load state and pending plays of each sample.
+    private final HXVoiceManager voiceManager; // Tracks the live streams of the HXSoundBackend object.
+    private final HXSoundHandles soundHandles; // Shared handle table of HXSound, used for resolving sound effect handles.
+    private final int maxVoices; // Maximum number of streams for the HXSoundBackend object.
+    private volatile HXSoundLoader soundLoader; // Notified when a sample has finished loading or has been unloaded.
+    private volatile UnloadListener unloadListener; // Notified when a sound resource has been unloaded.
+    private volatile HXPcmCache pcmCache; // Cache of decoded sound resources. Null if the cache is disabled.
+
+    // MEMORY VARIABLES:
+    private volatile HXSampleTable referenceTable = HXSampleTable.EMPTY; // Maps sound resources to the number of sound banks referencing them.
+    private volatile long[] sampleLastPlayed = new long[32]; // Stores the time (in milliseconds) each sample was last played, indexed by sample ID.
+    private long memoryBudget; // Maximum estimated decoded PCM size (in bytes) of all samples. 0 means no limit.
+    private long memoryUsed; // Estimated decoded PCM size (in bytes) of all loaded samples.
+
+    // METRIC VARIABLES:
+    private final String liveVoicesName; // Name of the live voices gauge of this engine.
+    private static final HXStripedCounter playedPlays = HXMetrics.counter(HXMetrics.SOUND_PLAYS_PLAYED); // Shared count of played sound effects.
+    private static final HXStripedCounter droppedPlays = HXMetrics.counter(HXMetrics.SOUND_PLAYS_DROPPED); // Shared count of dropped sound effects.
+    private static final HXStripedCounter deferredPlays = HXMetrics.counter(HXMetrics.SOUND_PLAYS_DEFERRED); // Shared count of sound effects that waited for their sample.
+    private static final HXStripedCounter loadCount = HXMetrics.counter(HXMetrics.SOUND_LOADS); // Shared count of loaded samples.
+    private static final HXStripedCounter failedLoadCount = HXMetrics.counter(HXMetrics.SOUND_LOADS_FAILED); // Shared count of samples that failed to load.
+    private static final HXLatencyHistogram loadTime = HXMetrics.histogram(HXMetrics.SOUND_LOAD_TIME); // Shared histogram of sample load times.
 
     // CONSTANT VARIABLES:
-    private static final int MAX_SIMULTANEOUS_SOUNDS = 8; // Can output eight sound effects simultaneously. Adjust this value accordingly.
-    private static final int MAX_SOUND_EVENTS = 4; // Maximum number of sound events before the SoundPool object is reset. Adjust this value based on sound sample sizes. Android 2.3 (GINGERBREAD) only.
-    private static final int SOUND_PRIORITY_LEVEL = 1; // Used for setting the sound priority level.
+    static final int MAX_SIMULTANEOUS_SOUNDS = 8; // Can output eight sound effects simultaneously by default. Adjust this value accordingly.
+    static final int MAX_SIMULTANEOUS_SOUNDS_PER_SOUND = 4; // Default number of simultaneous streams of the same sound effect. Adjust this value accordingly.
+    private static final int MAX_SOUND_EVENTS = 4; // Maximum number of sound events before the HXSoundBackend object is reset. Adjust this value based on sound sample sizes. Android 2.3 (GINGERBREAD) only.
+    static final int SOUND_PRIORITY_LEVEL = 1; // Used for setting the default sound priority level.
+    private static final int DEFAULT_SOUND_DURATION = 3000; // Estimated duration (in milliseconds) of sound effects with an unknown duration.
     private static final float SOUND_VOLUME_LEVEL = 1.0f; // Used for setting the left and right volume levels.
+    private static final int DECODED_BYTES_PER_MS = 176; // Estimated decoded PCM size per millisecond (44.1 kHz, 16-bit, stereo).
 
     // LOGGING VARIABLES:
     private static final String LOG_TAG = HXSoundEngine.class.getSimpleName();
 
+    /** INTERFACE ______________________________________________________________________________ **/
+
+    // UnloadListener: Notified when a sound resource has been unloaded from an HXSoundEngine.
+    interface UnloadListener {
+
+        // onSoundFxUnloaded(): Called after the specified sound resource has been unloaded, either
+        // explicitly or when it was evicted to meet the memory budget. Called while holding the
+        // HXSoundEngine lock, so it must not call back into the HXSoundEngine.
+        void onSoundFxUnloaded(int engine, int resource);
+    }
+
     /** CONSTRUCTOR METHOD _____________________________________________________________________ **/
 
     // HXSoundEngine(): Constructor method for this class.
-    HXSoundEngine(int id) {
+    HXSoundEngine(int id, int maxVoices, int maxVoicesPerSound, HXSoundHandles soundHandles) {
         this.engineID = id;
+        this.soundHandles = soundHandles;
+        this.maxVoices = maxVoices;
+        this.voiceManager = new HXVoiceManager(maxVoices, maxVoicesPerSound);
+        this.loadTracker = new HXSampleLoadTracker(soundHandles);
+        this.liveVoicesName = HXMetrics.SOUND_ENGINE + id + HXMetrics.LIVE_VOICES;
     }
 
     /** INITIALIZATION METHODS _________________________________________________________________ **/
 
-    // initSoundPool(): Initializes the SoundPool object. Depending on the Android version of the
-    // device, the SoundPool object is created using the appropriate methods.
-    private synchronized void initSoundPool() {
-
-        // API 21+: Android 5.0 and above.
-        if (Build.VERSION.SDK_INT > 20) {
-            HXLog.d(LOG_TAG, "INITIALIZING (" + engineID + "): initSoundPool(): Using Lollipop (API 21+) SoundPool initialization.");
-            soundPool = buildSoundPool();
-        }
-
-        // API 9 - 20: Android 2.3 - 4.4
-        else {
-            HXLog.d(LOG_TAG, "INITIALIZING (" + engineID + "): initSoundPool(): Using GB/HC/ICS/JB/KK (API 9 - 20) SoundPool initialization.");
-            soundPool = new SoundPool(MAX_SIMULTANEOUS_SOUNDS, AudioManager.STREAM_MUSIC, 0);
-        }
-    }
-
-    // buildSoundPool(): Builds the SoundPool object. This implementation is only used on devices
-    // running Android 5.0 and later.
-    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
-    private synchronized SoundPool buildSoundPool() {
-
-        // Initializes the AudioAttributes.Builder object.
-        AudioAttributes attributes = new AudioAttributes.Builder()
-                .setUsage(AudioAttributes.USAGE_GAME) // Sets the audio type to USAGE_GAME.
-                .setContentType(AudioAttributes.CONTENT_TYPE_MUSIC)
-                .setFlags(AudioAttributes.FLAG_LOW_LATENCY)
-                .build();
-
-        // Initializes the SoundPool.Builder object.
-        SoundPool soundBuilder = new SoundPool.Builder()
-                .setAudioAttributes(attributes)
-                .setMaxStreams(MAX_SIMULTANEOUS_SOUNDS) // Sets the maximum number of audio streams.
-                .build();
+    // initSoundBackend(): Initializes the HXSoundBackend object, which is created by the
+    // HXAudioBackend of this engine, and registers the live voices gauge of this engine.
+    private synchronized void initSoundBackend() {
+        HXLog.d(LOG_TAG, "INITIALIZING ({}): initSoundBackend(): Creating the sound backend.", engineID);
+        soundBackend = audioBackend.createSoundBackend(maxVoices);
+        HXMetrics.gauge(liveVoicesName, liveVoicesGauge);
 
-        HXLog.d(LOG_TAG, "INITIALIZING (" + engineID + "): buildSoundPool(): SoundPool construction complete.");
-
-        return soundBuilder; // Returns the newly created SoundPool object.
+        // Sets the shared OnLoadCompleteListener, which is used for all samples in this backend.
+        soundBackend.setOnLoadCompleteListener(sampleLoadListener);
     }
 
-    // reinitialize(): This method re-initializes the SoundPool object for devices running
+    // reinitialize(): This method re-initializes the HXSoundBackend object for devices running
     // on Android 2.3 (GINGERBREAD) and earlier. This is to help minimize the AudioTrack out of
     // memory error, which was limited to a small 1 MB size buffer.
     synchronized void reinitialize(Context context) {
 
-        // GINGERBREAD: The SoundPool is released and re-initialized. This is done to minimize the
+        // GINGERBREAD: The HXSoundBackend is released and re-initialized. This is done to minimize the
         // AudioTrack out of memory (-12) error.
         if (Build.VERSION.SDK_INT < Build.VERSION_CODES.HONEYCOMB) {
 
-            HXLog.d(LOG_TAG, "RE-INITIALIZING (" + engineID + "): reinitialize(): The SoundPool object is being re-initialized.");
+            HXLog.d(LOG_TAG, "RE-INITIALIZING ({}): reinitialize(): The HXSoundBackend object is being re-initialized.", engineID);
+
+            // Keeps the sound durations that have already been read, so that they are not read
+            // again while holding the lock.
+            HXSampleTable durations = HXSampleTable.EMPTY;
+            if (soundFxList != null) {
+                for (int i = 0; i < soundFxList.size(); i++) {
+                    int resource = soundFxList.get(i);
+                    durations = durations.put(resource, sampleDurationTable.get(soundEffectTable.get(resource)));
+                }
+            }
 
-            release(); // Releases the SoundPool object.
-            initSoundPool(); // Initializes the SoundPool object.
+            releaseSoundBackend(); // Releases the HXSoundBackend object.
+            initSoundBackend(); // Initializes the HXSoundBackend object.
 
-            // Re-generates the soundEffectMap.
+            // Re-generates the sound effect tables.
             if (soundFxList != null && !soundFxList.isEmpty()) {
                 for (int i = 0; i < soundFxList.size(); i++) {
-                    addSoundFx(soundFxList.get(i), context);
+                    int resource = soundFxList.get(i);
+                    addSoundFx(resource, durations.get(resource), context);
                 }
-                HXLog.d(LOG_TAG, "RE-INITIALIZING (" + engineID + "): reinitialize(): Re-generated sound effect map.");
+                HXLog.d(LOG_TAG, "RE-INITIALIZING ({}): reinitialize(): Re-generated sound effect map.", engineID);
             }
 
             soundEventCount = 0; // Resets the sound event counter.
@@ -117,111 +158,559 @@ class HXSoundEngine {
 
     /** SOUND METHODS __________________________________________________________________________ **/
 
-    // prepareSoundFx(): Prepares the specified resource for sound playback.
-    synchronized void prepareSoundFx(final int resource, final boolean isLoop, Context context) {
+    // triggerSoundFx(): Lock-free fast path used for playing a sound effect that has already been
+    // fully loaded. The voice caps are enforced by HXVoiceManager without acquiring any locks, and
+    // no objects are allocated. Only resolving a handle, if one is specified, briefly locks the
+    // HXSoundHandles table. Returns false if the sound effect is not ready, in which case
+    // prepareSoundFx() should be used instead.
+    boolean triggerSoundFx(int resource, boolean isLoop, int priority, long handle) {
 
-        HXLog.w(LOG_TAG, "TEST (" + engineID + "): prepareSoundFx(): Sound Resource (" + resource + ")");
+        // ANDROID 2.3 (GINGERBREAD): Sound events must be counted under the engine lock, in order
+        // to handle the AudioTrack 1 MB buffer limit issue.
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.HONEYCOMB) {
+            return false;
+        }
 
-        // Initializes the SoundPool object.
-        if (soundPool == null) {
-            initSoundPool();
+        HXSoundBackend pool = soundBackend;
+        int sampleId = readyEffectTable.get(resource);
+        if (pool == null || sampleId == HXSampleTable.MISSING) {
+            return false;
         }
 
-        // ANDROID 2.3 (GINGERBREAD): The SoundPool object is re-initialized if the sound event
+        long time = SystemClock.uptimeMillis();
+        HXTrace.record(HXTrace.PLAY, engineID, resource, sampleId);
+        int streamId = voiceManager.play(pool, sampleId, SOUND_VOLUME_LEVEL, isLoop, priority,
+                getSampleDuration(sampleId), time);
+        HXTrace.record(HXTrace.STREAM_ID, engineID, resource, streamId);
+        countPlay(streamId);
+        resolveHandle(pool, handle, streamId);
+        touchSample(sampleId, time);
+        return true;
+    }
+
+    // prepareSoundFx(): Prepares the specified resource for sound playback. The sound duration of a
+    // new sound resource is read before acquiring the lock, as MediaMetadataRetriever can take tens
+    // of milliseconds.
+    void prepareSoundFx(int resource, boolean isLoop, int priority, long handle, Context context) {
+        File cachedFile = null;
+        int duration = -1;
+        if (!soundEffectTable.contains(resource)) {
+            HXPcmCache cache = pcmCache;
+            cachedFile = cache != null ? cache.findFile(resource) : null;
+            duration = cachedFile != null ? HXPcmCache.readDuration(cachedFile) :
+                    readSoundDuration(resource, context);
+        }
+
+        synchronized (this) {
+            prepareSoundFx(resource, isLoop, priority, handle, duration, cachedFile, context);
+        }
+    }
+
+    // prepareSoundFx(): Prepares the specified resource for sound playback, with a previously read
+    // duration and cached WAV file.
+    private synchronized void prepareSoundFx(int resource, boolean isLoop, int priority, long handle,
+                                             int duration, File cachedFile, Context context) {
+
+        // Initializes the HXSoundBackend object.
+        if (soundBackend == null) {
+            initSoundBackend();
+        }
+
+        // ANDROID 2.3 (GINGERBREAD): The HXSoundBackend object is re-initialized if the sound event
         // counter has reached the MAX_SOUND_EVENT limit. This is to handle the AudioTrack 1 MB
         // buffer limit issue.
         if ((Build.VERSION.SDK_INT < Build.VERSION_CODES.HONEYCOMB) && (soundEventCount >= MAX_SOUND_EVENTS)) {
-            HXLog.w(LOG_TAG, "WARNING (" + engineID + "): prepareSoundFx(): Sound event count (" + soundEventCount + ") has exceeded the maximum number of sound events. Re-initializing the engine.");
+            HXLog.w(LOG_TAG, "WARNING ({}): prepareSoundFx(): Sound event count ({}) has exceeded the maximum number of sound events. Re-initializing the engine.", engineID, soundEventCount);
             reinitialize(context);
         }
 
         // Checks to see if the sound effect has been already added. If not it is added to the list
-        // the sound effect is prepared in SoundPool.
-        boolean isAdded = addSoundFx(resource, context);
-
-        // If the soundPool object is not yet fully loaded, the listener will play the sound effect
-        // after the soundPool object has fully loaded.
-        if (isAdded) {
-            soundPool.setOnLoadCompleteListener(new SoundPool.OnLoadCompleteListener() {
-                @Override
-                public void onLoadComplete(SoundPool soundPool, int sampleId, int status) {
-                    HXLog.d(LOG_TAG, "READY (" + engineID + "): onLoadComplete(): The SoundPool object is ready.");
-                    playSoundFx(sampleId, isLoop);
-                }
-            });
-        } else {
-            playSoundFx(soundEffectMap.get(resource), isLoop);
+        // the sound effect is prepared in the HXSoundBackend.
+        addSoundFx(resource, duration, cachedFile, context);
+        int sampleId = soundEffectTable.get(resource);
+
+        // If the sample is not yet fully loaded, the play request is queued and the shared
+        // sampleLoadListener will play the sound effect after the sample has fully loaded.
+        switch (loadTracker.requestPlay(sampleId, isLoop, priority, handle, System.nanoTime())) {
+            case HXSampleLoadTracker.STATE_READY:
+                playSoundFx(sampleId, isLoop, priority, handle);
+                break;
+            case HXSampleLoadTracker.STATE_LOADING:
+                deferredPlays.increment();
+                HXLog.d(LOG_TAG, "PREPARING ({}): prepareSoundFx(): Sample is still loading. Sound effect will be played once loaded.", engineID);
+                break;
+            default:
+                resolveHandle(soundBackend, handle, 0);
+                droppedPlays.increment();
+                HXLog.e(LOG_TAG, "ERROR ({}): prepareSoundFx(): Sound Resource ({}) could not be loaded.", engineID, resource);
+                break;
         }
 
         soundEventCount++;
     }
 
-    // playSoundFx(): Plays the specified sound effect.
-    private synchronized void playSoundFx(int id, boolean isLoop) {
-        if (soundEffectMap != null && !soundEffectMap.isEmpty()) {
-            soundPool.play(id, SOUND_VOLUME_LEVEL, SOUND_VOLUME_LEVEL, SOUND_PRIORITY_LEVEL,
-                    isLoop ? -1 : 0, 1.0f);
+    // playSoundFx(): Plays the specified sound effect through the HXVoiceManager, which enforces
+    // the voice caps of this engine.
+    private synchronized void playSoundFx(int id, boolean isLoop, int priority, long handle) {
+        if (soundBackend != null && soundEffectTable.size() > 0) {
+            long time = SystemClock.uptimeMillis();
+            int resource = sampleResourceTable.get(id);
+            HXTrace.record(HXTrace.PLAY, engineID, resource, id);
+            int streamId = voiceManager.play(soundBackend, id, SOUND_VOLUME_LEVEL, isLoop, priority,
+                    getSampleDuration(id), time);
+            HXTrace.record(HXTrace.STREAM_ID, engineID, resource, streamId);
+            countPlay(streamId);
+            resolveHandle(soundBackend, handle, streamId);
+            touchSample(id, time);
+            if (streamId == 0) {
+                HXLog.w(LOG_TAG, "WARNING ({}): playSoundFx(): Sound effect was not played, as all voices are in use by higher priority sound effects.", engineID);
+            }
         }
     }
 
+    // stopStream(): Stops the specified HXSoundBackend stream.
+    void stopStream(int streamId) {
+        HXSoundBackend pool = soundBackend;
+        if (pool != null) {
+            pool.stop(streamId);
+            voiceManager.stop(streamId);
+        }
+    }
+
+    // setStreamVolume(): Sets the volume of the specified HXSoundBackend stream.
+    void setStreamVolume(int streamId, float volume) {
+        HXSoundBackend pool = soundBackend;
+        if (pool != null) {
+            pool.setVolume(streamId, volume);
+        }
+    }
+
+    // setStreamRate(): Sets the playback rate of the specified HXSoundBackend stream. The rate ranges
+    // from 0.5 to 2.0, where 1.0 is the normal playback rate.
+    void setStreamRate(int streamId, float rate) {
+        HXSoundBackend pool = soundBackend;
+        if (pool != null) {
+            pool.setRate(streamId, rate);
+        }
+    }
+
+    // setStreamLoop(): Sets the looping attribute of the specified HXSoundBackend stream.
+    void setStreamLoop(int streamId, boolean isLoop) {
+        HXSoundBackend pool = soundBackend;
+        if (pool != null) {
+            pool.setLoop(streamId, isLoop);
+        }
+    }
+
+    // isStreamLive(): Determines if the specified HXSoundBackend stream is still playing, based on
+    // the estimated end times of the HXVoiceManager.
+    boolean isStreamLive(int streamId) {
+        return voiceManager.isPlaying(streamId, SystemClock.uptimeMillis());
+    }
+
     // pauseSounds(): Pauses all sound effects playing in the background.
     void pauseSounds() {
 
-        // Checks to see if the soundPool object has been initiated first before pausing sound
+        // Checks to see if the soundBackend object has been initiated first before pausing sound
         // effect playback.
-        if (soundPool != null) {
-            soundPool.autoPause(); // Pauses all sound effect playback.
-            HXLog.d(LOG_TAG, "SOUND (" + engineID + "): pauseSounds(): All sound playback has been paused.");
+        if (soundBackend != null) {
+            soundBackend.autoPause(); // Pauses all sound effect playback.
+            voiceManager.pause(SystemClock.uptimeMillis());
+            HXLog.d(LOG_TAG, "SOUND ({}): pauseSounds(): All sound playback has been paused.", engineID);
         } else {
-            HXLog.e(LOG_TAG, "ERROR (" + engineID + "): pauseSounds(): Cannot pause sound playback due to SoundPool object being null.");
+            HXLog.e(LOG_TAG, "ERROR ({}): pauseSounds(): Cannot pause sound playback due to HXSoundBackend object being null.", engineID);
         }
     }
 
     // resumeSounds(): Resumes all sound effect playback in the background.
     void resumeSounds() {
 
-        // Checks to see if soundPool has been initiated first before resuming sound effect playback.
-        if (soundPool != null) {
-            soundPool.autoResume(); // Resumes all sound effect playback.
-            HXLog.d(LOG_TAG, "SOUND (" + engineID + "): Resuming sound effect playback.");
+        // Checks to see if soundBackend has been initiated first before resuming sound effect playback.
+        if (soundBackend != null) {
+            soundBackend.autoResume(); // Resumes all sound effect playback.
+            voiceManager.resume(SystemClock.uptimeMillis());
+            HXLog.d(LOG_TAG, "SOUND ({}): Resuming sound effect playback.", engineID);
         }
     }
 
-    /** SOUND HELPER METHODS ___________________________________________________________________ **/
+    /** LISTENER METHODS ________________________________________________________________________**/
+
+    // sampleLoadListener: The shared OnLoadCompleteListener for all samples in the HXSoundBackend
+    // object. Marks each sample as READY or FAILED and plays any of its pending sound effects.
+    private HXSoundBackend.OnLoadCompleteListener sampleLoadListener = new HXSoundBackend.OnLoadCompleteListener() {
+        @Override
+        public void onLoadComplete(HXSoundBackend backend, int sampleId, int status) {
+            HXLog.d(LOG_TAG, "READY ({}): onLoadComplete(): Sample ({}) has finished loading.", engineID, sampleId);
+            onSampleLoaded(sampleId, status);
+        }
+    };
+
+    // liveVoicesGauge: Reports the number of live voices of this engine to HXMetrics, without
+    // acquiring any locks.
+    private final HXMetricsGauge liveVoicesGauge = new HXMetricsGauge() {
+        @Override
+        public long getValue() {
+            return voiceManager.getLiveVoiceEstimate();
+        }
+    };
 
-    // addSoundFx(): Adds the specified sound resource to the soundEffectMap, if it has not been
-    // added.
-    private synchronized boolean addSoundFx(int resource, Context context) {
+    /** SOUND HELPER METHODS ___________________________________________________________________ **/
 
-        if (soundEffectMap == null) {
-            soundEffectMap = new ConcurrentHashMap<>();
+    // countPlay(): Counts a sound effect as played, or as dropped if HXSoundBackend did not return a
+    // stream.
+    private static void countPlay(int streamId) {
+        if (streamId != 0) {
+            playedPlays.increment();
+        } else {
+            droppedPlays.increment();
         }
+    }
+
+    // addSoundFx(): Adds the specified sound resource to the soundEffectTable with a previously read
+    // duration (in milliseconds), if it has not been added. The decoded sound resource is loaded
+    // from HXPcmCache if it has already been cached.
+    private synchronized boolean addSoundFx(int resource, int duration, Context context) {
+        HXPcmCache cache = pcmCache;
+        File cachedFile = cache != null ? cache.findFile(resource) : null;
+        return addSoundFx(resource, cachedFile != null ? HXPcmCache.readDuration(cachedFile) : duration,
+                cachedFile, context);
+    }
+
+    // addSoundFx(): Adds the specified sound resource with a previously read duration (in
+    // milliseconds). A negative duration causes the duration to be read here. If a cached WAV file
+    // is specified, the HXSoundBackend loads it instead of decoding the compressed sound resource.
+    private synchronized boolean addSoundFx(int resource, int duration, File cachedFile,
+                                            Context context) {
 
         // Checks to see if the sound effect has already been added.
-        Integer soundEffect = soundEffectMap.get(resource);
-        if (soundEffect == null) {
+        if (!soundEffectTable.contains(resource)) {
 
-            // Initializes the SoundPool object.
-            if (soundPool == null) {
-                initSoundPool();
+            // Initializes the HXSoundBackend object.
+            if (soundBackend == null) {
+                initSoundBackend();
             }
 
-            soundEffectMap.put(resource, soundPool.load(context, resource, SOUND_PRIORITY_LEVEL));
+            // The sample may finish loading before it has been published to the sample tables, in
+            // which case onSampleLoaded() defers it until the sample has been published below.
+            synchronized (tableLock) {
+                isPublishing = true;
+            }
 
-            // Stores the reference for the added sound resource into soundFxList.
+            long loadTime = System.nanoTime();
+            int sampleId = cachedFile != null ? soundBackend.load(cachedFile) : 0;
+            if (sampleId == 0) {
+                sampleId = soundBackend.load(context, resource);
+            }
+            loadTracker.onLoadStarted(sampleId, loadTime);
+            HXTrace.record(HXTrace.LOAD_START, engineID, resource, sampleId);
+            if (duration < 0) {
+                duration = readSoundDuration(resource, context);
+            }
+            int earlyStatus;
+            synchronized (tableLock) {
+                soundEffectTable = soundEffectTable.put(resource, sampleId);
+                if (sampleId != 0) {
+                    sampleResourceTable = sampleResourceTable.put(sampleId, resource);
+                    sampleDurationTable = sampleDurationTable.put(sampleId, duration);
+                }
+                isPublishing = false;
+                earlyStatus = earlyLoadTable.get(sampleId);
+                earlyLoadTable = HXSampleTable.EMPTY;
+            }
+
+            // Stores the reference for the added sound resource into soundFxList. The reference is
+            // kept when the HXSoundBackend object is re-initialized, so it is only added once.
             if (soundFxList == null) {
                 soundFxList = new Vector<>();
             }
-            soundFxList.add(resource);
+            if (!soundFxList.contains(resource)) {
+                soundFxList.add(resource);
+            }
 
-            HXLog.d(LOG_TAG, "PREPARING (" + engineID + "): addSoundFx(): New sound effect has been added.");
+            // Evicts the least recently played unreferenced samples if the memory budget has been
+            // exceeded.
+            if (sampleId != 0) {
+                touchSample(sampleId, SystemClock.uptimeMillis());
+                memoryUsed += getSampleBytes(sampleId);
+                enforceMemoryBudget(resource);
+            }
+
+            // Completes the load that was deferred by onSampleLoaded(), now that it can be resolved.
+            if (earlyStatus != HXSampleTable.MISSING) {
+                onSampleLoaded(sampleId, earlyStatus);
+            }
+
+            HXLog.d(LOG_TAG, "PREPARING ({}): addSoundFx(): New sound effect has been added.", engineID);
             return true;
         } else {
-            HXLog.d(LOG_TAG, "PREPARING (" + engineID + "): addSoundFx(): Sound effect already added to soundEffectMap.");
+            HXLog.d(LOG_TAG, "PREPARING ({}): addSoundFx(): Sound effect already added to soundEffectTable.", engineID);
             return false;
         }
     }
 
+    // unloadSoundFx(): Unloads the specified sound resource from the HXSoundBackend object and stops any
+    // of its playing streams.
+    synchronized void unloadSoundFx(int resource) {
+        int sampleId = soundEffectTable.get(resource);
+        if (sampleId == HXSampleTable.MISSING) {
+            return;
+        }
+
+        if (soundBackend != null && sampleId != 0) {
+            voiceManager.stopSample(soundBackend, sampleId);
+            soundBackend.unload(sampleId);
+            memoryUsed -= getSampleBytes(sampleId);
+        }
+        loadTracker.onUnload(sampleId);
+
+        synchronized (tableLock) {
+            soundEffectTable = soundEffectTable.remove(resource);
+            readyEffectTable = readyEffectTable.remove(resource);
+            sampleResourceTable = sampleResourceTable.remove(sampleId);
+            sampleDurationTable = sampleDurationTable.remove(sampleId);
+        }
+
+        if (soundFxList != null) {
+            soundFxList.remove(Integer.valueOf(resource));
+        }
+
+        // Reports the unloaded sample to HXSoundLoader, as a sample that was still loading will
+        // never finish loading.
+        HXSoundLoader loader = soundLoader;
+        if (loader != null) {
+            loader.onSampleUnloaded(this, resource);
+        }
+
+        UnloadListener listener = unloadListener;
+        if (listener != null) {
+            listener.onSoundFxUnloaded(engineID, resource);
+        }
+
+        HXLog.d(LOG_TAG, "UNLOAD ({}): unloadSoundFx(): Sound Resource ({}) has been unloaded.", engineID, resource);
+    }
+
+    // retainSoundFx(): Adds a sound bank reference to the specified sound resource. Referenced sound
+    // resources are never evicted to meet the memory budget.
+    synchronized void retainSoundFx(int resource) {
+        int references = referenceTable.get(resource);
+        referenceTable = referenceTable.put(resource, references == HXSampleTable.MISSING ? 1 : references + 1);
+    }
+
+    // releaseSoundFx(): Removes a sound bank reference from the specified sound resource. The sound
+    // resource is unloaded once it is no longer referenced by any sound bank.
+    synchronized void releaseSoundFx(int resource) {
+        int references = referenceTable.get(resource);
+        if (references == HXSampleTable.MISSING) {
+            return;
+        }
+
+        if (references <= 1) {
+            referenceTable = referenceTable.remove(resource);
+            unloadSoundFx(resource);
+        } else {
+            referenceTable = referenceTable.put(resource, references - 1);
+        }
+    }
+
+    // enforceMemoryBudget(): Unloads the least recently played samples that are not referenced by
+    // any sound bank and are not currently playing, until the estimated decoded PCM size of all
+    // samples fits within the memory budget. The specified sound resource is never unloaded.
+    private synchronized void enforceMemoryBudget(int keptResource) {
+        if (memoryBudget <= 0) {
+            return;
+        }
+
+        long time = SystemClock.uptimeMillis();
+        while (memoryUsed > memoryBudget) {
+            HXSampleTable samples = soundEffectTable;
+            long[] lastPlayed = sampleLastPlayed;
+            int evictedResource = 0;
+            long evictedTime = Long.MAX_VALUE;
+
+            for (int i = 0; i < samples.capacity(); i++) {
+                int resource = samples.keyAt(i);
+                int sampleId = samples.valueAt(i);
+                if (resource == 0 || resource == keptResource || referenceTable.contains(resource) ||
+                        sampleId <= 0 || voiceManager.getLiveVoiceCount(sampleId, time) > 0) {
+                    continue;
+                }
+
+                long played = sampleId < lastPlayed.length ? lastPlayed[sampleId] : 0;
+                if (played < evictedTime) {
+                    evictedResource = resource;
+                    evictedTime = played;
+                }
+            }
+
+            if (evictedResource == 0) {
+                HXLog.w(LOG_TAG, "WARNING ({}): enforceMemoryBudget(): Memory budget exceeded, but no unreferenced samples can be unloaded.", engineID);
+                return;
+            }
+
+            HXLog.d(LOG_TAG, "UNLOAD ({}): enforceMemoryBudget(): Evicting least recently played sound resource.", engineID);
+            unloadSoundFx(evictedResource);
+        }
+    }
+
+    // touchSample(): Records the time the specified sample was last played. This method does not
+    // acquire any locks, as the recorded time is only used as an eviction hint.
+    private void touchSample(int sampleId, long time) {
+        long[] lastPlayed = sampleLastPlayed;
+        if (sampleId > 0 && sampleId < lastPlayed.length) {
+            lastPlayed[sampleId] = time;
+        } else if (sampleId > 0) {
+            synchronized (tableLock) {
+                lastPlayed = sampleLastPlayed;
+                if (sampleId >= lastPlayed.length) {
+                    int capacity = lastPlayed.length;
+                    while (sampleId >= capacity) {
+                        capacity <<= 1;
+                    }
+                    lastPlayed = Arrays.copyOf(lastPlayed, capacity);
+                }
+                lastPlayed[sampleId] = time;
+                sampleLastPlayed = lastPlayed;
+            }
+        }
+    }
+
+    // getSampleBytes(): Returns the estimated decoded PCM size (in bytes) of the specified sample.
+    private long getSampleBytes(int sampleId) {
+        return (long) getSampleDuration(sampleId) * DECODED_BYTES_PER_MS;
+    }
+
+    // onSampleLoaded(): Called when HXSoundBackend has finished loading the specified sample. Loaded
+    // samples are published to the readyEffectTable, which is used by triggerSoundFx(), and any
+    // plays that were requested while the sample was loading are played. A sample that finishes
+    // loading before addSoundFx() has published it is deferred, and completed by addSoundFx().
+    private void onSampleLoaded(int sampleId, int status) {
+        synchronized (tableLock) {
+            if (isPublishing && !sampleResourceTable.contains(sampleId)) {
+                earlyLoadTable = earlyLoadTable.put(sampleId, status == 0 ? 0 : 1); // Non-zero statuses are stored as 1, as MISSING is -1.
+                return;
+            }
+        }
+
+        long time = System.nanoTime();
+        loadTracker.onLoadComplete(sampleId, status, time);
+
+        int resource;
+        synchronized (tableLock) {
+            resource = sampleResourceTable.get(sampleId);
+            if (status == 0 && resource != HXSampleTable.MISSING) {
+                readyEffectTable = readyEffectTable.put(resource, sampleId);
+            }
+        }
+        HXTrace.record(HXTrace.LOAD_COMPLETE, engineID, resource, status);
+        if (status == 0) {
+            loadCount.increment();
+            loadTime.record(loadTracker.getLoadDuration(sampleId));
+        } else {
+            failedLoadCount.increment();
+        }
+
+        // Reports the loaded sample to HXSoundLoader, for load progress tracking.
+        HXSoundLoader loader = soundLoader;
+        if (loader != null && resource != HXSampleTable.MISSING) {
+            loader.onSampleLoaded(this, resource, status == 0);
+        }
+
+        if (status != 0) {
+            HXLog.e(LOG_TAG, "ERROR ({}): onSampleLoaded(): Sample ({}) failed to load with status: {}", engineID, sampleId, status);
+            return;
+        }
+
+        // Plays all pending sound effects for this sample that have not expired. The handle array is
+        // local to this call, as onSampleLoaded() runs on both the SoundPool callback thread and the
+        // thread calling addSoundFx().
+        long pendingPlay;
+        long[] pendingHandle = new long[1];
+        while ((pendingPlay = loadTracker.takePendingPlay(sampleId, time, pendingHandle)) != HXSampleLoadTracker.NO_PENDING_PLAY) {
+            playSoundFx(sampleId, HXSampleLoadTracker.isPendingLoop(pendingPlay),
+                    HXSampleLoadTracker.getPendingPriority(pendingPlay), pendingHandle[0]);
+        }
+    }
+
+    // resolveHandle(): Stores the stream ID of a played sound effect in its handle, and applies any
+    // operations that were requested through the handle before the sound effect was played.
+    private void resolveHandle(HXSoundBackend pool, long handle, int streamId) {
+        if (handle == HXSoundHandles.INVALID_HANDLE) {
+            return;
+        }
+
+        int ops = soundHandles.resolve(handle, engineID, streamId);
+        if (ops <= 0 || pool == null) {
+            return;
+        }
+
+        if ((ops & HXSoundHandles.OP_STOP) != 0) {
+            pool.stop(streamId);
+            voiceManager.stop(streamId);
+            return;
+        }
+        if ((ops & HXSoundHandles.OP_VOLUME) != 0) {
+            float volume = soundHandles.getPendingVolume(handle);
+            pool.setVolume(streamId, volume);
+        }
+        if ((ops & HXSoundHandles.OP_RATE) != 0) {
+            pool.setRate(streamId, soundHandles.getPendingRate(handle));
+        }
+        if ((ops & HXSoundHandles.OP_LOOP) != 0) {
+            pool.setLoop(streamId, soundHandles.getPendingLoop(handle));
+        }
+    }
+
+    // clearSampleTables(): Clears all sample tables.
+    private void clearSampleTables() {
+        loadTracker.clear();
+        voiceManager.clear();
+        memoryUsed = 0;
+        synchronized (tableLock) {
+            soundEffectTable = HXSampleTable.EMPTY;
+            readyEffectTable = HXSampleTable.EMPTY;
+            sampleResourceTable = HXSampleTable.EMPTY;
+            sampleDurationTable = HXSampleTable.EMPTY;
+            earlyLoadTable = HXSampleTable.EMPTY;
+        }
+    }
+
+    // getSampleDuration(): Returns the duration (in milliseconds) of the specified sample, which is
+    // used by HXVoiceManager for estimating when a voice ends.
+    private int getSampleDuration(int sampleId) {
+        int duration = sampleDurationTable.get(sampleId);
+        return duration > 0 ? duration : DEFAULT_SOUND_DURATION;
+    }
+
+    // readSoundDuration(): Reads the duration (in milliseconds) of the specified sound resource.
+    // Returns 0 if the duration could not be determined. MediaMetadataRetriever is only available
+    // on Android API 10 and above.
+    private int readSoundDuration(int resource, Context context) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.GINGERBREAD_MR1) {
+            return 0;
+        }
+
+        MediaMetadataRetriever retriever = new MediaMetadataRetriever();
+        AssetFileDescriptor asset = null;
+        try {
+            asset = context.getResources().openRawResourceFd(resource);
+            retriever.setDataSource(asset.getFileDescriptor(), asset.getStartOffset(), asset.getLength());
+            String duration = retriever.extractMetadata(MediaMetadataRetriever.METADATA_KEY_DURATION);
+            return duration != null ? Integer.parseInt(duration) : 0;
+        } catch (Exception e) {
+            HXLog.e(LOG_TAG, "ERROR ({}): readSoundDuration(): Unable to read the sound effect duration: {}", engineID, e.getLocalizedMessage());
+            return 0;
+        } finally {
+            retriever.release();
+            if (asset != null) {
+                try {
+                    asset.close();
+                } catch (IOException e) {
+                    HXLog.e(LOG_TAG, "ERROR ({}): readSoundDuration(): Unable to close the sound resource: {}", engineID, e.getLocalizedMessage());
+                }
+            }
+        }
+    }
+
     // getCurrentVolume(): Retrieves the current volume value.
     private synchronized float getCurrentVolume(Context context) {
         if (soundManager == null) {
@@ -230,37 +719,154 @@ class HXSoundEngine {
         return soundManager.getStreamVolume(AudioManager.STREAM_MUSIC);
     }
 
-    // loadSoundFxList(): Loads the list of sound effects into the soundEffectMap.
-    synchronized void loadSoundFxList(List<Integer> soundList, Context context) {
+    // loadSoundFx(): Loads the specified sound resource, if not already loaded, and returns the load
+    // state of its sample. The sound duration is read before acquiring the lock, so that an
+    // on-demand load from prepareSoundFx() only waits for the HXSoundBackend load() call of another
+    // sound resource, rather than for its metadata to be read. If HXPcmCache is enabled, the sound
+    // resource is also decoded into the cache here, before acquiring the lock.
+    @Override
+    public int loadSoundFx(int resource, Context context) {
+        File cachedFile = null;
+        int duration = 0;
+        if (!soundEffectTable.contains(resource)) {
+            HXPcmCache cache = pcmCache;
+            cachedFile = cache != null ? cache.getFile(context, resource) : null;
+            duration = cachedFile != null ? HXPcmCache.readDuration(cachedFile) :
+                    readSoundDuration(resource, context);
+        }
 
-        // Removes any existing onLoadCompleteListeners for SoundPool.
-        if (soundPool != null) {
-            soundPool.setOnLoadCompleteListener(null);
+        int sampleId;
+        synchronized (this) {
+            addSoundFx(resource, duration, cachedFile, context);
+            sampleId = soundEffectTable.get(resource);
         }
+        return sampleId > 0 ? loadTracker.getState(sampleId) : HXSampleLoadTracker.STATE_FAILED;
+    }
 
-        // Loads each resource from the soundList into the soundEffectMap and soundFxList.
-        for (int resource : soundList) {
-            if (resource != 0) {
-                addSoundFx(resource, context);
-            }
+    // getExpiredPlayCount(): Returns the number of pending plays that expired before their sample
+    // finished loading.
+    long getExpiredPlayCount() {
+        return loadTracker.getExpiredCount();
+    }
+
+    // getSampleLoadTime(): Returns the time (in nanoseconds) it took to load the specified sound
+    // resource, or 0 if the sound resource has not finished loading.
+    long getSampleLoadTime(int resource) {
+        return loadTracker.getLoadDuration(soundEffectTable.get(resource));
+    }
+
+    // getLiveVoiceCount(): Returns the number of streams currently playing in this engine.
+    int getLiveVoiceCount() {
+        return voiceManager.getLiveVoiceCount(SystemClock.uptimeMillis());
+    }
+
+    // getLiveVoiceCount(): Returns the number of streams of the specified sound resource currently
+    // playing in this engine.
+    int getLiveVoiceCount(int resource) {
+        int sampleId = soundEffectTable.get(resource);
+        if (sampleId == HXSampleTable.MISSING) {
+            return 0;
         }
+        return voiceManager.getLiveVoiceCount(sampleId, SystemClock.uptimeMillis());
+    }
+
+    // getLiveVoiceEstimate(): Returns the number of streams playing in this engine without
+    // acquiring any locks. Used by HXSound for routing sound effects to the least loaded engine.
+    int getLiveVoiceEstimate() {
+        return voiceManager.getLiveVoiceEstimate();
+    }
+
+    // getMaxVoices(): Returns the maximum number of streams of this engine.
+    int getMaxVoices() {
+        return maxVoices;
+    }
+
+    // getSampleCount(): Returns the number of sound resources added to this engine.
+    int getSampleCount() {
+        return soundEffectTable.size();
     }
 
-    // release(): Used to free up memory resources when all audio effects are no longer needed.
+    // getStolenVoiceCount(): Returns the number of streams that were stopped to make room for other
+    // sound effects.
+    long getStolenVoiceCount() {
+        return voiceManager.getStolenCount();
+    }
+
+    // getRejectedVoiceCount(): Returns the number of sound effects that were not played due to the
+    // voice caps.
+    long getRejectedVoiceCount() {
+        return voiceManager.getRejectedCount();
+    }
+
+    // setMaxVoicesPerSound(): Sets the maximum number of simultaneous streams per sound effect.
+    void setMaxVoicesPerSound(int maxVoicesPerSound) {
+        voiceManager.setMaxVoicesPerSound(maxVoicesPerSound);
+    }
+
+    // getMemoryUsed(): Returns the estimated decoded PCM size (in bytes) of all loaded samples.
+    synchronized long getMemoryUsed() {
+        return memoryUsed;
+    }
+
+    // setMemoryBudget(): Sets the maximum estimated decoded PCM size (in bytes) of all loaded
+    // samples. A value of 0 disables the memory budget.
+    synchronized void setMemoryBudget(long budget) {
+        this.memoryBudget = budget;
+        enforceMemoryBudget(0);
+    }
+
+    // setPcmCache(): Sets the HXPcmCache used for loading decoded sound resources, or null to load
+    // the compressed sound resources directly.
+    void setPcmCache(HXPcmCache cache) {
+        this.pcmCache = cache;
+    }
+
+    // setBackend(): Sets the HXAudioBackend used for creating the HXSoundBackend object. Takes
+    // effect the next time the HXSoundBackend object is initialized.
+    void setBackend(HXAudioBackend backend) {
+        this.audioBackend = backend;
+    }
+
+    // setSoundLoader(): Sets the HXSoundLoader to be notified when a sample has finished loading or
+    // has been unloaded.
+    void setSoundLoader(HXSoundLoader loader) {
+        this.soundLoader = loader;
+    }
+
+    // setUnloadListener(): Sets the UnloadListener to be notified when a sound resource has been
+    // unloaded.
+    void setUnloadListener(UnloadListener listener) {
+        this.unloadListener = listener;
+    }
+
+    // setPendingDeadline(): Sets the maximum time (in nanoseconds) a sound effect waits for its
+    // sample to finish loading before it is discarded.
+    void setPendingDeadline(long deadline) {
+        loadTracker.setPendingDeadline(deadline);
+    }
+
+    // release(): Used to free up memory resources when all audio effects are no longer needed. The
+    // live voices gauge of this engine is unregistered.
     void release() {
+        releaseSoundBackend();
+        HXMetrics.removeGauge(liveVoicesName, liveVoicesGauge);
+    }
 
-        // Releases SoundPool resources.
-        if (soundPool != null) {
-            soundPool.release();
-            soundPool = null;
+    // releaseSoundBackend(): Releases the HXSoundBackend object and clears the sample tables. The
+    // live voices gauge stays registered, as reinitialize() initializes a new HXSoundBackend object.
+    private void releaseSoundBackend() {
 
-            if (soundEffectMap != null) {
-                soundEffectMap.clear();
-            }
+        // Releases HXSoundBackend resources.
+        if (soundBackend != null) {
+            soundBackend.release();
+            soundBackend = null;
+            HXTrace.record(HXTrace.RELEASE, engineID, 0, 0);
+
+            clearSampleTables();
 
-            HXLog.d(LOG_TAG, "RELEASE (" + engineID + "): release(): SoundPool object has been released.");
+            HXLog.d(LOG_TAG, "RELEASE ({}): release(): HXSoundBackend object has been released.", engineID);
         } else {
-            HXLog.e(LOG_TAG, "ERROR (" + engineID + "): release(): SoundPool object is null and cannot be released.");
+            HXLog.e(LOG_TAG, "ERROR ({}): release(): HXSoundBackend object is null and cannot be released.", engineID);
         }
     }
 }
\ No newline at end of file
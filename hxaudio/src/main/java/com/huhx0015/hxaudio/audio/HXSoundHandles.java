@@ -0,0 +1,272 @@
+package com.huhx0015.hxaudio.audio;
+
+import java.util.Arrays;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXSoundHandles] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXSoundHandles is a fixed-size table of sound effect handles used by HXSound. A
+ *  handle is a primitive long that is returned as soon as a sound effect is queued, before the
+ *  sound effect has been played. The handle encodes a table slot and a generation value, while the
+ *  slot stores the HXSoundEngine ID and SoundPool stream ID once the sound effect has been played.
+ *  Operations requested before that point are stored in the slot and applied once the stream
+ *  exists. Slots are reused in a ring, so creating a handle does not allocate any objects.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+class HXSoundHandles {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // HANDLE VARIABLES:
+    private int[] generations; // Stores the current generation of each slot.
+    private int[] states; // Stores the state of each slot.
+    private int[] engines; // Stores the HXSoundEngine ID of each slot.
+    private int[] streams; // Stores the SoundPool stream ID of each slot.
+    private int[] pendingOps; // Stores the bitmask of operations requested before the stream existed.
+    private float[] pendingVolumes; // Stores the requested volume of each slot.
+    private float[] pendingRates; // Stores the requested playback rate of each slot.
+    private boolean[] pendingLoops; // Stores the requested looping attribute of each slot.
+    private int cursor; // Index of the next slot to be checked by reserve().
+    private StreamProbe streamProbe; // Used for checking if the stream of a slot is still playing.
+
+    // CONSTANT VARIABLES:
+    static final long INVALID_HANDLE = 0; // Used to indicate a sound effect without a handle.
+    static final long HANDLE_PENDING = -1; // Returned by request() when the operation was stored.
+    static final long HANDLE_STALE = -2; // Returned by request() when the handle is no longer valid.
+    static final int OP_STOP = 1; // Operation bit for stopping the stream.
+    static final int OP_VOLUME = 2; // Operation bit for setting the volume of the stream.
+    static final int OP_RATE = 4; // Operation bit for setting the playback rate of the stream.
+    static final int OP_LOOP = 8; // Operation bit for setting the looping attribute of the stream.
+    private static final int STATE_FREE = 0; // The slot is not in use.
+    private static final int STATE_PENDING = 1; // The sound effect has been queued, but not played.
+    private static final int STATE_PLAYING = 2; // The sound effect has been played on a stream.
+    private static final int INITIAL_HANDLES = 256; // Initial number of slots.
+    private static final int MAX_HANDLES = 16384; // Number of handles that can be tracked at once. Adjust this value accordingly.
+
+    /** CONSTRUCTOR METHOD _____________________________________________________________________ **/
+
+    // HXSoundHandles(): Constructor method for this class.
+    HXSoundHandles() {
+        this.generations = new int[INITIAL_HANDLES];
+        this.states = new int[INITIAL_HANDLES];
+        this.engines = new int[INITIAL_HANDLES];
+        this.streams = new int[INITIAL_HANDLES];
+        this.pendingOps = new int[INITIAL_HANDLES];
+        this.pendingVolumes = new float[INITIAL_HANDLES];
+        this.pendingRates = new float[INITIAL_HANDLES];
+        this.pendingLoops = new boolean[INITIAL_HANDLES];
+    }
+
+    /** INTERFACE ______________________________________________________________________________ **/
+
+    // StreamProbe: Checks the streams of the HXSoundEngine and HXMixerEngine instances.
+    interface StreamProbe {
+
+        // isStreamLive(): Determines if the specified stream is still playing. Called while holding
+        // the HXSoundHandles lock, so it must not call back into this class.
+        boolean isStreamLive(int engine, int streamId);
+    }
+
+    /** HANDLE METHODS _________________________________________________________________________ **/
+
+    // reserve(): Reserves the next free slot and returns its handle. Slots of queued or playing sound
+    // effects are skipped, and the table is grown if all slots are in use. Only once the table has
+    // reached MAX_HANDLES is the oldest slot reused, which invalidates its previous handle.
+    synchronized long reserve() {
+        int slot = findFreeSlot();
+        if (slot == -1) {
+            if (generations.length < MAX_HANDLES) {
+                slot = generations.length;
+                grow(generations.length * 2);
+            } else {
+                slot = cursor;
+            }
+        }
+        cursor = (slot + 1) % generations.length;
+
+        int generation = generations[slot] + 1;
+        if (generation <= 0) {
+            generation = 1; // Generation 0 is never used, so that a handle is never 0.
+        }
+        generations[slot] = generation;
+        states[slot] = STATE_PENDING;
+        streams[slot] = 0;
+        pendingOps[slot] = 0;
+
+        return ((long) generation << 32) | slot;
+    }
+
+    // cancel(): Frees the slot of the specified handle, if it is still valid.
+    synchronized void cancel(long handle) {
+        int slot = getSlot(handle);
+        if (slot != -1) {
+            states[slot] = STATE_FREE;
+        }
+    }
+
+    // resolve(): Stores the HXSoundEngine ID and SoundPool stream ID of the specified handle, once
+    // its sound effect has been played. A stream ID of 0 marks the sound effect as not played.
+    // Returns the bitmask of the operations that were requested before the stream existed, or -1 if
+    // the handle is no longer valid.
+    synchronized int resolve(long handle, int engine, int streamId) {
+        int slot = getSlot(handle);
+        if (slot == -1) {
+            return -1;
+        }
+
+        if (streamId == 0) {
+            states[slot] = STATE_FREE;
+            return 0;
+        }
+
+        states[slot] = STATE_PLAYING;
+        engines[slot] = engine;
+        streams[slot] = streamId;
+
+        int ops = pendingOps[slot];
+        pendingOps[slot] = 0;
+        if ((ops & OP_STOP) != 0) {
+            states[slot] = STATE_FREE;
+        }
+        return ops;
+    }
+
+    // request(): Requests the specified operation on the stream of the specified handle. If the
+    // stream exists, its HXSoundEngine ID and SoundPool stream ID are returned, packed as
+    // (engine << 32 | stream). Otherwise, the operation is stored and HANDLE_PENDING is returned,
+    // or HANDLE_STALE is returned if the handle is no longer valid.
+    synchronized long request(long handle, int op, float value) {
+        int slot = getSlot(handle);
+        if (slot == -1) {
+            return HANDLE_STALE;
+        }
+
+        if (states[slot] == STATE_PLAYING) {
+            long stream = ((long) engines[slot] << 32) | (streams[slot] & 0xFFFFFFFFL);
+            if (op == OP_STOP) {
+                states[slot] = STATE_FREE;
+            }
+            return stream;
+        }
+
+        pendingOps[slot] |= op;
+        switch (op) {
+            case OP_VOLUME:
+                pendingVolumes[slot] = value;
+                break;
+            case OP_RATE:
+                pendingRates[slot] = value;
+                break;
+            case OP_LOOP:
+                pendingLoops[slot] = value != 0;
+                break;
+            default:
+                break;
+        }
+        return HANDLE_PENDING;
+    }
+
+    // clear(): Frees all slots. Used when the HXSoundEngine instances are released.
+    synchronized void clear() {
+        Arrays.fill(states, STATE_FREE);
+        Arrays.fill(pendingOps, 0);
+    }
+
+    /** HELPER METHODS _________________________________________________________________________ **/
+
+    // findFreeSlot(): Returns the first free slot starting from the cursor, or -1 if all slots are
+    // in use. Slots whose stream has ended are freed along the way.
+    private int findFreeSlot() {
+        int capacity = generations.length;
+        for (int i = 0; i < capacity; i++) {
+            int slot = (cursor + i) % capacity;
+            if (states[slot] == STATE_FREE || (states[slot] == STATE_PLAYING && !isLive(slot))) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    // grow(): Grows the slot arrays to the specified capacity.
+    private void grow(int capacity) {
+        generations = Arrays.copyOf(generations, capacity);
+        states = Arrays.copyOf(states, capacity);
+        engines = Arrays.copyOf(engines, capacity);
+        streams = Arrays.copyOf(streams, capacity);
+        pendingOps = Arrays.copyOf(pendingOps, capacity);
+        pendingVolumes = Arrays.copyOf(pendingVolumes, capacity);
+        pendingRates = Arrays.copyOf(pendingRates, capacity);
+        pendingLoops = Arrays.copyOf(pendingLoops, capacity);
+    }
+
+    // isLive(): Determines if the stream of the specified PLAYING slot is still playing.
+    private boolean isLive(int slot) {
+        StreamProbe probe = streamProbe;
+        return probe == null || probe.isStreamLive(engines[slot], streams[slot]);
+    }
+
+    // getSlot(): Returns the slot of the specified handle, or -1 if the handle is no longer valid.
+    // A slot whose stream has ended or has been stolen is freed here.
+    private int getSlot(long handle) {
+        int slot = (int) (handle & 0xFFFFFFFFL);
+        int generation = (int) (handle >>> 32);
+        if (handle == INVALID_HANDLE || slot < 0 || slot >= generations.length ||
+                generations[slot] != generation || states[slot] == STATE_FREE) {
+            return -1;
+        }
+        if (states[slot] == STATE_PLAYING && !isLive(slot)) {
+            states[slot] = STATE_FREE;
+            return -1;
+        }
+        return slot;
+    }
+
+    /** GET METHODS ____________________________________________________________________________ **/
+
+    // isActive(): Determines if the specified handle refers to a queued or playing sound effect.
+    synchronized boolean isActive(long handle) {
+        return getSlot(handle) != -1;
+    }
+
+    // getPendingVolume(): Returns the volume requested for the specified handle.
+    synchronized float getPendingVolume(long handle) {
+        int slot = (int) (handle & 0xFFFFFFFFL);
+        return slot >= 0 && slot < generations.length ? pendingVolumes[slot] : 1.0f;
+    }
+
+    // getPendingRate(): Returns the playback rate requested for the specified handle.
+    synchronized float getPendingRate(long handle) {
+        int slot = (int) (handle & 0xFFFFFFFFL);
+        return slot >= 0 && slot < generations.length ? pendingRates[slot] : 1.0f;
+    }
+
+    // getPendingLoop(): Returns the looping attribute requested for the specified handle.
+    synchronized boolean getPendingLoop(long handle) {
+        int slot = (int) (handle & 0xFFFFFFFFL);
+        return slot >= 0 && slot < generations.length && pendingLoops[slot];
+    }
+
+    // getCapacity(): Returns the current number of slots.
+    synchronized int getCapacity() {
+        return generations.length;
+    }
+
+    // getStreamEngine(): Returns the HXSoundEngine ID from a value returned by request().
+    static int getStreamEngine(long stream) {
+        return (int) (stream >>> 32);
+    }
+
+    // getStreamId(): Returns the SoundPool stream ID from a value returned by request().
+    static int getStreamId(long stream) {
+        return (int) (stream & 0xFFFFFFFFL);
+    }
+
+    /** SET METHODS ____________________________________________________________________________ **/
+
+    // setStreamProbe(): Sets the StreamProbe used for checking if the stream of a handle is still
+    // playing. Without a StreamProbe, handles of played sound effects stay valid until stopped.
+    synchronized void setStreamProbe(StreamProbe probe) {
+        this.streamProbe = probe;
+    }
+}
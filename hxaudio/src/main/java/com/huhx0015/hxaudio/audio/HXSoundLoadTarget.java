@@ -0,0 +1,21 @@
+package com.huhx0015.hxaudio.audio;
+
+import android.content.Context;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXSoundLoadTarget] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXSoundLoadTarget is an interface class implemented by the sound engines that
+ *  HXSoundLoader can load sound resources into.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+interface HXSoundLoadTarget {
+
+    /** INTERFACE METHODS ______________________________________________________________________ **/
+
+    // loadSoundFx(): Loads the specified sound resource, if not already loaded, and returns its
+    // HXSampleLoadTracker load state. Sound resources that are still loading must be reported to
+    // HXSoundLoader through onSampleLoaded() once they have finished loading.
+    int loadSoundFx(int resource, Context context);
+}
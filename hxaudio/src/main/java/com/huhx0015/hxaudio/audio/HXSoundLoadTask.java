@@ -0,0 +1,184 @@
+package com.huhx0015.hxaudio.audio;
+
+import com.huhx0015.hxaudio.interfaces.HXSoundLoadListener;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXSoundLoadTask] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXSoundLoadTask is returned by HXSound's load() methods and is used to track the
+ *  progress of a list of sound resources being loaded by HXSoundLoader. A sound resource is counted
+ *  once SoundPool has finished decoding it, not when it has been queued for decoding. The task can
+ *  be cancelled, which discards all of its sound resources that have not started loading.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class HXSoundLoadTask {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // TASK VARIABLES:
+    private final HXSoundLoader soundLoader; // HXSoundLoader that loads the sound resources of this task.
+    private final HXSoundLoadListener listener; // Listener to be notified of load progress. May be null.
+    private final int[] resources; // Sound resources of this task.
+    private final int[] remainingEngines; // Number of HXSoundEngine instances each sound resource has yet to load into.
+    private final boolean[] failedResources; // Stores whether each sound resource has failed to load.
+    private volatile int completedCount; // Number of sound resources that have finished loading or failed.
+    private volatile int loadedCount; // Number of sound resources that have finished loading.
+    private volatile boolean isCancelled; // Used for determining if this task has been cancelled.
+    private volatile boolean isDone; // Used for determining if this task has completed or been cancelled.
+
+    /** CONSTRUCTOR METHOD _____________________________________________________________________ **/
+
+    // HXSoundLoadTask(): Constructor method for this class.
+    HXSoundLoadTask(HXSoundLoader soundLoader, int[] resources, int enginesPerResource,
+                    HXSoundLoadListener listener) {
+        this.soundLoader = soundLoader;
+        this.listener = listener;
+        this.resources = resources;
+        this.remainingEngines = new int[resources.length];
+        this.failedResources = new boolean[resources.length];
+        for (int i = 0; i < resources.length; i++) {
+            remainingEngines[i] = enginesPerResource;
+        }
+    }
+
+    /** TASK METHODS ___________________________________________________________________________ **/
+
+    // cancel(): Cancels this task. Sound resources that have not started loading are discarded,
+    // while sound resources that have already been loaded remain loaded.
+    public void cancel() {
+        soundLoader.cancel(this);
+    }
+
+    // await(): Blocks the calling thread until this task has completed or been cancelled, or until
+    // the specified time (in milliseconds) has passed. Returns true if this task is done.
+    public boolean await(long milliseconds) {
+        long deadline = System.nanoTime() + milliseconds * 1000000L;
+        synchronized (this) {
+            while (!isDone) {
+                long remaining = (deadline - System.nanoTime()) / 1000000L;
+                if (remaining <= 0) {
+                    break;
+                }
+                try {
+                    wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            return isDone;
+        }
+    }
+
+    /** LOADER METHODS _________________________________________________________________________ **/
+
+    // onResourceLoaded(): Called by HXSoundLoader when the sound resource at the specified index has
+    // finished loading into one HXSoundEngine instance.
+    void onResourceLoaded(int index, boolean isLoaded) {
+        boolean isComplete;
+        int completed;
+        int loaded;
+        synchronized (this) {
+            if (isDone || remainingEngines[index] == 0) {
+                return;
+            }
+
+            if (!isLoaded) {
+                failedResources[index] = true;
+            }
+            if (--remainingEngines[index] > 0) {
+                return;
+            }
+
+            completedCount++;
+            if (!failedResources[index]) {
+                loadedCount++;
+            }
+            completed = completedCount;
+            loaded = loadedCount;
+            isComplete = completed == resources.length;
+            if (isComplete) {
+                isDone = true;
+                notifyAll();
+            }
+        }
+
+        if (listener != null) {
+            listener.onSoundLoaded(resources[index], !failedResources[index], completed, resources.length);
+            if (isComplete) {
+                listener.onSoundLoadComplete(loaded, resources.length, false);
+            }
+        }
+    }
+
+    // onCancelled(): Called by HXSoundLoader once the queued sound resources of this task have been
+    // discarded.
+    void onCancelled() {
+        synchronized (this) {
+            if (isDone) {
+                return;
+            }
+            isCancelled = true;
+            isDone = true;
+            notifyAll();
+        }
+
+        if (listener != null) {
+            listener.onSoundLoadComplete(loadedCount, resources.length, true);
+        }
+    }
+
+    // onEmpty(): Called by HXSoundLoader if this task has no sound resources to be loaded.
+    void onEmpty() {
+        synchronized (this) {
+            if (isDone || resources.length > 0) {
+                return;
+            }
+            isDone = true;
+            notifyAll();
+        }
+
+        if (listener != null) {
+            listener.onSoundLoadComplete(0, 0, false);
+        }
+    }
+
+    /** GET METHODS ____________________________________________________________________________ **/
+
+    // getResource(): Returns the sound resource at the specified index.
+    int getResource(int index) {
+        return resources[index];
+    }
+
+    // getCompletedCount(): Returns the number of sound resources that have finished loading or
+    // failed to load.
+    public int getCompletedCount() {
+        return completedCount;
+    }
+
+    // getLoadedCount(): Returns the number of sound resources that have finished loading.
+    public int getLoadedCount() {
+        return loadedCount;
+    }
+
+    // getTotalCount(): Returns the number of sound resources of this task.
+    public int getTotalCount() {
+        return resources.length;
+    }
+
+    // getProgress(): Returns the load progress of this task, from 0.0 to 1.0.
+    public float getProgress() {
+        return resources.length == 0 ? 1.0f : (float) completedCount / resources.length;
+    }
+
+    // isCancelled(): Determines if this task has been cancelled.
+    public boolean isCancelled() {
+        return isCancelled;
+    }
+
+    // isDone(): Determines if this task has completed or been cancelled.
+    public boolean isDone() {
+        return isDone;
+    }
+}
@@ -0,0 +1,266 @@
+package com.huhx0015.hxaudio.audio;
+
+import android.content.Context;
+import android.os.Process;
+import com.huhx0015.hxaudio.utils.HXLog;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.PriorityQueue;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXSoundLoader] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXSoundLoader is a bounded pool of background threads that loads sound resources
+ *  into the sound engines of HXSound. Sound resources are loaded one at a time in order of
+ *  priority, so that higher priority loads are started ahead of bulk preloads, and an on-demand
+ *  load from HXSound's initSound() only waits for the sound resource currently being loaded.
+ *  Loaded sound resources are reported to their HXSoundLoadTask once they have finished decoding.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+class HXSoundLoader implements Runnable {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // LOADER VARIABLES:
+    private final PriorityQueue<LoadItem> loadQueue; // Sound resources waiting to be loaded.
+    private final ArrayList<LoadItem> decodingItems = new ArrayList<>(); // Sound resources being decoded by SoundPool.
+    private long loadSequence; // Used for loading sound resources of equal priority in the order they were queued.
+
+    // THREAD VARIABLES:
+    private final Object lock = new Object(); // Used for guarding the load queue.
+    private final int workerCount; // Number of loader threads.
+    private Thread[] loaderThreads; // Loader threads that are running, or null if stopped. Guarded by lock.
+
+    // CONSTANT VARIABLES:
+    static final int DEFAULT_WORKER_COUNT = 2; // Default number of loader threads. Adjust this value accordingly.
+
+    // LOGGING VARIABLES:
+    private static final String LOG_TAG = HXSoundLoader.class.getSimpleName();
+
+    /** CONSTRUCTOR METHOD _____________________________________________________________________ **/
+
+    // HXSoundLoader(): Constructor method for this class.
+    HXSoundLoader(int workerCount) {
+        this.workerCount = workerCount < 1 ? DEFAULT_WORKER_COUNT : workerCount;
+        this.loadQueue = new PriorityQueue<>(16, new Comparator<LoadItem>() {
+            @Override
+            public int compare(LoadItem first, LoadItem second) {
+                if (first.priority != second.priority) {
+                    return first.priority > second.priority ? -1 : 1;
+                }
+                return first.sequence < second.sequence ? -1 : (first.sequence == second.sequence ? 0 : 1);
+            }
+        });
+    }
+
+    /** THREAD METHODS _________________________________________________________________________ **/
+
+    // start(): Starts the loader threads, if they are not already running. Must be called while
+    // holding the lock.
+    private void start() {
+        if (loaderThreads == null) {
+            loaderThreads = new Thread[workerCount];
+            for (int i = 0; i < workerCount; i++) {
+                loaderThreads[i] = new Thread(this, LOG_TAG + "-" + i);
+                loaderThreads[i].setDaemon(true);
+                loaderThreads[i].start();
+            }
+            HXLog.d(LOG_TAG, "START: start(): {} sound loader threads have been started.", workerCount);
+        }
+    }
+
+    // stop(): Stops the loader threads and cancels all queued sound resources. A loader thread that
+    // is still loading a sound resource exits once the load returns, even if the loader threads
+    // have been started again in the meantime.
+    void stop() {
+        synchronized (lock) {
+            loaderThreads = null;
+            lock.notifyAll();
+        }
+        cancelAll();
+    }
+
+    // run(): The loader loop. Loads the highest priority sound resource in the load queue.
+    @Override
+    public void run() {
+        Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+
+        LoadItem item;
+        while (true) {
+            synchronized (lock) {
+                while (loadQueue.isEmpty() && isLoaderThread()) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+
+                if (!isLoaderThread()) {
+                    return;
+                }
+
+                item = loadQueue.poll();
+                decodingItems.add(item);
+            }
+
+            int state;
+            try {
+                state = item.engine.loadSoundFx(item.task.getResource(item.index), item.context);
+            } catch (Exception e) {
+                HXLog.e(LOG_TAG, "ERROR: run(): An exception occurred while loading a sound resource: {}", e.getLocalizedMessage());
+                state = HXSampleLoadTracker.STATE_FAILED;
+            }
+
+            // Sound resources that are still loading are completed by onSampleLoaded().
+            if (state == HXSampleLoadTracker.STATE_READY || state == HXSampleLoadTracker.STATE_FAILED) {
+                complete(item, state == HXSampleLoadTracker.STATE_READY);
+            }
+        }
+    }
+
+    /** LOAD METHODS ___________________________________________________________________________ **/
+
+    // load(): Queues the sound resource at the specified index of the task to be loaded into the
+    // specified sound engine. Higher priority values are loaded first.
+    void load(HXSoundLoadTask task, int index, HXSoundLoadTarget engine, int priority, Context context) {
+        synchronized (lock) {
+            if (task.isDone()) {
+                return;
+            }
+            start();
+            loadQueue.add(new LoadItem(task, index, engine, priority, loadSequence++, context));
+            lock.notify();
+        }
+    }
+
+    // cancel(): Discards the queued sound resources of the specified task and marks it as cancelled.
+    void cancel(HXSoundLoadTask task) {
+        synchronized (lock) {
+            Iterator<LoadItem> iterator = loadQueue.iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().task == task) {
+                    iterator.remove();
+                }
+            }
+            iterator = decodingItems.iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().task == task) {
+                    iterator.remove();
+                }
+            }
+        }
+        task.onCancelled();
+        HXLog.d(LOG_TAG, "CANCEL: cancel(): Sound load task has been cancelled.");
+    }
+
+    // cancelAll(): Discards all queued sound resources and cancels their tasks. Used when the
+    // HXSoundEngine instances are released.
+    void cancelAll() {
+        ArrayList<HXSoundLoadTask> tasks = new ArrayList<>();
+        synchronized (lock) {
+            for (LoadItem item : loadQueue) {
+                if (!tasks.contains(item.task)) {
+                    tasks.add(item.task);
+                }
+            }
+            for (LoadItem item : decodingItems) {
+                if (!tasks.contains(item.task)) {
+                    tasks.add(item.task);
+                }
+            }
+            loadQueue.clear();
+            decodingItems.clear();
+        }
+
+        for (HXSoundLoadTask task : tasks) {
+            task.onCancelled();
+        }
+    }
+
+    // onSampleLoaded(): Called by the sound engine when SoundPool has finished decoding the specified
+    // sound resource.
+    void onSampleLoaded(HXSoundLoadTarget engine, int resource, boolean isLoaded) {
+        ArrayList<LoadItem> loadedItems = null;
+        synchronized (lock) {
+            Iterator<LoadItem> iterator = decodingItems.iterator();
+            while (iterator.hasNext()) {
+                LoadItem item = iterator.next();
+                if (item.engine == engine && item.task.getResource(item.index) == resource) {
+                    if (loadedItems == null) {
+                        loadedItems = new ArrayList<>();
+                    }
+                    loadedItems.add(item);
+                    iterator.remove();
+                }
+            }
+        }
+
+        if (loadedItems != null) {
+            for (LoadItem item : loadedItems) {
+                item.task.onResourceLoaded(item.index, isLoaded);
+            }
+        }
+    }
+
+    // onSampleUnloaded(): Called by the sound engine when the specified sound resource has been
+    // unloaded or evicted. Sound resources that were still being decoded will never finish loading,
+    // so they are reported to their tasks as failed.
+    void onSampleUnloaded(HXSoundLoadTarget engine, int resource) {
+        onSampleLoaded(engine, resource, false);
+    }
+
+    /** HELPER METHODS _________________________________________________________________________ **/
+
+    // isLoaderThread(): Determines if the current thread is one of the running loader threads.
+    // Loader threads of a previous start() are no longer running. Must be called while holding the
+    // lock.
+    private boolean isLoaderThread() {
+        if (loaderThreads == null) {
+            return false;
+        }
+
+        Thread currentThread = Thread.currentThread();
+        for (Thread loaderThread : loaderThreads) {
+            if (loaderThread == currentThread) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // complete(): Reports the specified item to its task, if it has not already been reported.
+    private void complete(LoadItem item, boolean isLoaded) {
+        synchronized (lock) {
+            if (!decodingItems.remove(item)) {
+                return;
+            }
+        }
+        item.task.onResourceLoaded(item.index, isLoaded);
+    }
+
+    /** SUBCLASSES _____________________________________________________________________________ **/
+
+    // LoadItem: A sound resource of a HXSoundLoadTask to be loaded into a sound engine.
+    private static class LoadItem {
+
+        private final HXSoundLoadTask task; // Task of this sound resource.
+        private final int index; // Index of this sound resource in its task.
+        private final HXSoundLoadTarget engine; // Sound engine to load this sound resource into.
+        private final int priority; // Priority of this sound resource.
+        private final long sequence; // Order in which this sound resource was queued.
+        private final Context context; // Context used for loading this sound resource.
+
+        LoadItem(HXSoundLoadTask task, int index, HXSoundLoadTarget engine, int priority, long sequence,
+                 Context context) {
+            this.task = task;
+            this.index = index;
+            this.engine = engine;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.context = context;
+        }
+    }
+}
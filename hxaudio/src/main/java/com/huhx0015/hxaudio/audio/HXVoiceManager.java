@@ -0,0 +1,322 @@
+package com.huhx0015.hxaudio.audio;
+
+import com.huhx0015.hxaudio.backend.HXSoundBackend;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXVoiceManager] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXVoiceManager is used by HXSoundEngine to track the live HXSoundBackend streams
+ *  (voices) and their estimated end times. Global and per-sound concurrency caps are enforced
+ *  before a sound effect is played. When a cap has been reached, the voice with the lowest priority
+ *  (and the oldest voice among those) is stopped and replaced, rather than leaving the decision to
+ *  the backend. All voice data is stored in preallocated arrays. Voices are claimed and freed with
+ *  compare-and-set operations on their state, so that play() can be called from the lock-free
+ *  sound trigger path without acquiring any locks. The global cap is exact, while the per-sound
+ *  cap may be briefly exceeded by sound effects of the same sample played at the same time.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+class HXVoiceManager {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // VOICE VARIABLES:
+    private final AtomicIntegerArray voiceStates; // Stores the state of each voice.
+    private final int[] voiceStreams; // Stores the HXSoundBackend stream ID of each voice.
+    private final int[] voiceSamples; // Stores the HXSoundBackend sample ID of each voice.
+    private final int[] voicePriorities; // Stores the priority of each voice.
+    private final long[] voiceStartTimes; // Stores the time (in milliseconds) each voice was started.
+    private final AtomicLongArray voiceEndTimes; // Stores the estimated time (in milliseconds) each voice ends.
+    private final int maxVoices; // Maximum number of live voices.
+    private volatile int maxVoicesPerSound; // Maximum number of live voices per sample.
+    private final AtomicInteger liveVoices = new AtomicInteger(); // Number of claimed and live voices.
+    private volatile long pauseTime; // Time (in milliseconds) the voices were paused, or 0 if not paused.
+
+    // METRIC VARIABLES:
+    private final AtomicLong stolenCount = new AtomicLong(); // Number of voices that were stopped to make room for another voice.
+    private final AtomicLong rejectedCount = new AtomicLong(); // Number of sound effects that were rejected due to the voice caps.
+
+    // CONSTANT VARIABLES:
+    static final int NO_VOICE = -1; // Used to indicate that no voice is available.
+    private static final int STATE_FREE = 0; // The voice is not in use.
+    private static final int STATE_CLAIMED = 1; // The voice is being started or replaced by play().
+    private static final int STATE_LIVE = 2; // The voice is playing a stream.
+    private static final long LOOPED_END_TIME = Long.MAX_VALUE; // End time used for looped voices.
+
+    /** CONSTRUCTOR METHOD _____________________________________________________________________ **/
+
+    // HXVoiceManager(): Constructor method for this class.
+    HXVoiceManager(int maxVoices, int maxVoicesPerSound) {
+        this.maxVoices = maxVoices;
+        this.maxVoicesPerSound = maxVoicesPerSound;
+        this.voiceStates = new AtomicIntegerArray(maxVoices);
+        this.voiceStreams = new int[maxVoices];
+        this.voiceSamples = new int[maxVoices];
+        this.voicePriorities = new int[maxVoices];
+        this.voiceStartTimes = new long[maxVoices];
+        this.voiceEndTimes = new AtomicLongArray(maxVoices);
+    }
+
+    /** VOICE METHODS __________________________________________________________________________ **/
+
+    // play(): Plays the specified sample on the specified HXSoundBackend, if the voice caps allow it.
+    // If a cap has been reached, a voice with an equal or lower priority is stolen. Returns the
+    // HXSoundBackend stream ID, or 0 if the sound effect was not played. This method does not
+    // acquire any locks.
+    int play(HXSoundBackend pool, int sampleId, float volume, boolean isLoop, int priority,
+             long duration, long time) {
+
+        removeFinishedVoices(time);
+
+        int voice = claimVoice(sampleId, priority, pool);
+        if (voice == NO_VOICE) {
+            rejectedCount.incrementAndGet();
+            return 0;
+        }
+
+        int streamId = pool.play(sampleId, volume, priority, isLoop);
+        if (streamId == 0) {
+            voiceStates.set(voice, STATE_FREE);
+            liveVoices.decrementAndGet();
+            return 0;
+        }
+
+        // The voice data is published to other threads by the volatile write of its state.
+        voiceStreams[voice] = streamId;
+        voiceSamples[voice] = sampleId;
+        voicePriorities[voice] = priority;
+        voiceStartTimes[voice] = time;
+        voiceEndTimes.set(voice, isLoop ? LOOPED_END_TIME : time + duration);
+        voiceStates.set(voice, STATE_LIVE);
+        return streamId;
+    }
+
+    // stop(): Removes the voice with the specified HXSoundBackend stream ID. The stream itself must be
+    // stopped by the caller.
+    void stop(int streamId) {
+        int voice = findStream(streamId);
+        if (voice != NO_VOICE) {
+            removeVoice(voice, streamId);
+        }
+    }
+
+    // stopSample(): Stops and removes all voices playing the specified sample.
+    void stopSample(HXSoundBackend pool, int sampleId) {
+        for (int i = 0; i < maxVoices; i++) {
+            if (voiceStates.get(i) == STATE_LIVE && voiceSamples[i] == sampleId) {
+                int streamId = voiceStreams[i];
+                if (removeVoice(i, streamId)) {
+                    pool.stop(streamId);
+                }
+            }
+        }
+    }
+
+    // pause(): Records the time the voices were paused, so that their estimated end times can be
+    // extended when they are resumed.
+    synchronized void pause(long time) {
+        if (pauseTime == 0) {
+            pauseTime = time;
+        }
+    }
+
+    // resume(): Extends the estimated end times of all non-looped voices by the paused duration.
+    synchronized void resume(long time) {
+        if (pauseTime != 0) {
+            long pausedDuration = time - pauseTime;
+            for (int i = 0; i < maxVoices; i++) {
+                long endTime = voiceEndTimes.get(i);
+                if (voiceStates.get(i) == STATE_LIVE && endTime != LOOPED_END_TIME) {
+                    voiceEndTimes.compareAndSet(i, endTime, endTime + pausedDuration);
+                }
+            }
+            pauseTime = 0;
+        }
+    }
+
+    // clear(): Removes all voices.
+    void clear() {
+        for (int i = 0; i < maxVoices; i++) {
+            removeVoice(i, 0);
+        }
+        pauseTime = 0;
+    }
+
+    /** HELPER METHODS _________________________________________________________________________ **/
+
+    // claimVoice(): Claims the voice to be used for the specified sample. A free voice is claimed if
+    // both caps allow it. Otherwise, the lowest priority voice (oldest first) is stolen, either among
+    // the voices of the same sample when the per-sound cap has been reached, or among all voices
+    // when the global cap has been reached. Returns NO_VOICE if the selected voice has a higher
+    // priority than the new sound effect.
+    private int claimVoice(int sampleId, int priority, HXSoundBackend pool) {
+        for (int attempt = 0; attempt <= maxVoices; attempt++) {
+            int sampleVoices = 0;
+            for (int i = 0; i < maxVoices; i++) {
+                if (voiceStates.get(i) == STATE_LIVE && voiceSamples[i] == sampleId) {
+                    sampleVoices++;
+                }
+            }
+
+            // Reserves a place under the global cap first, which guarantees that a free voice exists.
+            if (sampleVoices < maxVoicesPerSound && reserveLiveVoice()) {
+                while (true) {
+                    for (int i = 0; i < maxVoices; i++) {
+                        if (voiceStates.get(i) == STATE_FREE && voiceStates.compareAndSet(i, STATE_FREE, STATE_CLAIMED)) {
+                            return i;
+                        }
+                    }
+                }
+            }
+
+            int victim = findVictim(sampleVoices >= maxVoicesPerSound ? sampleId : 0);
+            if (victim == NO_VOICE) {
+                if (liveVoices.get() < maxVoices) {
+                    continue; // A voice has been freed in the meantime.
+                }
+                return NO_VOICE;
+            }
+            if (voicePriorities[victim] > priority) {
+                return NO_VOICE;
+            }
+
+            // Stops the stolen voice. The claimed voice keeps its place under the global cap.
+            int victimStream = voiceStreams[victim];
+            if (voiceStates.compareAndSet(victim, STATE_LIVE, STATE_CLAIMED)) {
+                pool.stop(victimStream);
+                stolenCount.incrementAndGet();
+                return victim;
+            }
+        }
+        return NO_VOICE;
+    }
+
+    // reserveLiveVoice(): Increments the number of live voices, unless the global cap has been
+    // reached.
+    private boolean reserveLiveVoice() {
+        int live;
+        do {
+            live = liveVoices.get();
+            if (live >= maxVoices) {
+                return false;
+            }
+        } while (!liveVoices.compareAndSet(live, live + 1));
+        return true;
+    }
+
+    // findVictim(): Returns the index of the live voice with the lowest priority, selecting the
+    // oldest voice among voices of equal priority. If sampleId is non-zero, only voices playing that
+    // sample are considered.
+    private int findVictim(int sampleId) {
+        int victim = NO_VOICE;
+        for (int i = 0; i < maxVoices; i++) {
+            if (voiceStates.get(i) != STATE_LIVE || (sampleId != 0 && voiceSamples[i] != sampleId)) {
+                continue;
+            }
+            if (victim == NO_VOICE || voicePriorities[i] < voicePriorities[victim] ||
+                    (voicePriorities[i] == voicePriorities[victim] &&
+                            voiceStartTimes[i] < voiceStartTimes[victim])) {
+                victim = i;
+            }
+        }
+        return victim;
+    }
+
+    // findStream(): Returns the index of the live voice with the specified HXSoundBackend stream
+    // ID, or NO_VOICE if there is no such voice.
+    private int findStream(int streamId) {
+        if (streamId == 0) {
+            return NO_VOICE;
+        }
+        for (int i = 0; i < maxVoices; i++) {
+            if (voiceStates.get(i) == STATE_LIVE && voiceStreams[i] == streamId) {
+                return i;
+            }
+        }
+        return NO_VOICE;
+    }
+
+    // removeFinishedVoices(): Removes all voices whose estimated end time has passed. Voices are not
+    // removed while paused.
+    private void removeFinishedVoices(long time) {
+        if (pauseTime != 0) {
+            return;
+        }
+        for (int i = 0; i < maxVoices; i++) {
+            if (voiceStates.get(i) == STATE_LIVE && voiceEndTimes.get(i) <= time) {
+                removeVoice(i, voiceStreams[i]);
+            }
+        }
+    }
+
+    // removeVoice(): Marks the voice at the specified index as free, if it is still live with the
+    // specified HXSoundBackend stream ID (or any stream, if 0). Returns false if the voice has
+    // already been removed or replaced by another thread.
+    private boolean removeVoice(int voice, int streamId) {
+        if (!voiceStates.compareAndSet(voice, STATE_LIVE, STATE_CLAIMED)) {
+            return false;
+        }
+        if (streamId != 0 && voiceStreams[voice] != streamId) {
+            voiceStates.set(voice, STATE_LIVE);
+            return false;
+        }
+        voiceStates.set(voice, STATE_FREE);
+        liveVoices.decrementAndGet();
+        return true;
+    }
+
+    /** GET METHODS ____________________________________________________________________________ **/
+
+    // getLiveVoiceEstimate(): Returns the number of live voices without removing finished voices.
+    // Voices that have ended since the last play are still counted.
+    int getLiveVoiceEstimate() {
+        return liveVoices.get();
+    }
+
+    // getLiveVoiceCount(): Returns the number of live voices at the specified time.
+    int getLiveVoiceCount(long time) {
+        removeFinishedVoices(time);
+        return liveVoices.get();
+    }
+
+    // isPlaying(): Determines if the specified HXSoundBackend stream is still live at the specified
+    // time. Streams that have been stopped, stolen or have ended are no longer live.
+    boolean isPlaying(int streamId, long time) {
+        removeFinishedVoices(time);
+        return findStream(streamId) != NO_VOICE;
+    }
+
+    // getLiveVoiceCount(): Returns the number of live voices playing the specified sample at the
+    // specified time.
+    int getLiveVoiceCount(int sampleId, long time) {
+        removeFinishedVoices(time);
+        int count = 0;
+        for (int i = 0; i < maxVoices; i++) {
+            if (voiceStates.get(i) == STATE_LIVE && voiceSamples[i] == sampleId) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // getStolenCount(): Returns the number of voices that were stolen.
+    long getStolenCount() {
+        return stolenCount.get();
+    }
+
+    // getRejectedCount(): Returns the number of sound effects that were rejected.
+    long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /** SET METHODS ____________________________________________________________________________ **/
+
+    // setMaxVoicesPerSound(): Sets the maximum number of live voices per sample.
+    void setMaxVoicesPerSound(int maxVoicesPerSound) {
+        this.maxVoicesPerSound = maxVoicesPerSound;
+    }
+}
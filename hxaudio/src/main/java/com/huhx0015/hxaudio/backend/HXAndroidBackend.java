@@ -0,0 +1,26 @@
+package com.huhx0015.hxaudio.backend;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXAndroidBackend] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXAndroidBackend is the default HXAudioBackend of HXSound and HXMusic, which plays
+ *  sound effects through SoundPool and music through MediaPlayer.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class HXAndroidBackend implements HXAudioBackend {
+
+    /** BACKEND METHODS ________________________________________________________________________ **/
+
+    // createSoundBackend(): Returns a new SoundPool backed HXSoundBackend.
+    @Override
+    public HXSoundBackend createSoundBackend(int maxStreams) {
+        return new HXSoundPoolBackend(maxStreams);
+    }
+
+    // createMusicBackend(): Returns a new MediaPlayer backed HXMusicBackend.
+    @Override
+    public HXMusicBackend createMusicBackend() {
+        return new HXMediaPlayerBackend();
+    }
+}
@@ -0,0 +1,24 @@
+package com.huhx0015.hxaudio.backend;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXAudioBackend] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXAudioBackend is an interface class used by HXSound and HXMusic to create the
+ *  objects that load and play audio. HXAndroidBackend plays audio through SoundPool and
+ *  MediaPlayer, while HXHeadlessBackend renders audio into a file or memory buffer, so that
+ *  HXSound and HXMusic can run off-device. Set with HXSound.backend() and HXMusic.backend().
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public interface HXAudioBackend {
+
+    /** INTERFACE METHODS ______________________________________________________________________ **/
+
+    // createSoundBackend(): Returns a new HXSoundBackend that plays up to the specified number of
+    // simultaneous streams. Called once for each HXSoundEngine instance.
+    HXSoundBackend createSoundBackend(int maxStreams);
+
+    // createMusicBackend(): Returns a new HXMusicBackend in the idle state. Called by HXMusic for
+    // each music player that cannot be reused from its pool.
+    HXMusicBackend createMusicBackend();
+}
@@ -0,0 +1,398 @@
+package com.huhx0015.hxaudio.backend;
+
+import com.huhx0015.hxaudio.utils.HXLog;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXHeadlessBackend] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXHeadlessBackend is a HXAudioBackend that runs without any audio hardware, so that
+ *  HXSound and HXMusic can be run and load tested on the JVM, such as in CI. Sound effects and music
+ *  are decoded from WAV or raw PCM data by HXHeadlessDecoder, mixed by HXMixer on a render thread
+ *  and written into a WAV file or a memory buffer as 16-bit stereo PCM data. The render thread
+ *  simulates the timing of a device by rendering one buffer per buffer duration, which can be sped
+ *  up with setSpeed(). Load and prepare latencies can be simulated with setLoadLatency() and
+ *  setPrepareLatency(). All listeners are called on a single event thread.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class HXHeadlessBackend implements HXAudioBackend {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // BACKEND VARIABLES:
+    private volatile HXHeadlessSoundBackend[] soundBackends = new HXHeadlessSoundBackend[0]; // Live sound backends, replaced on each change.
+    private volatile HXHeadlessMusicBackend[] musicBackends = new HXHeadlessMusicBackend[0]; // Live music backends, replaced on each change.
+    private volatile long loadLatency; // Simulated time (in milliseconds) it takes a sample to load.
+    private volatile long prepareLatency; // Simulated time (in milliseconds) it takes a music to prepare.
+
+    // OUTPUT VARIABLES:
+    private final File outputFile; // WAV file the output is rendered into, or null to render into memory.
+    private OutputStream outputStream; // Stream of the WAV file, or null if not writing to a file.
+    private short[] memoryBuffer = new short[0]; // Output rendered into memory. Only used without an output file.
+    private int memoryLength; // Number of 16-bit values rendered into the memory buffer.
+    private final Object memoryLock = new Object(); // Used for guarding the memory buffer.
+    private final int sampleRate; // Sample rate of the rendered output, in Hz.
+    private final int framesPerBuffer; // Number of frames rendered per buffer.
+
+    // THREAD VARIABLES:
+    private final ScheduledExecutorService eventExecutor; // Event thread that calls all listeners.
+    private volatile float speed = 1.0f; // Rendering speed relative to real time. 0 renders as fast as possible.
+    private volatile long renderedFrames; // Number of frames rendered so far.
+    private volatile boolean isRunning; // Used for determining if the render thread is running.
+    private boolean isClosed; // Used for determining if this backend has been closed.
+    private Thread renderThread; // The render thread.
+
+    // CONSTANT VARIABLES:
+    public static final int DEFAULT_SAMPLE_RATE = 44100; // Default sample rate of the rendered output, in Hz.
+    public static final int DEFAULT_FRAMES_PER_BUFFER = 256; // Default number of frames rendered per buffer.
+    private static final int WAV_HEADER_SIZE = 44; // Size of the WAV header of the output file, in bytes.
+
+    // LOGGING VARIABLES:
+    private static final String LOG_TAG = HXHeadlessBackend.class.getSimpleName();
+
+    /** CONSTRUCTOR METHODS ____________________________________________________________________ **/
+
+    // HXHeadlessBackend(): Constructor method for this class, which renders into memory. The
+    // rendered output can be read with getRenderedAudio().
+    public HXHeadlessBackend() {
+        this(null, DEFAULT_SAMPLE_RATE, DEFAULT_FRAMES_PER_BUFFER);
+    }
+
+    // HXHeadlessBackend(): Constructor method for this class, which renders into the specified WAV
+    // file. The file is complete once close() has been called.
+    public HXHeadlessBackend(File outputFile) {
+        this(outputFile, DEFAULT_SAMPLE_RATE, DEFAULT_FRAMES_PER_BUFFER);
+    }
+
+    // HXHeadlessBackend(): Constructor method for this class, which renders into the specified WAV
+    // file, or into memory if the file is null, at the specified sample rate and buffer size.
+    public HXHeadlessBackend(File outputFile, int sampleRate, int framesPerBuffer) {
+        this.outputFile = outputFile;
+        this.sampleRate = sampleRate > 0 ? sampleRate : DEFAULT_SAMPLE_RATE;
+        this.framesPerBuffer = framesPerBuffer > 0 ? framesPerBuffer : DEFAULT_FRAMES_PER_BUFFER;
+        this.eventExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, LOG_TAG + "Events");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /** BACKEND METHODS ________________________________________________________________________ **/
+
+    // createSoundBackend(): Returns a new HXSoundBackend that is mixed into the rendered output.
+    @Override
+    public HXSoundBackend createSoundBackend(int maxStreams) {
+        HXHeadlessSoundBackend backend = new HXHeadlessSoundBackend(this, maxStreams);
+        synchronized (this) {
+            HXHeadlessSoundBackend[] backends = Arrays.copyOf(soundBackends, soundBackends.length + 1);
+            backends[backends.length - 1] = backend;
+            soundBackends = backends;
+            startRenderer();
+        }
+        return backend;
+    }
+
+    // createMusicBackend(): Returns a new HXMusicBackend that is mixed into the rendered output.
+    @Override
+    public HXMusicBackend createMusicBackend() {
+        HXHeadlessMusicBackend backend = new HXHeadlessMusicBackend(this);
+        synchronized (this) {
+            HXHeadlessMusicBackend[] backends = Arrays.copyOf(musicBackends, musicBackends.length + 1);
+            backends[backends.length - 1] = backend;
+            musicBackends = backends;
+            startRenderer();
+        }
+        return backend;
+    }
+
+    // removeSoundBackend(): Removes the specified released sound backend from the rendered output.
+    synchronized void removeSoundBackend(HXHeadlessSoundBackend backend) {
+        HXHeadlessSoundBackend[] backends = soundBackends;
+        for (int i = 0; i < backends.length; i++) {
+            if (backends[i] == backend) {
+                HXHeadlessSoundBackend[] updated = new HXHeadlessSoundBackend[backends.length - 1];
+                System.arraycopy(backends, 0, updated, 0, i);
+                System.arraycopy(backends, i + 1, updated, i, backends.length - i - 1);
+                soundBackends = updated;
+                return;
+            }
+        }
+    }
+
+    // removeMusicBackend(): Removes the specified released music backend from the rendered output.
+    synchronized void removeMusicBackend(HXHeadlessMusicBackend backend) {
+        HXHeadlessMusicBackend[] backends = musicBackends;
+        for (int i = 0; i < backends.length; i++) {
+            if (backends[i] == backend) {
+                HXHeadlessMusicBackend[] updated = new HXHeadlessMusicBackend[backends.length - 1];
+                System.arraycopy(backends, 0, updated, 0, i);
+                System.arraycopy(backends, i + 1, updated, i, backends.length - i - 1);
+                musicBackends = updated;
+                return;
+            }
+        }
+    }
+
+    // post(): Runs the specified event on the event thread after the specified delay (in
+    // milliseconds). Events posted after close() are discarded.
+    void post(Runnable event, long delay) {
+        try {
+            eventExecutor.schedule(event, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            HXLog.w(LOG_TAG, "WARNING: post(): Event was discarded, as the backend has been closed.");
+        }
+    }
+
+    // close(): Stops the render thread and the event thread, and completes the WAV file. The
+    // backend cannot be used afterwards.
+    public void close() {
+        Thread thread;
+        synchronized (this) {
+            if (isClosed) {
+                return;
+            }
+            isClosed = true;
+            isRunning = false;
+            thread = renderThread;
+            renderThread = null;
+        }
+
+        eventExecutor.shutdownNow();
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        closeOutputFile();
+    }
+
+    /** RENDER METHODS _________________________________________________________________________ **/
+
+    // startRenderer(): Starts the render thread, if not already running. The WAV header of the
+    // output file is written first.
+    private synchronized void startRenderer() {
+        if (isRunning || isClosed) {
+            return;
+        }
+
+        if (outputFile != null) {
+            try {
+                outputStream = new BufferedOutputStream(new FileOutputStream(outputFile));
+                outputStream.write(new byte[WAV_HEADER_SIZE]); // Completed by closeOutputFile().
+            } catch (IOException e) {
+                HXLog.e(LOG_TAG, "ERROR: startRenderer(): Unable to open the output file: {}", e.getLocalizedMessage());
+                outputStream = null;
+            }
+        }
+
+        isRunning = true;
+        renderThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                runRenderer();
+            }
+        }, LOG_TAG);
+        renderThread.setDaemon(true);
+        renderThread.start();
+    }
+
+    // runRenderer(): The render loop. Mixes one buffer of all sound and music backends and writes it
+    // to the output, then waits until the buffer would have been played by a device.
+    private void runRenderer() {
+        short[] sourceBuffer = new short[framesPerBuffer * 2];
+        short[] outputBuffer = new short[framesPerBuffer * 2];
+        byte[] outputBytes = new byte[framesPerBuffer * 4];
+        float[] mix = new float[framesPerBuffer * 2];
+
+        long startTime = System.nanoTime();
+        long startFrame = 0;
+        float currentSpeed = speed;
+        while (isRunning) {
+            Arrays.fill(mix, 0.0f);
+            for (HXHeadlessSoundBackend backend : soundBackends) {
+                backend.render(sourceBuffer, mix, framesPerBuffer);
+            }
+            for (HXHeadlessMusicBackend backend : musicBackends) {
+                backend.render(mix, framesPerBuffer, sampleRate);
+            }
+
+            // Converts the mixed output into 16-bit PCM data, clipping values out of range.
+            for (int i = 0; i < mix.length; i++) {
+                float value = mix[i];
+                if (value > Short.MAX_VALUE) {
+                    value = Short.MAX_VALUE;
+                } else if (value < Short.MIN_VALUE) {
+                    value = Short.MIN_VALUE;
+                }
+                outputBuffer[i] = (short) value;
+            }
+            writeOutput(outputBuffer, outputBytes);
+            renderedFrames += framesPerBuffer;
+
+            // SIMULATED TIMING: Waits until the rendered frames would have been played at the
+            // current speed. The timing restarts from the current frame whenever the speed changes.
+            if (currentSpeed != speed) {
+                currentSpeed = speed;
+                startTime = System.nanoTime();
+                startFrame = renderedFrames;
+            }
+            if (currentSpeed > 0) {
+                long targetTime = startTime + (long) ((renderedFrames - startFrame) * 1000000000.0 /
+                        (sampleRate * currentSpeed));
+                long waitTime = targetTime - System.nanoTime();
+                if (waitTime > 0) {
+                    try {
+                        Thread.sleep(waitTime / 1000000, (int) (waitTime % 1000000));
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    // writeOutput(): Writes the specified buffer to the output file, or appends it to the memory
+    // buffer.
+    private void writeOutput(short[] buffer, byte[] bytes) {
+        if (outputFile == null) {
+            synchronized (memoryLock) {
+                if (memoryLength + buffer.length > memoryBuffer.length) {
+                    memoryBuffer = Arrays.copyOf(memoryBuffer, Math.max(memoryBuffer.length * 2,
+                            memoryLength + buffer.length));
+                }
+                System.arraycopy(buffer, 0, memoryBuffer, memoryLength, buffer.length);
+                memoryLength += buffer.length;
+            }
+            return;
+        }
+
+        OutputStream output = outputStream;
+        if (output == null) {
+            return;
+        }
+
+        for (int i = 0; i < buffer.length; i++) {
+            bytes[i * 2] = (byte) buffer[i];
+            bytes[i * 2 + 1] = (byte) (buffer[i] >> 8);
+        }
+        try {
+            output.write(bytes, 0, buffer.length * 2);
+        } catch (IOException e) {
+            HXLog.e(LOG_TAG, "ERROR: writeOutput(): Unable to write the output file: {}", e.getLocalizedMessage());
+            outputStream = null;
+        }
+    }
+
+    // closeOutputFile(): Closes the output file and writes its WAV header, now that the size of its
+    // data is known.
+    private synchronized void closeOutputFile() {
+        if (outputStream == null) {
+            return;
+        }
+
+        RandomAccessFile file = null;
+        try {
+            outputStream.close();
+            outputStream = null;
+
+            file = new RandomAccessFile(outputFile, "rw");
+            int dataSize = (int) Math.min(file.length() - WAV_HEADER_SIZE, Integer.MAX_VALUE - 36);
+            file.seek(0);
+            file.writeBytes("RIFF");
+            file.writeInt(Integer.reverseBytes(36 + dataSize));
+            file.writeBytes("WAVEfmt ");
+            file.writeInt(Integer.reverseBytes(16));
+            file.writeShort(Short.reverseBytes((short) 1)); // PCM format.
+            file.writeShort(Short.reverseBytes((short) 2)); // Stereo.
+            file.writeInt(Integer.reverseBytes(sampleRate));
+            file.writeInt(Integer.reverseBytes(sampleRate * 4)); // Bytes per second.
+            file.writeShort(Short.reverseBytes((short) 4)); // Bytes per frame.
+            file.writeShort(Short.reverseBytes((short) 16)); // Bits per sample.
+            file.writeBytes("data");
+            file.writeInt(Integer.reverseBytes(dataSize));
+        } catch (IOException e) {
+            HXLog.e(LOG_TAG, "ERROR: closeOutputFile(): Unable to complete the output file: {}", e.getLocalizedMessage());
+        } finally {
+            if (file != null) {
+                try {
+                    file.close();
+                } catch (IOException e) {
+                    HXLog.e(LOG_TAG, "ERROR: closeOutputFile(): Unable to close the output file: {}", e.getLocalizedMessage());
+                }
+            }
+        }
+    }
+
+    /** GET METHODS ____________________________________________________________________________ **/
+
+    // getRenderedAudio(): Returns a copy of the output rendered into memory, as interleaved 16-bit
+    // stereo PCM data. Returns an empty array if the output is rendered into a file.
+    public short[] getRenderedAudio() {
+        synchronized (memoryLock) {
+            return Arrays.copyOf(memoryBuffer, memoryLength);
+        }
+    }
+
+    // getRenderedFrames(): Returns the number of frames rendered so far.
+    public long getRenderedFrames() {
+        return renderedFrames;
+    }
+
+    // getSampleRate(): Returns the sample rate of the rendered output, in Hz.
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    // getFramesPerBuffer(): Returns the number of frames rendered per buffer.
+    public int getFramesPerBuffer() {
+        return framesPerBuffer;
+    }
+
+    // getLoadLatency(): Returns the simulated time (in milliseconds) it takes a sample to load.
+    long getLoadLatency() {
+        return loadLatency;
+    }
+
+    // getPrepareLatency(): Returns the simulated time (in milliseconds) it takes a music to prepare.
+    long getPrepareLatency() {
+        return prepareLatency;
+    }
+
+    /** SET METHODS ____________________________________________________________________________ **/
+
+    // setSpeed(): Sets the rendering speed relative to real time, such as 2.0 for rendering twice as
+    // fast as a device would play. A speed of 0 renders as fast as possible.
+    public void setSpeed(float speed) {
+        this.speed = Math.max(speed, 0);
+    }
+
+    // setLoadLatency(): Sets the simulated time (in milliseconds) between loading a sample and its
+    // OnLoadCompleteListener being called.
+    public void setLoadLatency(long milliseconds) {
+        this.loadLatency = Math.max(milliseconds, 0);
+    }
+
+    // setPrepareLatency(): Sets the simulated time (in milliseconds) between prepareAsync() and the
+    // OnPreparedListener of a music being called.
+    public void setPrepareLatency(long milliseconds) {
+        this.prepareLatency = Math.max(milliseconds, 0);
+    }
+}
@@ -0,0 +1,140 @@
+package com.huhx0015.hxaudio.backend;
+
+import com.huhx0015.hxaudio.utils.HXLog;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXHeadlessDecoder] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXHeadlessDecoder decodes the sound effects and music played by HXHeadlessBackend.
+ *  WAV files holding 8-bit or 16-bit mono or stereo PCM data are decoded from their header, while
+ *  all other data is read as raw 16-bit stereo PCM data at 44.1 kHz. Compressed formats, such as
+ *  MP3 or OGG, are not supported.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+class HXHeadlessDecoder {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // CONSTANT VARIABLES:
+    static final int RAW_CHANNELS = 2; // Number of channels of raw PCM data.
+    static final int RAW_SAMPLE_RATE = 44100; // Sample rate of raw PCM data, in Hz.
+    private static final int RIFF_HEADER_SIZE = 12; // Size of the RIFF header, in bytes.
+    private static final int CHUNK_HEADER_SIZE = 8; // Size of each chunk header, in bytes.
+    private static final int FORMAT_PCM = 1; // WAV format code for PCM data.
+    private static final int FORMAT_EXTENSIBLE = 0xFFFE; // WAV format code for extensible PCM data.
+
+    // LOGGING VARIABLES:
+    private static final String LOG_TAG = HXHeadlessDecoder.class.getSimpleName();
+
+    /** DECODE METHODS _________________________________________________________________________ **/
+
+    // decode(): Decodes all data of the specified stream and closes it. Returns null if the data
+    // could not be decoded.
+    static HXHeadlessPcm decode(InputStream input) throws IOException {
+        byte[] bytes;
+        try {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int count;
+            while ((count = input.read(buffer)) != -1) {
+                output.write(buffer, 0, count);
+            }
+            bytes = output.toByteArray();
+        } finally {
+            input.close();
+        }
+
+        ByteBuffer data = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        if (isWav(data)) {
+            return decodeWav(data);
+        }
+        return decodePcm(data, 0, bytes.length, 16, RAW_CHANNELS, RAW_SAMPLE_RATE);
+    }
+
+    // decodeWav(): Decodes the PCM data of the specified WAV file, by reading its fmt and data
+    // chunks. All other chunks are skipped.
+    private static HXHeadlessPcm decodeWav(ByteBuffer data) {
+        int channels = 0;
+        int sampleRate = 0;
+        int bitsPerSample = 0;
+
+        int offset = RIFF_HEADER_SIZE;
+        while (offset + CHUNK_HEADER_SIZE <= data.limit()) {
+            int chunkSize = data.getInt(offset + 4);
+            int chunkStart = offset + CHUNK_HEADER_SIZE;
+            if (chunkSize < 0) {
+                break;
+            }
+
+            if (isChunk(data, offset, 'f', 'm', 't', ' ') && chunkSize >= 16) {
+                int format = data.getShort(chunkStart) & 0xFFFF;
+                if (format != FORMAT_PCM && format != FORMAT_EXTENSIBLE) {
+                    HXLog.e(LOG_TAG, "ERROR: decodeWav(): Unsupported WAV format: {}", format);
+                    return null;
+                }
+                channels = data.getShort(chunkStart + 2);
+                sampleRate = data.getInt(chunkStart + 4);
+                bitsPerSample = data.getShort(chunkStart + 14);
+            } else if (isChunk(data, offset, 'd', 'a', 't', 'a')) {
+                int length = Math.min(chunkSize, data.limit() - chunkStart);
+                return decodePcm(data, chunkStart, length, bitsPerSample, channels, sampleRate);
+            }
+
+            offset = chunkStart + chunkSize + (chunkSize & 1); // Chunks are padded to an even size.
+        }
+
+        HXLog.e(LOG_TAG, "ERROR: decodeWav(): WAV file has no data chunk.");
+        return null;
+    }
+
+    // decodePcm(): Converts the specified range of PCM data into 16-bit PCM data. Returns null if
+    // the format is not supported.
+    private static HXHeadlessPcm decodePcm(ByteBuffer data, int offset, int length,
+                                           int bitsPerSample, int channels, int sampleRate) {
+        if (channels < 1 || channels > 2 || sampleRate <= 0 ||
+                (bitsPerSample != 8 && bitsPerSample != 16)) {
+            HXLog.e(LOG_TAG, "ERROR: decodePcm(): Unsupported PCM format: {} channels, {} bits",
+                    channels, bitsPerSample);
+            return null;
+        }
+
+        int bytesPerFrame = channels * bitsPerSample / 8;
+        int frames = length / bytesPerFrame;
+        if (frames == 0) {
+            HXLog.e(LOG_TAG, "ERROR: decodePcm(): PCM data is empty.");
+            return null;
+        }
+
+        short[] pcm = new short[frames * channels];
+        if (bitsPerSample == 16) {
+            for (int i = 0; i < pcm.length; i++) {
+                pcm[i] = data.getShort(offset + i * 2);
+            }
+        } else {
+            for (int i = 0; i < pcm.length; i++) {
+                pcm[i] = (short) (((data.get(offset + i) & 0xFF) - 128) << 8); // 8-bit PCM data is unsigned.
+            }
+        }
+        return new HXHeadlessPcm(pcm, channels, sampleRate);
+    }
+
+    /** HELPER METHODS _________________________________________________________________________ **/
+
+    // isWav(): Determines if the specified data starts with a RIFF WAVE header.
+    private static boolean isWav(ByteBuffer data) {
+        return data.limit() >= RIFF_HEADER_SIZE && isChunk(data, 0, 'R', 'I', 'F', 'F') &&
+                isChunk(data, 8, 'W', 'A', 'V', 'E');
+    }
+
+    // isChunk(): Determines if the four bytes at the specified offset match the specified ID.
+    private static boolean isChunk(ByteBuffer data, int offset, char a, char b, char c, char d) {
+        return data.get(offset) == a && data.get(offset + 1) == b && data.get(offset + 2) == c &&
+                data.get(offset + 3) == d;
+    }
+}
@@ -0,0 +1,359 @@
+package com.huhx0015.hxaudio.backend;
+
+import android.content.Context;
+import com.huhx0015.hxaudio.utils.HXLog;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXHeadlessMusicBackend] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXHeadlessMusicBackend is the HXMusicBackend of HXHeadlessBackend, which follows
+ *  the MediaPlayer state machine. The data source is decoded by HXHeadlessDecoder on the event
+ *  thread when prepared, and played into the rendered output of HXHeadlessBackend, so that the
+ *  playback position advances with the rendered frames. Once playback reaches the end of the
+ *  music, the next backend set with setNextBackend() is started within the same buffer.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+class HXHeadlessMusicBackend implements HXMusicBackend {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // BACKEND VARIABLES:
+    private final HXHeadlessBackend backend; // Backend that renders the mixed output.
+    private int state = STATE_IDLE; // Current state of this backend.
+    private int generation; // Incremented on each reset, so that stale prepares are discarded.
+
+    // SOURCE VARIABLES:
+    private Context context; // Context used for reading the music resource.
+    private int resource; // Music resource of the data source, or 0 if a URL is used.
+    private String url; // URL or file path of the data source, or null if a music resource is used.
+
+    // PLAYBACK VARIABLES:
+    private HXHeadlessPcm pcm; // Decoded PCM data of the music, or null if not prepared.
+    private double position; // Playback position, in frames of the PCM data.
+    private boolean isLooping; // Used for determining if the music is looped.
+    private float leftVolume = 1.0f; // Volume of the left channel.
+    private float rightVolume = 1.0f; // Volume of the right channel.
+    private HXHeadlessMusicBackend nextBackend; // Backend started once this backend completes.
+
+    // LISTENER VARIABLES:
+    private volatile OnPreparedListener preparedListener;
+    private volatile OnCompletionListener completionListener;
+    private volatile OnBufferingUpdateListener bufferingListener;
+    private volatile OnInfoListener infoListener;
+    private volatile OnErrorListener errorListener;
+
+    // CONSTANT VARIABLES:
+    private static final int STATE_IDLE = 0; // No data source has been set.
+    private static final int STATE_INITIALIZED = 1; // A data source has been set.
+    private static final int STATE_PREPARING = 2; // The data source is being decoded.
+    private static final int STATE_PREPARED = 3; // The data source has been decoded.
+    private static final int STATE_STARTED = 4; // The music is playing.
+    private static final int STATE_PAUSED = 5; // The music has been paused.
+    private static final int STATE_STOPPED = 6; // The music has been stopped, and must be prepared again.
+    private static final int STATE_COMPLETED = 7; // The music has played to its end.
+    private static final int STATE_ERROR = 8; // The data source could not be decoded.
+    private static final int STATE_RELEASED = 9; // The backend has been released.
+
+    // LOGGING VARIABLES:
+    private static final String LOG_TAG = HXHeadlessMusicBackend.class.getSimpleName();
+
+    /** CONSTRUCTOR METHOD _____________________________________________________________________ **/
+
+    // HXHeadlessMusicBackend(): Constructor method for this class.
+    HXHeadlessMusicBackend(HXHeadlessBackend backend) {
+        this.backend = backend;
+    }
+
+    /** DATA SOURCE METHODS ____________________________________________________________________ **/
+
+    @Override
+    public synchronized void setDataSource(Context context, int resource) {
+        checkState("setDataSource", state == STATE_IDLE);
+        this.context = context;
+        this.resource = resource;
+        this.state = STATE_INITIALIZED;
+    }
+
+    @Override
+    public synchronized void setDataSource(Context context, String url) {
+        checkState("setDataSource", state == STATE_IDLE);
+        this.context = context;
+        this.url = url;
+        this.state = STATE_INITIALIZED;
+    }
+
+    // prepareAsync(): Decodes the data source on the event thread, once the simulated prepare
+    // latency has passed.
+    @Override
+    public synchronized void prepareAsync() {
+        checkState("prepareAsync", state == STATE_INITIALIZED || state == STATE_STOPPED);
+        state = STATE_PREPARING;
+
+        final int prepareGeneration = generation;
+        final Context prepareContext = context;
+        final int prepareResource = resource;
+        final String prepareUrl = url;
+        backend.post(new Runnable() {
+            @Override
+            public void run() {
+                prepare(prepareGeneration, prepareContext, prepareResource, prepareUrl);
+            }
+        }, backend.getPrepareLatency());
+    }
+
+    // prepare(): Decodes the specified data source and calls the OnPreparedListener, unless the
+    // backend has been reset since prepareAsync() was called.
+    private void prepare(int prepareGeneration, Context context, int resource, String url) {
+        HXHeadlessPcm decoded = null;
+        try {
+            decoded = HXHeadlessDecoder.decode(openSource(context, resource, url));
+        } catch (Exception e) {
+            HXLog.e(LOG_TAG, "ERROR: prepare(): Unable to read the data source: {}", e.getLocalizedMessage());
+        }
+
+        synchronized (this) {
+            if (prepareGeneration != generation || state != STATE_PREPARING) {
+                return;
+            }
+            if (decoded != null) {
+                pcm = decoded;
+                position = 0;
+                state = STATE_PREPARED;
+            } else {
+                state = STATE_ERROR;
+                HXLog.e(LOG_TAG, "ERROR: prepare(): The data source could not be decoded.");
+            }
+        }
+
+        // As with MediaPlayer, the OnCompletionListener is called if the error was not handled.
+        if (decoded == null) {
+            OnErrorListener error = errorListener;
+            if (error == null || !error.onError(this, ERROR_UNKNOWN, 0)) {
+                OnCompletionListener completion = completionListener;
+                if (completion != null) {
+                    completion.onCompletion(this);
+                }
+            }
+            return;
+        }
+
+        OnPreparedListener listener = preparedListener;
+        if (listener != null) {
+            listener.onPrepared(this);
+        }
+
+        // Streamed music is fully buffered once it has been decoded.
+        OnBufferingUpdateListener buffering = bufferingListener;
+        if (url != null && buffering != null) {
+            buffering.onBufferingUpdate(this, 100);
+        }
+    }
+
+    // openSource(): Opens the specified data source. URLs with a scheme are opened through
+    // java.net.URL, and all other URLs are opened as file paths.
+    private static InputStream openSource(Context context, int resource, String url) throws IOException {
+        if (url == null) {
+            return context.getResources().openRawResource(resource);
+        } else if (url.contains("://")) {
+            return new URL(url).openStream();
+        }
+        return new FileInputStream(url);
+    }
+
+    /** PLAYBACK METHODS _______________________________________________________________________ **/
+
+    // start(): Starts or resumes playback. Completed music is restarted from the beginning.
+    @Override
+    public synchronized void start() {
+        checkState("start", state == STATE_PREPARED || state == STATE_STARTED ||
+                state == STATE_PAUSED || state == STATE_COMPLETED);
+        if (state == STATE_COMPLETED) {
+            position = 0;
+        }
+        state = STATE_STARTED;
+    }
+
+    @Override
+    public synchronized void pause() {
+        checkState("pause", state == STATE_STARTED || state == STATE_PAUSED);
+        state = STATE_PAUSED;
+    }
+
+    @Override
+    public synchronized void stop() {
+        checkState("stop", state >= STATE_PREPARED && state <= STATE_COMPLETED);
+        state = STATE_STOPPED;
+    }
+
+    @Override
+    public synchronized void reset() {
+        generation++;
+        state = STATE_IDLE;
+        context = null;
+        resource = 0;
+        url = null;
+        pcm = null;
+        position = 0;
+        isLooping = false;
+        leftVolume = 1.0f;
+        rightVolume = 1.0f;
+        nextBackend = null;
+    }
+
+    @Override
+    public void release() {
+        synchronized (this) {
+            reset();
+            state = STATE_RELEASED;
+        }
+        backend.removeMusicBackend(this);
+    }
+
+    @Override
+    public synchronized boolean isPlaying() {
+        return state == STATE_STARTED;
+    }
+
+    @Override
+    public synchronized int getCurrentPosition() {
+        return pcm != null ? (int) (position * 1000 / pcm.sampleRate) : 0;
+    }
+
+    @Override
+    public synchronized int getDuration() {
+        return pcm != null ? pcm.getDuration() : 0;
+    }
+
+    @Override
+    public synchronized void seekTo(int position) {
+        if (pcm != null) {
+            this.position = Math.min(Math.max((double) position * pcm.sampleRate / 1000, 0), pcm.frames);
+        }
+    }
+
+    @Override
+    public synchronized void setLooping(boolean isLooping) {
+        this.isLooping = isLooping;
+    }
+
+    @Override
+    public synchronized void setVolume(float leftVolume, float rightVolume) {
+        this.leftVolume = leftVolume;
+        this.rightVolume = rightVolume;
+    }
+
+    @Override
+    public synchronized void setNextBackend(HXMusicBackend next) {
+        this.nextBackend = (HXHeadlessMusicBackend) next;
+    }
+
+    /** LISTENER METHODS _______________________________________________________________________ **/
+
+    @Override
+    public void setOnPreparedListener(OnPreparedListener listener) {
+        this.preparedListener = listener;
+    }
+
+    @Override
+    public void setOnCompletionListener(OnCompletionListener listener) {
+        this.completionListener = listener;
+    }
+
+    @Override
+    public void setOnBufferingUpdateListener(OnBufferingUpdateListener listener) {
+        this.bufferingListener = listener;
+    }
+
+    @Override
+    public void setOnInfoListener(OnInfoListener listener) {
+        this.infoListener = listener;
+    }
+
+    @Override
+    public void setOnErrorListener(OnErrorListener listener) {
+        this.errorListener = listener;
+    }
+
+    /** RENDER METHODS _________________________________________________________________________ **/
+
+    // render(): Mixes the playing music into the specified stereo mix buffer, resampled to the
+    // specified output rate. Called on the render thread. Once the end of a music that is not
+    // looped has been reached, the next backend is started and the OnCompletionListener is called
+    // on the event thread.
+    void render(float[] mix, int frames, int outputRate) {
+        HXHeadlessMusicBackend completedNext;
+        synchronized (this) {
+            if (state != STATE_STARTED || pcm == null) {
+                return;
+            }
+
+            short[] data = pcm.data;
+            int channels = pcm.channels;
+            double step = (double) pcm.sampleRate / outputRate;
+            boolean isCompleted = false;
+            for (int i = 0; i < frames; i++) {
+                int frame = (int) position;
+                if (frame >= pcm.frames) {
+                    if (isLooping) {
+                        position %= pcm.frames;
+                        frame = (int) position;
+                    } else {
+                        position = pcm.frames;
+                        state = STATE_COMPLETED;
+                        isCompleted = true;
+                        break;
+                    }
+                }
+
+                int index = frame * channels;
+                mix[i * 2] += data[index] * leftVolume;
+                mix[i * 2 + 1] += data[index + channels - 1] * rightVolume;
+                position += step;
+            }
+
+            if (!isCompleted) {
+                return;
+            }
+            completedNext = nextBackend;
+        }
+
+        // GAPLESS: The next backend starts playing in the same buffer, if it is rendered after this
+        // backend, or in the next buffer otherwise.
+        if (completedNext != null) {
+            completedNext.startNext();
+        }
+
+        backend.post(new Runnable() {
+            @Override
+            public void run() {
+                OnCompletionListener listener = completionListener;
+                if (listener != null) {
+                    listener.onCompletion(HXHeadlessMusicBackend.this);
+                }
+            }
+        }, 0);
+    }
+
+    // startNext(): Starts playback of this backend as the next backend of a completed backend, if
+    // it has been prepared.
+    private synchronized void startNext() {
+        if (state == STATE_PREPARED) {
+            state = STATE_STARTED;
+        }
+    }
+
+    /** HELPER METHODS _________________________________________________________________________ **/
+
+    // checkState(): Throws an IllegalStateException if the specified method was called in a state
+    // that MediaPlayer does not allow it in.
+    private void checkState(String method, boolean isValid) {
+        if (!isValid) {
+            throw new IllegalStateException(method + "() called in state " + state);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.huhx0015.hxaudio.backend;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXHeadlessPcm] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXHeadlessPcm holds the 16-bit PCM data of a sound effect or music decoded by
+ *  HXHeadlessDecoder, for playback by HXHeadlessBackend.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+final class HXHeadlessPcm {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // PCM VARIABLES:
+    final short[] data; // Interleaved 16-bit PCM data.
+    final int channels; // Number of channels (1 or 2).
+    final int frames; // Number of frames of PCM data.
+    final int sampleRate; // Sample rate of the PCM data, in Hz.
+
+    /** CONSTRUCTOR METHOD _____________________________________________________________________ **/
+
+    // HXHeadlessPcm(): Constructor method for this class.
+    HXHeadlessPcm(short[] data, int channels, int sampleRate) {
+        this.data = data;
+        this.channels = channels;
+        this.frames = data.length / channels;
+        this.sampleRate = sampleRate;
+    }
+
+    /** GET METHODS ____________________________________________________________________________ **/
+
+    // getDuration(): Returns the duration of the PCM data, in milliseconds.
+    int getDuration() {
+        return (int) ((long) frames * 1000 / sampleRate);
+    }
+}
@@ -0,0 +1,168 @@
+package com.huhx0015.hxaudio.backend;
+
+import android.content.Context;
+import com.huhx0015.hxaudio.mixer.HXMixer;
+import com.huhx0015.hxaudio.utils.HXLog;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXHeadlessSoundBackend] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXHeadlessSoundBackend is the HXSoundBackend of HXHeadlessBackend. Samples are
+ *  decoded by HXHeadlessDecoder when loaded and played through a HXMixer, which is mixed into the
+ *  rendered output of HXHeadlessBackend. Stream IDs are the voice handles of the HXMixer.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+class HXHeadlessSoundBackend implements HXSoundBackend {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // AUDIO VARIABLES:
+    private final HXHeadlessBackend backend; // Backend that renders the mixed output.
+    private final HXMixer mixer; // Software mixer that plays the samples of this backend.
+    private volatile OnLoadCompleteListener loadListener; // Called once each sample has finished loading.
+    private volatile boolean isPaused; // Used for determining if all streams have been paused.
+    private volatile boolean isReleased; // Used for determining if this backend has been released.
+
+    // CONSTANT VARIABLES:
+    private static final float PLAY_RATE = 1.0f; // Playback rate of played samples.
+
+    // LOGGING VARIABLES:
+    private static final String LOG_TAG = HXHeadlessSoundBackend.class.getSimpleName();
+
+    /** CONSTRUCTOR METHOD _____________________________________________________________________ **/
+
+    // HXHeadlessSoundBackend(): Constructor method for this class.
+    HXHeadlessSoundBackend(HXHeadlessBackend backend, int maxStreams) {
+        this.backend = backend;
+        this.mixer = new HXMixer(backend.getSampleRate(), backend.getFramesPerBuffer(), maxStreams);
+    }
+
+    /** LOAD METHODS ___________________________________________________________________________ **/
+
+    @Override
+    public void setOnLoadCompleteListener(OnLoadCompleteListener listener) {
+        this.loadListener = listener;
+    }
+
+    // load(): Loads the specified sound resource, which is read from the raw resources of the
+    // specified Context.
+    @Override
+    public int load(Context context, int resource) {
+        try {
+            return loadSample(context.getResources().openRawResource(resource));
+        } catch (Exception e) {
+            HXLog.e(LOG_TAG, "ERROR: load(): Unable to load sound resource ({}): {}", resource, e.getLocalizedMessage());
+            return 0;
+        }
+    }
+
+    @Override
+    public int load(File file) {
+        try {
+            return loadSample(new FileInputStream(file));
+        } catch (Exception e) {
+            HXLog.e(LOG_TAG, "ERROR: load(): Unable to load the sound effect file: {}", e.getLocalizedMessage());
+            return 0;
+        }
+    }
+
+    // loadSample(): Decodes the specified stream into a new sample of the HXMixer. The
+    // OnLoadCompleteListener is called on the event thread once the simulated load latency has
+    // passed.
+    private int loadSample(InputStream input) throws Exception {
+        if (isReleased) {
+            input.close();
+            return 0;
+        }
+
+        HXHeadlessPcm pcm = HXHeadlessDecoder.decode(input);
+        if (pcm == null) {
+            return 0;
+        }
+
+        final int sampleId = mixer.addSample(pcm.data, pcm.data.length, pcm.channels, pcm.sampleRate);
+        if (sampleId != 0) {
+            backend.post(new Runnable() {
+                @Override
+                public void run() {
+                    OnLoadCompleteListener listener = loadListener;
+                    if (listener != null && !isReleased) {
+                        listener.onLoadComplete(HXHeadlessSoundBackend.this, sampleId, 0);
+                    }
+                }
+            }, backend.getLoadLatency());
+        }
+        return sampleId;
+    }
+
+    @Override
+    public boolean unload(int sampleId) {
+        boolean isLoaded = mixer.getSampleFrames(sampleId) > 0;
+        mixer.removeSample(sampleId);
+        return isLoaded;
+    }
+
+    /** PLAYBACK METHODS _______________________________________________________________________ **/
+
+    @Override
+    public int play(int sampleId, float volume, int priority, boolean isLoop) {
+        return isReleased ? 0 : mixer.play(sampleId, volume, PLAY_RATE, isLoop, priority);
+    }
+
+    @Override
+    public void stop(int streamId) {
+        mixer.stop(streamId);
+    }
+
+    @Override
+    public void setVolume(int streamId, float volume) {
+        mixer.setVolume(streamId, volume);
+    }
+
+    @Override
+    public void setRate(int streamId, float rate) {
+        mixer.setRate(streamId, rate);
+    }
+
+    @Override
+    public void setLoop(int streamId, boolean isLoop) {
+        mixer.setLoop(streamId, isLoop);
+    }
+
+    @Override
+    public void autoPause() {
+        isPaused = true;
+    }
+
+    @Override
+    public void autoResume() {
+        isPaused = false;
+    }
+
+    @Override
+    public void release() {
+        isReleased = true;
+        mixer.stopAll();
+        backend.removeSoundBackend(this);
+    }
+
+    /** RENDER METHODS _________________________________________________________________________ **/
+
+    // render(): Mixes the streams of this backend into the specified stereo mix buffer, using the
+    // specified buffer for the output of the HXMixer. Called on the render thread. Paused streams
+    // do not advance.
+    void render(short[] buffer, float[] mix, int frames) {
+        if (isPaused) {
+            return;
+        }
+
+        int mixed = mixer.mix(buffer, frames) * 2;
+        for (int i = 0; i < mixed; i++) {
+            mix[i] += buffer[i];
+        }
+    }
+}
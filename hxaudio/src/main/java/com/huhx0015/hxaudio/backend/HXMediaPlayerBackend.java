@@ -0,0 +1,170 @@
+package com.huhx0015.hxaudio.backend;
+
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.media.AudioManager;
+import android.media.MediaPlayer;
+import android.net.Uri;
+import android.os.Build;
+import java.io.IOException;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXMediaPlayerBackend] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXMediaPlayerBackend is the HXMusicBackend of HXAndroidBackend, which plays music
+ *  through a MediaPlayer object. Listeners are called on the thread MediaPlayer delivers its
+ *  events on.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+class HXMediaPlayerBackend implements HXMusicBackend {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // AUDIO VARIABLES:
+    private final MediaPlayer player = new MediaPlayer(); // MediaPlayer object used for playing the music.
+
+    /** DATA SOURCE METHODS ____________________________________________________________________ **/
+
+    // setDataSource(): Sets the specified music resource as the data source, through the file
+    // descriptor of the raw resource.
+    @Override
+    public void setDataSource(Context context, int resource) throws IOException {
+        player.setAudioStreamType(AudioManager.STREAM_MUSIC); // Sets the audio type for the MediaPlayer object.
+        AssetFileDescriptor asset = context.getResources().openRawResourceFd(resource);
+        try {
+            player.setDataSource(asset.getFileDescriptor(), asset.getStartOffset(), asset.getLength());
+        } finally {
+            asset.close();
+        }
+    }
+
+    @Override
+    public void setDataSource(Context context, String url) throws IOException {
+        player.setAudioStreamType(AudioManager.STREAM_MUSIC); // Sets the audio type for the MediaPlayer object.
+        player.setDataSource(context, Uri.parse(url));
+    }
+
+    /** PLAYBACK METHODS _______________________________________________________________________ **/
+
+    @Override
+    public void prepareAsync() {
+        player.prepareAsync();
+    }
+
+    @Override
+    public void start() {
+        player.start();
+    }
+
+    @Override
+    public void pause() {
+        player.pause();
+    }
+
+    @Override
+    public void stop() {
+        player.stop();
+    }
+
+    @Override
+    public void reset() {
+        player.reset();
+    }
+
+    @Override
+    public void release() {
+        player.release();
+    }
+
+    @Override
+    public boolean isPlaying() {
+        return player.isPlaying();
+    }
+
+    @Override
+    public int getCurrentPosition() {
+        return player.getCurrentPosition();
+    }
+
+    @Override
+    public int getDuration() {
+        return player.getDuration();
+    }
+
+    @Override
+    public void seekTo(int position) {
+        player.seekTo(position);
+    }
+
+    @Override
+    public void setLooping(boolean isLooping) {
+        player.setLooping(isLooping);
+    }
+
+    @Override
+    public void setVolume(float leftVolume, float rightVolume) {
+        player.setVolume(leftVolume, rightVolume);
+    }
+
+    // setNextBackend(): Links the MediaPlayer object of the specified backend with
+    // setNextMediaPlayer(). Only available on devices running on Android API 16 and above.
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    @Override
+    public void setNextBackend(HXMusicBackend next) {
+        player.setNextMediaPlayer(next != null ? ((HXMediaPlayerBackend) next).player : null);
+    }
+
+    /** LISTENER METHODS _______________________________________________________________________ **/
+
+    @Override
+    public void setOnPreparedListener(final OnPreparedListener listener) {
+        player.setOnPreparedListener(listener == null ? null : new MediaPlayer.OnPreparedListener() {
+            @Override
+            public void onPrepared(MediaPlayer mp) {
+                listener.onPrepared(HXMediaPlayerBackend.this);
+            }
+        });
+    }
+
+    @Override
+    public void setOnCompletionListener(final OnCompletionListener listener) {
+        player.setOnCompletionListener(listener == null ? null : new MediaPlayer.OnCompletionListener() {
+            @Override
+            public void onCompletion(MediaPlayer mp) {
+                listener.onCompletion(HXMediaPlayerBackend.this);
+            }
+        });
+    }
+
+    @Override
+    public void setOnBufferingUpdateListener(final OnBufferingUpdateListener listener) {
+        player.setOnBufferingUpdateListener(listener == null ? null : new MediaPlayer.OnBufferingUpdateListener() {
+            @Override
+            public void onBufferingUpdate(MediaPlayer mp, int percent) {
+                listener.onBufferingUpdate(HXMediaPlayerBackend.this, percent);
+            }
+        });
+    }
+
+    @Override
+    public void setOnInfoListener(final OnInfoListener listener) {
+        player.setOnInfoListener(listener == null ? null : new MediaPlayer.OnInfoListener() {
+            @Override
+            public boolean onInfo(MediaPlayer mp, int what, int extra) {
+                return listener.onInfo(HXMediaPlayerBackend.this, what, extra);
+            }
+        });
+    }
+
+    @Override
+    public void setOnErrorListener(final OnErrorListener listener) {
+        player.setOnErrorListener(listener == null ? null : new MediaPlayer.OnErrorListener() {
+            @Override
+            public boolean onError(MediaPlayer mp, int what, int extra) {
+                return listener.onError(HXMediaPlayerBackend.this, what, extra);
+            }
+        });
+    }
+}
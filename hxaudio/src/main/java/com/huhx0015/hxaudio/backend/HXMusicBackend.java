@@ -0,0 +1,117 @@
+package com.huhx0015.hxaudio.backend;
+
+import android.content.Context;
+import java.io.IOException;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXMusicBackend] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXMusicBackend is an interface class used by HXMusicEngine for playing a single
+ *  music, modeled on MediaPlayer and following its state machine: a data source is set on an idle
+ *  backend, which is then prepared asynchronously, started, paused or stopped, and reset back to
+ *  the idle state for reuse. Listener methods may be called on any thread.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public interface HXMusicBackend {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // CONSTANT VARIABLES:
+    int INFO_BUFFERING_START = 701; // OnInfoListener code sent when playback stops to buffer more data.
+    int INFO_BUFFERING_END = 702; // OnInfoListener code sent when playback resumes after buffering.
+    int ERROR_UNKNOWN = 1; // OnErrorListener code sent for unspecified errors, such as a data source that cannot be decoded.
+
+    /** INTERFACE ______________________________________________________________________________ **/
+
+    // OnPreparedListener: Called once the backend has been prepared by prepareAsync().
+    interface OnPreparedListener {
+        void onPrepared(HXMusicBackend backend);
+    }
+
+    // OnCompletionListener: Called once playback has reached the end of a music that is not looped.
+    interface OnCompletionListener {
+        void onCompletion(HXMusicBackend backend);
+    }
+
+    // OnBufferingUpdateListener: Called with the buffered percentage of a streamed music.
+    interface OnBufferingUpdateListener {
+        void onBufferingUpdate(HXMusicBackend backend, int percent);
+    }
+
+    // OnInfoListener: Called with informational events, such as INFO_BUFFERING_START.
+    interface OnInfoListener {
+        boolean onInfo(HXMusicBackend backend, int what, int extra);
+    }
+
+    // OnErrorListener: Called once preparing or playback has failed. Returns true if the error has
+    // been handled; otherwise the OnCompletionListener is called, as with MediaPlayer.
+    interface OnErrorListener {
+        boolean onError(HXMusicBackend backend, int what, int extra);
+    }
+
+    /** INTERFACE METHODS ______________________________________________________________________ **/
+
+    // setDataSource(): Sets the specified music resource as the data source.
+    void setDataSource(Context context, int resource) throws IOException;
+
+    // setDataSource(): Sets the specified URL or file path as the data source.
+    void setDataSource(Context context, String url) throws IOException;
+
+    // prepareAsync(): Prepares the data source for playback asynchronously. The OnPreparedListener
+    // is called once playback can be started.
+    void prepareAsync();
+
+    // start(): Starts or resumes playback.
+    void start();
+
+    // pause(): Pauses playback.
+    void pause();
+
+    // stop(): Stops playback. The backend must be prepared again before it can be started.
+    void stop();
+
+    // reset(): Returns the backend to the idle state, so that a new data source can be set.
+    void reset();
+
+    // release(): Releases all resources of the backend. The backend cannot be used afterwards.
+    void release();
+
+    // isPlaying(): Determines if the music is currently playing.
+    boolean isPlaying();
+
+    // getCurrentPosition(): Returns the playback position, in milliseconds.
+    int getCurrentPosition();
+
+    // getDuration(): Returns the duration of the music, in milliseconds.
+    int getDuration();
+
+    // seekTo(): Moves playback to the specified position, in milliseconds.
+    void seekTo(int position);
+
+    // setLooping(): Sets the looping attribute of the music.
+    void setLooping(boolean isLooping);
+
+    // setVolume(): Sets the left and right volumes (0.0 to 1.0) of the music.
+    void setVolume(float leftVolume, float rightVolume);
+
+    // setNextBackend(): Sets the backend that starts playing as soon as this backend completes,
+    // for gapless playback, or null to remove it. The next backend must be created by the same
+    // HXAudioBackend and already be prepared.
+    void setNextBackend(HXMusicBackend next);
+
+    // setOnPreparedListener(): Sets the listener called once the backend has been prepared.
+    void setOnPreparedListener(OnPreparedListener listener);
+
+    // setOnCompletionListener(): Sets the listener called once playback has completed.
+    void setOnCompletionListener(OnCompletionListener listener);
+
+    // setOnBufferingUpdateListener(): Sets the listener called with the buffered percentage.
+    void setOnBufferingUpdateListener(OnBufferingUpdateListener listener);
+
+    // setOnInfoListener(): Sets the listener called with informational events.
+    void setOnInfoListener(OnInfoListener listener);
+
+    // setOnErrorListener(): Sets the listener called once preparing or playback has failed.
+    void setOnErrorListener(OnErrorListener listener);
+}
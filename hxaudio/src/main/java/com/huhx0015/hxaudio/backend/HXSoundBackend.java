@@ -0,0 +1,65 @@
+package com.huhx0015.hxaudio.backend;
+
+import android.content.Context;
+import java.io.File;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXSoundBackend] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXSoundBackend is an interface class used by HXSoundEngine for loading and playing
+ *  sound effects, modeled on SoundPool. Samples are loaded asynchronously: load() returns the
+ *  sample ID immediately, and the OnLoadCompleteListener is called once the sample can be played.
+ *  Each played sample is assigned a stream ID, which is used for controlling its playback.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public interface HXSoundBackend {
+
+    /** INTERFACE ______________________________________________________________________________ **/
+
+    // OnLoadCompleteListener: Called once a sample has finished loading. A status of 0 means the
+    // sample was loaded successfully. Must never be called before load() has returned.
+    interface OnLoadCompleteListener {
+        void onLoadComplete(HXSoundBackend backend, int sampleId, int status);
+    }
+
+    /** INTERFACE METHODS ______________________________________________________________________ **/
+
+    // setOnLoadCompleteListener(): Sets the listener called for all samples of this backend.
+    void setOnLoadCompleteListener(OnLoadCompleteListener listener);
+
+    // load(): Starts loading the specified sound resource. Returns the sample ID, or 0 if the sound
+    // resource could not be loaded.
+    int load(Context context, int resource);
+
+    // load(): Starts loading the specified WAV file, such as a decoded sound resource cached by
+    // HXSound. Returns the sample ID, or 0 if the file could not be loaded.
+    int load(File file);
+
+    // unload(): Unloads the specified sample. Returns false if the sample was not loaded.
+    boolean unload(int sampleId);
+
+    // play(): Plays the specified sample. Returns the stream ID, or 0 if the sample was not played.
+    int play(int sampleId, float volume, int priority, boolean isLoop);
+
+    // stop(): Stops the specified stream.
+    void stop(int streamId);
+
+    // setVolume(): Sets the volume (0.0 to 1.0) of the specified stream.
+    void setVolume(int streamId, float volume);
+
+    // setRate(): Sets the playback rate of the specified stream, where 1.0 is the normal rate.
+    void setRate(int streamId, float rate);
+
+    // setLoop(): Sets the looping attribute of the specified stream.
+    void setLoop(int streamId, boolean isLoop);
+
+    // autoPause(): Pauses all streams.
+    void autoPause();
+
+    // autoResume(): Resumes all streams paused by autoPause().
+    void autoResume();
+
+    // release(): Stops all streams and releases all samples. The backend cannot be used afterwards.
+    void release();
+}
@@ -0,0 +1,169 @@
+package com.huhx0015.hxaudio.backend;
+
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.media.AudioAttributes;
+import android.media.AudioManager;
+import android.media.SoundPool;
+import android.os.Build;
+import com.huhx0015.hxaudio.utils.HXLog;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXSoundPoolBackend] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXSoundPoolBackend is the HXSoundBackend of HXAndroidBackend, which loads and plays
+ *  sound effects through a SoundPool object. Depending on the Android version of the device, the
+ *  SoundPool object is created using the appropriate methods.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+class HXSoundPoolBackend implements HXSoundBackend {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // AUDIO VARIABLES:
+    private final SoundPool soundPool; // SoundPool variable for sound effects.
+    private volatile OnLoadCompleteListener loadListener; // Called once each sample has finished loading.
+
+    // CONSTANT VARIABLES:
+    private static final int LOAD_PRIORITY = 1; // Priority of loaded samples. Currently unused by SoundPool, 1 is recommended.
+    private static final float PLAY_RATE = 1.0f; // Playback rate of played samples.
+
+    // LOGGING VARIABLES:
+    private static final String LOG_TAG = HXSoundPoolBackend.class.getSimpleName();
+
+    /** CONSTRUCTOR METHOD _____________________________________________________________________ **/
+
+    // HXSoundPoolBackend(): Constructor method for this class.
+    HXSoundPoolBackend(int maxStreams) {
+
+        // API 21+: Android 5.0 and above.
+        if (Build.VERSION.SDK_INT > 20) {
+            HXLog.d(LOG_TAG, "INITIALIZING: HXSoundPoolBackend(): Using Lollipop (API 21+) SoundPool initialization.");
+            soundPool = buildSoundPool(maxStreams);
+        }
+
+        // API 9 - 20: Android 2.3 - 4.4
+        else {
+            HXLog.d(LOG_TAG, "INITIALIZING: HXSoundPoolBackend(): Using GB/HC/ICS/JB/KK (API 9 - 20) SoundPool initialization.");
+            soundPool = new SoundPool(maxStreams, AudioManager.STREAM_MUSIC, 0);
+        }
+
+        // Sets the shared OnLoadCompleteListener, which is used for all samples in this SoundPool.
+        soundPool.setOnLoadCompleteListener(new SoundPool.OnLoadCompleteListener() {
+            @Override
+            public void onLoadComplete(SoundPool soundPool, int sampleId, int status) {
+                OnLoadCompleteListener listener = loadListener;
+                if (listener != null) {
+                    listener.onLoadComplete(HXSoundPoolBackend.this, sampleId, status);
+                }
+            }
+        });
+    }
+
+    // buildSoundPool(): Builds the SoundPool object. This implementation is only used on devices
+    // running Android 5.0 and later.
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    private static SoundPool buildSoundPool(int maxStreams) {
+
+        // Initializes the AudioAttributes.Builder object.
+        AudioAttributes attributes = new AudioAttributes.Builder()
+                .setUsage(AudioAttributes.USAGE_GAME) // Sets the audio type to USAGE_GAME.
+                .setContentType(AudioAttributes.CONTENT_TYPE_MUSIC)
+                .setFlags(AudioAttributes.FLAG_LOW_LATENCY)
+                .build();
+
+        // Initializes the SoundPool.Builder object.
+        SoundPool soundBuilder = new SoundPool.Builder()
+                .setAudioAttributes(attributes)
+                .setMaxStreams(maxStreams) // Sets the maximum number of audio streams.
+                .build();
+
+        HXLog.d(LOG_TAG, "INITIALIZING: buildSoundPool(): SoundPool construction complete.");
+
+        return soundBuilder; // Returns the newly created SoundPool object.
+    }
+
+    /** LOAD METHODS ___________________________________________________________________________ **/
+
+    @Override
+    public void setOnLoadCompleteListener(OnLoadCompleteListener listener) {
+        this.loadListener = listener;
+    }
+
+    @Override
+    public int load(Context context, int resource) {
+        return soundPool.load(context, resource, LOAD_PRIORITY);
+    }
+
+    // load(): Loads the specified WAV file into the SoundPool object through its file descriptor.
+    @Override
+    public int load(File file) {
+        FileInputStream input = null;
+        try {
+            input = new FileInputStream(file);
+            return soundPool.load(input.getFD(), 0, file.length(), LOAD_PRIORITY);
+        } catch (IOException e) {
+            HXLog.e(LOG_TAG, "ERROR: load(): Unable to load the sound effect file: {}", e.getLocalizedMessage());
+            return 0;
+        } finally {
+            if (input != null) {
+                try {
+                    input.close();
+                } catch (IOException e) {
+                    HXLog.e(LOG_TAG, "ERROR: load(): Unable to close the sound effect file: {}", e.getLocalizedMessage());
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean unload(int sampleId) {
+        return soundPool.unload(sampleId);
+    }
+
+    /** PLAYBACK METHODS _______________________________________________________________________ **/
+
+    @Override
+    public int play(int sampleId, float volume, int priority, boolean isLoop) {
+        return soundPool.play(sampleId, volume, volume, priority, isLoop ? -1 : 0, PLAY_RATE);
+    }
+
+    @Override
+    public void stop(int streamId) {
+        soundPool.stop(streamId);
+    }
+
+    @Override
+    public void setVolume(int streamId, float volume) {
+        soundPool.setVolume(streamId, volume, volume);
+    }
+
+    @Override
+    public void setRate(int streamId, float rate) {
+        soundPool.setRate(streamId, rate);
+    }
+
+    @Override
+    public void setLoop(int streamId, boolean isLoop) {
+        soundPool.setLoop(streamId, isLoop ? -1 : 0);
+    }
+
+    @Override
+    public void autoPause() {
+        soundPool.autoPause();
+    }
+
+    @Override
+    public void autoResume() {
+        soundPool.autoResume();
+    }
+
+    @Override
+    public void release() {
+        soundPool.release();
+    }
+}
@@ -22,6 +22,9 @@ public class HXMusicBuilder {
     private boolean isGapless;
     private boolean isLooped;
     private int musicPosition;
+    private int fadeDuration;
+    private int fadeCurve = HXMusic.CROSSFADE_EQUAL_POWER;
+    private String channelName;
 
     // MUSIC ITEM VARIABLE:
     private HXMusicItem musicItem;
@@ -85,27 +88,84 @@ public class HXMusicBuilder {
         return this;
     }
 
+    // crossfade(): Crossfades from the music currently playing into this music over the specified
+    // duration (in milliseconds). The current music keeps playing while this music is prepared.
+    public HXMusicBuilder crossfade(int duration) {
+        this.fadeDuration = Math.max(duration, 0);
+        return this;
+    }
+
+    // crossfade(): Crossfades from the music currently playing into this music over the specified
+    // duration (in milliseconds), using the specified HXMusic CROSSFADE curve.
+    public HXMusicBuilder crossfade(int duration, int curve) {
+        this.fadeDuration = Math.max(duration, 0);
+        this.fadeCurve = curve;
+        return this;
+    }
+
+    // channel(): Plays this music on the specified named music channel, independently of the main
+    // music. The gapless and crossfade attributes are not used for channels.
+    public HXMusicBuilder channel(String name) {
+        this.channelName = name;
+        return this;
+    }
+
     // looped(): Specifies whether this music should be looped or not.
     public HXMusicBuilder looped(boolean looped) {
         this.isLooped = looped;
         return this;
     }
 
-    // play(): Calls the HXMusic initMusic() method to attempt to play the built music.
-    public void play(final Context context) {
+    // enqueue(): Adds the built music to the end of the HXMusic queue, to be played with
+    // HXMusic.next() and HXMusic.previous(). The position, gapless and looped attributes are not
+    // used for queued music.
+    public void enqueue() {
+        if ((musicItem.getMusicResource() != 0) && (musicItem.getMusicUrl() != null)) {
+            HXLog.e(LOG_TAG, "ERROR: enqueue(): Cannot set both a music resource and url.");
+        } else {
+            HXMusic.enqueue(musicItem);
+        }
+    }
+
+    // download(): Downloads the built music URL into the HXMusic music cache in the background, so
+    // that it is later played without using the network. If md5 is not null, the downloaded music
+    // is verified against it. The music cache must be enabled with HXMusic.cache() first.
+    public void download(String md5) {
+        if (musicItem.getMusicUrl() == null) {
+            HXLog.e(LOG_TAG, "ERROR: download(): Only music with a url can be downloaded.");
+        } else {
+            HXMusic.download(musicItem.getMusicUrl(), md5);
+        }
+    }
+
+    // play(): Queues the built music on the HXMusic command thread. If play() is called again before
+    // this music has been prepared, only the most recent music is played.
+    public void play(Context context) {
         if (context == null || context.getApplicationContext() == null) {
             HXLog.e(LOG_TAG, "ERROR: play(): Context cannot be null.");
         } else if ( (musicItem.getMusicResource() != 0) && (musicItem.getMusicUrl() != null)) {
             HXLog.e(LOG_TAG, "ERROR: play(): Cannot set both a music resource and url.");
+        } else if (channelName != null) {
+            HXMusic.instance().playChannel(channelName, musicItem, musicPosition, isLooped, false,
+                    context.getApplicationContext());
+        } else {
+            HXMusic.instance().queueMusic(musicItem, musicPosition, isGapless, isLooped,
+                    fadeDuration, fadeCurve, context.getApplicationContext());
+        }
+    }
+
+    // prepare(): Prepares the built music on its channel without starting it. Prepared channels
+    // are started together with HXMusic.startChannels().
+    public void prepare(Context context) {
+        if (context == null || context.getApplicationContext() == null) {
+            HXLog.e(LOG_TAG, "ERROR: prepare(): Context cannot be null.");
+        } else if (channelName == null) {
+            HXLog.e(LOG_TAG, "ERROR: prepare(): Only music played on a channel can be prepared.");
+        } else if ((musicItem.getMusicResource() != 0) && (musicItem.getMusicUrl() != null)) {
+            HXLog.e(LOG_TAG, "ERROR: prepare(): Cannot set both a music resource and url.");
         } else {
-            Thread playThread = new Thread(new Runnable() {
-                @Override
-                public void run() {
-                    HXMusic.instance().initMusic(musicItem, musicPosition, isGapless, isLooped,
-                            context.getApplicationContext());
-                }
-            });
-            playThread.start();
+            HXMusic.instance().playChannel(channelName, musicItem, musicPosition, isLooped, true,
+                    context.getApplicationContext());
         }
     }
 }
\ No newline at end of file
@@ -18,6 +18,7 @@ public class HXSoundBuilder {
     // ATTRIBUTE VARIABLES:
     private int soundResource;
     private boolean isLooped;
+    private int priority = 1; // Matches the default SoundPool priority used by HXSoundEngine.
 
     // LOGGING VARIABLES:
     private static final String LOG_TAG = HXSoundBuilder.class.getSimpleName();
@@ -36,19 +37,24 @@ public class HXSoundBuilder {
         return this;
     }
 
-    // play(): Calls the HXSound initSound() method to attempt to play the specified sound effect.
-    public void play(final Context context) {
+    // priority(): Sets the priority of this sound effect. When all voices are in use, a sound effect
+    // may replace a playing sound effect of equal or lower priority.
+    public HXSoundBuilder priority(int priority) {
+        this.priority = priority < 0 ? 0 : priority;
+        return this;
+    }
+
+    // play(): Queues the specified sound effect on the HXSound audio command thread, which calls
+    // the HXSound initSound() method to attempt to play the specified sound effect. Returns a handle
+    // that can be used with HXSound.stop(), setVolume(), setRate() and setLoop() for controlling
+    // this sound effect, or 0 if the sound effect could not be queued.
+    public long play(Context context) {
         if (context == null || context.getApplicationContext() == null) {
             HXLog.e(LOG_TAG, "ERROR: play(): Context cannot be null.");
+            return 0;
         } else {
-            Thread playThread = new Thread(new Runnable() {
-                @Override
-                public void run() {
-                    HXSound.instance().initSound(soundResource, isLooped,
-                            context.getApplicationContext());
-                }
-            });
-            playThread.start();
+            return HXSound.instance().queueSound(soundResource, isLooped, priority,
+                    context.getApplicationContext());
         }
     }
 }
\ No newline at end of file
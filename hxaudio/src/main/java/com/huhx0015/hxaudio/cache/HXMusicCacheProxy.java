@@ -0,0 +1,659 @@
+package com.huhx0015.hxaudio.cache;
+
+import com.huhx0015.hxaudio.utils.HXLog;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.security.SecureRandom;
+import java.util.HashMap;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXMusicCacheProxy] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXMusicCacheProxy is a loopback HTTP proxy that sits between MediaPlayer and the
+ *  origin server of streamed music. Music that has been cached in HXMusicDiskCache is served
+ *  directly from disk, including byte range requests. Music that has not been cached is downloaded
+ *  once from the origin server into the cache, and every connection for that music, including
+ *  byte range requests, is served from the download as it progresses; if MediaPlayer disconnects
+ *  early, the download continues so that the music is cached for the next playback. Music that
+ *  is being downloaded by HXMusicDownloader is passed through to the origin server. Only http and
+ *  https URLs are proxied, and only for requests that carry the random token of the current
+ *  session, so that other local processes cannot use the proxy.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class HXMusicCacheProxy implements Runnable {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // PROXY VARIABLES:
+    private final HXMusicDiskCache diskCache; // Cache that music is served from and written to.
+    private ServerSocket serverSocket; // Loopback socket that MediaPlayer connects to.
+    private volatile boolean isRunning; // Used for determining if the proxy is running.
+    private volatile String sessionToken; // Random token that each proxied request path must start with.
+    private final HashMap<String, WriteThrough> writeThroughs = new HashMap<>(); // Downloads in progress, by music URL.
+
+    // CONSTANT VARIABLES:
+    private static final String LOOPBACK_HOST = "127.0.0.1"; // Address the proxy is bound to.
+    private static final String URL_PARAMETER = "/?url="; // Request path prefix that holds the origin URL.
+    private static final int BUFFER_SIZE = 16 * 1024; // Size of the copy buffer, in bytes.
+    private static final int CONNECT_TIMEOUT = 15000; // Origin connection timeout, in milliseconds.
+    private static final int READ_TIMEOUT = 30000; // Origin and client read timeout, in milliseconds.
+    private static final int MAX_HEADER_LENGTH = 8192; // Maximum size of a request header, in bytes.
+    private static final int TOKEN_LENGTH = 16; // Size of the session token, in bytes.
+
+    // LOGGING VARIABLES:
+    private static final String LOG_TAG = HXMusicCacheProxy.class.getSimpleName();
+
+    /** CONSTRUCTOR METHOD _____________________________________________________________________ **/
+
+    // HXMusicCacheProxy(): Constructor method for this class.
+    public HXMusicCacheProxy(HXMusicDiskCache diskCache) {
+        this.diskCache = diskCache;
+    }
+
+    /** PROXY METHODS __________________________________________________________________________ **/
+
+    // start(): Binds the proxy to a free loopback port and starts accepting connections. Returns
+    // false if the proxy could not be started.
+    public synchronized boolean start() {
+        if (isRunning) {
+            return true;
+        }
+
+        try {
+            serverSocket = new ServerSocket(0, 8, InetAddress.getByName(LOOPBACK_HOST));
+        } catch (IOException e) {
+            HXLog.e(LOG_TAG, "ERROR: start(): Unable to bind the proxy socket: {}", e.getLocalizedMessage());
+            return false;
+        }
+
+        byte[] token = new byte[TOKEN_LENGTH];
+        new SecureRandom().nextBytes(token);
+        sessionToken = HXMusicDiskCache.toHex(token);
+
+        isRunning = true;
+        Thread acceptThread = new Thread(this, LOG_TAG);
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+
+        HXLog.d(LOG_TAG, "START: start(): Proxy is listening on port {}.", serverSocket.getLocalPort());
+        return true;
+    }
+
+    // stop(): Stops accepting connections. Connections in progress are completed.
+    public synchronized void stop() {
+        if (isRunning) {
+            isRunning = false;
+            closeSocket(serverSocket);
+            serverSocket = null;
+            HXLog.d(LOG_TAG, "STOP: stop(): Proxy has been stopped.");
+        }
+    }
+
+    // getProxyUrl(): Returns the loopback URL that serves the specified origin URL through this
+    // proxy, or the origin URL itself if the proxy is not running.
+    public String getProxyUrl(String url) {
+        ServerSocket socket = serverSocket;
+        if (!isRunning || socket == null) {
+            return url;
+        }
+
+        try {
+            return "http://" + LOOPBACK_HOST + ":" + socket.getLocalPort() + "/" + sessionToken +
+                    URL_PARAMETER + URLEncoder.encode(url, "UTF-8");
+        } catch (IOException e) {
+            return url;
+        }
+    }
+
+    // run(): The accept loop. Each connection is handled on its own daemon thread, as MediaPlayer
+    // only opens a few connections per music.
+    @Override
+    public void run() {
+        ServerSocket socket = serverSocket;
+        while (isRunning && socket != null) {
+            try {
+                final Socket client = socket.accept();
+                Thread connectionThread = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        handleConnection(client);
+                    }
+                }, LOG_TAG + "-Connection");
+                connectionThread.setDaemon(true);
+                connectionThread.start();
+            } catch (IOException e) {
+                if (isRunning) {
+                    HXLog.e(LOG_TAG, "ERROR: run(): Unable to accept a connection: {}", e.getLocalizedMessage());
+                }
+            }
+        }
+    }
+
+    /** CONNECTION METHODS _____________________________________________________________________ **/
+
+    // handleConnection(): Reads the request of the specified client and serves it from the cache,
+    // the origin server with write-through caching, or the origin server directly. Requests without
+    // the session token are rejected, as are origin URLs that are not http or https URLs.
+    private void handleConnection(Socket client) {
+        try {
+            client.setSoTimeout(READ_TIMEOUT);
+            InputStream input = new BufferedInputStream(client.getInputStream());
+            OutputStream output = client.getOutputStream();
+
+            String[] request = readRequest(input);
+            if (request == null) {
+                writeStatus(output, "400 Bad Request");
+                return;
+            }
+
+            String prefix = "/" + sessionToken + URL_PARAMETER;
+            if (!request[0].startsWith(prefix)) {
+                writeStatus(output, "403 Forbidden");
+                return;
+            }
+
+            String url = URLDecoder.decode(request[0].substring(prefix.length()), "UTF-8");
+            if (!isHttpUrl(url)) {
+                writeStatus(output, "400 Bad Request");
+                return;
+            }
+
+            String range = request[1];
+            long rangeStart = parseRangeStart(range);
+            long rangeEnd = parseRangeEnd(range);
+            if (rangeStart < 0 || (rangeEnd >= 0 && rangeEnd < rangeStart)) {
+                rangeStart = -1; // Invalid ranges are ignored and the whole music is served.
+                rangeEnd = -1;
+            }
+
+            File cachedFile = diskCache.get(url);
+            if (cachedFile != null) {
+                serveCachedFile(output, cachedFile, diskCache.getContentType(url), rangeStart, rangeEnd);
+                return;
+            }
+
+            WriteThrough writeThrough = startWriteThrough(url);
+            if (writeThrough != null) {
+                serveWriteThrough(output, writeThrough, range, rangeStart, rangeEnd);
+            } else {
+                servePassThrough(output, url, range); // The music is being downloaded by HXMusicDownloader.
+            }
+        } catch (IOException e) {
+            HXLog.d(LOG_TAG, "PROXY: handleConnection(): Connection closed: {}", e.getLocalizedMessage());
+        } finally {
+            closeSocket(client);
+        }
+    }
+
+    // serveCachedFile(): Serves the specified byte range of the specified cached file, or the whole
+    // file if no range was requested.
+    private void serveCachedFile(OutputStream output, File file, String contentType, long rangeStart,
+                                 long rangeEnd) throws IOException {
+        RandomAccessFile input = new RandomAccessFile(file, "r");
+        try {
+            long length = input.length();
+            if (rangeStart >= length) {
+                writeStatus(output, "416 Range Not Satisfiable");
+                return;
+            }
+
+            long end = getRangeEnd(length, rangeStart, rangeEnd);
+            writeHeader(output, contentType, length, rangeStart, end);
+
+            long position = Math.max(rangeStart, 0);
+            input.seek(position);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (position < end) {
+                int count = input.read(buffer, 0, (int) Math.min(buffer.length, end - position));
+                if (count <= 0) {
+                    break;
+                }
+                output.write(buffer, 0, count);
+                position += count;
+            }
+            output.flush();
+            HXLog.d(LOG_TAG, "PROXY: serveCachedFile(): Music has been served from the cache.");
+        } finally {
+            input.close();
+        }
+    }
+
+    // serveWriteThrough(): Serves the specified byte range of the music, or the whole music if no
+    // range was requested, from its write-through download. Bytes that have not been downloaded yet
+    // are waited for, so that a range request near the end of the music, such as the one MediaPlayer
+    // makes for the metadata of some formats, does not open a second connection to the origin
+    // server. If the download has already ended, the music is served from the cache instead.
+    private void serveWriteThrough(OutputStream output, WriteThrough writeThrough, String range,
+                                   long rangeStart, long rangeEnd) throws IOException {
+        RandomAccessFile input = null;
+        String error;
+        synchronized (writeThrough) {
+            while (!writeThrough.isStarted && !writeThrough.isFinished) {
+                writeThrough.await();
+            }
+            error = writeThrough.error;
+            if (error == null && !writeThrough.isFinished) {
+                input = new RandomAccessFile(writeThrough.tempFile, "r"); // Opened before commit() moves the file.
+            }
+        }
+
+        if (error != null) {
+            writeStatus(output, error);
+            return;
+        } else if (input == null || (rangeStart >= 0 && writeThrough.contentLength < 0)) {
+            HXMusicDiskCache.closeStream(input);
+            File cachedFile = diskCache.get(writeThrough.url);
+            if (cachedFile != null) {
+                serveCachedFile(output, cachedFile, diskCache.getContentType(writeThrough.url), rangeStart, rangeEnd);
+            } else {
+                servePassThrough(output, writeThrough.url, range);
+            }
+            return;
+        }
+
+        try {
+            long length = writeThrough.contentLength;
+            if (length >= 0 && rangeStart >= length) {
+                writeStatus(output, "416 Range Not Satisfiable");
+                return;
+            }
+
+            long end = length >= 0 ? getRangeEnd(length, rangeStart, rangeEnd) : Long.MAX_VALUE;
+            writeHeader(output, writeThrough.contentType, length, rangeStart, end);
+
+            long position = Math.max(rangeStart, 0);
+            input.seek(position);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (position < end) {
+                long available = Math.min(writeThrough.awaitBytes(position), end);
+                if (available <= position) {
+                    break; // The download has ended before the requested bytes.
+                }
+
+                int count = input.read(buffer, 0, (int) Math.min(buffer.length, available - position));
+                if (count <= 0) {
+                    break;
+                }
+                output.write(buffer, 0, count);
+                position += count;
+            }
+            output.flush();
+        } finally {
+            input.close();
+        }
+    }
+
+    // servePassThrough(): Streams the response of the origin server to the client without caching
+    // it, forwarding the specified Range header if set.
+    private void servePassThrough(OutputStream output, String url, String range) throws IOException {
+        HttpURLConnection connection = openConnection(url, range);
+        try {
+            int status = connection.getResponseCode();
+            if (status != HttpURLConnection.HTTP_OK && status != HttpURLConnection.HTTP_PARTIAL) {
+                writeStatus(output, status + " " + connection.getResponseMessage());
+                return;
+            }
+
+            StringBuilder header = new StringBuilder();
+            header.append("HTTP/1.1 ").append(status).append(' ').append(connection.getResponseMessage()).append("\r\n");
+            String contentRange = connection.getHeaderField("Content-Range");
+            if (contentRange != null) {
+                header.append("Content-Range: ").append(contentRange).append("\r\n");
+            }
+            appendHeaders(header, connection.getContentType(), getContentLength(connection),
+                    status == HttpURLConnection.HTTP_PARTIAL);
+            output.write(header.toString().getBytes("UTF-8"));
+
+            InputStream input = connection.getInputStream();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int count;
+            while ((count = input.read(buffer)) > 0) {
+                output.write(buffer, 0, count);
+            }
+            output.flush();
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /** DOWNLOAD METHODS _______________________________________________________________________ **/
+
+    // startWriteThrough(): Returns the write-through download of the specified music URL, starting
+    // it on its own daemon thread if it is not in progress. Returns null if the music is being
+    // written to the cache by HXMusicDownloader.
+    private WriteThrough startWriteThrough(String url) {
+        synchronized (writeThroughs) {
+            WriteThrough writeThrough = writeThroughs.get(url);
+            if (writeThrough != null) {
+                return writeThrough;
+            }
+
+            File tempFile = diskCache.beginWrite(url);
+            if (tempFile == null) {
+                return null;
+            }
+
+            final WriteThrough download = new WriteThrough(url, tempFile);
+            writeThroughs.put(url, download);
+            Thread downloadThread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    download(download);
+                }
+            }, LOG_TAG + "-Download");
+            downloadThread.setDaemon(true);
+            downloadThread.start();
+            return download;
+        }
+    }
+
+    // download(): Downloads the music of the specified write-through download from the origin
+    // server into its temporary file, independently of the connections it is served to. The music
+    // is only added to the cache if it was downloaded completely.
+    private void download(WriteThrough writeThrough) {
+        HttpURLConnection connection = null;
+        FileOutputStream fileOutput = null;
+        boolean isComplete = false;
+        try {
+            connection = openConnection(writeThrough.url, null);
+            int status = connection.getResponseCode();
+            if (status != HttpURLConnection.HTTP_OK) {
+                writeThrough.fail(status + " " + connection.getResponseMessage());
+                return;
+            }
+
+            fileOutput = new FileOutputStream(writeThrough.tempFile);
+            writeThrough.start(connection.getContentType(), getContentLength(connection));
+
+            InputStream input = connection.getInputStream();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int count;
+            while ((count = input.read(buffer)) > 0) {
+                fileOutput.write(buffer, 0, count);
+                writeThrough.advance(count);
+            }
+
+            isComplete = writeThrough.contentLength < 0 || writeThrough.writtenBytes == writeThrough.contentLength;
+        } catch (IOException e) {
+            HXLog.d(LOG_TAG, "PROXY: download(): Download failed: {}", e.getLocalizedMessage());
+            writeThrough.fail("502 Bad Gateway");
+        } finally {
+            HXMusicDiskCache.closeStream(fileOutput);
+            if (connection != null) {
+                connection.disconnect();
+            }
+
+            // The temporary file is moved under the WriteThrough lock, so that connections never open it afterwards.
+            synchronized (writeThrough) {
+                if (isComplete) {
+                    diskCache.commit(writeThrough.url, writeThrough.tempFile, writeThrough.contentType);
+                } else {
+                    diskCache.abort(writeThrough.url, writeThrough.tempFile);
+                }
+                writeThrough.finish();
+            }
+            synchronized (writeThroughs) {
+                writeThroughs.remove(writeThrough.url);
+            }
+        }
+    }
+
+    /** HELPER METHODS _________________________________________________________________________ **/
+
+    // readRequest(): Reads the request header of the client. Returns the request path and the value
+    // of the Range header (or null), or returns null if the request is not a valid GET request.
+    private static String[] readRequest(InputStream input) throws IOException {
+        StringBuilder line = new StringBuilder();
+        String path = null;
+        String range = null;
+        int length = 0;
+        int value;
+
+        while ((value = input.read()) != -1 && length++ < MAX_HEADER_LENGTH) {
+            if (value == '\r') {
+                continue;
+            } else if (value != '\n') {
+                line.append((char) value);
+                continue;
+            }
+
+            // End of the request header.
+            if (line.length() == 0) {
+                return path != null ? new String[] { path, range } : null;
+            }
+
+            String text = line.toString();
+            line.setLength(0);
+            if (path == null) {
+                String[] parts = text.split(" ");
+                if (parts.length < 2 || !"GET".equals(parts[0])) {
+                    return null;
+                }
+                path = parts[1];
+            } else if (text.regionMatches(true, 0, "Range:", 0, 6)) {
+                range = text.substring(6).trim();
+            }
+        }
+        return null;
+    }
+
+    // parseRangeStart(): Returns the start offset of the specified "bytes=start-end" Range header,
+    // or -1 if no range was requested. Suffix ranges are not honored, as MediaPlayer does not
+    // request them.
+    private static long parseRangeStart(String range) {
+        if (range == null || !range.startsWith("bytes=")) {
+            return -1;
+        }
+
+        int dash = range.indexOf('-');
+        if (dash <= 6) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(range.substring(6, dash).trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // parseRangeEnd(): Returns the inclusive end offset of the specified "bytes=start-end" Range
+    // header, or -1 if the range is open-ended.
+    private static long parseRangeEnd(String range) {
+        if (range == null) {
+            return -1;
+        }
+
+        String end = range.substring(range.indexOf('-') + 1).trim();
+        if (end.length() == 0) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(end);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // getRangeEnd(): Returns the exclusive end offset of the requested range of music of the
+    // specified length, which is clamped to the length of the music.
+    private static long getRangeEnd(long length, long rangeStart, long rangeEnd) {
+        return rangeStart >= 0 && rangeEnd >= 0 && rangeEnd < length ? rangeEnd + 1 : length;
+    }
+
+    // isHttpUrl(): Determines if the specified URL is an http or https URL.
+    static boolean isHttpUrl(String url) {
+        return url.regionMatches(true, 0, "http://", 0, 7) || url.regionMatches(true, 0, "https://", 0, 8);
+    }
+
+    // openConnection(): Opens a connection to the origin server, forwarding the specified Range
+    // header if set. Throws an IOException if the URL is not an HTTP URL.
+    static HttpURLConnection openConnection(String url, String range) throws IOException {
+        URLConnection urlConnection = new URL(url).openConnection();
+        if (!(urlConnection instanceof HttpURLConnection)) {
+            throw new IOException("Unsupported URL scheme: " + url);
+        }
+
+        HttpURLConnection connection = (HttpURLConnection) urlConnection;
+        connection.setConnectTimeout(CONNECT_TIMEOUT);
+        connection.setReadTimeout(READ_TIMEOUT);
+        connection.setRequestProperty("Accept-Encoding", "identity");
+        if (range != null) {
+            connection.setRequestProperty("Range", range);
+        }
+        return connection;
+    }
+
+    // getContentLength(): Returns the content length of the specified connection, or -1 if unknown.
+    static long getContentLength(HttpURLConnection connection) {
+        String value = connection.getHeaderField("Content-Length");
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // appendHeaders(): Appends the common response headers and the end of the header.
+    private static void appendHeaders(StringBuilder header, String contentType, long contentLength,
+                                      boolean isRangeable) {
+        if (contentType != null) {
+            header.append("Content-Type: ").append(contentType).append("\r\n");
+        }
+        if (contentLength >= 0) {
+            header.append("Content-Length: ").append(contentLength).append("\r\n");
+        }
+        header.append("Accept-Ranges: ").append(isRangeable ? "bytes" : "none").append("\r\n");
+        header.append("Connection: close\r\n\r\n");
+    }
+
+    // writeHeader(): Writes the response header for the specified byte range of music of the
+    // specified length. A 206 response with a Content-Range header is written if a range was
+    // requested, or a 200 response otherwise.
+    private static void writeHeader(OutputStream output, String contentType, long length, long rangeStart,
+                                    long rangeEnd) throws IOException {
+        StringBuilder header = new StringBuilder();
+        if (rangeStart >= 0) {
+            header.append("HTTP/1.1 206 Partial Content\r\n");
+            header.append("Content-Range: bytes ").append(rangeStart).append('-')
+                    .append(rangeEnd - 1).append('/').append(length).append("\r\n");
+            appendHeaders(header, contentType, rangeEnd - rangeStart, true);
+        } else {
+            header.append("HTTP/1.1 200 OK\r\n");
+            appendHeaders(header, contentType, length, true);
+        }
+        output.write(header.toString().getBytes("UTF-8"));
+    }
+
+    // writeStatus(): Writes an empty response with the specified status to the client.
+    private static void writeStatus(OutputStream output, String status) throws IOException {
+        output.write(("HTTP/1.1 " + status + "\r\nContent-Length: 0\r\nConnection: close\r\n\r\n").getBytes("UTF-8"));
+        output.flush();
+    }
+
+    // closeSocket(): Closes the specified client socket, ignoring any failure.
+    private static void closeSocket(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            HXLog.d(LOG_TAG, "PROXY: closeSocket(): {}", e.getLocalizedMessage());
+        }
+    }
+
+    // closeSocket(): Closes the specified server socket, ignoring any failure.
+    private static void closeSocket(ServerSocket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            HXLog.d(LOG_TAG, "PROXY: closeSocket(): {}", e.getLocalizedMessage());
+        }
+    }
+
+    /** SUBCLASSES _____________________________________________________________________________ **/
+
+    // WriteThrough: The state of a write-through download, which is shared by every connection for
+    // the music. The state is guarded by the WriteThrough itself.
+    private static class WriteThrough {
+
+        // DOWNLOAD VARIABLES:
+        final String url; // URL of the music.
+        final File tempFile; // Temporary file that the music is downloaded into.
+        volatile String contentType; // Content type of the music.
+        volatile long contentLength = -1; // Size of the music, in bytes, or -1 if it is not known.
+        volatile long writtenBytes; // Number of bytes written to the temporary file.
+
+        // RESULT VARIABLES:
+        boolean isStarted; // Used for determining if the origin server has responded.
+        boolean isFinished; // Used for determining if the temporary file has been committed or discarded.
+        String error; // Status to respond with if the origin server did not serve the music, or null.
+
+        // WriteThrough(): Constructor method for this class.
+        WriteThrough(String url, File tempFile) {
+            this.url = url;
+            this.tempFile = tempFile;
+        }
+
+        // start(): Stores the response of the origin server and wakes the waiting connections.
+        synchronized void start(String contentType, long contentLength) {
+            this.contentType = contentType;
+            this.contentLength = contentLength;
+            this.isStarted = true;
+            notifyAll();
+        }
+
+        // advance(): Adds the specified number of written bytes and wakes the waiting connections.
+        synchronized void advance(int count) {
+            writtenBytes += count;
+            notifyAll();
+        }
+
+        // fail(): Stores the status to respond with if the download has not started.
+        synchronized void fail(String status) {
+            if (!isStarted) {
+                error = status;
+            }
+        }
+
+        // finish(): Marks the download as ended and wakes the waiting connections.
+        synchronized void finish() {
+            isFinished = true;
+            notifyAll();
+        }
+
+        // awaitBytes(): Waits until the byte at the specified offset has been written or the
+        // download has ended, and returns the number of written bytes.
+        synchronized long awaitBytes(long position) throws InterruptedIOException {
+            while (writtenBytes <= position && !isFinished) {
+                await();
+            }
+            return writtenBytes;
+        }
+
+        // await(): Waits for a change of the download. Must be called while holding the lock.
+        void await() throws InterruptedIOException {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the download.");
+            }
+        }
+    }
+}
@@ -0,0 +1,401 @@
+package com.huhx0015.hxaudio.cache;
+
+import com.huhx0015.hxaudio.utils.HXLog;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXMusicDiskCache] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXMusicDiskCache is a least-recently-used disk cache for streamed music, limited to
+ *  a maximum number of bytes. Each music URL is stored as a data file, named after the MD5 hash of
+ *  the URL, along with a small info file that holds its content type. Data files are written to a
+ *  temporary file first and only added to the cache once complete. Music downloaded by
+ *  HXMusicDownloader is written to a partial file instead, which is kept across restarts so that
+ *  interrupted downloads can be resumed. Kept partial files count toward the byte limit. Whenever
+ *  the cache exceeds its byte limit, the oldest partial files are deleted first, followed by the
+ *  least recently used music.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class HXMusicDiskCache {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // CACHE VARIABLES:
+    private final File cacheDir; // Directory of the cached music files.
+    private final long maxBytes; // Maximum size of the cache, in bytes.
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true); // Cached keys and sizes, least recently used first.
+    private final LinkedHashMap<String, Long> partials = new LinkedHashMap<>(); // Keys and sizes of kept partial downloads, oldest first.
+    private final HashSet<String> pendingKeys = new HashSet<>(); // Keys of the music currently being written.
+    private long size; // Total size of the cached data files and kept partial downloads, in bytes.
+
+    // METRIC VARIABLES:
+    private volatile long hitCount; // Number of lookups served from the cache.
+    private volatile long missCount; // Number of lookups not found in the cache.
+
+    // CONSTANT VARIABLES:
+    private static final String DATA_EXTENSION = ".data"; // File extension of the cached music data.
+    private static final String INFO_EXTENSION = ".info"; // File extension of the content type files.
+    private static final String TEMP_EXTENSION = ".tmp"; // File extension of partially written files.
+    private static final String PART_EXTENSION = ".part"; // File extension of resumable partial downloads.
+    static final String STATE_EXTENSION = ".state"; // File extension of the chunk state files, appended to the partial file name.
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    // LOGGING VARIABLES:
+    private static final String LOG_TAG = HXMusicDiskCache.class.getSimpleName();
+
+    /** CONSTRUCTOR METHOD _____________________________________________________________________ **/
+
+    // HXMusicDiskCache(): Constructor method for this class. Existing cached files and partial
+    // downloads in the specified directory are indexed by their last modified time, and partially
+    // written files are deleted.
+    public HXMusicDiskCache(File cacheDir, long maxBytes) {
+        this.cacheDir = cacheDir;
+        this.maxBytes = maxBytes;
+
+        if (!cacheDir.exists() && !cacheDir.mkdirs()) {
+            HXLog.e(LOG_TAG, "ERROR: HXMusicDiskCache(): Unable to create the cache directory.");
+        }
+
+        File[] files = cacheDir.listFiles();
+        if (files != null) {
+            Arrays.sort(files, new Comparator<File>() {
+                @Override
+                public int compare(File first, File second) {
+                    long difference = first.lastModified() - second.lastModified();
+                    return difference < 0 ? -1 : (difference > 0 ? 1 : 0);
+                }
+            });
+
+            for (File file : files) {
+                String name = file.getName();
+                if (name.endsWith(DATA_EXTENSION)) {
+                    String key = name.substring(0, name.length() - DATA_EXTENSION.length());
+                    entries.put(key, file.length());
+                    size += file.length();
+                } else if (name.endsWith(PART_EXTENSION)) {
+                    String key = name.substring(0, name.length() - PART_EXTENSION.length());
+                    addPartial(key);
+                } else if (name.endsWith(TEMP_EXTENSION)) {
+                    deleteFile(file);
+                } else if (name.endsWith(PART_EXTENSION + STATE_EXTENSION) &&
+                        !new File(cacheDir, name.substring(0, name.length() - STATE_EXTENSION.length())).exists()) {
+                    deleteFile(file); // State file of a partial file that no longer exists.
+                }
+            }
+        }
+        trim();
+    }
+
+    /** CACHE METHODS __________________________________________________________________________ **/
+
+    // get(): Returns the cached data file of the specified music URL and marks it as recently used,
+    // or returns null if the music has not been cached.
+    public synchronized File get(String url) {
+        String key = getKey(url);
+        if (entries.get(key) == null) {
+            missCount++;
+            return null;
+        }
+
+        File file = getDataFile(key);
+        if (!file.exists()) {
+            remove(key);
+            missCount++;
+            return null;
+        }
+
+        if (!file.setLastModified(System.currentTimeMillis())) {
+            HXLog.w(LOG_TAG, "WARNING: get(): Unable to update the access time of the cached file.");
+        }
+        hitCount++;
+        return file;
+    }
+
+    // getContentType(): Returns the content type of the specified cached music URL, or null if it is
+    // not known.
+    public String getContentType(String url) {
+        File file = new File(cacheDir, getKey(url) + INFO_EXTENSION);
+        if (!file.exists()) {
+            return null;
+        }
+
+        FileInputStream input = null;
+        try {
+            input = new FileInputStream(file);
+            byte[] data = new byte[(int) Math.min(file.length(), 256)];
+            int length = input.read(data);
+            return length > 0 ? new String(data, 0, length, "UTF-8") : null;
+        } catch (IOException e) {
+            HXLog.e(LOG_TAG, "ERROR: getContentType(): {}", e.getLocalizedMessage());
+            return null;
+        } finally {
+            closeStream(input);
+        }
+    }
+
+    // beginWrite(): Returns a temporary file for writing the specified music URL, or null if the
+    // music is already being written. Each call must be followed by commit() or abort().
+    public synchronized File beginWrite(String url) {
+        String key = getKey(url);
+        if (!pendingKeys.add(key)) {
+            return null;
+        }
+        return new File(cacheDir, key + "." + Thread.currentThread().getId() + TEMP_EXTENSION);
+    }
+
+    // beginDownload(): Returns the resumable partial file for downloading the specified music URL,
+    // or null if the music is already being written. Unlike beginWrite(), the partial file is kept
+    // by release() so that the download can be resumed. Each call must be followed by commit(),
+    // abort() or release().
+    public synchronized File beginDownload(String url) {
+        String key = getKey(url);
+        if (!pendingKeys.add(key)) {
+            return null;
+        }
+        return getPartFile(key);
+    }
+
+    // release(): Ends the write of the specified music URL, keeping its partial file. The partial
+    // file counts toward the byte limit until it is resumed, and may be deleted to make room.
+    public synchronized void release(String url) {
+        String key = getKey(url);
+        pendingKeys.remove(key);
+        addPartial(key);
+        trim();
+    }
+
+    // contains(): Determines if the specified music URL has been cached, without marking it as
+    // recently used or counting it as a lookup.
+    public synchronized boolean contains(String url) {
+        String key = getKey(url);
+        return entries.containsKey(key) && getDataFile(key).exists();
+    }
+
+    // commit(): Adds the completely written temporary file of the specified music URL to the cache,
+    // and deletes the least recently used music if the cache exceeds its byte limit.
+    public synchronized boolean commit(String url, File tempFile, String contentType) {
+        String key = getKey(url);
+        pendingKeys.remove(key);
+
+        long length = tempFile.length();
+        if (length > maxBytes) {
+            HXLog.d(LOG_TAG, "CACHE: commit(): Music is larger than the cache and was not cached.");
+            deleteFile(tempFile);
+            deletePartial(key);
+            return false;
+        }
+
+        remove(key);
+        File file = getDataFile(key);
+        if (!tempFile.renameTo(file)) {
+            HXLog.e(LOG_TAG, "ERROR: commit(): Unable to move the cached file into place.");
+            deleteFile(tempFile);
+            deletePartial(key);
+            return false;
+        }
+        deletePartial(key); // The partial download, if any, has been moved into place or is no longer needed.
+
+        if (contentType != null) {
+            writeContentType(key, contentType);
+        }
+
+        entries.put(key, length);
+        size += length;
+        trim();
+
+        HXLog.d(LOG_TAG, "CACHE: commit(): Music has been cached ({} bytes).", length);
+        return true;
+    }
+
+    // abort(): Discards the temporary or partial file of the specified music URL.
+    public synchronized void abort(String url, File tempFile) {
+        String key = getKey(url);
+        pendingKeys.remove(key);
+        deleteFile(tempFile);
+        if (tempFile.equals(getPartFile(key))) {
+            deletePartial(key);
+        }
+    }
+
+    // clear(): Deletes all cached music and kept partial downloads. Music currently being written is
+    // not affected.
+    public synchronized void clear() {
+        for (String key : entries.keySet()) {
+            deleteFile(getDataFile(key));
+            deleteFile(new File(cacheDir, key + INFO_EXTENSION));
+        }
+        entries.clear();
+        size = 0;
+
+        Iterator<Map.Entry<String, Long>> iterator = partials.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Long> entry = iterator.next();
+            if (pendingKeys.contains(entry.getKey())) {
+                size += entry.getValue();
+            } else {
+                deleteFile(getPartFile(entry.getKey()));
+                deleteFile(getStateFile(entry.getKey()));
+                iterator.remove();
+            }
+        }
+    }
+
+    /** HELPER METHODS _________________________________________________________________________ **/
+
+    // trim(): Deletes the oldest partial downloads that are not being written, then the least
+    // recently used music, until the cache is within its byte limit.
+    private void trim() {
+        Iterator<Map.Entry<String, Long>> partialIterator = partials.entrySet().iterator();
+        while (size > maxBytes && partialIterator.hasNext()) {
+            Map.Entry<String, Long> entry = partialIterator.next();
+            if (pendingKeys.contains(entry.getKey())) {
+                continue;
+            }
+            size -= entry.getValue();
+            deleteFile(getPartFile(entry.getKey()));
+            deleteFile(getStateFile(entry.getKey()));
+            partialIterator.remove();
+            HXLog.d(LOG_TAG, "CACHE: trim(): Partial download has been deleted.");
+        }
+
+        Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+        while (size > maxBytes && iterator.hasNext()) {
+            Map.Entry<String, Long> entry = iterator.next();
+            size -= entry.getValue();
+            deleteFile(getDataFile(entry.getKey()));
+            deleteFile(new File(cacheDir, entry.getKey() + INFO_EXTENSION));
+            iterator.remove();
+            HXLog.d(LOG_TAG, "CACHE: trim(): Least recently used music has been deleted.");
+        }
+    }
+
+    // remove(): Removes the specified key from the cache and deletes its files.
+    private void remove(String key) {
+        Long length = entries.remove(key);
+        if (length != null) {
+            size -= length;
+            deleteFile(getDataFile(key));
+            deleteFile(new File(cacheDir, key + INFO_EXTENSION));
+        }
+    }
+
+    // addPartial(): Records the current size of the partial download of the specified key, which is
+    // moved to the end of the deletion order. Partial downloads without any files are not recorded.
+    private void addPartial(String key) {
+        Long previous = partials.remove(key);
+        if (previous != null) {
+            size -= previous;
+        }
+
+        long length = getPartFile(key).length() + getStateFile(key).length();
+        if (length > 0) {
+            partials.put(key, length);
+            size += length;
+        }
+    }
+
+    // deletePartial(): Deletes the partial download of the specified key and its state file.
+    private void deletePartial(String key) {
+        Long length = partials.remove(key);
+        if (length != null) {
+            size -= length;
+        }
+        deleteFile(getPartFile(key));
+        deleteFile(getStateFile(key));
+    }
+
+    // writeContentType(): Writes the content type file of the specified key.
+    private void writeContentType(String key, String contentType) {
+        FileOutputStream output = null;
+        try {
+            output = new FileOutputStream(new File(cacheDir, key + INFO_EXTENSION));
+            output.write(contentType.getBytes("UTF-8"));
+        } catch (IOException e) {
+            HXLog.e(LOG_TAG, "ERROR: writeContentType(): {}", e.getLocalizedMessage());
+        } finally {
+            closeStream(output);
+        }
+    }
+
+    // getDataFile(): Returns the data file of the specified key.
+    private File getDataFile(String key) {
+        return new File(cacheDir, key + DATA_EXTENSION);
+    }
+
+    // getPartFile(): Returns the partial download file of the specified key.
+    private File getPartFile(String key) {
+        return new File(cacheDir, key + PART_EXTENSION);
+    }
+
+    // getStateFile(): Returns the chunk state file of the partial download of the specified key.
+    private File getStateFile(String key) {
+        return new File(cacheDir, key + PART_EXTENSION + STATE_EXTENSION);
+    }
+
+    // getKey(): Returns the cache key of the specified music URL, which is the hex encoded MD5 hash
+    // of the URL.
+    private static String getKey(String url) {
+        try {
+            return toHex(MessageDigest.getInstance("MD5").digest(url.getBytes("UTF-8")));
+        } catch (Exception e) {
+            return Integer.toHexString(url.hashCode()) + "_" + url.length();
+        }
+    }
+
+    // toHex(): Returns the lowercase hex encoding of the specified bytes.
+    static String toHex(byte[] data) {
+        char[] hex = new char[data.length * 2];
+        for (int i = 0; i < data.length; i++) {
+            hex[i * 2] = HEX_DIGITS[(data[i] >> 4) & 0xF];
+            hex[i * 2 + 1] = HEX_DIGITS[data[i] & 0xF];
+        }
+        return new String(hex);
+    }
+
+    // deleteFile(): Deletes the specified file, logging any failure.
+    static void deleteFile(File file) {
+        if (file.exists() && !file.delete()) {
+            HXLog.e(LOG_TAG, "ERROR: deleteFile(): Unable to delete cached file: {}", file.getName());
+        }
+    }
+
+    // closeStream(): Closes the specified stream, ignoring any failure.
+    static void closeStream(Closeable stream) {
+        if (stream != null) {
+            try {
+                stream.close();
+            } catch (IOException e) {
+                HXLog.e(LOG_TAG, "ERROR: closeStream(): {}", e.getLocalizedMessage());
+            }
+        }
+    }
+
+    /** GET METHODS ____________________________________________________________________________ **/
+
+    // getSize(): Returns the total size of the cached music and kept partial downloads, in bytes.
+    public synchronized long getSize() {
+        return size;
+    }
+
+    // getHitCount(): Returns the number of lookups served from the cache.
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    // getMissCount(): Returns the number of lookups not found in the cache.
+    public long getMissCount() {
+        return missCount;
+    }
+}
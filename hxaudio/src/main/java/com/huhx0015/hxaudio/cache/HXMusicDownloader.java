@@ -0,0 +1,660 @@
+package com.huhx0015.hxaudio.cache;
+
+import com.huhx0015.hxaudio.interfaces.HXMusicDownloadListener;
+import com.huhx0015.hxaudio.utils.HXLog;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.net.HttpURLConnection;
+import java.security.MessageDigest;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXMusicDownloader] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXMusicDownloader downloads streamed music into HXMusicDiskCache ahead of time, so
+ *  that it can later be played from disk without using the network. Each music is split into
+ *  fixed size chunks that are downloaded in parallel with HTTP Range requests by a bounded number
+ *  of low priority download threads. Completed chunks are recorded in a small state file next to
+ *  the partial download, so an interrupted download resumes from its missing chunks. Downloads can
+ *  be throttled to a maximum bandwidth, and are verified against an MD5 checksum before they are
+ *  added to the cache. Servers that do not support Range requests are downloaded in one piece.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class HXMusicDownloader implements Runnable {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // DOWNLOAD VARIABLES:
+    private final HXMusicDiskCache diskCache; // Cache that downloaded music is added to.
+    private final HashMap<String, Download> downloads = new HashMap<>(); // Active downloads, by URL.
+    private final ArrayDeque<Chunk> chunkQueue = new ArrayDeque<>(); // Chunks waiting to be downloaded.
+    private volatile HXMusicDownloadListener listener; // Listener notified of download progress.
+
+    // THREAD VARIABLES:
+    private final Object lock = new Object(); // Used for guarding downloads, the chunk queue and the download threads.
+    private int concurrency = DEFAULT_CONCURRENCY; // Maximum number of download threads.
+    private int workerCount; // Number of running download threads.
+    private volatile boolean isRunning; // Used for determining if the downloader has been stopped.
+
+    // THROTTLE VARIABLES:
+    private final Object throttleLock = new Object(); // Used for guarding the throttle time.
+    private volatile long bandwidthLimit; // Maximum download bandwidth shared by all threads, in bytes per second. 0 if unlimited.
+    private long throttleTime; // Time at which the next bytes may be read, from System.nanoTime().
+
+    // CONSTANT VARIABLES:
+    public static final int DEFAULT_CONCURRENCY = 2; // Default number of download threads.
+    static final int CHUNK_SIZE = 512 * 1024; // Size of each downloaded chunk, in bytes.
+    private static final int PREPARE_CHUNK = -1; // Chunk index of the initial request of a download.
+    private static final int BUFFER_SIZE = 16 * 1024; // Size of the read buffer, in bytes.
+    private static final int MAX_ATTEMPTS = 3; // Number of attempts for each chunk before the download fails.
+
+    // LOGGING VARIABLES:
+    private static final String LOG_TAG = HXMusicDownloader.class.getSimpleName();
+
+    /** CONSTRUCTOR METHOD _____________________________________________________________________ **/
+
+    // HXMusicDownloader(): Constructor method for this class.
+    public HXMusicDownloader(HXMusicDiskCache diskCache) {
+        this.diskCache = diskCache;
+    }
+
+    /** DOWNLOAD METHODS _______________________________________________________________________ **/
+
+    // download(): Queues the specified music URL to be downloaded into the cache. If md5 is not
+    // null, the downloaded music is verified against it. Has no effect if the music is already
+    // being downloaded.
+    public void download(String url, String md5) {
+        synchronized (lock) {
+            if (downloads.containsKey(url)) {
+                return;
+            }
+
+            Download download = new Download(url, md5);
+            downloads.put(url, download);
+            chunkQueue.add(new Chunk(download, PREPARE_CHUNK));
+            isRunning = true;
+            startWorkers();
+            lock.notify();
+        }
+        HXLog.d(LOG_TAG, "DOWNLOAD: download(): Music download has been queued.");
+    }
+
+    // cancel(): Cancels the download of the specified music URL. Downloaded chunks are kept, so the
+    // download resumes if the music is downloaded again.
+    public void cancel(String url) {
+        Download download;
+        synchronized (lock) {
+            download = downloads.get(url);
+        }
+
+        if (download != null) {
+            stopDownload(download, null);
+        }
+    }
+
+    // stop(): Cancels all downloads and stops the download threads.
+    public void stop() {
+        ArrayList<Download> stoppedDownloads;
+        synchronized (lock) {
+            isRunning = false;
+            stoppedDownloads = new ArrayList<>(downloads.values());
+            lock.notifyAll();
+        }
+
+        for (Download download : stoppedDownloads) {
+            stopDownload(download, null);
+        }
+    }
+
+    /** THREAD METHODS _________________________________________________________________________ **/
+
+    // startWorkers(): Starts download threads until the concurrency limit has been reached. Must be
+    // called while holding the lock.
+    private void startWorkers() {
+        while (workerCount < concurrency) {
+            workerCount++;
+            Thread downloadThread = new Thread(this, LOG_TAG + "-" + workerCount);
+            downloadThread.setDaemon(true);
+            downloadThread.setPriority(Thread.MIN_PRIORITY);
+            downloadThread.start();
+        }
+    }
+
+    // run(): The download loop. Downloads queued chunks until there are no downloads left, the
+    // downloader is stopped, or the concurrency limit has been lowered.
+    @Override
+    public void run() {
+        while (true) {
+            Chunk chunk;
+            synchronized (lock) {
+                while (isRunning && chunkQueue.isEmpty() && !downloads.isEmpty() && workerCount <= concurrency) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        break;
+                    }
+                }
+
+                if (!isRunning || chunkQueue.isEmpty() || workerCount > concurrency) {
+                    workerCount--;
+                    return;
+                }
+
+                chunk = chunkQueue.poll();
+                chunk.download.activeChunks++;
+            }
+
+            try {
+                if (chunk.index == PREPARE_CHUNK) {
+                    prepareDownload(chunk.download);
+                } else {
+                    downloadChunk(chunk);
+                }
+            } catch (Exception e) {
+                HXLog.e(LOG_TAG, "ERROR: run(): An exception occurred while downloading music: {}", e.getLocalizedMessage());
+                stopDownload(chunk.download, e.getLocalizedMessage());
+            }
+
+            boolean isFinished;
+            synchronized (lock) {
+                chunk.download.activeChunks--;
+                isFinished = chunk.download.isStopped && chunk.download.activeChunks == 0;
+            }
+
+            if (isFinished) {
+                finishDownload(chunk.download);
+            }
+        }
+    }
+
+    /** CHUNK METHODS __________________________________________________________________________ **/
+
+    // prepareDownload(): Requests the first byte of the music to determine its size and whether the
+    // server supports Range requests, then restores the completed chunks of an interrupted
+    // download and queues the remaining chunks.
+    private void prepareDownload(Download download) {
+        if (diskCache.contains(download.url)) {
+            download.isComplete = true;
+            stopDownload(download, null);
+            return;
+        }
+
+        File partFile = diskCache.beginDownload(download.url);
+        if (partFile == null) {
+            stopDownload(download, "Music is already being cached.");
+            return;
+        }
+        download.partFile = partFile;
+        download.stateFile = new File(partFile.getPath() + HXMusicDiskCache.STATE_EXTENSION);
+
+        HttpURLConnection connection = null;
+        try {
+            connection = HXMusicCacheProxy.openConnection(download.url, "bytes=0-0");
+            int status = connection.getResponseCode();
+            if (status == HttpURLConnection.HTTP_PARTIAL) {
+                download.totalBytes = parseTotalLength(connection.getHeaderField("Content-Range"));
+            } else if (status == HttpURLConnection.HTTP_OK) {
+                download.totalBytes = HXMusicCacheProxy.getContentLength(connection);
+            } else {
+                throw new IOException("Unexpected response code: " + status);
+            }
+            download.isRangeable = status == HttpURLConnection.HTTP_PARTIAL && download.totalBytes > 0;
+            download.contentType = connection.getContentType();
+        } catch (IOException e) {
+            stopDownload(download, e.getLocalizedMessage());
+            return;
+        } finally {
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+
+        int chunkCount = download.isRangeable ? (int) ((download.totalBytes + CHUNK_SIZE - 1) / CHUNK_SIZE) : 1;
+        boolean[] completed = readState(download, chunkCount);
+        if (completed == null) {
+            completed = new boolean[chunkCount];
+            HXMusicDiskCache.deleteFile(partFile);
+        }
+
+        int remaining = 0;
+        long downloadedBytes = 0;
+        for (int i = 0; i < chunkCount; i++) {
+            if (completed[i]) {
+                downloadedBytes += getChunkLength(download, i);
+            } else {
+                remaining++;
+            }
+        }
+
+        synchronized (download) {
+            download.completed = completed;
+            download.remainingChunks = remaining;
+            download.downloadedBytes = downloadedBytes;
+        }
+
+        if (remaining < chunkCount) {
+            HXLog.d(LOG_TAG, "DOWNLOAD: prepareDownload(): Resuming download with {} of {} chunks remaining.", remaining, chunkCount);
+        }
+        notifyProgress(download);
+
+        if (remaining == 0) {
+            completeDownload(download);
+            return;
+        }
+
+        synchronized (lock) {
+            if (download.isStopped) {
+                return;
+            }
+            for (int i = 0; i < chunkCount; i++) {
+                if (!completed[i]) {
+                    chunkQueue.add(new Chunk(download, i));
+                }
+            }
+            lock.notifyAll();
+        }
+    }
+
+    // downloadChunk(): Downloads the specified chunk into the partial file. Failed chunks are
+    // queued again until they have been attempted MAX_ATTEMPTS times.
+    private void downloadChunk(Chunk chunk) {
+        Download download = chunk.download;
+        long start = (long) chunk.index * CHUNK_SIZE;
+        long length = getChunkLength(download, chunk.index);
+        long readBytes = 0;
+
+        HttpURLConnection connection = null;
+        InputStream input = null;
+        RandomAccessFile output = null;
+        try {
+            String range = download.isRangeable ? "bytes=" + start + "-" + (start + length - 1) : null;
+            connection = HXMusicCacheProxy.openConnection(download.url, range);
+            int status = connection.getResponseCode();
+            int expectedStatus = download.isRangeable ? HttpURLConnection.HTTP_PARTIAL : HttpURLConnection.HTTP_OK;
+            if (status != expectedStatus) {
+                throw new IOException("Unexpected response code: " + status);
+            }
+
+            input = new BufferedInputStream(connection.getInputStream());
+            output = new RandomAccessFile(download.partFile, "rw");
+            output.seek(start);
+
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int count;
+            while ((length < 0 || readBytes < length) && (count = input.read(buffer)) != -1) {
+                if (download.isStopped) {
+                    return;
+                }
+                if (length >= 0 && readBytes + count > length) {
+                    count = (int) (length - readBytes);
+                }
+                throttle(count);
+                output.write(buffer, 0, count);
+                readBytes += count;
+            }
+
+            if (length >= 0 && readBytes < length) {
+                throw new IOException("Connection was closed before the chunk was downloaded.");
+            }
+            if (!download.isRangeable) {
+                output.setLength(readBytes);
+            }
+        } catch (IOException e) {
+            retryChunk(chunk, e.getLocalizedMessage());
+            return;
+        } finally {
+            HXMusicDiskCache.closeStream(input);
+            HXMusicDiskCache.closeStream(output);
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+
+        boolean isDone;
+        synchronized (download) {
+            download.completed[chunk.index] = true;
+            download.remainingChunks--;
+            download.downloadedBytes += readBytes;
+            if (download.isRangeable) {
+                writeState(download);
+            } else {
+                download.totalBytes = readBytes;
+            }
+            isDone = download.remainingChunks == 0;
+        }
+
+        notifyProgress(download);
+        if (isDone) {
+            completeDownload(download);
+        }
+    }
+
+    // retryChunk(): Queues the specified chunk again after a failed attempt, or stops its download
+    // once the chunk has been attempted MAX_ATTEMPTS times.
+    private void retryChunk(Chunk chunk, String message) {
+        synchronized (lock) {
+            if (chunk.download.isStopped) {
+                return;
+            }
+
+            chunk.attempts++;
+            if (chunk.attempts < MAX_ATTEMPTS) {
+                HXLog.w(LOG_TAG, "WARNING: retryChunk(): Retrying chunk {}: {}", chunk.index, message);
+                chunkQueue.add(chunk);
+                lock.notify();
+                return;
+            }
+        }
+        stopDownload(chunk.download, message);
+    }
+
+    // completeDownload(): Verifies the checksum of the completed download and adds it to the cache.
+    private void completeDownload(Download download) {
+        HXMusicDiskCache.deleteFile(download.stateFile);
+
+        if (download.md5 != null && !download.md5.equalsIgnoreCase(getChecksum(download.partFile))) {
+            diskCache.abort(download.url, download.partFile);
+            download.isReleased = true;
+            stopDownload(download, "Checksum verification failed.");
+            return;
+        }
+
+        download.isComplete = diskCache.commit(download.url, download.partFile, download.contentType);
+        download.isReleased = true;
+        stopDownload(download, download.isComplete ? null : "Music could not be added to the cache.");
+    }
+
+    // stopDownload(): Stops the specified download and discards its queued chunks. The download is
+    // finished once its last active chunk has stopped.
+    private void stopDownload(Download download, String error) {
+        synchronized (lock) {
+            if (download.isStopped) {
+                return;
+            }
+            download.isStopped = true;
+            download.error = error;
+
+            Iterator<Chunk> iterator = chunkQueue.iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().download == download) {
+                    iterator.remove();
+                }
+            }
+
+            if (download.activeChunks > 0) {
+                return;
+            }
+        }
+        finishDownload(download);
+    }
+
+    // finishDownload(): Removes the specified stopped download, releases its partial file and
+    // notifies the listener of the result.
+    private void finishDownload(Download download) {
+        synchronized (lock) {
+            if (downloads.get(download.url) == download) {
+                downloads.remove(download.url);
+            }
+            lock.notifyAll();
+        }
+
+        if (download.partFile != null && !download.isReleased) {
+            diskCache.release(download.url);
+        }
+
+        HXMusicDownloadListener downloadListener = listener;
+        if (download.isComplete) {
+            HXLog.d(LOG_TAG, "DOWNLOAD: finishDownload(): Music has been downloaded.");
+            if (downloadListener != null) {
+                downloadListener.onMusicDownloadComplete(download.url);
+            }
+        } else if (download.error != null) {
+            HXLog.e(LOG_TAG, "ERROR: finishDownload(): Music download failed: {}", download.error);
+            if (downloadListener != null) {
+                downloadListener.onMusicDownloadError(download.url, download.error);
+            }
+        }
+    }
+
+    /** HELPER METHODS _________________________________________________________________________ **/
+
+    // throttle(): Waits until the specified number of bytes may be written under the bandwidth
+    // limit. The limit is shared by all download threads.
+    private void throttle(int bytes) {
+        long limit = bandwidthLimit;
+        if (limit <= 0) {
+            return;
+        }
+
+        long delay;
+        synchronized (throttleLock) {
+            long time = System.nanoTime();
+            if (throttleTime < time) {
+                throttleTime = time;
+            }
+            delay = throttleTime - time;
+            throttleTime += bytes * 1000000000L / limit;
+        }
+
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay / 1000000, (int) (delay % 1000000));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // notifyProgress(): Notifies the listener of the progress of the specified download.
+    private void notifyProgress(Download download) {
+        HXMusicDownloadListener downloadListener = listener;
+        if (downloadListener != null) {
+            long downloadedBytes;
+            long totalBytes;
+            synchronized (download) {
+                downloadedBytes = download.downloadedBytes;
+                totalBytes = download.totalBytes;
+            }
+            downloadListener.onMusicDownloadProgress(download.url, downloadedBytes, totalBytes);
+        }
+    }
+
+    // readState(): Returns the completed chunks of an interrupted download, or null if there is no
+    // partial download or it does not match the current size of the music.
+    private static boolean[] readState(Download download, int chunkCount) {
+        if (!download.isRangeable || !download.stateFile.exists() || !download.partFile.exists()) {
+            return null;
+        }
+
+        DataInputStream input = null;
+        try {
+            input = new DataInputStream(new BufferedInputStream(new FileInputStream(download.stateFile)));
+            if (input.readLong() != download.totalBytes || input.readInt() != CHUNK_SIZE ||
+                    input.readInt() != chunkCount) {
+                return null;
+            }
+
+            boolean[] completed = new boolean[chunkCount];
+            for (int i = 0; i < chunkCount; i++) {
+                completed[i] = input.readBoolean();
+            }
+            return completed;
+        } catch (IOException e) {
+            return null;
+        } finally {
+            HXMusicDiskCache.closeStream(input);
+        }
+    }
+
+    // writeState(): Writes the completed chunks of the specified download to its state file. Must be
+    // called while holding the download's lock.
+    private static void writeState(Download download) {
+        DataOutputStream output = null;
+        try {
+            output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(download.stateFile)));
+            output.writeLong(download.totalBytes);
+            output.writeInt(CHUNK_SIZE);
+            output.writeInt(download.completed.length);
+            for (boolean isCompleted : download.completed) {
+                output.writeBoolean(isCompleted);
+            }
+        } catch (IOException e) {
+            HXLog.e(LOG_TAG, "ERROR: writeState(): {}", e.getLocalizedMessage());
+        } finally {
+            HXMusicDiskCache.closeStream(output);
+        }
+    }
+
+    // getChunkLength(): Returns the length of the specified chunk, or -1 if the music is downloaded
+    // in one piece and its size is not known.
+    private static long getChunkLength(Download download, int index) {
+        if (!download.isRangeable) {
+            return download.totalBytes;
+        }
+        return Math.min(CHUNK_SIZE, download.totalBytes - (long) index * CHUNK_SIZE);
+    }
+
+    // getChecksum(): Returns the hex encoded MD5 checksum of the specified file, or null if the file
+    // could not be read.
+    private static String getChecksum(File file) {
+        InputStream input = null;
+        try {
+            MessageDigest digest = MessageDigest.getInstance("MD5");
+            input = new FileInputStream(file);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int count;
+            while ((count = input.read(buffer)) != -1) {
+                digest.update(buffer, 0, count);
+            }
+            return HXMusicDiskCache.toHex(digest.digest());
+        } catch (Exception e) {
+            HXLog.e(LOG_TAG, "ERROR: getChecksum(): {}", e.getLocalizedMessage());
+            return null;
+        } finally {
+            HXMusicDiskCache.closeStream(input);
+        }
+    }
+
+    // parseTotalLength(): Returns the total length from the specified Content-Range header, such as
+    // "bytes 0-0/1234", or -1 if it is not known.
+    private static long parseTotalLength(String contentRange) {
+        if (contentRange == null) {
+            return -1;
+        }
+
+        int slash = contentRange.lastIndexOf('/');
+        try {
+            return slash < 0 ? -1 : Long.parseLong(contentRange.substring(slash + 1).trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /** GET METHODS ____________________________________________________________________________ **/
+
+    // getProgress(): Returns the download progress of the specified music URL, from 0 to 1, or -1 if
+    // the music is not being downloaded or its size is not known yet.
+    public float getProgress(String url) {
+        Download download;
+        synchronized (lock) {
+            download = downloads.get(url);
+        }
+
+        if (download == null) {
+            return -1;
+        }
+        synchronized (download) {
+            return download.totalBytes > 0 ? download.downloadedBytes / (float) download.totalBytes : -1;
+        }
+    }
+
+    // isDownloading(): Determines if the specified music URL is being downloaded.
+    public boolean isDownloading(String url) {
+        synchronized (lock) {
+            return downloads.containsKey(url);
+        }
+    }
+
+    /** SET METHODS ____________________________________________________________________________ **/
+
+    // setConcurrency(): Sets the maximum number of download threads. Extra download threads exit
+    // once their current chunk has been downloaded.
+    public void setConcurrency(int concurrency) {
+        synchronized (lock) {
+            this.concurrency = Math.max(concurrency, 1);
+            if (isRunning && !downloads.isEmpty()) {
+                startWorkers();
+            }
+            lock.notifyAll();
+        }
+    }
+
+    // setBandwidthLimit(): Sets the maximum download bandwidth shared by all download threads, in
+    // bytes per second, or 0 for no limit.
+    public void setBandwidthLimit(long bytesPerSecond) {
+        this.bandwidthLimit = Math.max(bytesPerSecond, 0);
+    }
+
+    // setListener(): Sets the listener notified of download progress.
+    public void setListener(HXMusicDownloadListener listener) {
+        this.listener = listener;
+    }
+
+    /** SUBCLASSES _____________________________________________________________________________ **/
+
+    // Download: The state of a music download. The chunk state is guarded by the Download itself.
+    private static class Download {
+
+        // DOWNLOAD VARIABLES:
+        final String url; // URL of the music.
+        final String md5; // Expected MD5 checksum of the music, or null if it is not verified.
+        File partFile; // Partial file that the music is downloaded into.
+        File stateFile; // File that holds the completed chunks of the partial file.
+        String contentType; // Content type of the music.
+        long totalBytes = -1; // Size of the music, in bytes, or -1 if it is not known.
+        boolean isRangeable; // Used for determining if the music is downloaded in chunks.
+        boolean[] completed; // Completed chunks of the music.
+        int remainingChunks; // Number of chunks that have not been downloaded.
+        long downloadedBytes; // Number of bytes in the completed chunks.
+
+        // RESULT VARIABLES:
+        volatile boolean isStopped; // Used for determining if the download has been stopped.
+        int activeChunks; // Number of chunks being downloaded. Guarded by the downloader lock.
+        boolean isReleased; // Used for determining if the partial file has been committed or discarded.
+        boolean isComplete; // Used for determining if the music has been added to the cache.
+        String error; // Reason the download failed, or null if it completed or was cancelled.
+
+        // Download(): Constructor method for this class.
+        Download(String url, String md5) {
+            this.url = url;
+            this.md5 = md5;
+        }
+    }
+
+    // Chunk: A queued chunk of a download.
+    private static class Chunk {
+
+        // CHUNK VARIABLES:
+        final Download download; // Download that the chunk belongs to.
+        final int index; // Index of the chunk, or PREPARE_CHUNK for the initial request.
+        int attempts; // Number of failed attempts.
+
+        // Chunk(): Constructor method for this class.
+        Chunk(Download download, int index) {
+            this.download = download;
+            this.index = index;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.huhx0015.hxaudio.interfaces;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXMetricsGauge] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXMetricsGauge is an interface class used by HXMetrics to read a value that is
+ *  measured on demand, such as the number of live voices, when a snapshot is taken.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public interface HXMetricsGauge {
+
+    /** INTERFACE METHODS ______________________________________________________________________ **/
+
+    // getValue(): Returns the current value of the gauge.
+    long getValue();
+}
@@ -0,0 +1,19 @@
+package com.huhx0015.hxaudio.interfaces;
+
+import com.huhx0015.hxaudio.metrics.HXMetricsSnapshot;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXMetricsSink] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXMetricsSink is an interface class used to export HXMetrics snapshots, such as to
+ *  an application's telemetry. Snapshots are delivered on the HXMetrics export thread.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public interface HXMetricsSink {
+
+    /** INTERFACE METHODS ______________________________________________________________________ **/
+
+    // onMetricsSnapshot(): Called with a snapshot of all metrics, once per export interval.
+    void onMetricsSnapshot(HXMetricsSnapshot snapshot);
+}
@@ -0,0 +1,26 @@
+package com.huhx0015.hxaudio.interfaces;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXMusicDownloadListener] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXMusicDownloadListener is an interface class used to listen for the progress of
+ *  music downloaded by HXMusicDownloader. Events are delivered on a background thread.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public interface HXMusicDownloadListener {
+
+    /** INTERFACE METHODS ______________________________________________________________________ **/
+
+    // onMusicDownloadProgress(): Called when a chunk of the music has been downloaded. totalBytes
+    // is -1 if the size of the music is not known.
+    void onMusicDownloadProgress(String url, long downloadedBytes, long totalBytes);
+
+    // onMusicDownloadComplete(): Called when the music has been downloaded, verified and cached.
+    void onMusicDownloadComplete(String url);
+
+    // onMusicDownloadError(): Called when the music could not be downloaded or failed checksum
+    // verification. Downloads that failed with a network error can be resumed by downloading the
+    // music again.
+    void onMusicDownloadError(String url, String message);
+}
@@ -1,5 +1,7 @@
 package com.huhx0015.hxaudio.interfaces;
 
+import com.huhx0015.hxaudio.model.HXMusicItem;
+
 /** -----------------------------------------------------------------------------------------------
  *  [HXMusicEngineListener] CLASS
  *  DEVELOPER: Michael Yoon Huh (Huh X0015)
@@ -29,4 +31,8 @@ public interface HXMusicEngineListener {
 
     // onMusicStop(): Called when HXMusicEngine's stop() method has been called.
     void onMusicEngineStop();
+
+    // onMusicEngineTrackChanged(): Called when HXMusicEngine has handed playback over to the next
+    // queued music.
+    void onMusicEngineTrackChanged(HXMusicItem music);
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.huhx0015.hxaudio.interfaces;
+
+import com.huhx0015.hxaudio.model.HXMusicItem;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXMusicPositionListener] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXMusicPositionListener is an interface class used to listen for periodic updates
+ *  of the playback position of HXMusic, such as for seek bars and lyrics. Events are delivered on
+ *  the main thread.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public interface HXMusicPositionListener {
+
+    /** INTERFACE METHODS ______________________________________________________________________ **/
+
+    // onMusicPosition(): Called when the playback position of the current music has changed. The
+    // position and duration are in milliseconds.
+    void onMusicPosition(HXMusicItem music, int position, int duration);
+}
@@ -0,0 +1,22 @@
+package com.huhx0015.hxaudio.interfaces;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXSoundLoadListener] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXSoundLoadListener is an interface class used to listen for the load progress of
+ *  sound resources loaded by HXSound. Events are delivered on a background thread.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public interface HXSoundLoadListener {
+
+    /** INTERFACE METHODS ______________________________________________________________________ **/
+
+    // onSoundLoaded(): Called when a sound resource has finished loading into all HXSoundEngine
+    // instances that hold it, or has failed to load.
+    void onSoundLoaded(int resource, boolean isLoaded, int completedCount, int totalCount);
+
+    // onSoundLoadComplete(): Called when all sound resources have finished loading, or when the
+    // load has been cancelled.
+    void onSoundLoadComplete(int loadedCount, int totalCount, boolean isCancelled);
+}
@@ -0,0 +1,101 @@
+package com.huhx0015.hxaudio.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXLatencyHistogram] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXLatencyHistogram records durations, such as sample load times, into fixed
+ *  power-of-two buckets of microseconds. Bucket 0 holds durations below 1 microsecond, and bucket
+ *  N holds durations from 2^(N-1) up to 2^N microseconds. Recording a duration does not acquire
+ *  any locks or allocate any objects, and percentiles are estimated from the upper bound of the
+ *  bucket they fall into.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class HXLatencyHistogram {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // HISTOGRAM VARIABLES:
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS); // Number of durations in each bucket.
+    private final HXStripedCounter totalTime = new HXStripedCounter(); // Sum of all durations, in nanoseconds.
+    private final AtomicLong maxTime = new AtomicLong(); // Longest duration, in nanoseconds.
+
+    // CONSTANT VARIABLES:
+    static final int BUCKETS = 40; // Number of buckets. The last bucket holds all durations above 2^38 microseconds.
+
+    /** HISTOGRAM METHODS ______________________________________________________________________ **/
+
+    // record(): Records the specified duration, in nanoseconds. Negative durations are ignored.
+    public void record(long nanos) {
+        if (nanos < 0) {
+            return;
+        }
+
+        int bucket = 64 - Long.numberOfLeadingZeros(nanos / 1000);
+        buckets.getAndIncrement(Math.min(bucket, BUCKETS - 1));
+        totalTime.add(nanos);
+
+        long max = maxTime.get();
+        while (nanos > max && !maxTime.compareAndSet(max, nanos)) {
+            max = maxTime.get();
+        }
+    }
+
+    // reset(): Discards all recorded durations.
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        totalTime.reset();
+        maxTime.set(0);
+    }
+
+    /** GET METHODS ____________________________________________________________________________ **/
+
+    // getCount(): Returns the number of recorded durations.
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += buckets.get(i);
+        }
+        return count;
+    }
+
+    // getTotal(): Returns the sum of all recorded durations, in nanoseconds.
+    public long getTotal() {
+        return totalTime.get();
+    }
+
+    // getMax(): Returns the longest recorded duration, in nanoseconds.
+    public long getMax() {
+        return maxTime.get();
+    }
+
+    // getPercentile(): Returns the estimated duration (in nanoseconds) below which the specified
+    // fraction of durations fall, such as 0.95 for the 95th percentile. Returns 0 if no durations
+    // have been recorded.
+    public long getPercentile(double fraction) {
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            count += counts[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(Math.min(Math.max(fraction, 0), 1) * count);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank && counts[i] > 0) {
+                return Math.min((1L << i) * 1000, getMax());
+            }
+        }
+        return getMax();
+    }
+}
@@ -0,0 +1,197 @@
+package com.huhx0015.hxaudio.metrics;
+
+import com.huhx0015.hxaudio.interfaces.HXMetricsGauge;
+import com.huhx0015.hxaudio.interfaces.HXMetricsSink;
+import com.huhx0015.hxaudio.utils.HXLog;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXMetrics] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXMetrics is the registry of all HXSound and HXMusic metrics. Counters and latency
+ *  histograms are registered by name once and are then updated by the audio engines without
+ *  acquiring any locks, while gauges are read when a snapshot is taken. The registry maps are
+ *  replaced on each registration, so reads never lock. Snapshots of all metrics can be taken with
+ *  snapshot(), or exported periodically to a HXMetricsSink on a low priority background thread.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class HXMetrics {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // REGISTRY VARIABLES:
+    private static volatile HashMap<String, HXStripedCounter> counters = new HashMap<>(); // Registered counters, replaced on each change.
+    private static volatile HashMap<String, HXLatencyHistogram> histograms = new HashMap<>(); // Registered histograms, replaced on each change.
+    private static volatile HashMap<String, HXMetricsGauge> gauges = new HashMap<>(); // Registered gauges, replaced on each change.
+
+    // EXPORT VARIABLES:
+    private static volatile HXMetricsSink metricsSink; // Sink that snapshots are exported to.
+    private static volatile long exportInterval; // Time between exports, in milliseconds.
+    private static Thread exportThread; // Thread that exports the snapshots, or null if not running.
+
+    // SOUND METRIC VARIABLES:
+    public static final String SOUND_PLAYS_REQUESTED = "sound.plays.requested"; // Sound effects requested by the application.
+    public static final String SOUND_PLAYS_PLAYED = "sound.plays.played"; // Sound effects that were played.
+    public static final String SOUND_PLAYS_DROPPED = "sound.plays.dropped"; // Sound effects that were dropped or rejected.
+    public static final String SOUND_PLAYS_DEFERRED = "sound.plays.deferred"; // Sound effects that waited for their sample to load.
+    public static final String SOUND_LOADS = "sound.loads"; // Samples that finished loading.
+    public static final String SOUND_LOADS_FAILED = "sound.loads.failed"; // Samples that failed to load.
+    public static final String SOUND_LOAD_TIME = "sound.load_time"; // Histogram of sample load times.
+    public static final String SOUND_ENGINE = "sound.engine."; // Prefix of the metrics of each HXSoundEngine, followed by its ID.
+    public static final String LIVE_VOICES = ".live_voices"; // Gauge of the live voices of a HXSoundEngine.
+
+    // MUSIC METRIC VARIABLES:
+    public static final String MUSIC_ENGINE = "music."; // Prefix of the metrics of each music engine, followed by "main" or "channel.<name>".
+    public static final String PREPARE_TIME = ".prepare_time"; // Histogram of the prepare times of a music engine.
+    public static final String REBUFFERS = ".rebuffers"; // Number of times streamed music stopped to buffer.
+    public static final String GAPLESS_GAP = ".gapless_gap"; // Histogram of the gaps between looped or queued music.
+
+    // LOGGING VARIABLES:
+    private static final String LOG_TAG = HXMetrics.class.getSimpleName();
+
+    /** REGISTRY METHODS _______________________________________________________________________ **/
+
+    // counter(): Returns the counter with the specified name, registering it if it does not exist.
+    public static HXStripedCounter counter(String name) {
+        HXStripedCounter counter = counters.get(name);
+        if (counter != null) {
+            return counter;
+        }
+
+        synchronized (HXMetrics.class) {
+            counter = counters.get(name);
+            if (counter == null) {
+                HashMap<String, HXStripedCounter> updated = new HashMap<>(counters);
+                counter = new HXStripedCounter();
+                updated.put(name, counter);
+                counters = updated;
+            }
+            return counter;
+        }
+    }
+
+    // histogram(): Returns the latency histogram with the specified name, registering it if it
+    // does not exist.
+    public static HXLatencyHistogram histogram(String name) {
+        HXLatencyHistogram histogram = histograms.get(name);
+        if (histogram != null) {
+            return histogram;
+        }
+
+        synchronized (HXMetrics.class) {
+            histogram = histograms.get(name);
+            if (histogram == null) {
+                HashMap<String, HXLatencyHistogram> updated = new HashMap<>(histograms);
+                histogram = new HXLatencyHistogram();
+                updated.put(name, histogram);
+                histograms = updated;
+            }
+            return histogram;
+        }
+    }
+
+    // gauge(): Registers the specified gauge, replacing any gauge with the same name.
+    public static synchronized void gauge(String name, HXMetricsGauge gauge) {
+        HashMap<String, HXMetricsGauge> updated = new HashMap<>(gauges);
+        updated.put(name, gauge);
+        gauges = updated;
+    }
+
+    // removeGauge(): Unregisters the specified gauge, if it is still registered.
+    public static synchronized void removeGauge(String name, HXMetricsGauge gauge) {
+        if (gauges.get(name) == gauge) {
+            HashMap<String, HXMetricsGauge> updated = new HashMap<>(gauges);
+            updated.remove(name);
+            gauges = updated;
+        }
+    }
+
+    // reset(): Sets all counters and histograms back to 0. Gauges are not affected.
+    public static void reset() {
+        for (HXStripedCounter counter : counters.values()) {
+            counter.reset();
+        }
+        for (HXLatencyHistogram histogram : histograms.values()) {
+            histogram.reset();
+        }
+    }
+
+    /** SNAPSHOT METHODS _______________________________________________________________________ **/
+
+    // snapshot(): Returns a snapshot of all registered metrics.
+    public static HXMetricsSnapshot snapshot() {
+        TreeMap<String, Long> values = new TreeMap<>();
+        for (Map.Entry<String, HXStripedCounter> entry : counters.entrySet()) {
+            values.put(entry.getKey(), entry.getValue().get());
+        }
+        for (Map.Entry<String, HXMetricsGauge> entry : gauges.entrySet()) {
+            values.put(entry.getKey(), entry.getValue().getValue());
+        }
+
+        TreeMap<String, HXMetricsSnapshot.Histogram> summaries = new TreeMap<>();
+        for (Map.Entry<String, HXLatencyHistogram> entry : histograms.entrySet()) {
+            summaries.put(entry.getKey(), new HXMetricsSnapshot.Histogram(entry.getValue()));
+        }
+        return new HXMetricsSnapshot(System.currentTimeMillis(), values, summaries);
+    }
+
+    // export(): Exports a snapshot of all metrics to the HXMetricsSink immediately.
+    public static void export() {
+        HXMetricsSink sink = metricsSink;
+        if (sink != null) {
+            sink.onMetricsSnapshot(snapshot());
+        }
+    }
+
+    /** SET METHODS ____________________________________________________________________________ **/
+
+    // setSink(): Exports a snapshot of all metrics to the specified sink once per interval (in
+    // milliseconds). Setting a null sink stops the exports.
+    public static synchronized void setSink(HXMetricsSink sink, long interval) {
+        metricsSink = sink;
+        exportInterval = Math.max(interval, 1);
+
+        if (sink != null && exportThread == null) {
+            exportThread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    runExports();
+                }
+            }, LOG_TAG);
+            exportThread.setDaemon(true);
+            exportThread.setPriority(Thread.MIN_PRIORITY);
+            exportThread.start();
+        } else if (sink == null && exportThread != null) {
+            exportThread.interrupt();
+            exportThread = null;
+        }
+    }
+
+    /** THREAD METHODS _________________________________________________________________________ **/
+
+    // runExports(): The export loop. Exports a snapshot once per interval until the sink is removed.
+    private static void runExports() {
+        while (true) {
+            try {
+                Thread.sleep(exportInterval);
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            synchronized (HXMetrics.class) {
+                if (exportThread != Thread.currentThread()) {
+                    return;
+                }
+            }
+
+            try {
+                export();
+            } catch (RuntimeException e) {
+                HXLog.e(LOG_TAG, "ERROR: runExports(): The metrics sink failed: {}", e.getLocalizedMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.huhx0015.hxaudio.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXMetricsSnapshot] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXMetricsSnapshot is an immutable copy of all metrics registered in HXMetrics at a
+ *  single point in time. Counters and gauges are stored as values, while latency histograms are
+ *  summarized into their count, mean, percentiles and maximum. Snapshots are delivered to the
+ *  HXMetricsSink and can be converted to JSON with toJson() for shipping to telemetry.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class HXMetricsSnapshot {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // SNAPSHOT VARIABLES:
+    private final long time; // Time the snapshot was taken, from System.currentTimeMillis().
+    private final Map<String, Long> values; // Values of all counters and gauges, sorted by name.
+    private final Map<String, Histogram> histograms; // Summaries of all histograms, sorted by name.
+
+    /** CONSTRUCTOR METHOD _____________________________________________________________________ **/
+
+    // HXMetricsSnapshot(): Constructor method for this class.
+    HXMetricsSnapshot(long time, TreeMap<String, Long> values, TreeMap<String, Histogram> histograms) {
+        this.time = time;
+        this.values = Collections.unmodifiableMap(values);
+        this.histograms = Collections.unmodifiableMap(histograms);
+    }
+
+    /** GET METHODS ____________________________________________________________________________ **/
+
+    // getTime(): Returns the time the snapshot was taken, from System.currentTimeMillis().
+    public long getTime() {
+        return time;
+    }
+
+    // getValue(): Returns the value of the specified counter or gauge, or 0 if it does not exist.
+    public long getValue(String name) {
+        Long value = values.get(name);
+        return value != null ? value : 0;
+    }
+
+    // getValues(): Returns the values of all counters and gauges, sorted by name.
+    public Map<String, Long> getValues() {
+        return values;
+    }
+
+    // getHistogram(): Returns the summary of the specified histogram, or null if it does not exist.
+    public Histogram getHistogram(String name) {
+        return histograms.get(name);
+    }
+
+    // getHistograms(): Returns the summaries of all histograms, sorted by name.
+    public Map<String, Histogram> getHistograms() {
+        return histograms;
+    }
+
+    /** CONVERSION METHODS _____________________________________________________________________ **/
+
+    // toJson(): Returns this snapshot as a JSON object. Histogram durations are in nanoseconds.
+    public String toJson() {
+        StringBuilder builder = new StringBuilder(512);
+        builder.append("{\"time\":").append(time).append(",\"values\":{");
+        boolean isFirst = true;
+        for (Map.Entry<String, Long> entry : values.entrySet()) {
+            builder.append(isFirst ? "\"" : ",\"").append(entry.getKey()).append("\":")
+                    .append(entry.getValue());
+            isFirst = false;
+        }
+
+        builder.append("},\"histograms\":{");
+        isFirst = true;
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            Histogram histogram = entry.getValue();
+            builder.append(isFirst ? "\"" : ",\"").append(entry.getKey())
+                    .append("\":{\"count\":").append(histogram.count)
+                    .append(",\"mean\":").append(histogram.mean)
+                    .append(",\"p50\":").append(histogram.p50)
+                    .append(",\"p95\":").append(histogram.p95)
+                    .append(",\"p99\":").append(histogram.p99)
+                    .append(",\"max\":").append(histogram.max).append('}');
+            isFirst = false;
+        }
+        return builder.append("}}").toString();
+    }
+
+    // toString(): Returns this snapshot as a JSON object.
+    @Override
+    public String toString() {
+        return toJson();
+    }
+
+    /** SUBCLASSES _____________________________________________________________________________ **/
+
+    // Histogram: Summary of a HXLatencyHistogram. All durations are in nanoseconds.
+    public static class Histogram {
+
+        // HISTOGRAM VARIABLES:
+        public final long count; // Number of recorded durations.
+        public final long mean; // Mean duration.
+        public final long p50; // Estimated median duration.
+        public final long p95; // Estimated 95th percentile duration.
+        public final long p99; // Estimated 99th percentile duration.
+        public final long max; // Longest duration.
+
+        // Histogram(): Constructor method for this class.
+        Histogram(HXLatencyHistogram histogram) {
+            this.count = histogram.getCount();
+            this.mean = count > 0 ? histogram.getTotal() / count : 0;
+            this.p50 = histogram.getPercentile(0.5);
+            this.p95 = histogram.getPercentile(0.95);
+            this.p99 = histogram.getPercentile(0.99);
+            this.max = histogram.getMax();
+        }
+    }
+}
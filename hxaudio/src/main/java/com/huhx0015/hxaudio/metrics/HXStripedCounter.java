@@ -0,0 +1,56 @@
+package com.huhx0015.hxaudio.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXStripedCounter] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXStripedCounter is a primitive long counter that is cheap to increment from many
+ *  threads at once. Each thread adds to one of several cells, chosen by its thread ID, and the
+ *  cells are spaced a cache line apart so that the audio threads do not contend for the same
+ *  cache line. Reading the counter sums all cells.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class HXStripedCounter {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // COUNTER VARIABLES:
+    private final AtomicLongArray cells = new AtomicLongArray(STRIPES * CELL_SPACING); // Counter cells, one per stripe.
+
+    // CONSTANT VARIABLES:
+    private static final int STRIPES = 8; // Number of cells. Must be a power of two.
+    private static final int CELL_SPACING = 8; // Distance between cells, in longs (one 64 byte cache line).
+
+    /** COUNTER METHODS ________________________________________________________________________ **/
+
+    // increment(): Adds one to the counter.
+    public void increment() {
+        add(1);
+    }
+
+    // add(): Adds the specified value to the counter.
+    public void add(long value) {
+        int stripe = (int) Thread.currentThread().getId() & (STRIPES - 1);
+        cells.getAndAdd(stripe * CELL_SPACING, value);
+    }
+
+    // reset(): Sets the counter back to 0.
+    public void reset() {
+        for (int i = 0; i < STRIPES; i++) {
+            cells.set(i * CELL_SPACING, 0);
+        }
+    }
+
+    /** GET METHODS ____________________________________________________________________________ **/
+
+    // get(): Returns the current value of the counter.
+    public long get() {
+        long sum = 0;
+        for (int i = 0; i < STRIPES; i++) {
+            sum += cells.get(i * CELL_SPACING);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,589 @@
+package com.huhx0015.hxaudio.mixer;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXMixer] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXMixer is a software mixer that mixes decoded 16-bit PCM samples into interleaved
+ *  stereo 16-bit PCM output. It has no Android dependencies, so that it can be tested and
+ *  benchmarked on the JVM. Voices are controlled from any thread through a preallocated lock-free
+ *  command queue, which is drained by the mixing thread at the start of each mix() call. All voice
+ *  data is stored in preallocated primitive arrays and mix() does not allocate or lock anything.
+ *  Each voice has its own gain and playback rate, and gain changes are ramped over one buffer to
+ *  avoid clicks. Stopped and stolen voices are faded out over one buffer as well.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class HXMixer {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // SAMPLE VARIABLES:
+    private final Object sampleLock = new Object(); // Used for serializing changes to the sample table.
+    private volatile HXMixerSample[] samples = new HXMixerSample[16]; // Decoded samples, indexed by sample ID.
+    private int sampleGeneration; // Generation of the last added sample.
+
+    // VOICE VARIABLES: Only accessed by the mixing thread.
+    private final HXMixerSample[] voiceSamples; // Stores the sample of each voice.
+    private final int[] voiceHandles; // Stores the handle of each voice. 0 marks a free voice.
+    private final int[] voiceSampleIds; // Stores the sample ID of each voice.
+    private final int[] voicePriorities; // Stores the priority of each voice.
+    private final long[] voiceStarts; // Stores the output frame each voice was started at.
+    private final long[] voicePositions; // Stores the playback position of each voice, in 32.32 fixed-point frames.
+    private final long[] voiceSteps; // Stores the playback position increment per output frame of each voice.
+    private final float[] voiceGains; // Stores the current gain of each voice.
+    private final float[] voiceTargetGains; // Stores the gain each voice is ramping towards.
+    private final boolean[] voiceLoops; // Stores the looping attribute of each voice.
+    private final boolean[] voiceStopping; // Stores whether each voice is fading out before being freed.
+    private final int maxVoices; // Maximum number of live voices, not counting voices that are fading out.
+    private final int voiceSlots; // Number of voices, including voices that are fading out.
+    private long outputFrame; // Number of frames mixed so far.
+
+    // COMMAND VARIABLES: Written by any thread, and read by the mixing thread once published.
+    private final AtomicLongArray commandSequences; // Stores the sequence of each command slot, which publishes the slot to the mixing thread or back to the writers.
+    private final AtomicLong commandTail = new AtomicLong(); // Queue position of the next command to be written.
+    private long commandHead; // Queue position of the next command to be processed. Only accessed by the mixing thread.
+    private final int[] commandTypes; // Stores the type of each queued command.
+    private final int[] commandHandles; // Stores the voice handle of each queued command.
+    private final int[] commandSamples; // Stores the sample ID of each queued command.
+    private final int[] commandGenerations; // Stores the sample generation of each queued command.
+    private final float[] commandVolumes; // Stores the volume of each queued command.
+    private final float[] commandRates; // Stores the playback rate of each queued command.
+    private final int[] commandPriorities; // Stores the priority of each queued command.
+    private final boolean[] commandLoops; // Stores the looping attribute of each queued command.
+    private volatile int startedHandle; // Handle of the last play command processed by the mixing thread.
+
+    // MIX VARIABLES:
+    private final float[] mixBuffer; // Preallocated stereo mix accumulation buffer.
+    private final int outputRate; // Sample rate of the mixed output, in Hz.
+    private final int maxFrames; // Maximum number of frames mixed per mix() call.
+
+    // METRIC VARIABLES:
+    private volatile int liveVoices; // Number of live voices after the last mix() call.
+    private final AtomicLong droppedCount = new AtomicLong(); // Number of commands dropped due to a full command queue.
+    private volatile long stolenCount; // Number of voices that were stopped to make room for another voice.
+    private volatile long rejectedCount; // Number of voices that were rejected due to higher priority voices.
+
+    // CONSTANT VARIABLES:
+    public static final int DEFAULT_MAX_VOICES = 32; // Default number of live voices. Adjust this value accordingly.
+    public static final float MIN_RATE = 0.25f; // Minimum playback rate of a voice.
+    public static final float MAX_RATE = 4.0f; // Maximum playback rate of a voice.
+    private static final int COMMAND_CAPACITY = 256; // Number of commands that can be queued between mix() calls. Must be a power of two.
+    private static final int COMMAND_MASK = COMMAND_CAPACITY - 1; // Converts a queue position into a command slot.
+    private static final int FRACTION_BITS = 32; // Number of fractional bits of the voice positions.
+    private static final long FRACTION_MASK = 0xFFFFFFFFL; // Mask of the fractional bits of the voice positions.
+    private static final float FRACTION_SCALE = 1.0f / 4294967296.0f; // Converts the fractional bits into a float.
+    private static final int CMD_PLAY = 1; // Command for playing a voice.
+    private static final int CMD_STOP = 2; // Command for stopping a voice.
+    private static final int CMD_VOLUME = 3; // Command for setting the volume of a voice.
+    private static final int CMD_RATE = 4; // Command for setting the playback rate of a voice.
+    private static final int CMD_LOOP = 5; // Command for setting the looping attribute of a voice.
+    private static final int CMD_STOP_SAMPLE = 6; // Command for stopping all voices of a sample.
+    private static final int CMD_STOP_ALL = 7; // Command for stopping all voices.
+
+    /** CONSTRUCTOR METHOD _____________________________________________________________________ **/
+
+    // HXMixer(): Constructor method for this class.
+    public HXMixer(int outputRate, int maxFrames, int maxVoices) {
+        this.outputRate = outputRate;
+        this.maxFrames = maxFrames;
+        this.maxVoices = maxVoices < 1 ? DEFAULT_MAX_VOICES : maxVoices;
+        this.voiceSlots = this.maxVoices * 2; // Leaves room for a voice to fade out for each live voice.
+
+        this.voiceSamples = new HXMixerSample[voiceSlots];
+        this.voiceHandles = new int[voiceSlots];
+        this.voiceSampleIds = new int[voiceSlots];
+        this.voicePriorities = new int[voiceSlots];
+        this.voiceStarts = new long[voiceSlots];
+        this.voicePositions = new long[voiceSlots];
+        this.voiceSteps = new long[voiceSlots];
+        this.voiceGains = new float[voiceSlots];
+        this.voiceTargetGains = new float[voiceSlots];
+        this.voiceLoops = new boolean[voiceSlots];
+        this.voiceStopping = new boolean[voiceSlots];
+
+        this.commandSequences = new AtomicLongArray(COMMAND_CAPACITY);
+        for (int i = 0; i < COMMAND_CAPACITY; i++) {
+            commandSequences.set(i, i);
+        }
+        this.commandTypes = new int[COMMAND_CAPACITY];
+        this.commandHandles = new int[COMMAND_CAPACITY];
+        this.commandSamples = new int[COMMAND_CAPACITY];
+        this.commandGenerations = new int[COMMAND_CAPACITY];
+        this.commandVolumes = new float[COMMAND_CAPACITY];
+        this.commandRates = new float[COMMAND_CAPACITY];
+        this.commandPriorities = new int[COMMAND_CAPACITY];
+        this.commandLoops = new boolean[COMMAND_CAPACITY];
+
+        this.mixBuffer = new float[maxFrames * 2];
+    }
+
+    /** SAMPLE METHODS _________________________________________________________________________ **/
+
+    // addSample(): Adds the specified 16-bit PCM data as a new sample and returns its sample ID. The
+    // PCM data is not copied, and must not be modified afterwards.
+    public int addSample(short[] data, int length, int channels, int sampleRate) {
+        if (data == null || length <= 0 || channels < 1 || channels > 2 || sampleRate <= 0) {
+            return 0;
+        }
+
+        synchronized (sampleLock) {
+            HXMixerSample sample = new HXMixerSample(data, length, channels, sampleRate, ++sampleGeneration);
+            HXMixerSample[] table = samples;
+            int sampleId = 1;
+            while (sampleId < table.length && table[sampleId] != null) {
+                sampleId++;
+            }
+
+            table = Arrays.copyOf(table, sampleId < table.length ? table.length : table.length * 2);
+            table[sampleId] = sample;
+            samples = table;
+            return sampleId;
+        }
+    }
+
+    // removeSample(): Removes the specified sample and stops all of its voices. Voices of a new
+    // sample that reuses the sample ID are not affected, as the sample generation is checked.
+    public void removeSample(int sampleId) {
+        int generation;
+        synchronized (sampleLock) {
+            HXMixerSample[] table = samples;
+            if (sampleId <= 0 || sampleId >= table.length || table[sampleId] == null) {
+                return;
+            }
+            generation = table[sampleId].generation;
+            table = Arrays.copyOf(table, table.length);
+            table[sampleId] = null;
+            samples = table;
+        }
+
+        queueCommand(CMD_STOP_SAMPLE, 0, sampleId, generation, 0, 0, 0, false);
+    }
+
+    /** VOICE METHODS __________________________________________________________________________ **/
+
+    // play(): Plays the specified sample and returns the handle of its voice, or 0 if the sample does
+    // not exist or the command queue is full. The voice is started on the next mix() call. If all
+    // voices are in use, the oldest lowest priority voice is faded out and replaced, unless its
+    // priority is higher than the specified priority.
+    public int play(int sampleId, float volume, float rate, boolean isLoop, int priority) {
+        HXMixerSample[] table = samples;
+        if (sampleId <= 0 || sampleId >= table.length || table[sampleId] == null) {
+            return 0;
+        }
+
+        long position = queueCommand(CMD_PLAY, 0, sampleId, table[sampleId].generation, volume,
+                rate, priority, isLoop);
+        return position >= 0 ? getHandle(position) : 0;
+    }
+
+    // stop(): Stops the voice of the specified handle.
+    public void stop(int handle) {
+        queueCommand(CMD_STOP, handle, 0, 0, 0, 0, 0, false);
+    }
+
+    // stopAll(): Stops all voices.
+    public void stopAll() {
+        queueCommand(CMD_STOP_ALL, 0, 0, 0, 0, 0, 0, false);
+    }
+
+    // setVolume(): Sets the volume (0.0 to 1.0) of the voice of the specified handle.
+    public void setVolume(int handle, float volume) {
+        queueCommand(CMD_VOLUME, handle, 0, 0, volume, 0, 0, false);
+    }
+
+    // setRate(): Sets the playback rate of the voice of the specified handle.
+    public void setRate(int handle, float rate) {
+        queueCommand(CMD_RATE, handle, 0, 0, 0, rate, 0, false);
+    }
+
+    // setLoop(): Sets the looping attribute of the voice of the specified handle.
+    public void setLoop(int handle, boolean isLoop) {
+        queueCommand(CMD_LOOP, handle, 0, 0, 0, 0, 0, isLoop);
+    }
+
+    /** MIX METHODS ____________________________________________________________________________ **/
+
+    // mix(): Mixes all live voices into the specified buffer as interleaved stereo 16-bit PCM data.
+    // Must only be called from a single mixing thread. Returns the number of frames mixed, which is
+    // limited to the maximum number of frames of this mixer.
+    public int mix(short[] output, int frames) {
+        if (frames > maxFrames) {
+            frames = maxFrames;
+        }
+        if (frames > output.length / 2) {
+            frames = output.length / 2;
+        }
+
+        processCommands();
+
+        float[] mix = mixBuffer;
+        int samplesToMix = frames * 2;
+        Arrays.fill(mix, 0, samplesToMix, 0.0f);
+
+        int active = 0;
+        for (int voice = 0; voice < voiceSlots; voice++) {
+            if (voiceHandles[voice] != 0 && mixVoice(voice, mix, frames)) {
+                active++;
+            }
+        }
+
+        // Converts the mixed output into 16-bit PCM data, clipping values out of range.
+        for (int i = 0; i < samplesToMix; i++) {
+            float value = mix[i];
+            if (value > Short.MAX_VALUE) {
+                value = Short.MAX_VALUE;
+            } else if (value < Short.MIN_VALUE) {
+                value = Short.MIN_VALUE;
+            }
+            output[i] = (short) value;
+        }
+
+        outputFrame += frames;
+        liveVoices = active;
+        return frames;
+    }
+
+    // mixVoice(): Adds the specified voice to the mix buffer, using linear interpolation between
+    // sample frames. Returns false if the voice has ended and has been freed.
+    private boolean mixVoice(int voice, float[] mix, int frames) {
+        HXMixerSample sample = voiceSamples[voice];
+        short[] data = sample.data;
+        int channels = sample.channels;
+        int lastFrame = sample.frames - 1;
+        long end = (long) sample.frames << FRACTION_BITS;
+
+        long position = voicePositions[voice];
+        long step = voiceSteps[voice];
+        boolean isLoop = voiceLoops[voice];
+        float gain = voiceGains[voice];
+        float gainStep = (voiceTargetGains[voice] - gain) / frames;
+
+        for (int i = 0, j = 0; i < frames; i++, j += 2) {
+            if (position >= end) {
+                if (!isLoop) {
+                    freeVoice(voice);
+                    return false;
+                }
+                position %= end;
+            }
+
+            int index = (int) (position >>> FRACTION_BITS);
+            int next = index < lastFrame ? index + 1 : (isLoop ? 0 : index);
+            float fraction = (position & FRACTION_MASK) * FRACTION_SCALE;
+
+            float left;
+            float right;
+            if (channels == 1) {
+                float current = data[index];
+                left = current + (data[next] - current) * fraction;
+                right = left;
+            } else {
+                int a = index * 2;
+                int b = next * 2;
+                float currentLeft = data[a];
+                float currentRight = data[a + 1];
+                left = currentLeft + (data[b] - currentLeft) * fraction;
+                right = currentRight + (data[b + 1] - currentRight) * fraction;
+            }
+
+            mix[j] += left * gain;
+            mix[j + 1] += right * gain;
+            gain += gainStep;
+            position += step;
+        }
+
+        // Voices that have been stopped are freed once they have faded out.
+        if (voiceStopping[voice]) {
+            freeVoice(voice);
+            return false;
+        }
+
+        voicePositions[voice] = position;
+        voiceGains[voice] = voiceTargetGains[voice];
+        return true;
+    }
+
+    /** COMMAND METHODS ________________________________________________________________________ **/
+
+    // queueCommand(): Adds a command to the command queue without acquiring any locks. A writer
+    // claims a queue position by advancing the tail, fills in the slot of that position, and then
+    // publishes it by updating the slot sequence. The handle of a play command is derived from its
+    // queue position. Returns the queue position, or -1 if the command queue is full.
+    private long queueCommand(int type, int handle, int sampleId, int generation, float volume,
+                              float rate, int priority, boolean isLoop) {
+        long position;
+        int slot;
+        while (true) {
+            position = commandTail.get();
+            slot = (int) (position & COMMAND_MASK);
+            long sequence = commandSequences.get(slot);
+            if (sequence == position) {
+                if (commandTail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+            } else if (sequence < position) {
+                droppedCount.incrementAndGet(); // The slot has not been processed since the last lap.
+                return -1;
+            }
+        }
+
+        commandTypes[slot] = type;
+        commandHandles[slot] = type == CMD_PLAY ? getHandle(position) : handle;
+        commandSamples[slot] = sampleId;
+        commandGenerations[slot] = generation;
+        commandVolumes[slot] = volume;
+        commandRates[slot] = rate;
+        commandPriorities[slot] = priority;
+        commandLoops[slot] = isLoop;
+        commandSequences.set(slot, position + 1);
+        return position;
+    }
+
+    // processCommands(): Applies all published commands to the voices, in queue order. Called by
+    // the mixing thread. Stops at the first command that has been claimed but not yet published.
+    private void processCommands() {
+        while (true) {
+            int i = (int) (commandHead & COMMAND_MASK);
+            if (commandSequences.get(i) != commandHead + 1) {
+                return;
+            }
+
+            int handle = commandHandles[i];
+            int voice;
+
+            switch (commandTypes[i]) {
+                case CMD_PLAY:
+                    startVoice(handle, commandSamples[i], commandGenerations[i], commandVolumes[i],
+                            commandRates[i], commandPriorities[i], commandLoops[i]);
+                    startedHandle = handle;
+                    break;
+                case CMD_STOP:
+                    voice = findVoice(handle);
+                    if (voice != -1) {
+                        fadeOutVoice(voice);
+                    }
+                    break;
+                case CMD_VOLUME:
+                    voice = findVoice(handle);
+                    if (voice != -1 && !voiceStopping[voice]) {
+                        voiceTargetGains[voice] = clampVolume(commandVolumes[i]);
+                    }
+                    break;
+                case CMD_RATE:
+                    voice = findVoice(handle);
+                    if (voice != -1) {
+                        voiceSteps[voice] = getStep(voiceSamples[voice], commandRates[i]);
+                    }
+                    break;
+                case CMD_LOOP:
+                    voice = findVoice(handle);
+                    if (voice != -1) {
+                        voiceLoops[voice] = commandLoops[i];
+                    }
+                    break;
+                case CMD_STOP_SAMPLE:
+                    for (voice = 0; voice < voiceSlots; voice++) {
+                        if (voiceHandles[voice] != 0 && voiceSampleIds[voice] == commandSamples[i] &&
+                                voiceSamples[voice].generation == commandGenerations[i]) {
+                            fadeOutVoice(voice);
+                        }
+                    }
+                    break;
+                case CMD_STOP_ALL:
+                    for (voice = 0; voice < voiceSlots; voice++) {
+                        if (voiceHandles[voice] != 0) {
+                            fadeOutVoice(voice);
+                        }
+                    }
+                    break;
+                default:
+                    break;
+            }
+
+            commandSequences.set(i, commandHead + COMMAND_CAPACITY); // Hands the slot back to the writers.
+            commandHead++;
+        }
+    }
+
+    /** HELPER METHODS _________________________________________________________________________ **/
+
+    // startVoice(): Starts a voice for the specified sample. If the maximum number of live voices
+    // has been reached, the oldest lowest priority voice is faded out over one buffer and the new
+    // voice is started in another slot. Play commands for a sample that has since been removed or
+    // replaced are ignored.
+    private void startVoice(int handle, int sampleId, int generation, float volume, float rate,
+                            int priority, boolean isLoop) {
+        HXMixerSample[] table = samples;
+        HXMixerSample sample = sampleId < table.length ? table[sampleId] : null;
+        if (sample == null || sample.generation != generation || sample.frames == 0) {
+            return;
+        }
+
+        int voice = -1;
+        int victim = -1;
+        int fading = -1;
+        int live = 0;
+        for (int i = 0; i < voiceSlots; i++) {
+            if (voiceHandles[i] == 0) {
+                if (voice == -1) {
+                    voice = i;
+                }
+            } else if (voiceStopping[i]) {
+                fading = i;
+            } else {
+                live++;
+                if (victim == -1 || voicePriorities[i] < voicePriorities[victim] ||
+                        (voicePriorities[i] == voicePriorities[victim] && voiceStarts[i] < voiceStarts[victim])) {
+                    victim = i;
+                }
+            }
+        }
+
+        if (live >= maxVoices) {
+            if (voicePriorities[victim] > priority) {
+                rejectedCount++;
+                return;
+            }
+            fadeOutVoice(victim);
+            stolenCount++;
+        }
+
+        // If every slot is in use by voices that are fading out, one of them is cut off instead.
+        if (voice == -1) {
+            voice = fading != -1 ? fading : victim;
+        }
+
+        float gain = clampVolume(volume);
+        voiceSamples[voice] = sample;
+        voiceHandles[voice] = handle;
+        voiceSampleIds[voice] = sampleId;
+        voicePriorities[voice] = priority;
+        voiceStarts[voice] = outputFrame;
+        voicePositions[voice] = 0;
+        voiceSteps[voice] = getStep(sample, rate);
+        voiceGains[voice] = gain;
+        voiceTargetGains[voice] = gain;
+        voiceLoops[voice] = isLoop;
+        voiceStopping[voice] = false;
+    }
+
+    // fadeOutVoice(): Ramps the gain of the specified voice down to 0 over the next buffer, after
+    // which the voice is freed.
+    private void fadeOutVoice(int voice) {
+        voiceTargetGains[voice] = 0.0f;
+        voiceStopping[voice] = true;
+    }
+
+    // findVoice(): Returns the index of the voice with the specified handle, or -1 if the voice has
+    // ended.
+    private int findVoice(int handle) {
+        if (handle == 0) {
+            return -1;
+        }
+        for (int i = 0; i < voiceSlots; i++) {
+            if (voiceHandles[i] == handle) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // freeVoice(): Marks the specified voice as free.
+    private void freeVoice(int voice) {
+        voiceHandles[voice] = 0;
+        voiceSamples[voice] = null;
+        voiceStopping[voice] = false;
+    }
+
+    // getStep(): Returns the playback position increment per output frame for the specified sample
+    // and playback rate, which also converts the sample rate of the sample to the output rate.
+    private long getStep(HXMixerSample sample, float rate) {
+        if (rate < MIN_RATE) {
+            rate = MIN_RATE;
+        } else if (rate > MAX_RATE) {
+            rate = MAX_RATE;
+        }
+        return (long) ((double) rate * sample.sampleRate / outputRate * (1L << FRACTION_BITS));
+    }
+
+    // clampVolume(): Limits the specified volume to the range of 0.0 to 1.0.
+    private static float clampVolume(float volume) {
+        return volume < 0.0f ? 0.0f : (volume > 1.0f ? 1.0f : volume);
+    }
+
+    // getHandle(): Returns the voice handle of the play command at the specified queue position.
+    // Handles follow the queue order and skip 0, which marks a free voice.
+    private static int getHandle(long position) {
+        return (int) (position % 0xFFFFFFFFL + 1);
+    }
+
+    /** GET METHODS ____________________________________________________________________________ **/
+
+    // isPlaying(): Determines if the voice of the specified handle is queued or playing. This method
+    // does not acquire any locks, and reads the voices as of the last mix() call, so a voice that
+    // has just ended may still be reported as playing.
+    public boolean isPlaying(int handle) {
+        if (handle == 0) {
+            return false;
+        }
+
+        // Handles are assigned in order, so a handle after the last started handle is still queued.
+        if (handle - startedHandle > 0) {
+            return true;
+        }
+        for (int i = 0; i < voiceSlots; i++) {
+            if (voiceHandles[i] == handle) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // getLiveVoiceCount(): Returns the number of live voices after the last mix() call.
+    public int getLiveVoiceCount() {
+        return liveVoices;
+    }
+
+    // getMaxVoices(): Returns the maximum number of live voices.
+    public int getMaxVoices() {
+        return maxVoices;
+    }
+
+    // getMaxFrames(): Returns the maximum number of frames mixed per mix() call.
+    public int getMaxFrames() {
+        return maxFrames;
+    }
+
+    // getOutputRate(): Returns the sample rate of the mixed output, in Hz.
+    public int getOutputRate() {
+        return outputRate;
+    }
+
+    // getSampleFrames(): Returns the number of frames of the specified sample, or 0 if the sample
+    // does not exist.
+    public int getSampleFrames(int sampleId) {
+        HXMixerSample[] table = samples;
+        return sampleId > 0 && sampleId < table.length && table[sampleId] != null ?
+                table[sampleId].frames : 0;
+    }
+
+    // getDroppedCount(): Returns the number of commands dropped due to a full command queue.
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    // getStolenCount(): Returns the number of voices that were replaced by another voice.
+    public long getStolenCount() {
+        return stolenCount;
+    }
+
+    // getRejectedCount(): Returns the number of voices that were rejected due to higher priority
+    // voices.
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+}
@@ -0,0 +1,33 @@
+package com.huhx0015.hxaudio.mixer;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXMixerSample] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXMixerSample holds the decoded 16-bit PCM data of a sound effect used by HXMixer.
+ *  Mono and stereo data are supported. Instances are immutable, so that the mixing thread can read
+ *  the PCM data of a sample while the sample is being replaced or removed.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+final class HXMixerSample {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // SAMPLE VARIABLES:
+    final short[] data; // Interleaved 16-bit PCM data.
+    final int channels; // Number of channels (1 or 2).
+    final int frames; // Number of frames of PCM data.
+    final int sampleRate; // Sample rate of the PCM data, in Hz.
+    final int generation; // Distinguishes this sample from other samples added under the same sample ID.
+
+    /** CONSTRUCTOR METHOD _____________________________________________________________________ **/
+
+    // HXMixerSample(): Constructor method for this class.
+    HXMixerSample(short[] data, int length, int channels, int sampleRate, int generation) {
+        this.data = data;
+        this.channels = channels;
+        this.frames = length / channels;
+        this.sampleRate = sampleRate;
+        this.generation = generation;
+    }
+}
@@ -44,11 +44,11 @@ public class HXAudioPlayerUtils {
                 manager.setStreamMute(AudioManager.STREAM_SYSTEM, mode);
             }
         } catch (NullPointerException e) {
-            HXLog.e(LOG_TAG, "ERROR: An null pointer exception occurred while attempting to access the AudioManager: " + e.getLocalizedMessage());
+            HXLog.e(LOG_TAG, "ERROR: An null pointer exception occurred while attempting to access the AudioManager: {}", e.getLocalizedMessage());
         } catch (SecurityException e) {
-            HXLog.e(LOG_TAG, "ERROR: An security exception occurred while attempting to access the AudioManager: " + e.getLocalizedMessage());
+            HXLog.e(LOG_TAG, "ERROR: An security exception occurred while attempting to access the AudioManager: {}", e.getLocalizedMessage());
         } catch (Exception e) {
-            HXLog.e(LOG_TAG, "ERROR: An exception occurred while attempting to access the AudioManager: " + e.getLocalizedMessage());
+            HXLog.e(LOG_TAG, "ERROR: An exception occurred while attempting to access the AudioManager: {}", e.getLocalizedMessage());
         }
     }
 }
\ No newline at end of file
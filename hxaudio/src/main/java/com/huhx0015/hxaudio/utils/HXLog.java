@@ -2,12 +2,17 @@ package com.huhx0015.hxaudio.utils;
 
 import android.util.Log;
 import com.huhx0015.hxaudio.BuildConfig;
+import java.util.HashMap;
 
 /** -----------------------------------------------------------------------------------------------
  *  [HXLog] CLASS
  *  DEVELOPER: Michael Yoon Huh (Huh X0015)
  *  DESCRIPTION: This class contains methods for outputting Log messages. By default, Log messages
- *  are only outputted when the build is in DEBUG mode unless set by setLogging().
+ *  are only outputted when the build is in DEBUG mode unless set by setLogging(). Messages can be
+ *  passed as templates with "{}" placeholders and primitive arguments, which are only formatted
+ *  once the message is known to be logged, so that disabled logging does not allocate. Messages
+ *  below the log level of their tag are dropped. All logging is compiled out of the library when
+ *  the hxaudio.logging Gradle property is set to false.
  *  -----------------------------------------------------------------------------------------------
  */
 
@@ -20,30 +25,192 @@ public class HXLog {
 
     // LOGGING VARIABLES
     private boolean isLogging;
+    private static volatile int defaultLevel = Log.DEBUG; // Minimum level of tags without their own level.
+    private static volatile HashMap<String, Integer> tagLevels = new HashMap<>(); // Minimum level of each tag, replaced on each change.
+
+    // CONSTANT VARIABLES
+    public static final boolean ENABLED = BuildConfig.HXLOG_ENABLED; // Compile-time switch for all logging.
+    public static final int DEBUG = Log.DEBUG; // Level of d() messages.
+    public static final int WARN = Log.WARN; // Level of w() messages.
+    public static final int ERROR = Log.ERROR; // Level of e() messages.
+    public static final int NONE = Integer.MAX_VALUE; // Level that disables all messages of a tag.
+    private static final String PLACEHOLDER = "{}"; // Placeholder for arguments in message templates.
 
     /** LOG METHODS ____________________________________________________________________________ **/
 
     // d(): Outputs a Log.d message if build is DEBUG mode.
     public static void d(String tag, String message) {
-        if (BuildConfig.DEBUG || (hxLog != null && hxLog.isLogging)) {
+        if (isLoggable(tag, DEBUG)) {
             Log.d(tag, message);
         }
     }
 
     // e(): Outputs a Log.e message if build is DEBUG mode.
     public static void e(String tag, String message) {
-        if (BuildConfig.DEBUG || (hxLog != null && hxLog.isLogging)) {
+        if (isLoggable(tag, ERROR)) {
             Log.e(tag, message);
         }
     }
 
     // w(): Outputs a Log.w message if build is DEBUG mode.
     public static void w(String tag, String message) {
-        if (BuildConfig.DEBUG || (hxLog != null && hxLog.isLogging)) {
+        if (isLoggable(tag, WARN)) {
             Log.w(tag, message);
         }
     }
 
+    /** TEMPLATE METHODS _______________________________________________________________________ **/
+
+    // d(): Outputs a Log.d message built from the specified template and argument.
+    public static void d(String tag, String template, int arg) {
+        if (isLoggable(tag, DEBUG)) {
+            Log.d(tag, format(template, String.valueOf(arg), null));
+        }
+    }
+
+    // d(): Outputs a Log.d message built from the specified template and argument.
+    public static void d(String tag, String template, long arg) {
+        if (isLoggable(tag, DEBUG)) {
+            Log.d(tag, format(template, String.valueOf(arg), null));
+        }
+    }
+
+    // d(): Outputs a Log.d message built from the specified template and argument.
+    public static void d(String tag, String template, float arg) {
+        if (isLoggable(tag, DEBUG)) {
+            Log.d(tag, format(template, String.valueOf(arg), null));
+        }
+    }
+
+    // d(): Outputs a Log.d message built from the specified template and argument.
+    public static void d(String tag, String template, Object arg) {
+        if (isLoggable(tag, DEBUG)) {
+            Log.d(tag, format(template, String.valueOf(arg), null));
+        }
+    }
+
+    // d(): Outputs a Log.d message built from the specified template and arguments.
+    public static void d(String tag, String template, int arg1, int arg2) {
+        if (isLoggable(tag, DEBUG)) {
+            Log.d(tag, format(template, String.valueOf(arg1), String.valueOf(arg2)));
+        }
+    }
+
+    // d(): Outputs a Log.d message built from the specified template and arguments.
+    public static void d(String tag, String template, Object arg1, Object arg2) {
+        if (isLoggable(tag, DEBUG)) {
+            Log.d(tag, format(template, String.valueOf(arg1), String.valueOf(arg2)));
+        }
+    }
+
+    // w(): Outputs a Log.w message built from the specified template and argument.
+    public static void w(String tag, String template, int arg) {
+        if (isLoggable(tag, WARN)) {
+            Log.w(tag, format(template, String.valueOf(arg), null));
+        }
+    }
+
+    // w(): Outputs a Log.w message built from the specified template and argument.
+    public static void w(String tag, String template, Object arg) {
+        if (isLoggable(tag, WARN)) {
+            Log.w(tag, format(template, String.valueOf(arg), null));
+        }
+    }
+
+    // w(): Outputs a Log.w message built from the specified template and arguments.
+    public static void w(String tag, String template, int arg1, int arg2) {
+        if (isLoggable(tag, WARN)) {
+            Log.w(tag, format(template, String.valueOf(arg1), String.valueOf(arg2)));
+        }
+    }
+
+    // w(): Outputs a Log.w message built from the specified template and arguments.
+    public static void w(String tag, String template, Object arg1, Object arg2) {
+        if (isLoggable(tag, WARN)) {
+            Log.w(tag, format(template, String.valueOf(arg1), String.valueOf(arg2)));
+        }
+    }
+
+    // e(): Outputs a Log.e message built from the specified template and argument.
+    public static void e(String tag, String template, int arg) {
+        if (isLoggable(tag, ERROR)) {
+            Log.e(tag, format(template, String.valueOf(arg), null));
+        }
+    }
+
+    // e(): Outputs a Log.e message built from the specified template and argument.
+    public static void e(String tag, String template, Object arg) {
+        if (isLoggable(tag, ERROR)) {
+            Log.e(tag, format(template, String.valueOf(arg), null));
+        }
+    }
+
+    // e(): Outputs a Log.e message built from the specified template and arguments.
+    public static void e(String tag, String template, int arg1, int arg2) {
+        if (isLoggable(tag, ERROR)) {
+            Log.e(tag, format(template, String.valueOf(arg1), String.valueOf(arg2)));
+        }
+    }
+
+    // e(): Outputs a Log.e message built from the specified template and arguments.
+    public static void e(String tag, String template, Object arg1, Object arg2) {
+        if (isLoggable(tag, ERROR)) {
+            Log.e(tag, format(template, String.valueOf(arg1), String.valueOf(arg2)));
+        }
+    }
+
+    // e(): Outputs a Log.e message built from the specified template and arguments.
+    public static void e(String tag, String template, int arg1, int arg2, int arg3) {
+        if (isLoggable(tag, ERROR)) {
+            Log.e(tag, format(template, String.valueOf(arg1), String.valueOf(arg2), String.valueOf(arg3)));
+        }
+    }
+
+    /** HELPER METHODS _________________________________________________________________________ **/
+
+    // isLoggable(): Determines if messages of the specified tag and level are outputted. Call sites
+    // that build expensive messages can check this before building them.
+    public static boolean isLoggable(String tag, int level) {
+        if (!ENABLED || !(BuildConfig.DEBUG || (hxLog != null && hxLog.isLogging))) {
+            return false;
+        }
+
+        Integer tagLevel = tagLevels.get(tag);
+        return level >= (tagLevel != null ? tagLevel : defaultLevel);
+    }
+
+    // format(): Replaces the first two "{}" placeholders of the template with the specified
+    // arguments. A null second argument leaves the remaining placeholders untouched.
+    private static String format(String template, String arg1, String arg2) {
+        return format(template, arg1, arg2, null);
+    }
+
+    // format(): Replaces the first three "{}" placeholders of the template with the specified
+    // arguments. A null argument leaves its placeholder and the ones after it untouched.
+    private static String format(String template, String arg1, String arg2, String arg3) {
+        int first = template.indexOf(PLACEHOLDER);
+        if (first < 0) {
+            return template;
+        }
+
+        StringBuilder builder = new StringBuilder(template.length() + 32);
+        builder.append(template, 0, first).append(arg1);
+
+        int next = first + PLACEHOLDER.length();
+        int second = arg2 != null ? template.indexOf(PLACEHOLDER, next) : -1;
+        if (second >= 0) {
+            builder.append(template, next, second).append(arg2);
+            next = second + PLACEHOLDER.length();
+
+            int third = arg3 != null ? template.indexOf(PLACEHOLDER, next) : -1;
+            if (third >= 0) {
+                builder.append(template, next, third).append(arg3);
+                next = third + PLACEHOLDER.length();
+            }
+        }
+        return builder.append(template, next, template.length()).toString();
+    }
+
     /** SET METHODS ____________________________________________________________________________ **/
 
     // setLogging(): Enables or disables logging.
@@ -53,4 +220,18 @@ public class HXLog {
         }
         hxLog.isLogging = isLogged;
     }
-}
\ No newline at end of file
+
+    // setLevel(): Sets the minimum level (DEBUG, WARN, ERROR or NONE) of messages that are
+    // outputted for tags without their own level.
+    public static void setLevel(int level) {
+        defaultLevel = level;
+    }
+
+    // setLevel(): Sets the minimum level (DEBUG, WARN, ERROR or NONE) of messages that are
+    // outputted for the specified tag, such as "HXSoundEngine".
+    public static synchronized void setLevel(String tag, int level) {
+        HashMap<String, Integer> levels = new HashMap<>(tagLevels);
+        levels.put(tag, level);
+        tagLevels = levels;
+    }
+}
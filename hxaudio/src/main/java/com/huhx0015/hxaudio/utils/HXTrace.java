@@ -0,0 +1,256 @@
+package com.huhx0015.hxaudio.utils;
+
+import android.os.Build;
+import android.os.Trace;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXTrace] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXTrace records audio events, such as sound triggers, sample loads and music
+ *  preparation, into a fixed-size ring buffer for diagnosing late sound effects and music gaps.
+ *  Each event stores its System.nanoTime() timestamp, engine ID, resource ID and a value in
+ *  preallocated arrays, so recording does not acquire any locks or allocate any objects; the
+ *  oldest events are overwritten once the buffer is full. Recording is disabled by default, in
+ *  which case each event costs a single volatile read. The recorded timeline can be written as
+ *  Chrome trace JSON with dump(), which can be opened in chrome://tracing or Perfetto, and events
+ *  can also be emitted as android.os.Trace sections for systrace.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class HXTrace {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // TRACE VARIABLES:
+    private static volatile TraceBuffer traceBuffer; // Buffer events are recorded into, or null if disabled.
+    private static volatile boolean isSystemTrace; // Used to determine if events are emitted as android.os.Trace sections.
+
+    // EVENT VARIABLES:
+    public static final int TRIGGER = 0; // A sound effect has been requested. Engine ID is -1.
+    public static final int LOAD_START = 1; // A sound resource has started loading. Value is the sample ID.
+    public static final int LOAD_COMPLETE = 2; // A sound resource has finished loading. Value is the load status.
+    public static final int PLAY = 3; // A sound effect is being played on SoundPool.
+    public static final int STREAM_ID = 4; // SoundPool has returned a stream. Value is the stream ID, or 0 if none.
+    public static final int PREPARE_START = 5; // A music MediaPlayer object has started preparing.
+    public static final int PREPARED = 6; // A music MediaPlayer object has been prepared. Value is the position.
+    public static final int COMPLETION = 7; // A music has completed.
+    public static final int RELEASE = 8; // A SoundPool or music MediaPlayer object has been released.
+
+    // CONSTANT VARIABLES:
+    public static final int MUSIC_ENGINE = 1000; // Engine IDs of HXMusicEngine objects start at this value.
+    public static final int DEFAULT_CAPACITY = 4096; // Default number of events held by the buffer.
+    private static final String[] EVENT_NAMES = { "trigger", "load-start", "load-complete", "play",
+            "stream-id", "prepare-start", "prepared", "completion", "release" };
+    private static final String[] SECTION_NAMES = { "HXAudio:trigger", "HXAudio:load-start",
+            "HXAudio:load-complete", "HXAudio:play", "HXAudio:stream-id", "HXAudio:prepare-start",
+            "HXAudio:prepared", "HXAudio:completion", "HXAudio:release" };
+    private static final int SOUND_PROCESS_ID = 1; // Chrome trace process of sound events.
+    private static final int MUSIC_PROCESS_ID = 2; // Chrome trace process of music events.
+
+    /** TRACE METHODS __________________________________________________________________________ **/
+
+    // enable(): Starts recording events into a ring buffer holding the specified number of events,
+    // which is rounded up to a power of two. Any previously recorded events are discarded.
+    public static void enable(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 16) - 1) << 1;
+        traceBuffer = new TraceBuffer(size);
+    }
+
+    // disable(): Stops recording events and discards all recorded events.
+    public static void disable() {
+        traceBuffer = null;
+    }
+
+    // clear(): Discards all recorded events, keeping the recording enabled.
+    public static void clear() {
+        TraceBuffer buffer = traceBuffer;
+        if (buffer != null) {
+            traceBuffer = new TraceBuffer(buffer.times.length);
+        }
+    }
+
+    // record(): Records the specified event. Safe to call from any thread; concurrent writers
+    // claim separate slots of the buffer.
+    public static void record(int event, int engine, int resource, int value) {
+        TraceBuffer buffer = traceBuffer;
+        if (buffer == null) {
+            return;
+        }
+
+        long index = buffer.cursor.getAndIncrement();
+        int slot = (int) index & buffer.mask;
+
+        // SEQLOCK: The slot is marked as being written, so that dump() skips it until the event
+        // is complete.
+        buffer.sequences.set(slot, 0);
+        buffer.times[slot] = System.nanoTime();
+        buffer.events[slot] = event;
+        buffer.engines[slot] = engine;
+        buffer.resources[slot] = resource;
+        buffer.values[slot] = value;
+        buffer.sequences.set(slot, index + 1);
+
+        // SYSTRACE: Events are emitted as zero-length sections, which appear as markers.
+        if (isSystemTrace && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            Trace.beginSection(SECTION_NAMES[event]);
+            Trace.endSection();
+        }
+    }
+
+    // dump(): Writes all recorded events to the specified Writer in the Chrome trace event JSON
+    // format. Sound and music events are grouped into separate processes, with one thread per
+    // engine. Loads, plays and music preparation are written as async spans, and all other events
+    // as instant events. Events that are being overwritten while dumping are skipped.
+    public static void dump(Writer writer) throws IOException {
+        writer.write("{\"traceEvents\":[");
+        writer.write("{\"name\":\"process_name\",\"ph\":\"M\",\"pid\":" + SOUND_PROCESS_ID +
+                ",\"args\":{\"name\":\"HXSound\"}},");
+        writer.write("{\"name\":\"process_name\",\"ph\":\"M\",\"pid\":" + MUSIC_PROCESS_ID +
+                ",\"args\":{\"name\":\"HXMusic\"}}");
+
+        TraceBuffer buffer = traceBuffer;
+        if (buffer != null) {
+            long end = buffer.cursor.get();
+            long start = Math.max(0, end - buffer.times.length);
+            for (long index = start; index < end; index++) {
+                int slot = (int) index & buffer.mask;
+                if (buffer.sequences.get(slot) != index + 1) {
+                    continue;
+                }
+
+                long time = buffer.times[slot];
+                int event = buffer.events[slot];
+                int engine = buffer.engines[slot];
+                int resource = buffer.resources[slot];
+                int value = buffer.values[slot];
+                if (buffer.sequences.get(slot) != index + 1) {
+                    continue; // The slot has been overwritten while it was being read.
+                }
+
+                writeEvent(writer, time, event, engine, resource, value);
+            }
+        }
+
+        writer.write("]}");
+        writer.flush();
+    }
+
+    /** HELPER METHODS _________________________________________________________________________ **/
+
+    // writeEvent(): Writes a single event as Chrome trace JSON.
+    private static void writeEvent(Writer writer, long time, int event, int engine, int resource,
+                                   int value) throws IOException {
+        String name;
+        String phase;
+        switch (event) {
+            case LOAD_START:
+                name = "load";
+                phase = "b";
+                break;
+            case LOAD_COMPLETE:
+                name = "load";
+                phase = "e";
+                break;
+            case PLAY:
+                name = "play";
+                phase = "b";
+                break;
+            case STREAM_ID:
+                name = "play";
+                phase = "e";
+                break;
+            case PREPARE_START:
+                name = "prepare";
+                phase = "b";
+                break;
+            case PREPARED:
+                name = "prepare";
+                phase = "e";
+                break;
+            default:
+                name = EVENT_NAMES[event];
+                phase = "i";
+                break;
+        }
+
+        int process = engine >= MUSIC_ENGINE ? MUSIC_PROCESS_ID : SOUND_PROCESS_ID;
+
+        StringBuilder builder = new StringBuilder(192);
+        builder.append(",{\"name\":\"").append(name)
+                .append("\",\"cat\":\"hxaudio\",\"ph\":\"").append(phase)
+                .append("\",\"ts\":").append(time / 1000).append('.');
+        long fraction = time % 1000;
+        if (fraction < 100) {
+            builder.append('0');
+        }
+        if (fraction < 10) {
+            builder.append('0');
+        }
+        builder.append(fraction)
+                .append(",\"pid\":").append(process)
+                .append(",\"tid\":").append(engine);
+        if (phase.equals("i")) {
+            builder.append(",\"s\":\"t\"");
+        } else {
+            builder.append(",\"id\":\"").append(engine).append(':').append(resource).append('"');
+        }
+        builder.append(",\"args\":{\"event\":\"").append(EVENT_NAMES[event])
+                .append("\",\"resource\":").append(resource)
+                .append(",\"value\":").append(value).append("}}");
+        writer.write(builder.toString());
+    }
+
+    /** GET METHODS ____________________________________________________________________________ **/
+
+    // isEnabled(): Determines if events are being recorded.
+    public static boolean isEnabled() {
+        return traceBuffer != null;
+    }
+
+    // getEventCount(): Returns the number of events recorded since recording was enabled,
+    // including events that have been overwritten.
+    public static long getEventCount() {
+        TraceBuffer buffer = traceBuffer;
+        return buffer != null ? buffer.cursor.get() : 0;
+    }
+
+    /** SET METHODS ____________________________________________________________________________ **/
+
+    // setSystemTrace(): Enables or disables emitting recorded events as android.os.Trace sections.
+    // Only available for devices running on Android API 18 and above.
+    public static void setSystemTrace(boolean isEnabled) {
+        isSystemTrace = isEnabled;
+    }
+
+    /** SUBCLASSES _____________________________________________________________________________ **/
+
+    // TraceBuffer: Preallocated ring buffer of events. Each slot holds the index of its event plus
+    // one in sequences once the event has been completely written, or 0 while it is being written.
+    private static class TraceBuffer {
+
+        // BUFFER VARIABLES:
+        final AtomicLong cursor = new AtomicLong(); // Index of the next event to be recorded.
+        final AtomicLongArray sequences; // Completed event index plus one of each slot.
+        final long[] times; // Timestamp of each slot, from System.nanoTime().
+        final int[] events; // Event type of each slot.
+        final int[] engines; // Engine ID of each slot.
+        final int[] resources; // Resource ID of each slot.
+        final int[] values; // Event value of each slot.
+        final int mask; // Used for mapping event indexes to slots.
+
+        // TraceBuffer(): Constructor method for this class.
+        TraceBuffer(int capacity) {
+            sequences = new AtomicLongArray(capacity);
+            times = new long[capacity];
+            events = new int[capacity];
+            engines = new int[capacity];
+            resources = new int[capacity];
+            values = new int[capacity];
+            mask = capacity - 1;
+        }
+    }
+}
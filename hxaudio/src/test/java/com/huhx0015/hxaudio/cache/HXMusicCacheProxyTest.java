@@ -0,0 +1,321 @@
+package com.huhx0015.hxaudio.cache;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXMusicCacheProxyTest] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXMusicCacheProxyTest contains JVM unit tests for HXMusicCacheProxy and
+ *  HXMusicDiskCache, covering write-through caching, byte range responses from the cache and from
+ *  a download in progress, and least-recently-used trimming. The origin server is a local HTTP
+ *  server that counts its requests.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class HXMusicCacheProxyTest {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // SERVER VARIABLES:
+    private HttpServer server; // Local origin server of the music.
+    private final AtomicInteger requestCount = new AtomicInteger(); // Number of requests made to the origin server.
+    private volatile int chunkDelay; // Delay between the chunks sent by the origin server, in milliseconds.
+
+    // PROXY VARIABLES:
+    private HXMusicDiskCache diskCache; // Cache of the tested proxy.
+    private HXMusicCacheProxy proxy; // Tested proxy.
+
+    // CONSTANT VARIABLES:
+    private static final int MUSIC_LENGTH = 100 * 1024; // Size of the served music, in bytes.
+    private static final int CHUNK_SIZE = 4096; // Size of the chunks sent by the origin server, in bytes.
+    private static final long CACHE_TIMEOUT = 5000; // Time to wait for music to be cached, in milliseconds.
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    /** SETUP METHODS __________________________________________________________________________ **/
+
+    // setUp(): Starts the origin server and the proxy, with a cache that fits two pieces of music.
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                serveMusic(exchange);
+            }
+        });
+        server.start();
+
+        diskCache = new HXMusicDiskCache(folder.newFolder("music"), MUSIC_LENGTH * 5 / 2);
+        proxy = new HXMusicCacheProxy(diskCache);
+        assertTrue(proxy.start());
+    }
+
+    // tearDown(): Stops the proxy and the origin server.
+    @After
+    public void tearDown() {
+        proxy.stop();
+        server.stop(0);
+    }
+
+    /** WRITE-THROUGH TESTS ____________________________________________________________________ **/
+
+    // writeThroughCachesMusic(): Uncached music is streamed from the origin server and cached, and
+    // is then served from the cache without another origin request.
+    @Test
+    public void writeThroughCachesMusic() throws Exception {
+        String url = getMusicUrl("first");
+
+        Response response = request(url, null);
+        assertEquals(200, response.status);
+        assertArrayEquals(getMusic("first"), response.body);
+        awaitCached(url);
+
+        // The first request is also served from the cache if the download finished before it was
+        // streamed, so only the hits of the second request are counted.
+        long hitCount = diskCache.getHitCount();
+        response = request(url, null);
+        assertEquals(200, response.status);
+        assertArrayEquals(getMusic("first"), response.body);
+        assertEquals(1, requestCount.get());
+        assertEquals(hitCount + 1, diskCache.getHitCount());
+    }
+
+    // uncachedRangeReturnsPartialContent(): An explicit range of uncached music, including a range
+    // from the first byte, is answered with 206 and a Content-Range header.
+    @Test
+    public void uncachedRangeReturnsPartialContent() throws Exception {
+        String url = getMusicUrl("first");
+
+        Response response = request(url, "bytes=0-");
+        assertEquals(206, response.status);
+        assertEquals("bytes 0-" + (MUSIC_LENGTH - 1) + "/" + MUSIC_LENGTH, response.contentRange);
+        assertEquals("bytes", response.acceptRanges);
+        assertArrayEquals(getMusic("first"), response.body);
+    }
+
+    // tailRangeIsServedFromDownload(): A range request near the end of the music, made while the
+    // music is being downloaded, is served from the download instead of the origin server.
+    @Test
+    public void tailRangeIsServedFromDownload() throws Exception {
+        chunkDelay = 5;
+        String url = getMusicUrl("first");
+        HttpURLConnection head = open(url, null);
+        assertEquals(200, head.getResponseCode());
+
+        int start = MUSIC_LENGTH - 1000;
+        Response tail = request(url, "bytes=" + start + "-");
+        assertEquals(206, tail.status);
+        assertEquals("bytes " + start + "-" + (MUSIC_LENGTH - 1) + "/" + MUSIC_LENGTH, tail.contentRange);
+        assertArrayEquals(Arrays.copyOfRange(getMusic("first"), start, MUSIC_LENGTH), tail.body);
+
+        assertArrayEquals(getMusic("first"), readBody(head));
+        awaitCached(url);
+        assertEquals(1, requestCount.get());
+    }
+
+    /** CACHE TESTS ____________________________________________________________________________ **/
+
+    // cachedRangeReturnsPartialContent(): Open-ended and closed ranges of cached music are served
+    // from the cache with 206 and a Content-Range header.
+    @Test
+    public void cachedRangeReturnsPartialContent() throws Exception {
+        String url = getMusicUrl("first");
+        request(url, null);
+        awaitCached(url);
+        byte[] music = getMusic("first");
+
+        Response response = request(url, "bytes=1000-");
+        assertEquals(206, response.status);
+        assertEquals("bytes 1000-" + (MUSIC_LENGTH - 1) + "/" + MUSIC_LENGTH, response.contentRange);
+        assertArrayEquals(Arrays.copyOfRange(music, 1000, MUSIC_LENGTH), response.body);
+
+        response = request(url, "bytes=0-");
+        assertEquals(206, response.status);
+        assertArrayEquals(music, response.body);
+
+        response = request(url, "bytes=10-19");
+        assertEquals(206, response.status);
+        assertEquals("bytes 10-19/" + MUSIC_LENGTH, response.contentRange);
+        assertArrayEquals(Arrays.copyOfRange(music, 10, 20), response.body);
+
+        assertEquals(416, request(url, "bytes=" + MUSIC_LENGTH + "-").status);
+        assertEquals(1, requestCount.get());
+    }
+
+    // trimsLeastRecentlyUsedMusic(): Once the cache exceeds its byte limit, the least recently used
+    // music is deleted, while recently played music is kept.
+    @Test
+    public void trimsLeastRecentlyUsedMusic() throws Exception {
+        String first = getMusicUrl("first");
+        String second = getMusicUrl("second");
+        String third = getMusicUrl("third");
+        request(first, null);
+        awaitCached(first);
+        request(second, null);
+        awaitCached(second);
+
+        request(first, null); // Marks the first music as recently used.
+        request(third, null);
+        awaitCached(third);
+
+        assertTrue(diskCache.contains(first));
+        assertFalse(diskCache.contains(second));
+        assertTrue(diskCache.contains(third));
+        assertEquals(MUSIC_LENGTH * 2, diskCache.getSize());
+        assertEquals(3, requestCount.get());
+    }
+
+    /** SECURITY TESTS _________________________________________________________________________ **/
+
+    // rejectsNonHttpUrl(): Origin URLs that are not http or https URLs are rejected with 400 and are
+    // neither fetched nor cached.
+    @Test
+    public void rejectsNonHttpUrl() throws Exception {
+        String url = folder.newFile("local.mp3").toURI().toString();
+
+        assertEquals(400, request(url, null).status);
+        assertFalse(diskCache.contains(url));
+        assertEquals(0, diskCache.getSize());
+    }
+
+    // rejectsRequestWithoutToken(): Requests that do not carry the session token of the proxy are
+    // rejected with 403 and do not reach the origin server.
+    @Test
+    public void rejectsRequestWithoutToken() throws Exception {
+        String url = getMusicUrl("first");
+        URL proxyUrl = new URL(proxy.getProxyUrl(url));
+        String query = proxyUrl.getFile().substring(proxyUrl.getFile().indexOf('?'));
+        URL tokenlessUrl = new URL("http", proxyUrl.getHost(), proxyUrl.getPort(), "/" + query);
+
+        HttpURLConnection connection = (HttpURLConnection) tokenlessUrl.openConnection();
+        try {
+            assertEquals(403, connection.getResponseCode());
+        } finally {
+            connection.disconnect();
+        }
+        assertEquals(0, requestCount.get());
+    }
+
+    /** HELPER METHODS _________________________________________________________________________ **/
+
+    // serveMusic(): Serves the music named by the request path, in chunks separated by chunkDelay.
+    private void serveMusic(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        byte[] music = getMusic(exchange.getRequestURI().getPath().substring(1));
+        exchange.getResponseHeaders().set("Content-Type", "audio/mpeg");
+        exchange.sendResponseHeaders(200, music.length);
+
+        OutputStream output = exchange.getResponseBody();
+        try {
+            for (int offset = 0; offset < music.length; offset += CHUNK_SIZE) {
+                output.write(music, offset, Math.min(CHUNK_SIZE, music.length - offset));
+                output.flush();
+                if (chunkDelay > 0) {
+                    Thread.sleep(chunkDelay);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            output.close();
+        }
+    }
+
+    // getMusic(): Returns the music of the specified name, which is a byte pattern seeded by the name.
+    private static byte[] getMusic(String name) {
+        byte[] music = new byte[MUSIC_LENGTH];
+        int seed = name.hashCode();
+        for (int i = 0; i < music.length; i++) {
+            music[i] = (byte) (i * 31 + seed + (i >> 8));
+        }
+        return music;
+    }
+
+    // getMusicUrl(): Returns the origin URL of the music of the specified name.
+    private String getMusicUrl(String name) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/" + name;
+    }
+
+    // awaitCached(): Waits until the specified music URL has been cached.
+    private void awaitCached(String url) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + CACHE_TIMEOUT;
+        while (!diskCache.contains(url)) {
+            assertTrue("Music was not cached in time.", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    // open(): Opens a connection to the proxy for the specified music URL and Range header.
+    private HttpURLConnection open(String url, String range) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(proxy.getProxyUrl(url)).openConnection();
+        if (range != null) {
+            connection.setRequestProperty("Range", range);
+        }
+        return connection;
+    }
+
+    // request(): Requests the specified music URL and Range header through the proxy.
+    private Response request(String url, String range) throws IOException {
+        HttpURLConnection connection = open(url, range);
+        try {
+            Response response = new Response();
+            response.status = connection.getResponseCode();
+            response.contentRange = connection.getHeaderField("Content-Range");
+            response.acceptRanges = connection.getHeaderField("Accept-Ranges");
+            response.body = response.status < 400 ? readBody(connection) : new byte[0];
+            return response;
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    // readBody(): Reads the whole response body of the specified connection.
+    private static byte[] readBody(HttpURLConnection connection) throws IOException {
+        InputStream input = connection.getInputStream();
+        try {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            byte[] buffer = new byte[CHUNK_SIZE];
+            int count;
+            while ((count = input.read(buffer)) > 0) {
+                body.write(buffer, 0, count);
+            }
+            return body.toByteArray();
+        } finally {
+            input.close();
+        }
+    }
+
+    /** SUBCLASSES _____________________________________________________________________________ **/
+
+    // Response: A response of the proxy.
+    private static class Response {
+
+        // RESPONSE VARIABLES:
+        int status; // HTTP status code of the response.
+        String contentRange; // Content-Range header of the response, or null.
+        String acceptRanges; // Accept-Ranges header of the response, or null.
+        byte[] body; // Body of the response.
+    }
+}
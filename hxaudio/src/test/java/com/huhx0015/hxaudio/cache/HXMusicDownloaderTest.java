@@ -0,0 +1,334 @@
+package com.huhx0015.hxaudio.cache;
+
+import com.huhx0015.hxaudio.interfaces.HXMusicDownloadListener;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.net.InetSocketAddress;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXMusicDownloaderTest] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXMusicDownloaderTest contains JVM unit tests for HXMusicDownloader, covering
+ *  chunked Range downloads, resuming an interrupted download from its state file, checksum
+ *  verification and bandwidth throttling. The origin server is a local HTTP server that honors
+ *  Range requests and records them.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class HXMusicDownloaderTest {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // SERVER VARIABLES:
+    private HttpServer server; // Local origin server of the music.
+    private final List<String> ranges = new ArrayList<>(); // Range headers received by the origin server.
+    private volatile long failingStart = -1; // Start of the range that the origin server fails, or -1.
+
+    // DOWNLOADER VARIABLES:
+    private HXMusicDiskCache diskCache; // Cache that the music is downloaded into.
+    private HXMusicDownloader downloader; // Tested downloader.
+
+    // CONSTANT VARIABLES:
+    private static final int MUSIC_LENGTH = HXMusicDownloader.CHUNK_SIZE * 2 + 1000; // Size of the music, in three chunks.
+    private static final long DOWNLOAD_TIMEOUT = 10; // Time to wait for a download to end, in seconds.
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    /** SETUP METHODS __________________________________________________________________________ **/
+
+    // setUp(): Starts the origin server and creates the downloader.
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                serveMusic(exchange);
+            }
+        });
+        server.start();
+
+        diskCache = new HXMusicDiskCache(folder.newFolder("music"), MUSIC_LENGTH * 4);
+        downloader = new HXMusicDownloader(diskCache);
+    }
+
+    // tearDown(): Stops the downloader and the origin server.
+    @After
+    public void tearDown() {
+        downloader.stop();
+        server.stop(0);
+    }
+
+    /** DOWNLOAD TESTS _________________________________________________________________________ **/
+
+    // downloadsMusicInChunks(): The music is downloaded with one Range request per chunk, verified
+    // against its checksum and added to the cache.
+    @Test
+    public void downloadsMusicInChunks() throws Exception {
+        String url = getMusicUrl();
+        Result result = download(url, getChecksum(getMusic()));
+
+        assertNull(result.error);
+        assertTrue(result.isComplete);
+        assertArrayEquals(getMusic(), readCachedMusic(url));
+
+        int chunk = HXMusicDownloader.CHUNK_SIZE;
+        List<String> expected = Arrays.asList("bytes=0-0", "bytes=0-" + (chunk - 1),
+                "bytes=" + chunk + "-" + (chunk * 2 - 1), "bytes=" + (chunk * 2) + "-" + (MUSIC_LENGTH - 1));
+        assertEquals(expected.size(), getRanges().size());
+        assertTrue(getRanges().containsAll(expected));
+    }
+
+    // resumesFromStateFile(): A download that failed on its last chunk is resumed by downloading
+    // only the missing chunk, using the completed chunks recorded in the state file.
+    @Test
+    public void resumesFromStateFile() throws Exception {
+        String url = getMusicUrl();
+        int lastChunk = HXMusicDownloader.CHUNK_SIZE * 2;
+        downloader.setConcurrency(1);
+        failingStart = lastChunk;
+
+        Result result = download(url, null);
+        assertNotNull(result.error);
+        assertFalse(diskCache.contains(url));
+
+        failingStart = -1;
+        synchronized (ranges) {
+            ranges.clear();
+        }
+        result = download(url, null);
+
+        assertTrue(result.isComplete);
+        assertArrayEquals(getMusic(), readCachedMusic(url));
+        assertEquals(Arrays.asList("bytes=0-0", "bytes=" + lastChunk + "-" + (MUSIC_LENGTH - 1)), getRanges());
+    }
+
+    // rejectsChecksumMismatch(): Music that does not match its checksum is not cached, and its
+    // partial file is discarded so that it is not resumed.
+    @Test
+    public void rejectsChecksumMismatch() throws Exception {
+        String url = getMusicUrl();
+        Result result = download(url, "00000000000000000000000000000000");
+
+        assertFalse(result.isComplete);
+        assertEquals("Checksum verification failed.", result.error);
+        assertFalse(diskCache.contains(url));
+
+        File partFile = diskCache.beginDownload(url);
+        assertNotNull(partFile);
+        assertFalse(partFile.exists());
+        diskCache.release(url);
+    }
+
+    // throttlesBandwidth(): The download takes at least as long as the bandwidth limit allows.
+    @Test
+    public void throttlesBandwidth() throws Exception {
+        long limit = MUSIC_LENGTH * 2; // Bytes per second, so the download takes about half a second.
+        downloader.setBandwidthLimit(limit);
+
+        long startTime = System.nanoTime();
+        Result result = download(getMusicUrl(), null);
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+
+        assertTrue(result.isComplete);
+        long minimum = (MUSIC_LENGTH - 16 * 1024) * 1000L / limit; // The first buffer is not delayed.
+        assertTrue("Download took " + elapsed + " ms, expected at least " + minimum + " ms.", elapsed >= minimum);
+    }
+
+    // cancelledDownloadCountsTowardCache(): The partial file and state file kept by a cancelled
+    // download count toward the size of the cache, and are deleted once the cache needs the room.
+    @Test
+    public void cancelledDownloadCountsTowardCache() throws Exception {
+        final String url = getMusicUrl();
+        final CountDownLatch progressLatch = new CountDownLatch(1);
+        downloader.setConcurrency(1);
+        downloader.setBandwidthLimit(HXMusicDownloader.CHUNK_SIZE * 2); // Bytes per second.
+        downloader.setListener(new HXMusicDownloadListener() {
+            @Override
+            public void onMusicDownloadProgress(String url, long downloadedBytes, long totalBytes) {
+                if (downloadedBytes >= HXMusicDownloader.CHUNK_SIZE) {
+                    progressLatch.countDown();
+                }
+            }
+
+            @Override
+            public void onMusicDownloadComplete(String url) {}
+
+            @Override
+            public void onMusicDownloadError(String url, String message) {}
+        });
+
+        downloader.download(url, null);
+        assertTrue("Download made no progress in time.", progressLatch.await(DOWNLOAD_TIMEOUT, TimeUnit.SECONDS));
+        downloader.cancel(url);
+
+        // The partial file is counted once the cancelled download has released it.
+        File partFile = awaitPartFile(url);
+        File stateFile = new File(partFile.getPath() + HXMusicDiskCache.STATE_EXTENSION);
+        assertTrue(partFile.length() >= HXMusicDownloader.CHUNK_SIZE);
+        assertTrue(stateFile.exists());
+        assertEquals(partFile.length() + stateFile.length(), diskCache.getSize());
+
+        // A cache reopened on the same directory counts the partial file too, and deletes it when
+        // the partial file does not fit.
+        File cacheDir = partFile.getParentFile();
+        assertEquals(diskCache.getSize(), new HXMusicDiskCache(cacheDir, MUSIC_LENGTH * 4).getSize());
+        assertEquals(0, new HXMusicDiskCache(cacheDir, HXMusicDownloader.CHUNK_SIZE / 2).getSize());
+        assertFalse(partFile.exists());
+        assertFalse(stateFile.exists());
+    }
+
+    /** HELPER METHODS _________________________________________________________________________ **/
+
+    // awaitPartFile(): Waits until the cancelled download of the specified music URL has released
+    // its partial file, and returns the partial file.
+    private File awaitPartFile(String url) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(DOWNLOAD_TIMEOUT);
+        while (true) {
+            File partFile = diskCache.beginDownload(url);
+            if (partFile != null) {
+                diskCache.release(url);
+                return partFile;
+            }
+            assertTrue("Download was not cancelled in time.", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    // download(): Downloads the specified music URL and waits for the download to end.
+    private Result download(String url, String md5) throws InterruptedException {
+        final Result result = new Result();
+        final CountDownLatch latch = new CountDownLatch(1);
+        downloader.setListener(new HXMusicDownloadListener() {
+            @Override
+            public void onMusicDownloadProgress(String url, long downloadedBytes, long totalBytes) {}
+
+            @Override
+            public void onMusicDownloadComplete(String url) {
+                result.isComplete = true;
+                latch.countDown();
+            }
+
+            @Override
+            public void onMusicDownloadError(String url, String message) {
+                result.error = message;
+                latch.countDown();
+            }
+        });
+
+        downloader.download(url, md5);
+        assertTrue("Download did not end in time.", latch.await(DOWNLOAD_TIMEOUT, TimeUnit.SECONDS));
+        return result;
+    }
+
+    // serveMusic(): Serves the requested range of the music, or fails the request if its range
+    // starts at failingStart.
+    private void serveMusic(HttpExchange exchange) throws IOException {
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        synchronized (ranges) {
+            ranges.add(range);
+        }
+
+        byte[] music = getMusic();
+        int start = 0;
+        int end = music.length - 1;
+        if (range != null) {
+            String[] bounds = range.substring("bytes=".length()).split("-");
+            start = Integer.parseInt(bounds[0]);
+            end = Math.min(Integer.parseInt(bounds[1]), end);
+        }
+
+        if (start == failingStart) {
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+            return;
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", "audio/mpeg");
+        if (range != null) {
+            exchange.getResponseHeaders().set("Content-Range", "bytes " + start + "-" + end + "/" + music.length);
+        }
+        exchange.sendResponseHeaders(range != null ? 206 : 200, end - start + 1);
+
+        OutputStream output = exchange.getResponseBody();
+        try {
+            output.write(music, start, end - start + 1);
+        } finally {
+            output.close();
+        }
+    }
+
+    // getMusic(): Returns the served music, which is a fixed byte pattern.
+    private static byte[] getMusic() {
+        byte[] music = new byte[MUSIC_LENGTH];
+        for (int i = 0; i < music.length; i++) {
+            music[i] = (byte) (i * 31 + (i >> 8));
+        }
+        return music;
+    }
+
+    // getChecksum(): Returns the hex encoded MD5 checksum of the specified data.
+    private static String getChecksum(byte[] data) throws Exception {
+        return HXMusicDiskCache.toHex(MessageDigest.getInstance("MD5").digest(data));
+    }
+
+    // getMusicUrl(): Returns the origin URL of the music.
+    private String getMusicUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/music.mp3";
+    }
+
+    // getRanges(): Returns a copy of the Range headers received by the origin server.
+    private List<String> getRanges() {
+        synchronized (ranges) {
+            return new ArrayList<>(ranges);
+        }
+    }
+
+    // readCachedMusic(): Returns the cached data of the specified music URL.
+    private byte[] readCachedMusic(String url) throws IOException {
+        File file = diskCache.get(url);
+        assertNotNull(file);
+
+        RandomAccessFile input = new RandomAccessFile(file, "r");
+        try {
+            byte[] data = new byte[(int) input.length()];
+            input.readFully(data);
+            return data;
+        } finally {
+            input.close();
+        }
+    }
+
+    /** SUBCLASSES _____________________________________________________________________________ **/
+
+    // Result: The result of a download, as reported to the listener.
+    private static class Result {
+
+        // RESULT VARIABLES:
+        volatile boolean isComplete; // Used for determining if the music has been cached.
+        volatile String error; // Reason the download failed, or null.
+    }
+}
@@ -0,0 +1,377 @@
+package com.huhx0015.hxaudio.mixer;
+
+import org.junit.Test;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/** -----------------------------------------------------------------------------------------------
+ *  [HXMixerTest] CLASS
+ *  DEVELOPER: Michael Yoon Huh (Huh X0015)
+ *  DESCRIPTION: HXMixerTest contains JVM unit tests for HXMixer, covering mixing and clipping,
+ *  resampling, voice limits and voice stealing, and the lock-free command queue.
+ *  -----------------------------------------------------------------------------------------------
+ */
+
+public class HXMixerTest {
+
+    /** CLASS VARIABLES ________________________________________________________________________ **/
+
+    // CONSTANT VARIABLES:
+    private static final int OUTPUT_RATE = 44100; // Output sample rate of the tested mixers.
+    private static final int FRAMES = 64; // Number of frames mixed per mix() call.
+
+    /** MIXING TESTS ___________________________________________________________________________ **/
+
+    // mixesVoicesAdditively(): Two voices are summed into both output channels.
+    @Test
+    public void mixesVoicesAdditively() {
+        HXMixer mixer = new HXMixer(OUTPUT_RATE, FRAMES, 4);
+        int first = mixer.addSample(constant(FRAMES * 4, (short) 1000), FRAMES * 4, 1, OUTPUT_RATE);
+        int second = mixer.addSample(constant(FRAMES * 4, (short) 500), FRAMES * 4, 1, OUTPUT_RATE);
+        mixer.play(first, 1.0f, 1.0f, false, 1);
+        mixer.play(second, 1.0f, 1.0f, false, 1);
+
+        short[] output = new short[FRAMES * 2];
+        assertEquals(FRAMES, mixer.mix(output, FRAMES));
+        for (short value : output) {
+            assertEquals(1500, value);
+        }
+        assertEquals(2, mixer.getLiveVoiceCount());
+    }
+
+    // clipsToSixteenBitRange(): Mixed values outside the 16-bit range are clipped, rather than
+    // wrapped around.
+    @Test
+    public void clipsToSixteenBitRange() {
+        HXMixer mixer = new HXMixer(OUTPUT_RATE, FRAMES, 4);
+        int loud = mixer.addSample(constant(FRAMES * 4, (short) 30000), FRAMES * 4, 1, OUTPUT_RATE);
+        int quiet = mixer.addSample(constant(FRAMES * 4, (short) -30000), FRAMES * 4, 1, OUTPUT_RATE);
+
+        mixer.play(loud, 1.0f, 1.0f, false, 1);
+        mixer.play(loud, 1.0f, 1.0f, false, 1);
+        short[] output = new short[FRAMES * 2];
+        mixer.mix(output, FRAMES);
+        assertEquals(Short.MAX_VALUE, output[0]);
+        assertEquals(Short.MAX_VALUE, output[FRAMES * 2 - 1]);
+
+        mixer.stopAll();
+        mixer.mix(output, FRAMES);
+        mixer.play(quiet, 1.0f, 1.0f, false, 1);
+        mixer.play(quiet, 1.0f, 1.0f, false, 1);
+        mixer.mix(output, FRAMES);
+        assertEquals(Short.MIN_VALUE, output[0]);
+        assertEquals(Short.MIN_VALUE, output[FRAMES * 2 - 1]);
+    }
+
+    // playsStereoSamples(): The channels of a stereo sample are kept apart.
+    @Test
+    public void playsStereoSamples() {
+        short[] data = new short[FRAMES * 4];
+        for (int i = 0; i < data.length; i += 2) {
+            data[i] = 100;
+            data[i + 1] = -100;
+        }
+        HXMixer mixer = new HXMixer(OUTPUT_RATE, FRAMES, 4);
+        mixer.play(mixer.addSample(data, data.length, 2, OUTPUT_RATE), 1.0f, 1.0f, false, 1);
+
+        short[] output = new short[FRAMES * 2];
+        mixer.mix(output, FRAMES);
+        for (int i = 0; i < output.length; i += 2) {
+            assertEquals(100, output[i]);
+            assertEquals(-100, output[i + 1]);
+        }
+    }
+
+    // endsNonLoopedVoices(): A non-looped voice is freed once its sample has been played, and the
+    // rest of the buffer is silent.
+    @Test
+    public void endsNonLoopedVoices() {
+        HXMixer mixer = new HXMixer(OUTPUT_RATE, FRAMES, 4);
+        int sample = mixer.addSample(constant(10, (short) 1000), 10, 1, OUTPUT_RATE);
+        int handle = mixer.play(sample, 1.0f, 1.0f, false, 1);
+        assertTrue(mixer.isPlaying(handle));
+
+        short[] output = new short[FRAMES * 2];
+        mixer.mix(output, FRAMES);
+        assertEquals(1000, output[18]);
+        assertEquals(0, output[20]);
+        assertEquals(0, output[FRAMES * 2 - 1]);
+        assertFalse(mixer.isPlaying(handle));
+        assertEquals(0, mixer.getLiveVoiceCount());
+    }
+
+    // loopsLoopedVoices(): A looped voice restarts its sample until it is stopped, and is faded out
+    // over one buffer when stopped.
+    @Test
+    public void loopsLoopedVoices() {
+        HXMixer mixer = new HXMixer(OUTPUT_RATE, FRAMES, 4);
+        int sample = mixer.addSample(constant(10, (short) 1000), 10, 1, OUTPUT_RATE);
+        int handle = mixer.play(sample, 1.0f, 1.0f, true, 1);
+
+        short[] output = new short[FRAMES * 2];
+        mixer.mix(output, FRAMES);
+        mixer.mix(output, FRAMES);
+        assertEquals(1000, output[FRAMES * 2 - 1]);
+        assertTrue(mixer.isPlaying(handle));
+
+        mixer.stop(handle);
+        mixer.mix(output, FRAMES);
+        assertTrue(output[0] > output[FRAMES * 2 - 2]);
+        assertFalse(mixer.isPlaying(handle));
+        mixer.mix(output, FRAMES);
+        assertEquals(0, output[0]);
+    }
+
+    /** RESAMPLING TESTS _______________________________________________________________________ **/
+
+    // resamplesToOutputRate(): A sample at half the output rate advances half a frame per output
+    // frame, interpolating linearly between its frames.
+    @Test
+    public void resamplesToOutputRate() {
+        HXMixer mixer = new HXMixer(OUTPUT_RATE, FRAMES, 4);
+        short[] ramp = ramp(FRAMES * 2, (short) 100);
+        mixer.play(mixer.addSample(ramp, ramp.length, 1, OUTPUT_RATE / 2), 1.0f, 1.0f, false, 1);
+
+        short[] output = new short[FRAMES * 2];
+        mixer.mix(output, FRAMES);
+        assertEquals(0, output[0]);
+        assertEquals(50, output[2]);
+        assertEquals(100, output[4]);
+        assertEquals(150, output[6]);
+    }
+
+    // appliesPlaybackRate(): The playback rate scales the position increment, and is limited to
+    // MAX_RATE.
+    @Test
+    public void appliesPlaybackRate() {
+        HXMixer mixer = new HXMixer(OUTPUT_RATE, FRAMES, 4);
+        short[] ramp = ramp(FRAMES * 8, (short) 10);
+        int sample = mixer.addSample(ramp, ramp.length, 1, OUTPUT_RATE);
+
+        mixer.play(sample, 1.0f, 2.0f, false, 1);
+        short[] output = new short[FRAMES * 2];
+        mixer.mix(output, FRAMES);
+        assertEquals(20, output[2]);
+        assertEquals(40, output[4]);
+
+        mixer.stopAll();
+        mixer.mix(output, FRAMES);
+        mixer.play(sample, 1.0f, 100.0f, false, 1);
+        mixer.mix(output, FRAMES);
+        assertEquals((int) (10 * HXMixer.MAX_RATE), output[2]);
+    }
+
+    /** VOICE LIMIT TESTS ______________________________________________________________________ **/
+
+    // stealsOldestLowestPriorityVoice(): Once the voice limit has been reached, the oldest voice
+    // among the lowest priority voices is replaced.
+    @Test
+    public void stealsOldestLowestPriorityVoice() {
+        HXMixer mixer = new HXMixer(OUTPUT_RATE, FRAMES, 2);
+        int sample = mixer.addSample(constant(FRAMES * 8, (short) 100), FRAMES * 8, 1, OUTPUT_RATE);
+        short[] output = new short[FRAMES * 2];
+
+        int oldest = mixer.play(sample, 1.0f, 1.0f, true, 1);
+        mixer.mix(output, FRAMES);
+        int important = mixer.play(sample, 1.0f, 1.0f, true, 5);
+        mixer.mix(output, FRAMES);
+        int newest = mixer.play(sample, 1.0f, 1.0f, true, 1);
+        mixer.mix(output, FRAMES);
+        mixer.mix(output, FRAMES);
+
+        assertFalse(mixer.isPlaying(oldest));
+        assertTrue(mixer.isPlaying(important));
+        assertTrue(mixer.isPlaying(newest));
+        assertEquals(2, mixer.getLiveVoiceCount());
+        assertEquals(1, mixer.getStolenCount());
+    }
+
+    // rejectsLowerPriorityVoice(): A voice is not started if all voices have a higher priority.
+    @Test
+    public void rejectsLowerPriorityVoice() {
+        HXMixer mixer = new HXMixer(OUTPUT_RATE, FRAMES, 1);
+        int sample = mixer.addSample(constant(FRAMES * 8, (short) 100), FRAMES * 8, 1, OUTPUT_RATE);
+        short[] output = new short[FRAMES * 2];
+
+        int important = mixer.play(sample, 1.0f, 1.0f, true, 5);
+        int rejected = mixer.play(sample, 1.0f, 1.0f, true, 1);
+        mixer.mix(output, FRAMES);
+
+        assertTrue(mixer.isPlaying(important));
+        assertFalse(mixer.isPlaying(rejected));
+        assertEquals(1, mixer.getRejectedCount());
+        assertEquals(0, mixer.getStolenCount());
+        assertEquals(1, mixer.getLiveVoiceCount());
+    }
+
+    // fadesOutStolenVoice(): A stolen voice is ramped down over one buffer instead of being cut off,
+    // while the new voice starts right away.
+    @Test
+    public void fadesOutStolenVoice() {
+        HXMixer mixer = new HXMixer(OUTPUT_RATE, FRAMES, 1);
+        int loud = mixer.addSample(constant(FRAMES * 8, (short) 10000), FRAMES * 8, 1, OUTPUT_RATE);
+        int silent = mixer.addSample(constant(FRAMES * 8, (short) 0), FRAMES * 8, 1, OUTPUT_RATE);
+        short[] output = new short[FRAMES * 2];
+
+        mixer.play(loud, 1.0f, 1.0f, true, 1);
+        mixer.mix(output, FRAMES);
+        int replacement = mixer.play(silent, 1.0f, 1.0f, true, 1);
+        mixer.mix(output, FRAMES);
+
+        assertEquals(10000, output[0]);
+        for (int i = 2; i < output.length; i += 2) {
+            assertTrue(output[i] <= output[i - 2]);
+        }
+        assertTrue(output[FRAMES * 2 - 2] < 10000 / (FRAMES / 2));
+        assertTrue(mixer.isPlaying(replacement));
+        assertEquals(1, mixer.getStolenCount());
+
+        mixer.mix(output, FRAMES);
+        assertEquals(0, output[0]);
+        assertEquals(1, mixer.getLiveVoiceCount());
+    }
+
+    /** SAMPLE TESTS ___________________________________________________________________________ **/
+
+    // ignoresPlaysOfReplacedSample(): A play queued for a sample that was removed before the play
+    // was processed does not start the new sample that reuses its sample ID.
+    @Test
+    public void ignoresPlaysOfReplacedSample() {
+        HXMixer mixer = new HXMixer(OUTPUT_RATE, FRAMES, 4);
+        int removed = mixer.addSample(constant(FRAMES * 8, (short) 100), FRAMES * 8, 1, OUTPUT_RATE);
+        int stale = mixer.play(removed, 1.0f, 1.0f, true, 1);
+        mixer.removeSample(removed);
+        int added = mixer.addSample(constant(FRAMES * 8, (short) 200), FRAMES * 8, 1, OUTPUT_RATE);
+        assertEquals(removed, added);
+        int current = mixer.play(added, 1.0f, 1.0f, true, 1);
+
+        short[] output = new short[FRAMES * 2];
+        mixer.mix(output, FRAMES);
+        assertFalse(mixer.isPlaying(stale));
+        assertTrue(mixer.isPlaying(current));
+        assertEquals(200, output[0]);
+        assertEquals(1, mixer.getLiveVoiceCount());
+    }
+
+    // removeSampleStopsOnlyItsVoices(): Removing a sample fades out its voices, while the voices of
+    // other samples keep playing.
+    @Test
+    public void removeSampleStopsOnlyItsVoices() {
+        HXMixer mixer = new HXMixer(OUTPUT_RATE, FRAMES, 4);
+        int removed = mixer.addSample(constant(FRAMES * 8, (short) 100), FRAMES * 8, 1, OUTPUT_RATE);
+        int kept = mixer.addSample(constant(FRAMES * 8, (short) 200), FRAMES * 8, 1, OUTPUT_RATE);
+        int removedVoice = mixer.play(removed, 1.0f, 1.0f, true, 1);
+        int keptVoice = mixer.play(kept, 1.0f, 1.0f, true, 1);
+        short[] output = new short[FRAMES * 2];
+        mixer.mix(output, FRAMES);
+
+        mixer.removeSample(removed);
+        mixer.mix(output, FRAMES);
+        mixer.mix(output, FRAMES);
+        assertFalse(mixer.isPlaying(removedVoice));
+        assertTrue(mixer.isPlaying(keptVoice));
+        assertEquals(200, output[0]);
+        assertEquals(0, mixer.getSampleFrames(removed));
+    }
+
+    /** COMMAND QUEUE TESTS ____________________________________________________________________ **/
+
+    // dropsCommandsWhenQueueIsFull(): Commands beyond the queue capacity are dropped and counted,
+    // and the queue accepts commands again once it has been drained.
+    @Test
+    public void dropsCommandsWhenQueueIsFull() {
+        HXMixer mixer = new HXMixer(OUTPUT_RATE, FRAMES, 4);
+        int sample = mixer.addSample(constant(FRAMES, (short) 100), FRAMES, 1, OUTPUT_RATE);
+
+        int accepted = 0;
+        for (int i = 0; i < 300; i++) {
+            if (mixer.play(sample, 1.0f, 1.0f, false, 1) != 0) {
+                accepted++;
+            }
+        }
+        assertEquals(256, accepted);
+        assertEquals(300 - 256, mixer.getDroppedCount());
+
+        mixer.mix(new short[FRAMES * 2], FRAMES);
+        assertTrue(mixer.play(sample, 1.0f, 1.0f, false, 1) != 0);
+    }
+
+    // queuesCommandsFromManyThreads(): Commands written by several threads while the mixing thread
+    // drains the queue are all either accepted with a unique handle or counted as dropped.
+    @Test
+    public void queuesCommandsFromManyThreads() throws InterruptedException {
+        final HXMixer mixer = new HXMixer(OUTPUT_RATE, FRAMES, 8);
+        final int sample = mixer.addSample(constant(FRAMES, (short) 100), FRAMES, 1, OUTPUT_RATE);
+        final int threads = 4;
+        final int plays = 20000;
+        final int[][] handles = new int[threads][plays];
+        final AtomicBoolean isMixing = new AtomicBoolean(true);
+
+        Thread mixThread = new Thread() {
+            @Override
+            public void run() {
+                short[] output = new short[FRAMES * 2];
+                while (isMixing.get()) {
+                    mixer.mix(output, FRAMES);
+                }
+            }
+        };
+        mixThread.start();
+
+        Thread[] writers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int[] written = handles[t];
+            writers[t] = new Thread() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < plays; i++) {
+                        written[i] = mixer.play(sample, 0.1f, 1.0f, false, 1);
+                    }
+                }
+            };
+            writers[t].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        isMixing.set(false);
+        mixThread.join();
+
+        Set<Integer> unique = new HashSet<>();
+        int accepted = 0;
+        for (int[] written : handles) {
+            for (int handle : written) {
+                if (handle != 0) {
+                    accepted++;
+                    assertTrue(unique.add(handle));
+                }
+            }
+        }
+        assertEquals((long) threads * plays, accepted + mixer.getDroppedCount());
+    }
+
+    /** HELPER METHODS _________________________________________________________________________ **/
+
+    // constant(): Returns PCM data of the specified length with a constant value.
+    private static short[] constant(int length, short value) {
+        short[] data = new short[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = value;
+        }
+        return data;
+    }
+
+    // ramp(): Returns PCM data of the specified length that increases by the specified step per
+    // frame.
+    private static short[] ramp(int length, short step) {
+        short[] data = new short[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (short) (i * step);
+        }
+        return data;
+    }
+}